@@ -2,6 +2,7 @@ package com.streetfoodgo.config;
 
 import com.streetfoodgo.core.security.JwtAuthenticationFilter;
 import com.streetfoodgo.core.security.LoginNotificationSuccessHandler;
+import com.streetfoodgo.web.api.cart.CartManager;
 import com.streetfoodgo.web.rest.error.RestApiAccessDeniedHandler;
 import com.streetfoodgo.web.rest.error.RestApiAuthenticationEntryPoint;
 
@@ -50,6 +51,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/auth/client-tokens").permitAll()
                         .requestMatchers("/api/v1/auth/login").permitAll()
                         .requestMatchers("/api/v1/stores/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/menu-items/search").permitAll()
                         .requestMatchers("/api/v1/**").authenticated()
                 )
                 .exceptionHandling(exh -> exh
@@ -68,7 +70,9 @@ public class SecurityConfig {
      */
     @Bean
     @Order(2)
-    public SecurityFilterChain uiChain(final HttpSecurity http, final LoginNotificationSuccessHandler successHandler) throws Exception {
+    public SecurityFilterChain uiChain(final HttpSecurity http,
+                                       final LoginNotificationSuccessHandler successHandler,
+                                       final CartManager cartManager) throws Exception {
         http
                 .securityMatcher("/**")
                 .authorizeHttpRequests(auth -> auth
@@ -103,7 +107,11 @@ public class SecurityConfig {
                 .formLogin(form -> form
                         .loginPage("/login")
                         .loginProcessingUrl("/login")
-                        .successHandler(successHandler) // Use custom success handler
+                        // Carry the guest cart over, then the custom success handler
+                        .successHandler((request, response, authentication) -> {
+                            cartManager.mergeGuestCart(request, response, authentication);
+                            successHandler.onAuthenticationSuccess(request, response, authentication);
+                        })
                         .failureUrl("/login?error")
                         .permitAll()
                 )
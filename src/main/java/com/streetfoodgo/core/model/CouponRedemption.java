@@ -0,0 +1,93 @@
+package com.streetfoodgo.core.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One use of a {@link Coupon} by a customer, with the order it was redeemed on.
+ * <p>
+ * {@code useNumber} counts the customer's uses of the coupon (1, 2, ...); the unique key on
+ * (coupon, customer, use number) makes two concurrent redemptions of the same use fail instead of
+ * both passing the per-user limit.
+ */
+@Entity
+@Table(
+        name = "coupon_redemption",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_coupon_redemption_use", columnNames = {"coupon_id", "customer_id", "use_number"})
+        },
+        indexes = {
+                @Index(name = "idx_coupon_redemption_order", columnList = "order_id")
+        }
+)
+public final class CouponRedemption {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "coupon_id", nullable = false, foreignKey = @ForeignKey(name = "fk_coupon_redemption_coupon"))
+    private Coupon coupon;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "customer_id", nullable = false, foreignKey = @ForeignKey(name = "fk_coupon_redemption_customer"))
+    private Person customer;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(name = "fk_coupon_redemption_order"))
+    private Order order;
+
+    @NotNull
+    @Column(name = "use_number", nullable = false)
+    private Integer useNumber;
+
+    @NotNull
+    @Column(name = "discount_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal discountAmount;
+
+    @CreationTimestamp
+    @Column(name = "redeemed_at", nullable = false, updatable = false)
+    private Instant redeemedAt;
+
+    public CouponRedemption() {
+    }
+
+    public CouponRedemption(final Coupon coupon, final Person customer, final Order order,
+                            final Integer useNumber, final BigDecimal discountAmount) {
+        this.coupon = coupon;
+        this.customer = customer;
+        this.order = order;
+        this.useNumber = useNumber;
+        this.discountAmount = discountAmount;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Coupon getCoupon() { return coupon; }
+    public void setCoupon(Coupon coupon) { this.coupon = coupon; }
+
+    public Person getCustomer() { return customer; }
+    public void setCustomer(Person customer) { this.customer = customer; }
+
+    public Order getOrder() { return order; }
+    public void setOrder(Order order) { this.order = order; }
+
+    public Integer getUseNumber() { return useNumber; }
+    public void setUseNumber(Integer useNumber) { this.useNumber = useNumber; }
+
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
+    public Instant getRedeemedAt() { return redeemedAt; }
+    public void setRedeemedAt(Instant redeemedAt) { this.redeemedAt = redeemedAt; }
+}
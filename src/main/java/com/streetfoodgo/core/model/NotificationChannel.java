@@ -0,0 +1,21 @@
+package com.streetfoodgo.core.model;
+
+/**
+ * Channel a notification is delivered through.
+ */
+public enum NotificationChannel {
+    /**
+     * Text message to the recipient's mobile phone.
+     */
+    SMS,
+
+    /**
+     * Email to the recipient's address.
+     */
+    EMAIL,
+
+    /**
+     * Real-time message on a WebSocket topic (the order's tracking page, the store's orders).
+     */
+    WEBSOCKET
+}
@@ -0,0 +1,125 @@
+package com.streetfoodgo.core.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A notification delivery that failed for good (retries exhausted or a permanent error), kept for inspection
+ * and manual resending.
+ */
+@Entity
+@Table(
+        name = "notification_dead_letter",
+        indexes = {
+                @Index(name = "idx_notification_dead_letter_order", columnList = "order_id"),
+                @Index(name = "idx_notification_dead_letter_failed_at", columnList = "failed_at")
+        }
+)
+public final class NotificationDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private NotificationEventType eventType;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false, length = 20)
+    private NotificationChannel channel;
+
+    // Phone number, email address or WebSocket topic
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Size(max = 255)
+    @Column(name = "subject")
+    private String subject;
+
+    @Size(max = 4000)
+    @Column(name = "content", length = 4000)
+    private String content;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Size(max = 1000)
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "failed_at", nullable = false, updatable = false)
+    private Instant failedAt;
+
+    public NotificationDeadLetter() {
+    }
+
+    public NotificationDeadLetter(final NotificationEventType eventType, final NotificationChannel channel,
+                                  final String recipient, final String subject, final String content,
+                                  final Long orderId, final Integer attempts, final String lastError) {
+        this.eventType = eventType;
+        this.channel = channel;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.content = content;
+        this.orderId = orderId;
+        this.attempts = attempts;
+        this.lastError = lastError;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public NotificationEventType getEventType() { return eventType; }
+    public void setEventType(NotificationEventType eventType) { this.eventType = eventType; }
+
+    public NotificationChannel getChannel() { return channel; }
+    public void setChannel(NotificationChannel channel) { this.channel = channel; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public Instant getFailedAt() { return failedAt; }
+    public void setFailedAt(Instant failedAt) { this.failedAt = failedAt; }
+
+    @Override
+    public String toString() {
+        return "NotificationDeadLetter{" +
+                "id=" + id +
+                ", eventType=" + eventType +
+                ", channel=" + channel +
+                ", recipient='" + recipient + '\'' +
+                ", orderId=" + orderId +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.streetfoodgo.core.model;
+
+/**
+ * Kind of a notification, with its delivery priority: lower values are delivered first.
+ */
+public enum NotificationEventType {
+    /**
+     * New order for the store owner; the store is waiting on it.
+     */
+    NEW_ORDER(0),
+
+    /**
+     * Order cancelled by the customer, for the store owner.
+     */
+    ORDER_CANCELLED(1),
+
+    /**
+     * Order accepted by the store, for the customer.
+     */
+    ORDER_ACCEPTED(2),
+
+    /**
+     * Order rejected by the store, for the customer.
+     */
+    ORDER_REJECTED(2),
+
+    /**
+     * Order moved to READY or DELIVERING, for the customer.
+     */
+    ORDER_STATUS_UPDATE(3),
+
+    /**
+     * Order completed, for the customer.
+     */
+    ORDER_COMPLETED(4),
+
+    /**
+     * Promotional message; delivered only when nothing else is waiting.
+     */
+    MARKETING(9);
+
+    private final int priority;
+
+    NotificationEventType(final int priority) {
+        this.priority = priority;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+}
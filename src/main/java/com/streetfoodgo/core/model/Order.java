@@ -66,6 +66,18 @@ public final class Order {
     @Column(name = "delivery_fee", precision = 10, scale = 2)
     private BigDecimal deliveryFee = BigDecimal.ZERO;
 
+    // Store promotions applied to this order, attributed to its items (OrderItem.discountAmount)
+    @Column(name = "promotion_discount", precision = 10, scale = 2)
+    private BigDecimal promotionDiscount = BigDecimal.ZERO;
+
+    // Coupon redeemed with this order (total = subtotal - promotion discount - discount + delivery fee)
+    @Size(max = 50)
+    @Column(name = "coupon_code", length = 50)
+    private String couponCode;
+
+    @Column(name = "discount_amount", precision = 10, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
     // Delivery estimation
     @Column(name = "estimated_delivery_minutes")
     private Integer estimatedDeliveryMinutes;
@@ -190,6 +202,15 @@ public final class Order {
     public BigDecimal getDeliveryFee() { return deliveryFee; }
     public void setDeliveryFee(BigDecimal deliveryFee) { this.deliveryFee = deliveryFee; }
 
+    public BigDecimal getPromotionDiscount() { return promotionDiscount; }
+    public void setPromotionDiscount(BigDecimal promotionDiscount) { this.promotionDiscount = promotionDiscount; }
+
+    public String getCouponCode() { return couponCode; }
+    public void setCouponCode(String couponCode) { this.couponCode = couponCode; }
+
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
     public Integer getEstimatedDeliveryMinutes() { return estimatedDeliveryMinutes; }
     public void setEstimatedDeliveryMinutes(Integer estimatedDeliveryMinutes) { this.estimatedDeliveryMinutes = estimatedDeliveryMinutes; }
 
@@ -278,4 +299,4 @@ public final class Order {
                 ", createdAt=" + createdAt +
                 '}';
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
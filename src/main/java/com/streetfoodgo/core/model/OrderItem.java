@@ -48,6 +48,10 @@ public final class OrderItem {
     @Column(name = "special_instructions", length = 500)
     private String specialInstructions; // e.g., "No onions", "Extra cheese"
 
+    // This line's share of the order's promotion discount (not deducted from getSubtotal())
+    @Column(name = "discount_amount", precision = 10, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
     @OneToMany(mappedBy = "orderItem", cascade = CascadeType.ALL, orphanRemoval = true)
     private java.util.List<OrderItemCustomization> customizations = new java.util.ArrayList<>();
 
@@ -86,6 +90,9 @@ public final class OrderItem {
     public String getSpecialInstructions() { return specialInstructions; }
     public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; }
 
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
     public java.util.List<OrderItemCustomization> getCustomizations() { return customizations; }
     public void setCustomizations(java.util.List<OrderItemCustomization> customizations) { this.customizations = customizations; }
 
@@ -118,4 +125,4 @@ public final class OrderItem {
     public String toString() {
         return "OrderItem{id=" + id + ", quantity=" + quantity + ", price=" + priceAtOrder + '}';
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
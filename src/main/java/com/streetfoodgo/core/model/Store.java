@@ -108,6 +108,33 @@ public final class Store {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    // Rating aggregates: maintained only by StoreRepository.addRating (atomic UPDATE on review insert),
+    // never written from the entity so that store edits cannot overwrite concurrent increments.
+    @Column(name = "rating_count", insertable = false, updatable = false)
+    private Integer ratingCount;
+
+    @Column(name = "rating_sum", insertable = false, updatable = false)
+    private Long ratingSum;
+
+    @Column(name = "rating_1", insertable = false, updatable = false)
+    private Integer rating1;
+
+    @Column(name = "rating_2", insertable = false, updatable = false)
+    private Integer rating2;
+
+    @Column(name = "rating_3", insertable = false, updatable = false)
+    private Integer rating3;
+
+    @Column(name = "rating_4", insertable = false, updatable = false)
+    private Integer rating4;
+
+    @Column(name = "rating_5", insertable = false, updatable = false)
+    private Integer rating5;
+
+    // Menu version: bumped by StoreRepository.incrementMenuVersion on every menu write, never from the entity
+    @Column(name = "menu_version", insertable = false, updatable = false)
+    private Long menuVersion;
+
     // Constructors
     public Store() {}
 
@@ -202,6 +229,25 @@ public final class Store {
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
+    public long getMenuVersion() { return menuVersion == null ? 0L : menuVersion; }
+
+    public int getRatingCount() { return ratingCount == null ? 0 : ratingCount; }
+
+    public long getRatingSum() { return ratingSum == null ? 0L : ratingSum; }
+
+    /**
+     * Number of 1..5 star reviews, index 0 = 1 star.
+     */
+    public int[] getRatingHistogram() {
+        return new int[]{
+                rating1 == null ? 0 : rating1,
+                rating2 == null ? 0 : rating2,
+                rating3 == null ? 0 : rating3,
+                rating4 == null ? 0 : rating4,
+                rating5 == null ? 0 : rating5
+        };
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -227,4 +273,4 @@ public final class Store {
                 ", createdAt=" + createdAt +
                 '}';
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
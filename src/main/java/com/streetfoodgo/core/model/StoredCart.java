@@ -0,0 +1,52 @@
+package com.streetfoodgo.core.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A shopping cart as kept by the database cart store: the encoded cart under its cart key.
+ * <p>
+ * Mapped so the table is managed with the rest of the schema; the store reads and writes it with single
+ * conditional statements (compare-and-set on {@code version}), not through the persistence context.
+ */
+@Entity
+@Table(
+        name = "cart_store",
+        indexes = {
+                @Index(name = "idx_cart_store_updated_at", columnList = "updated_at_ms")
+        }
+)
+public final class StoredCart {
+
+    @Id
+    @Column(name = "cart_key", length = 80)
+    private String cartKey;
+
+    // Only ever increases for a key, also when the cart is cleared or expires
+    @NotNull
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @NotNull
+    @Column(name = "payload", nullable = false, length = 1_000_000)
+    private byte[] payload;
+
+    @NotNull
+    @Column(name = "updated_at_ms", nullable = false)
+    private Long updatedAtMs;
+
+    public StoredCart() {
+    }
+
+    public String getCartKey() { return cartKey; }
+    public void setCartKey(String cartKey) { this.cartKey = cartKey; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public byte[] getPayload() { return payload; }
+    public void setPayload(byte[] payload) { this.payload = payload; }
+
+    public Long getUpdatedAtMs() { return updatedAtMs; }
+    public void setUpdatedAtMs(Long updatedAtMs) { this.updatedAtMs = updatedAtMs; }
+}
@@ -5,9 +5,32 @@ import java.util.List;
 
 /**
  * Port for sending email notifications.
+ * <p>
+ * Sending is asynchronous: "sent successfully" below means accepted for sending (queued), not delivered.
+ * {@link #direct()} gives the same emails sent synchronously, for callers that retry failures themselves.
  */
 public interface EmailPort {
 
+    /**
+     * This port, sending each email on the caller's thread before returning instead of queueing it.
+     * "Sent successfully" then means the provider took it. A failure throws: an {@link IllegalArgumentException}
+     * when the provider refused the email, which sending it again will not change, any other exception when a
+     * later attempt may succeed.
+     *
+     * @return a port that sends synchronously, attempting each email once
+     */
+    EmailPort direct();
+
+    /**
+     * Whether emails to this address are sent at all (a provider may be limited to some domains).
+     *
+     * @param to recipient email address
+     * @return false when every email to {@code to} would be skipped
+     */
+    default boolean accepts(String to) {
+        return to != null && !to.isBlank();
+    }
+
     /**
      * Send a simple text email.
      *
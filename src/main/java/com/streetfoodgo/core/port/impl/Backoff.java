@@ -0,0 +1,22 @@
+package com.streetfoodgo.core.port.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry delays shared by the background senders (emails, notifications).
+ */
+public final class Backoff {
+
+    private Backoff() {
+    }
+
+    /**
+     * Exponential backoff with jitter: a random wait between half and all of {@code baseMillis} x 2^(attempt - 1),
+     * so senders that failed together do not retry together.
+     */
+    public static long jitteredMillis(final long baseMillis, final int attempt) {
+        if (attempt < 1) throw new IllegalArgumentException("attempt must be positive");
+        final long ceiling = baseMillis << Math.min(attempt - 1, 16);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+}
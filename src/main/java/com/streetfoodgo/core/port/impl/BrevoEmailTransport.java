@@ -0,0 +1,95 @@
+package com.streetfoodgo.core.port.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * {@link EmailTransport} over the BREVO REST API (HTTP POST). This sends REAL emails.
+ * <p>
+ * A batch is one request: the first message is the base email and every message (the first included) is one of
+ * its {@code messageVersions}, each with its own recipient, subject and content. Only addresses of the allowed
+ * domain ({@code app.email.allowed-domain}) are sent to. Timeouts, 429 and 5xx answers are transient failures.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.email", name = "transport", havingValue = "brevo", matchIfMissing = true)
+public class BrevoEmailTransport implements EmailTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrevoEmailTransport.class);
+
+    // BREVO API URL
+    private static final String API_URL = "https://api.brevo.com/v3/smtp/email";
+
+    private record Sender(String name, String email) {}
+
+    private record Recipient(String email) {}
+
+    private record Version(List<Recipient> to, String subject, String htmlContent) {}
+
+    private record Payload(Sender sender, String subject, String htmlContent, List<Version> messageVersions) {}
+
+    private final RestTemplate restTemplate;
+    private final Sender sender;
+    private final HttpHeaders headers;
+    private final String allowedSuffix;
+
+    public BrevoEmailTransport(
+            final RestTemplate restTemplate,
+            @Value("${app.email.from:it2023141@hua.gr}") final String senderEmail,
+            @Value("${app.email.sender-name:StreetFoodGo}") final String senderName,
+            @Value("${app.email.api-key:TO_KLEIDI_SOU_EDO}") final String apiKey,
+            @Value("${app.email.allowed-domain:hua.gr}") final String allowedDomain) {
+        if (restTemplate == null) throw new NullPointerException();
+        if (senderEmail == null) throw new NullPointerException();
+        if (apiKey == null) throw new NullPointerException();
+
+        this.restTemplate = restTemplate;
+        this.sender = new Sender(senderName, senderEmail);
+
+        // Same headers for every request
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("api-key", apiKey); // Brevo uses 'api-key' header
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.allowedSuffix = allowedDomain == null || allowedDomain.isBlank() ? null : "@" + allowedDomain;
+    }
+
+    @Override
+    public boolean accepts(final String to) {
+        return EmailTransport.super.accepts(to) && (this.allowedSuffix == null || to.endsWith(this.allowedSuffix));
+    }
+
+    @Override
+    public void send(final List<Message> batch) {
+        if (batch == null) throw new NullPointerException();
+        if (batch.isEmpty()) return;
+
+        final Message base = batch.get(0);
+        final List<Version> versions = batch.stream()
+                .map(m -> new Version(List.of(new Recipient(m.to())), m.subject(), m.htmlContent()))
+                .toList();
+        final Payload payload = new Payload(this.sender, base.subject(), base.htmlContent(), versions);
+
+        try {
+            this.restTemplate.postForEntity(API_URL, new HttpEntity<>(payload, this.headers), String.class);
+            LOGGER.info("✅ SUCCESS: {} email(s) sent via Brevo API", batch.size());
+        } catch (HttpStatusCodeException e) {
+            if (e.getStatusCode().value() == 429 || e.getStatusCode().is5xxServerError()) {
+                throw new TransientFailure("Brevo answered " + e.getStatusCode().value(), e);
+            }
+            throw e;
+        } catch (ResourceAccessException e) {
+            throw new TransientFailure("Brevo unreachable: " + e.getMessage(), e);
+        }
+    }
+}
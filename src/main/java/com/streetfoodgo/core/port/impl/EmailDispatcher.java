@@ -0,0 +1,211 @@
+package com.streetfoodgo.core.port.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends emails in the background: callers only enqueue, so no request or order transaction waits on the provider.
+ * <p>
+ * The queue is bounded ({@code app.email.queue-capacity}); when it is full new emails are dropped and logged
+ * rather than blocking the caller. A few worker threads each take what is queued, up to
+ * {@code app.email.batch-size} messages (waiting up to {@code app.email.batch-linger} for a batch to fill), and
+ * hand it to the {@link EmailTransport} in one call. Transient failures are retried up to
+ * {@code app.email.max-attempts} times with jittered exponential backoff. A batch refused for another reason
+ * (a 4xx) is resent one message at a time, so only the message the provider rejects is dropped.
+ * On shutdown the workers finish what is queued, within {@code app.email.shutdown-timeout}.
+ * <p>
+ * {@link #sendNow} bypasses the queue for callers that have their own queue, retries and dead letters (the
+ * notification email lane).
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final EmailTransport transport;
+    private final BlockingQueue<EmailTransport.Message> queue;
+    private final int workerCount;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Duration shutdownTimeout;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public EmailDispatcher(final EmailTransport transport,
+                           @Value("${app.email.queue-capacity:1000}") final int queueCapacity,
+                           @Value("${app.email.workers:2}") final int workerCount,
+                           @Value("${app.email.batch-size:50}") final int batchSize,
+                           @Value("${app.email.batch-linger:PT0.2S}") final Duration batchLinger,
+                           @Value("${app.email.max-attempts:4}") final int maxAttempts,
+                           @Value("${app.email.retry-backoff:PT1S}") final Duration retryBackoff,
+                           @Value("${app.email.shutdown-timeout:PT10S}") final Duration shutdownTimeout) {
+        if (transport == null) throw new NullPointerException();
+        if (batchLinger == null) throw new NullPointerException();
+        if (retryBackoff == null) throw new NullPointerException();
+        if (shutdownTimeout == null) throw new NullPointerException();
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be positive");
+        if (workerCount <= 0) throw new IllegalArgumentException("workerCount must be positive");
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize must be positive");
+        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts must be positive");
+
+        this.transport = transport;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.lingerNanos = batchLinger.toNanos();
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.running = true;
+        for (int i = 0; i < this.workerCount; i++) {
+            final Thread worker = new Thread(this::work, "email-dispatch-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            this.workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+        final long deadline = System.nanoTime() + this.shutdownTimeout.toNanos();
+        for (final Thread worker : this.workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            worker.interrupt();
+        }
+        if (!this.queue.isEmpty()) LOGGER.warn("{} email(s) not sent at shutdown", this.queue.size());
+        LOGGER.info("Email dispatch: {} sent, {} retried, {} failed, {} dropped",
+                this.sent.sum(), this.retried.sum(), this.failed.sum(), this.dropped.sum());
+    }
+
+    /**
+     * Whether the transport sends to this address at all.
+     */
+    public boolean accepts(final String to) {
+        return this.transport.accepts(to);
+    }
+
+    /**
+     * Queues a message for sending.
+     *
+     * @return false when the queue is full and the message was dropped
+     */
+    public boolean submit(final EmailTransport.Message message) {
+        if (message == null) throw new NullPointerException();
+        if (this.queue.offer(message)) return true;
+        this.dropped.increment();
+        LOGGER.warn("Email queue full, dropped email to {}: {}", message.to(), message.subject());
+        return false;
+    }
+
+    /**
+     * Sends one message right away on the caller's thread, attempting it once, for callers that retry and
+     * dead-letter failures themselves. A refusal other than a transient failure (a 4xx) is thrown as an
+     * {@link IllegalArgumentException}: sending the message again will not change it.
+     *
+     * @throws EmailTransport.TransientFailure when the message may go out if sent again later
+     */
+    public void sendNow(final EmailTransport.Message message) {
+        if (message == null) throw new NullPointerException();
+        try {
+            this.transport.send(List.of(message));
+        } catch (EmailTransport.TransientFailure e) {
+            this.retried.increment();
+            throw e;
+        } catch (RuntimeException e) {
+            this.failed.increment();
+            throw new IllegalArgumentException("Email to " + message.to() + " refused: " + e.getMessage(), e);
+        }
+        this.sent.increment();
+    }
+
+    private void work() {
+        final List<EmailTransport.Message> batch = new ArrayList<>(this.batchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                final EmailTransport.Message first = this.queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - 1);
+
+                // Give a burst the chance to go out as one request
+                final long deadline = System.nanoTime() + this.lingerNanos;
+                while (batch.size() < this.batchSize && this.running) {
+                    final long wait = deadline - System.nanoTime();
+                    if (wait <= 0) break;
+                    final EmailTransport.Message next = this.queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    this.queue.drainTo(batch, this.batchSize - batch.size());
+                }
+
+                deliver(List.copyOf(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(final List<EmailTransport.Message> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                this.transport.send(batch);
+                this.sent.add(batch.size());
+                return;
+            } catch (EmailTransport.TransientFailure e) {
+                if (attempt == this.maxAttempts) {
+                    this.failed.add(batch.size());
+                    LOGGER.error("❌ Failed to send {} email(s) after {} attempts: {}", batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                this.retried.add(batch.size());
+                LOGGER.warn("Sending {} email(s) failed (attempt {}), retrying: {}", batch.size(), attempt, e.getMessage());
+                Thread.sleep(Backoff.jitteredMillis(this.retryBackoffMillis, attempt));
+            } catch (RuntimeException e) {
+                if (batch.size() > 1) {
+                    // A rejected batch may be one bad message: resend one by one so only that one is lost
+                    LOGGER.warn("Sending {} emails was rejected, resending them one by one: {}", batch.size(), e.getMessage());
+                    for (final EmailTransport.Message message : batch) {
+                        deliver(List.of(message));
+                    }
+                    return;
+                }
+                this.failed.increment();
+                LOGGER.error("❌ Failed to send email to {}: {}", batch.get(0).to(), e.getMessage());
+                return;
+            }
+        }
+    }
+}
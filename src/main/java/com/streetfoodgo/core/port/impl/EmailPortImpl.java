@@ -3,213 +3,177 @@ package com.streetfoodgo.core.port.impl;
 import com.streetfoodgo.core.port.EmailPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.math.RoundingMode;
 
 /**
- * Implementation of EmailPort using BREVO REST API (HTTP POST).
- * This sends REAL emails and satisfies the 3rd external service requirement.
+ * Implementation of EmailPort: renders the email from a precompiled template and queues it on the
+ * {@link EmailDispatcher}, which sends it in the background through the configured {@link EmailTransport}
+ * (the BREVO REST API by default, which sends REAL emails). The {@link #direct()} port renders the same emails
+ * and has the dispatcher send them right away instead.
  */
 @Component
 public class EmailPortImpl implements EmailPort {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailPortImpl.class);
 
-    private static final boolean ACTIVE = true;
-
-    // BREVO API URL
-    private static final String API_URL = "https://api.brevo.com/v3/smtp/email";
-
-    private final RestTemplate restTemplate;
-    private final String senderEmail;
-    private final String senderName;
-    private final String apiKey;
-
-    public EmailPortImpl(
-            final RestTemplate restTemplate,
-            // ΠΡΟΣΟΧΗ: Εδώ βάλε το email που δήλωσες στο Brevo
-            @Value("${app.email.from:it2023141@hua.gr}") final String senderEmail,
-            @Value("${app.email.sender-name:StreetFoodGo}") final String senderName,
-            // ΠΡΟΣΟΧΗ: Βάλε το κλειδί σου στο application.yml ή εδώ προσωρινά για δοκιμή
-            @Value("${app.email.api-key:TO_KLEIDI_SOU_EDO}") final String apiKey) {
-
-        this.restTemplate = restTemplate;
-        this.senderEmail = senderEmail;
-        this.senderName = senderName;
-        this.apiKey = apiKey;
-    }
+    private static final EmailTemplate VERIFICATION = EmailTemplate.compile("""
+            <!DOCTYPE html>
+            <html>
+            <body style="font-family: Arial, sans-serif; padding: 20px;">
+                <h2 style="color: #ff6b35;">Hello {{firstName}}!</h2>
+                <p>Welcome to StreetFoodGo! Please verify your email address to get started.</p>
+                <div style="margin: 20px 0;">
+                    <a href="{{url}}" style="background-color: #ff6b35; color: white; padding: 10px 20px; text-decoration: none; border-radius: 5px;">Verify Email Address</a>
+                </div>
+                <p style="font-size: 12px; color: #666;">Or copy this link: {{url}}</p>
+            </body>
+            </html>
+            """, "firstName", "url");
+
+    private static final EmailTemplate ORDER_CONFIRMATION = EmailTemplate.compile("""
+            <html><body>
+                <h1 style="color: #ff6b35;">Order Confirmed!</h1>
+                <p>Hi {{customerName}}, your order #{{orderId}} from <strong>{{storeName}}</strong> has been received.</p>
+                <p><strong>Total:</strong> €{{total}}</p>
+                <p>Type: {{orderType}}</p>
+            </body></html>
+            """, "customerName", "orderId", "storeName", "total", "orderType");
+
+    private static final EmailTemplate ORDER_ACCEPTED = EmailTemplate.compile("""
+            <html><body>
+                <h1 style="color: #28a745;">Order Accepted!</h1>
+                <p>Store <strong>{{storeName}}</strong> is preparing your order #{{orderId}}.</p>
+                <p>Estimated time: <strong>{{time}}</strong></p>
+            </body></html>
+            """, "storeName", "orderId", "time");
+
+    private static final EmailTemplate ORDER_REJECTED = EmailTemplate.compile("""
+            <html><body>
+                <h1 style="color: #dc3545;">Order Rejected</h1>
+                <p>Sorry {{customerName}}, store {{storeName}} could not accept order #{{orderId}}.</p>
+                <p>Reason: <strong>{{reason}}</strong></p>
+            </body></html>
+            """, "customerName", "storeName", "orderId", "reason");
+
+    private static final EmailTemplate ORDER_STATUS = EmailTemplate.compile("""
+            <html><body>
+                <h1>Status Update</h1>
+                <p>Order #{{orderId}} is now: <strong>{{status}}</strong></p>
+            </body></html>
+            """, "orderId", "status");
+
+    private static final EmailTemplate NEW_ORDER = EmailTemplate.compile("""
+            <html><body>
+                <h1>New Order!</h1>
+                <p>Owner {{ownerName}}, you have a new order #{{orderId}} from {{customerName}}.</p>
+                <p>Items: {{itemCount}} | Total: €{{total}} | Type: {{orderType}}</p>
+            </body></html>
+            """, "ownerName", "orderId", "customerName", "itemCount", "total", "orderType");
 
     /**
-     * Helper method to send email via Brevo API.
+     * The same emails, sent on the caller's thread instead of queued.
      */
-    private boolean sendViaApi(String to, String subject, String htmlContent) {
-        // 1. FILTER: Only allow emails to @hua.gr addresses
-        if (to == null || !to.endsWith("@hua.gr")) {
-            LOGGER.warn("⛔ Skipped email to non-HUA address: {}", to);
-            return false;
+    private static final class Direct extends EmailPortImpl {
+
+        private final EmailDispatcher dispatcher;
+
+        Direct(final EmailDispatcher dispatcher) {
+            super(dispatcher);
+            this.dispatcher = dispatcher;
         }
 
-        if (!ACTIVE) {
-            LOGGER.info("📧 [MOCK API CALL] To: {} | Subject: {}", to, subject);
+        @Override
+        boolean deliver(final EmailTransport.Message message) {
+            this.dispatcher.sendNow(message);
             return true;
         }
+    }
 
-        try {
-            // 2. Prepare Headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("api-key", apiKey); // Brevo uses 'api-key' header
-
-            // 3. Prepare Payload (Brevo JSON Format)
-            // {
-            //   "sender": { "name": "...", "email": "..." },
-            //   "to": [ { "email": "..." } ],
-            //   "subject": "...",
-            //   "htmlContent": "..."
-            // }
-
-            Map<String, Object> senderMap = new HashMap<>();
-            senderMap.put("name", senderName);
-            senderMap.put("email", senderEmail);
-
-            Map<String, String> recipientMap = new HashMap<>();
-            recipientMap.put("email", to);
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("sender", senderMap);
-            body.put("to", Collections.singletonList(recipientMap));
-            body.put("subject", subject);
-            body.put("htmlContent", htmlContent);
-
-            // 4. Execute HTTP POST
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-            restTemplate.postForEntity(API_URL, request, String.class);
-
-            LOGGER.info("✅ SUCCESS: Email sent via Brevo API to {}", to);
-            return true;
+    private final EmailDispatcher dispatcher;
+    private final EmailPortImpl direct;
+
+    public EmailPortImpl(final EmailDispatcher dispatcher) {
+        if (dispatcher == null) throw new NullPointerException();
+        this.dispatcher = dispatcher;
+        this.direct = this instanceof Direct ? this : new Direct(dispatcher);
+    }
+
+    @Override
+    public EmailPort direct() {
+        return this.direct;
+    }
+
+    @Override
+    public boolean accepts(final String to) {
+        return this.dispatcher.accepts(to);
+    }
 
-        } catch (Exception e) {
-            LOGGER.error("❌ Failed to send email via Brevo to {}: {}", to, e.getMessage());
-            // Tip: Check if API Key is correct
+    /**
+     * Queues the email, or sends it now on the direct port; the transport decides which addresses it sends to
+     * at all.
+     */
+    private boolean enqueue(final String to, final String subject, final String htmlContent) {
+        if (!this.dispatcher.accepts(to)) {
+            LOGGER.warn("⛔ Skipped email to address not allowed by the transport: {}", to);
             return false;
         }
+        return deliver(new EmailTransport.Message(to, subject, htmlContent));
+    }
+
+    boolean deliver(final EmailTransport.Message message) {
+        return this.dispatcher.submit(message);
     }
 
     @Override
     public boolean sendEmail(final String to, final String subject, final String body) {
         // Wrap plain text in simple HTML
-        String htmlBody = "<html><body><p>" + body.replace("\n", "<br>") + "</p></body></html>";
-        return sendViaApi(to, subject, htmlBody);
+        final String htmlBody = "<html><body><p>" + EmailTemplate.escape(body).replace("\n", "<br>") + "</p></body></html>";
+        return enqueue(to, subject, htmlBody);
     }
 
     @Override
     public boolean sendHtmlEmail(final String to, final String subject, final String htmlBody) {
-        return sendViaApi(to, subject, htmlBody);
+        return enqueue(to, subject, htmlBody);
     }
 
     @Override
     public boolean sendVerificationEmail(final String to, final String firstName, final String verificationUrl) {
-        final String subject = "Verify Your Email - StreetFoodGo";
-
-        final String htmlBody = String.format("""
-                <!DOCTYPE html>
-                <html>
-                <body style="font-family: Arial, sans-serif; padding: 20px;">
-                    <h2 style="color: #ff6b35;">Hello %s!</h2>
-                    <p>Welcome to StreetFoodGo! Please verify your email address to get started.</p>
-                    <div style="margin: 20px 0;">
-                        <a href="%s" style="background-color: #ff6b35; color: white; padding: 10px 20px; text-decoration: none; border-radius: 5px;">Verify Email Address</a>
-                    </div>
-                    <p style="font-size: 12px; color: #666;">Or copy this link: %s</p>
-                </body>
-                </html>
-                """, firstName, verificationUrl, verificationUrl);
-
-        return sendHtmlEmail(to, subject, htmlBody);
+        return enqueue(to, "Verify Your Email - StreetFoodGo", VERIFICATION.render(firstName, verificationUrl));
     }
 
     @Override
     public boolean sendOrderConfirmationEmail(String to, String customerName, Long orderId, String storeName, BigDecimal total, String orderType) {
-        final String subject = "Order Confirmation #" + orderId;
-        final String htmlBody = String.format("""
-                <html><body>
-                    <h1 style="color: #ff6b35;">Order Confirmed!</h1>
-                    <p>Hi %s, your order #%d from <strong>%s</strong> has been received.</p>
-                    <p><strong>Total:</strong> €%.2f</p>
-                    <p>Type: %s</p>
-                </body></html>
-                """, customerName, orderId, storeName, total, orderType);
-
-        return sendHtmlEmail(to, subject, htmlBody);
+        return enqueue(to, "Order Confirmation #" + orderId,
+                ORDER_CONFIRMATION.render(customerName, orderId, storeName, money(total), orderType));
     }
 
     @Override
     public boolean sendOrderAcceptedEmail(String to, String customerName, Long orderId, String storeName, Integer estimatedMinutes) {
-        final String subject = "Order Accepted! #" + orderId;
-        String timeInfo = estimatedMinutes != null ? estimatedMinutes + " minutes" : "soon";
-
-        final String htmlBody = String.format("""
-                <html><body>
-                    <h1 style="color: #28a745;">Order Accepted!</h1>
-                    <p>Store <strong>%s</strong> is preparing your order #%d.</p>
-                    <p>Estimated time: <strong>%s</strong></p>
-                </body></html>
-                """, storeName, orderId, timeInfo);
-
-        return sendHtmlEmail(to, subject, htmlBody);
+        final String timeInfo = estimatedMinutes != null ? estimatedMinutes + " minutes" : "soon";
+        return enqueue(to, "Order Accepted! #" + orderId, ORDER_ACCEPTED.render(storeName, orderId, timeInfo));
     }
 
     @Override
     public boolean sendOrderRejectedEmail(String to, String customerName, Long orderId, String storeName, String rejectionReason) {
-        final String subject = "Order Rejected - #" + orderId;
-
-        final String htmlBody = String.format("""
-                <html><body>
-                    <h1 style="color: #dc3545;">Order Rejected</h1>
-                    <p>Sorry %s, store %s could not accept order #%d.</p>
-                    <p>Reason: <strong>%s</strong></p>
-                </body></html>
-                """, customerName, storeName, orderId, rejectionReason);
-
-        return sendHtmlEmail(to, subject, htmlBody);
+        return enqueue(to, "Order Rejected - #" + orderId,
+                ORDER_REJECTED.render(customerName, storeName, orderId, rejectionReason));
     }
 
     @Override
     public boolean sendOrderStatusUpdateEmail(String to, String customerName, Long orderId, String storeName, String newStatus) {
-        final String subject = "Order Update #" + orderId;
-
-        final String htmlBody = String.format("""
-                <html><body>
-                    <h1>Status Update</h1>
-                    <p>Order #%d is now: <strong>%s</strong></p>
-                </body></html>
-                """, orderId, newStatus);
-
-        return sendHtmlEmail(to, subject, htmlBody);
+        return enqueue(to, "Order Update #" + orderId, ORDER_STATUS.render(orderId, newStatus));
     }
 
     @Override
     public boolean sendNewOrderNotificationEmail(String to, String ownerName, Long orderId, String customerName, int itemCount, BigDecimal total, String orderType) {
-        final String subject = "New Order Received! #" + orderId;
-
-        final String htmlBody = String.format("""
-                <html><body>
-                    <h1>New Order!</h1>
-                    <p>Owner %s, you have a new order #%d from %s.</p>
-                    <p>Items: %d | Total: €%.2f | Type: %s</p>
-                </body></html>
-                """, ownerName, orderId, customerName, itemCount, total, orderType);
+        return enqueue(to, "New Order Received! #" + orderId,
+                NEW_ORDER.render(ownerName, orderId, customerName, itemCount, money(total), orderType));
+    }
 
-        return sendHtmlEmail(to, subject, htmlBody);
+    private static String money(final BigDecimal amount) {
+        return amount == null ? "0.00" : amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
     }
 }
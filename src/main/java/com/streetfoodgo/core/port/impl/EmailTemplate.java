@@ -0,0 +1,84 @@
+package com.streetfoodgo.core.port.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HTML email template compiled once: the source is split at its {@code {{name}}} placeholders into literal
+ * segments, so rendering is a single pass of appends with no parsing or format-string interpretation.
+ * Values are HTML-escaped.
+ */
+final class EmailTemplate {
+
+    private final String[] literals;  // literals[i] comes before placeholder i; the last one closes the template
+    private final int[] slots;        // the parameter index of each placeholder
+    private final int parameterCount;
+    private final int literalLength;
+
+    private EmailTemplate(final String[] literals, final int[] slots, final int parameterCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.parameterCount = parameterCount;
+        this.literalLength = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+
+    /**
+     * Compiles {@code source}, whose placeholders must be among {@code parameters}; {@link #render} takes the
+     * values in the order of {@code parameters}.
+     *
+     * @throws IllegalArgumentException on an unknown or unterminated placeholder
+     */
+    static EmailTemplate compile(final String source, final String... parameters) {
+        if (source == null) throw new NullPointerException();
+        final List<String> names = List.of(parameters);
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+        int from = 0;
+        for (int open = source.indexOf("{{"); open >= 0; open = source.indexOf("{{", from)) {
+            final int close = source.indexOf("}}", open);
+            if (close < 0) throw new IllegalArgumentException("Unterminated placeholder at " + open);
+            final int slot = names.indexOf(source.substring(open + 2, close).trim());
+            if (slot < 0) throw new IllegalArgumentException("Unknown placeholder: " + source.substring(open, close + 2));
+            literals.add(source.substring(from, open));
+            slots.add(slot);
+            from = close + 2;
+        }
+        literals.add(source.substring(from));
+        return new EmailTemplate(literals.toArray(String[]::new), slots.stream().mapToInt(Integer::intValue).toArray(),
+                names.size());
+    }
+
+    String render(final Object... values) {
+        if (values.length != this.parameterCount) {
+            throw new IllegalArgumentException("Expected " + this.parameterCount + " values, got " + values.length);
+        }
+        final StringBuilder html = new StringBuilder(this.literalLength + 32 * this.slots.length);
+        for (int i = 0; i < this.slots.length; i++) {
+            html.append(this.literals[i]);
+            escape(html, values[this.slots[i]]);
+        }
+        return html.append(this.literals[this.slots.length]).toString();
+    }
+
+    static String escape(final Object value) {
+        final StringBuilder out = new StringBuilder();
+        escape(out, value);
+        return out.toString();
+    }
+
+    private static void escape(final StringBuilder out, final Object value) {
+        final String text = String.valueOf(value);
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.streetfoodgo.core.port.impl;
+
+import java.util.List;
+
+/**
+ * Delivers rendered emails for the {@link EmailDispatcher}, a batch at a time.
+ * <p>
+ * Selected with {@code app.email.transport}: {@code brevo} (the default) sends through the Brevo API,
+ * {@code sink} keeps the messages locally for development and load tests.
+ */
+public interface EmailTransport {
+
+    /**
+     * A rendered email.
+     */
+    record Message(String to, String subject, String htmlContent) {
+
+        public Message {
+            if (to == null) throw new NullPointerException();
+            if (subject == null) throw new NullPointerException();
+            if (htmlContent == null) throw new NullPointerException();
+        }
+    }
+
+    /**
+     * A failure worth retrying: the provider was unreachable, overloaded or rate limiting.
+     */
+    class TransientFailure extends RuntimeException {
+
+        public TransientFailure(final String message, final Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Whether this transport sends to the address at all; others are skipped before queueing.
+     */
+    default boolean accepts(final String to) {
+        return to != null && !to.isBlank();
+    }
+
+    /**
+     * Sends the batch, all or nothing.
+     *
+     * @throws TransientFailure when the batch may succeed if sent again later
+     */
+    void send(List<Message> batch);
+}
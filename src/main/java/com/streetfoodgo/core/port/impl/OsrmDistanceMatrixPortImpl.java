@@ -78,26 +78,26 @@ public class OsrmDistanceMatrixPortImpl implements DistanceMatrixPort {
             }
 
             // Expect 1xN for sources=0
-            List<List<Double>> distances = body.distances();
-            List<List<Double>> durations = body.durations();
-            if (distances == null || durations == null || distances.isEmpty() || durations.isEmpty()) {
+            double[][] distances = body.distances();
+            double[][] durations = body.durations();
+            if (distances == null || durations == null || distances.length == 0 || durations.length == 0) {
                 throw new RuntimeException("OSRM returned empty matrix");
             }
 
-            List<Double> distRow = distances.getFirst();
-            List<Double> durRow = durations.getFirst();
+            double[] distRow = distances[0];
+            double[] durRow = durations[0];
 
-            if (distRow.size() != destinations.size() || durRow.size() != destinations.size()) {
+            if (distRow.length != destinations.size() || durRow.length != destinations.size()) {
                 throw new RuntimeException("OSRM matrix size mismatch");
             }
 
             List<MatrixResult> results = new ArrayList<>(destinations.size());
             for (int i = 0; i < destinations.size(); i++) {
-                Double meters = distRow.get(i);
-                Double seconds = durRow.get(i);
+                double meters = distRow[i];
+                double seconds = durRow[i];
 
-                // OSRM uses null for unreachable routes.
-                if (meters == null || seconds == null) {
+                // OSRM uses null for unreachable routes (read as NaN).
+                if (Double.isNaN(meters) || Double.isNaN(seconds)) {
                     results.add(new MatrixResult(BigDecimal.ZERO, Integer.MAX_VALUE));
                     continue;
                 }
@@ -0,0 +1,90 @@
+package com.streetfoodgo.core.port.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local {@link EmailTransport}: nothing leaves the machine. Keeps the last {@code app.email.sink.capacity}
+ * messages in memory and, when {@code app.email.sink.file} is set, appends one line per message to that file
+ * (time, recipient, subject, content length). Enabled with {@code app.email.transport=sink}; sends to any address.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.email", name = "transport", havingValue = "sink")
+public class SinkEmailTransport implements EmailTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SinkEmailTransport.class);
+
+    private final int capacity;
+    private final Path file;
+
+    private final Deque<Message> messages = new ArrayDeque<>();
+    private final LongAdder sent = new LongAdder();
+
+    public SinkEmailTransport(@Value("${app.email.sink.capacity:1000}") final int capacity,
+                              @Value("${app.email.sink.file:}") final String file) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        LOGGER.info("Emails go to the local sink{}", this.file == null ? "" : " and " + this.file);
+    }
+
+    @Override
+    public void send(final List<Message> batch) {
+        if (batch == null) throw new NullPointerException();
+        synchronized (this.messages) {
+            for (final Message message : batch) {
+                if (this.messages.size() == this.capacity) this.messages.removeFirst();
+                this.messages.addLast(message);
+            }
+        }
+        if (this.file != null) append(batch);
+        this.sent.add(batch.size());
+    }
+
+    /**
+     * The messages kept, oldest first.
+     */
+    public List<Message> messages() {
+        synchronized (this.messages) {
+            return List.copyOf(this.messages);
+        }
+    }
+
+    public long sentCount() {
+        return this.sent.sum();
+    }
+
+    private void append(final List<Message> batch) {
+        final StringBuilder lines = new StringBuilder();
+        final String now = Instant.now().toString();
+        for (final Message message : batch) {
+            lines.append(now).append('\t')
+                    .append(message.to()).append('\t')
+                    .append(message.subject().replace('\t', ' ').replace('\n', ' ')).append('\t')
+                    .append(message.htmlContent().length()).append('\n');
+        }
+        try {
+            synchronized (this) {
+                Files.writeString(this.file, lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
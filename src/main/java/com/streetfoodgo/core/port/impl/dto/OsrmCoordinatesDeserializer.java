@@ -0,0 +1,50 @@
+package com.streetfoodgo.core.port.impl.dto;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.util.Arrays;
+
+/**
+ * Token-level reader for GeoJSON LineString coordinates.
+ *
+ * Flattens {@code [[lon, lat], ...]} into an interleaved {@code double[]} of
+ * {@code lon0, lat0, lon1, lat1, ...}; any extra ordinate (e.g. elevation) is skipped.
+ */
+public final class OsrmCoordinatesDeserializer extends ValueDeserializer<double[]> {
+
+    private static final double[] EMPTY = new double[0];
+
+    @Override
+    public double[] deserialize(final JsonParser p, final DeserializationContext ctxt) {
+        if (!p.isExpectedStartArrayToken()) {
+            return (double[]) ctxt.handleUnexpectedToken(double[].class, p);
+        }
+
+        double[] flat = new double[256];
+        int n = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t != JsonToken.START_ARRAY) {
+                return ctxt.reportInputMismatch(this, "Expected [lon, lat] position, got %s", t);
+            }
+            if (n + 2 > flat.length) flat = Arrays.copyOf(flat, flat.length * 2);
+
+            int ordinal = 0;
+            while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (!t.isNumeric()) {
+                    return ctxt.reportInputMismatch(this, "Expected numeric ordinate, got %s", t);
+                }
+                if (ordinal < 2) flat[n + ordinal] = p.getDoubleValue();
+                ordinal++;
+            }
+            if (ordinal < 2) {
+                return ctxt.reportInputMismatch(this, "Position has %d ordinates, expected at least 2", ordinal);
+            }
+            n += 2;
+        }
+        return n == 0 ? EMPTY : Arrays.copyOf(flat, n);
+    }
+}
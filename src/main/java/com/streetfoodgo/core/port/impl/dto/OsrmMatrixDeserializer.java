@@ -0,0 +1,57 @@
+package com.streetfoodgo.core.port.impl.dto;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.util.Arrays;
+
+/**
+ * Token-level reader for OSRM /table matrices ({@code durations}, {@code distances}).
+ *
+ * Reads each row straight into a {@code double[]} without boxing; OSRM {@code null}
+ * entries (unreachable pairs) become {@link Double#NaN}.
+ */
+public final class OsrmMatrixDeserializer extends ValueDeserializer<double[][]> {
+
+    private static final double[][] EMPTY = new double[0][];
+
+    @Override
+    public double[][] deserialize(final JsonParser p, final DeserializationContext ctxt) {
+        if (!p.isExpectedStartArrayToken()) {
+            return (double[][]) ctxt.handleUnexpectedToken(double[][].class, p);
+        }
+
+        double[][] rows = new double[1][];
+        int count = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t != JsonToken.START_ARRAY) {
+                return ctxt.reportInputMismatch(this, "Expected matrix row array, got %s", t);
+            }
+            if (count == rows.length) rows = Arrays.copyOf(rows, count * 2);
+            rows[count++] = readRow(p, ctxt);
+        }
+        return count == 0 ? EMPTY : (count == rows.length ? rows : Arrays.copyOf(rows, count));
+    }
+
+    private double[] readRow(final JsonParser p, final DeserializationContext ctxt) {
+        double[] row = new double[16];
+        int n = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            final double value;
+            if (t == JsonToken.VALUE_NULL) {
+                value = Double.NaN;
+            } else if (t.isNumeric()) {
+                value = p.getDoubleValue();
+            } else {
+                return ctxt.reportInputMismatch(this, "Expected number or null in matrix row, got %s", t);
+            }
+            if (n == row.length) row = Arrays.copyOf(row, n * 2);
+            row[n++] = value;
+        }
+        return n == row.length ? row : Arrays.copyOf(row, n);
+    }
+}
@@ -1,6 +1,7 @@
 package com.streetfoodgo.core.port.impl.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 
@@ -15,8 +16,15 @@ public record OsrmRouteGeoResponse(String code, List<Route> routes) {
         // distance: meters, duration: seconds
     }
 
+    /**
+     * GeoJSON geometry with coordinates flattened to {@code lon0, lat0, lon1, lat1, ...}.
+     */
     @JsonIgnoreProperties(ignoreUnknown = true)
-    public record Geometry(String type, List<List<Double>> coordinates) {
-        // GeoJSON: coordinates in [lon, lat]
+    public record Geometry(String type,
+                           @JsonDeserialize(using = OsrmCoordinatesDeserializer.class) double[] coordinates) {
+
+        public int pointCount() {
+            return coordinates == null ? 0 : coordinates.length / 2;
+        }
     }
 }
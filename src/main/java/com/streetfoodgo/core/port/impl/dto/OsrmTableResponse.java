@@ -1,15 +1,19 @@
 package com.streetfoodgo.core.port.impl.dto;
 
-import java.util.List;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 /**
  * Minimal OSRM /table response model.
  *
+ * Matrices are read row by row into primitive arrays; unreachable entries are {@link Double#NaN}.
+ *
  * https://project-osrm.org/docs/v5.27.1/api/#table-service
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public record OsrmTableResponse(
         String code,
-        List<List<Double>> distances,
-        List<List<Double>> durations
+        @JsonDeserialize(using = OsrmMatrixDeserializer.class) double[][] distances,
+        @JsonDeserialize(using = OsrmMatrixDeserializer.class) double[][] durations
 ) {
 }
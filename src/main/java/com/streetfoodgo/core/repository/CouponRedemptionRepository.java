@@ -0,0 +1,14 @@
+package com.streetfoodgo.core.repository;
+
+import com.streetfoodgo.core.model.CouponRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for {@link CouponRedemption} entity.
+ */
+@Repository
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, Long> {
+
+    long countByCouponIdAndCustomerId(Long couponId, Long customerId);
+}
@@ -0,0 +1,54 @@
+package com.streetfoodgo.core.repository;
+
+import com.streetfoodgo.core.model.Coupon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for {@link Coupon} entity.
+ */
+@Repository
+public interface CouponRepository extends JpaRepository<Coupon, Long> {
+
+    @Query("SELECT c FROM Coupon c LEFT JOIN FETCH c.applicableStore WHERE c.code = :code")
+    Optional<Coupon> findByCodeWithStore(@Param("code") String code);
+
+    /**
+     * Codes of the active coupons that have not ended yet (running now or starting later).
+     */
+    @Query("SELECT c.code FROM Coupon c WHERE c.isActive = true AND c.validUntil >= :now")
+    List<String> findActiveCodes(@Param("now") LocalDateTime now);
+
+    /**
+     * Atomically takes one use of a limited coupon: a conditional increment that matches no row once
+     * the coupon is used up, inactive or outside its validity window. Returns the number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.currentUses = COALESCE(c.currentUses, 0) + 1 " +
+            "WHERE c.id = :couponId AND c.isActive = true " +
+            "AND c.validFrom <= :now AND c.validUntil >= :now " +
+            "AND (c.maxUses IS NULL OR COALESCE(c.currentUses, 0) < c.maxUses)")
+    int claimUse(@Param("couponId") Long couponId, @Param("now") LocalDateTime now);
+
+    /**
+     * Gives back a use taken by {@link #claimUse} whose order was rolled back.
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.currentUses = COALESCE(c.currentUses, 0) - 1 " +
+            "WHERE c.id = :couponId AND COALESCE(c.currentUses, 0) > 0")
+    int releaseUse(@Param("couponId") Long couponId);
+
+    /**
+     * Adds a batch of counted uses to a coupon without a usage limit.
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.currentUses = COALESCE(c.currentUses, 0) + :uses WHERE c.id = :couponId")
+    int addUses(@Param("couponId") Long couponId, @Param("uses") int uses);
+}
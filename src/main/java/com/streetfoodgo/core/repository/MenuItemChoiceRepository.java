@@ -2,9 +2,12 @@ package com.streetfoodgo.core.repository;
 
 import com.streetfoodgo.core.model.MenuItemChoice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for MenuItemChoice entity.
@@ -13,4 +16,14 @@ import java.util.List;
 public interface MenuItemChoiceRepository extends JpaRepository<MenuItemChoice, Long> {
 
     List<MenuItemChoice> findByOptionIdOrderByDisplayOrderAsc(Long optionId);
+
+    /**
+     * Choice with its option, item and store, so the ownership check needs no further queries.
+     */
+    @Query("SELECT c FROM MenuItemChoice c " +
+           "JOIN FETCH c.option o " +
+           "JOIN FETCH o.menuItem m " +
+           "JOIN FETCH m.store " +
+           "WHERE c.id = :id")
+    Optional<MenuItemChoice> findByIdWithStore(@Param("id") Long id);
 }
@@ -2,9 +2,12 @@ package com.streetfoodgo.core.repository;
 
 import com.streetfoodgo.core.model.MenuItemIngredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for MenuItemIngredient entity.
@@ -13,4 +16,16 @@ import java.util.List;
 public interface MenuItemIngredientRepository extends JpaRepository<MenuItemIngredient, Long> {
 
     List<MenuItemIngredient> findByMenuItemIdOrderByDisplayOrderAsc(Long menuItemId);
+
+    /**
+     * Ingredient with its item and store, so the ownership check needs no further queries.
+     */
+    @Query("SELECT i FROM MenuItemIngredient i " +
+           "JOIN FETCH i.menuItem m " +
+           "JOIN FETCH m.store " +
+           "WHERE i.id = :id")
+    Optional<MenuItemIngredient> findByIdWithStore(@Param("id") Long id);
+
+    @Query("SELECT i FROM MenuItemIngredient i WHERE i.menuItem.store.id = :storeId")
+    List<MenuItemIngredient> findAllByStoreId(@Param("storeId") Long storeId);
 }
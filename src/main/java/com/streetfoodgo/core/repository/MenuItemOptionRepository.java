@@ -2,9 +2,12 @@ package com.streetfoodgo.core.repository;
 
 import com.streetfoodgo.core.model.MenuItemOption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for MenuItemOption entity.
@@ -13,4 +16,30 @@ import java.util.List;
 public interface MenuItemOptionRepository extends JpaRepository<MenuItemOption, Long> {
 
     List<MenuItemOption> findByMenuItemIdOrderByDisplayOrderAsc(Long menuItemId);
+
+    /**
+     * All options of a menu item with their choices, in one query.
+     */
+    @Query("SELECT DISTINCT o FROM MenuItemOption o " +
+           "LEFT JOIN FETCH o.choices " +
+           "WHERE o.menuItem.id = :menuItemId " +
+           "ORDER BY o.displayOrder, o.id")
+    List<MenuItemOption> findAllWithChoicesByMenuItemId(@Param("menuItemId") Long menuItemId);
+
+    /**
+     * Option with its item and store, so the ownership check needs no further queries.
+     */
+    @Query("SELECT o FROM MenuItemOption o " +
+           "JOIN FETCH o.menuItem m " +
+           "JOIN FETCH m.store " +
+           "WHERE o.id = :id")
+    Optional<MenuItemOption> findByIdWithStore(@Param("id") Long id);
+
+    /**
+     * All options of a store's menu with their choices, in one query.
+     */
+    @Query("SELECT DISTINCT o FROM MenuItemOption o " +
+           "LEFT JOIN FETCH o.choices " +
+           "WHERE o.menuItem.store.id = :storeId")
+    List<MenuItemOption> findAllWithChoicesByStoreId(@Param("storeId") Long storeId);
 }
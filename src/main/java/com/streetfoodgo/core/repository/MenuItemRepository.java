@@ -42,9 +42,19 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
     List<MenuItem> findAllByStoreId(Long storeId);
 
+    // Whole-store menu graph (see StoreMenuCache): items with their store in one query
+    @Query("SELECT m FROM MenuItem m " +
+           "JOIN FETCH m.store " +
+           "WHERE m.store.id = :storeId " +
+           "ORDER BY m.id")
+    List<MenuItem> findAllByStoreIdWithStore(@Param("storeId") Long storeId);
+
+    @Query("SELECT m.store.id FROM MenuItem m WHERE m.id = :id")
+    Optional<Long> findStoreIdById(@Param("id") Long id);
+
     List<MenuItem> findAllByStoreIdAndAvailableTrue(Long storeId);
 
     List<MenuItem> findAllByStoreIdAndCategory(Long storeId, MenuCategory category);
 
     List<MenuItem> findAllByStoreIdAndCategoryAndAvailableTrue(Long storeId, MenuCategory category);
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.streetfoodgo.core.repository;
+
+import com.streetfoodgo.core.model.NotificationDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for {@link NotificationDeadLetter} entity.
+ */
+@Repository
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+
+    List<NotificationDeadLetter> findAllByOrderIdOrderByFailedAtDesc(Long orderId);
+}
@@ -2,6 +2,7 @@ package com.streetfoodgo.core.repository;
 
 import com.streetfoodgo.core.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,10 @@ import java.util.List;
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findAllByOrderId(Long orderId);
-}
\ No newline at end of file
+
+    /**
+     * Rows of [menuItemId, totalQuantity] over all orders.
+     */
+    @Query("SELECT oi.menuItem.id, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.menuItem.id")
+    List<Object[]> sumQuantityPerMenuItem();
+}
\ No newline at end of file
@@ -38,6 +38,29 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     long countByStoreIdAndStatus(Long storeId, OrderStatus status);
 
+    /**
+     * Rows of [storeId, orderCount] over all orders.
+     */
+    @Query("SELECT o.store.id, COUNT(o) FROM Order o GROUP BY o.store.id")
+    List<Object[]> countOrdersPerStore();
+
+    /**
+     * Rows of [storeId, orderCount] over orders placed since {@code since}, ignoring the given statuses.
+     */
+    @Query("SELECT o.store.id, COUNT(o) FROM Order o " +
+           "WHERE o.createdAt >= :since AND o.status NOT IN :excluded GROUP BY o.store.id")
+    List<Object[]> countOrdersPerStoreSince(@Param("since") Instant since,
+                                            @Param("excluded") Collection<OrderStatus> excluded);
+
+    /**
+     * Rows of [storeId, lastOrderedAt] for the stores a customer ordered from, most recent first.
+     */
+    @Query("SELECT o.store.id, MAX(o.createdAt) FROM Order o " +
+           "WHERE o.customer.id = :customerId AND o.status NOT IN :excluded " +
+           "GROUP BY o.store.id ORDER BY MAX(o.createdAt) DESC")
+    List<Object[]> findOrderedStoresByCustomer(@Param("customerId") Long customerId,
+                                               @Param("excluded") Collection<OrderStatus> excluded);
+
     @Query("SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId AND o.status = :status")
     Long countByCustomerIdAndStatus(@Param("customerId") Long customerId, @Param("status") OrderStatus status);
 
@@ -70,4 +93,4 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     );
 
     List<Order> findAllByStatusAndOrderType(OrderStatus status, OrderType orderType);
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.streetfoodgo.core.repository;
+
+import com.streetfoodgo.core.model.Review;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for {@link Review} entity.
+ */
+@Repository
+public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    boolean existsByOrderId(Long orderId);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.customer WHERE r.store.id = :storeId ORDER BY r.createdAt DESC")
+    List<Review> findLatestByStoreId(@Param("storeId") Long storeId, Limit limit);
+}
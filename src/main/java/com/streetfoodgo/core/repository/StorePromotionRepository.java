@@ -0,0 +1,40 @@
+package com.streetfoodgo.core.repository;
+
+import com.streetfoodgo.core.model.StorePromotion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for {@link StorePromotion} entity.
+ */
+@Repository
+public interface StorePromotionRepository extends JpaRepository<StorePromotion, Long> {
+
+    /**
+     * The store's active automatic promotions (no promo code to enter) that have not ended yet: running now
+     * or starting later.
+     */
+    @Query("SELECT p FROM StorePromotion p WHERE p.store.id = :storeId AND p.isActive = true " +
+            "AND p.promoCode IS NULL AND p.validUntil >= :now ORDER BY p.id")
+    List<StorePromotion> findScheduledByStoreId(@Param("storeId") Long storeId, @Param("now") LocalDateTime now);
+
+    /**
+     * Promo codes of the active promotions that have not ended yet.
+     */
+    @Query("SELECT p.promoCode FROM StorePromotion p WHERE p.isActive = true AND p.promoCode IS NOT NULL " +
+            "AND p.validUntil >= :now")
+    List<String> findActivePromoCodes(@Param("now") LocalDateTime now);
+
+    /**
+     * Adds a batch of counted uses to a promotion.
+     */
+    @Modifying
+    @Query("UPDATE StorePromotion p SET p.usageCount = COALESCE(p.usageCount, 0) + :uses WHERE p.id = :promotionId")
+    int addUses(@Param("promotionId") Long promotionId, @Param("uses") int uses);
+}
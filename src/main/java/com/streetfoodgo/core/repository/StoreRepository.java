@@ -3,11 +3,13 @@ package com.streetfoodgo.core.repository;
 import com.streetfoodgo.core.model.CuisineType;
 import com.streetfoodgo.core.model.Store;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for {@link Store} entity.
@@ -17,6 +19,49 @@ public interface StoreRepository extends JpaRepository<Store, Long> {
 
     List<Store> findAllByOwnerId(Long ownerId);
 
+    @Query("SELECT s FROM Store s JOIN FETCH s.owner ORDER BY s.id")
+    List<Store> findAllWithOwner();
+
+    /**
+     * Atomically adds one review of {@code rating} (1..5) to the store's aggregates.
+     */
+    @Modifying
+    @Query("UPDATE Store s SET " +
+            "s.ratingCount = COALESCE(s.ratingCount, 0) + 1, " +
+            "s.ratingSum = COALESCE(s.ratingSum, 0) + :rating, " +
+            "s.rating1 = COALESCE(s.rating1, 0) + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+            "s.rating2 = COALESCE(s.rating2, 0) + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "s.rating3 = COALESCE(s.rating3, 0) + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+            "s.rating4 = COALESCE(s.rating4, 0) + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "s.rating5 = COALESCE(s.rating5, 0) + CASE WHEN :rating = 5 THEN 1 ELSE 0 END " +
+            "WHERE s.id = :storeId")
+    int addRating(@Param("storeId") Long storeId, @Param("rating") int rating);
+
+    /**
+     * Atomically bumps the store's menu version (row-locks the store until commit,
+     * so concurrent menu writes of one store are versioned in commit order).
+     */
+    @Modifying
+    @Query("UPDATE Store s SET s.menuVersion = COALESCE(s.menuVersion, 0) + 1 WHERE s.id = :storeId")
+    int incrementMenuVersion(@Param("storeId") Long storeId);
+
+    @Query("SELECT COALESCE(s.menuVersion, 0) FROM Store s WHERE s.id = :storeId")
+    Optional<Long> findMenuVersion(@Param("storeId") Long storeId);
+
+    /**
+     * [storeId, menuVersion] of every store.
+     */
+    @Query("SELECT s.id, COALESCE(s.menuVersion, 0) FROM Store s")
+    List<Object[]> findAllMenuVersions();
+
+    /**
+     * Current aggregates read from the database (not the persistence context):
+     * [ratingCount, ratingSum, rating1, rating2, rating3, rating4, rating5].
+     */
+    @Query("SELECT s.ratingCount, s.ratingSum, s.rating1, s.rating2, s.rating3, s.rating4, s.rating5 " +
+            "FROM Store s WHERE s.id = :storeId")
+    List<Object[]> findRatingAggregates(@Param("storeId") Long storeId);
+
     List<Store> findAllByIsOpenTrue();
 
     List<Store> findAllByCuisineType(CuisineType cuisineType);
@@ -28,4 +73,4 @@ public interface StoreRepository extends JpaRepository<Store, Long> {
     @Query("SELECT s FROM Store s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "OR LOWER(s.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Store> searchByKeyword(@Param("keyword") String keyword);
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,5 +19,7 @@ public interface StoreScheduleRepository extends JpaRepository<StoreSchedule, Lo
 
     Optional<StoreSchedule> findByStoreIdAndDayOfWeek(Long storeId, DayOfWeek dayOfWeek);
 
+    List<StoreSchedule> findByStoreIdIn(Collection<Long> storeIds);
+
     void deleteByStoreId(Long storeId);
 }
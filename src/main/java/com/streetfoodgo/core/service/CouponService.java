@@ -0,0 +1,50 @@
+package com.streetfoodgo.core.service;
+
+import com.streetfoodgo.core.model.Order;
+import com.streetfoodgo.core.service.model.CodeLookupStats;
+import com.streetfoodgo.core.service.model.CouponQuote;
+
+import java.math.BigDecimal;
+
+/**
+ * Service for coupon codes: validating a code for an order and redeeming it at checkout.
+ */
+public interface CouponService {
+
+    /**
+     * Validates {@code code} for a customer's order at a store and computes its discount on {@code subtotal}.
+     *
+     * @throws IllegalArgumentException with a message for the customer when the code cannot be used
+     */
+    CouponQuote quote(String code, Long customerId, Long storeId, BigDecimal subtotal);
+
+    /**
+     * Takes one of a limited coupon's uses for the customer right away, in its own transaction, ahead of an
+     * order that is placed later (after a card charge). {@link #redeem} then uses the reservation; without an
+     * order, {@link #release} gives it back. Coupons without a usage limit need no reservation.
+     *
+     * @throws IllegalArgumentException when the coupon ran out, or is no longer valid
+     */
+    void reserve(CouponQuote quote, Long customerId);
+
+    /**
+     * Gives back a use taken by {@link #reserve} that no order redeemed; does nothing when there is none.
+     */
+    void release(CouponQuote quote, Long customerId);
+
+    /**
+     * Redeems a quoted coupon on a saved order, inside the order's transaction: records the customer's use
+     * and takes one of the coupon's uses (the customer's reservation, if they made one). Call it last before commit.
+     *
+     * @throws IllegalArgumentException when the customer already used up the coupon or it ran out meanwhile
+     */
+    void redeem(CouponQuote quote, Order order);
+
+    /**
+     * Marks the set of active codes as changed (a coupon or promo code was created, activated or re-dated), so
+     * the code filter is rebuilt once the surrounding transaction commits.
+     */
+    void codesChanged();
+
+    CodeLookupStats codeLookupStats();
+}
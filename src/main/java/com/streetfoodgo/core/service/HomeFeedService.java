@@ -0,0 +1,19 @@
+package com.streetfoodgo.core.service;
+
+import com.streetfoodgo.core.service.model.HomeFeed;
+
+/**
+ * Homepage feed: featured, popular-near-you and reorder sections.
+ */
+public interface HomeFeedService {
+
+    /**
+     * @param customerId the signed-in customer, or null for guests (global sections only)
+     */
+    HomeFeed getFeed(Long customerId);
+
+    /**
+     * Drops the customer's cached sections, e.g. after a new order or an address change.
+     */
+    void evictCustomer(Long customerId);
+}
@@ -11,6 +11,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -26,6 +27,10 @@ public class InitializationService {
     private final PersonRepository personRepository;
     private final StoreRepository storeRepository;
     private final MenuItemRepository menuItemRepository;
+    private final CouponRepository couponRepository;
+    private final StorePromotionRepository storePromotionRepository;
+    private final PromotionService promotionService;
+    private final CouponService couponService;
     private final PersonBusinessLogicService personBusinessLogicService;
     private final PasswordEncoder passwordEncoder;
     private final AtomicBoolean initialized;
@@ -34,18 +39,30 @@ public class InitializationService {
             final PersonRepository personRepository,
             final StoreRepository storeRepository,
             final MenuItemRepository menuItemRepository,
+            final CouponRepository couponRepository,
+            final StorePromotionRepository storePromotionRepository,
+            final PromotionService promotionService,
+            final CouponService couponService,
             final PersonBusinessLogicService personBusinessLogicService,
             final PasswordEncoder passwordEncoder) {
 
         if (personRepository == null) throw new NullPointerException();
         if (storeRepository == null) throw new NullPointerException();
         if (menuItemRepository == null) throw new NullPointerException();
+        if (couponRepository == null) throw new NullPointerException();
+        if (storePromotionRepository == null) throw new NullPointerException();
+        if (promotionService == null) throw new NullPointerException();
+        if (couponService == null) throw new NullPointerException();
         if (personBusinessLogicService == null) throw new NullPointerException();
         if (passwordEncoder == null) throw new NullPointerException();
 
         this.personRepository = personRepository;
         this.storeRepository = storeRepository;
         this.menuItemRepository = menuItemRepository;
+        this.couponRepository = couponRepository;
+        this.storePromotionRepository = storePromotionRepository;
+        this.promotionService = promotionService;
+        this.couponService = couponService;
         this.personBusinessLogicService = personBusinessLogicService;
         this.passwordEncoder = passwordEncoder;
         this.initialized = new AtomicBoolean(false);
@@ -67,6 +84,9 @@ public class InitializationService {
         // 2. Create Stores & Menu Items
         createStoresAndMenuItems();
 
+        // 3. Create Coupons
+        createCoupons();
+
         LOGGER.info("Database initialization completed successfully!");
     }
 
@@ -201,6 +221,9 @@ public class InitializationService {
         createMenuItem(store1, "Coca Cola", "330ml can",
                 BigDecimal.valueOf(1.50), MenuCategory.BEVERAGE);
 
+        // Promotions for Store 1
+        createPromotions(store1);
+
         // Store 2: Italian Pizza
         Store store2 = new Store();
         store2.setOwner(owner2);
@@ -298,6 +321,69 @@ public class InitializationService {
         LOGGER.info("Created 4 stores with menu items");
     }
 
+    private void createCoupons() {
+        LOGGER.info("Creating coupons...");
+
+        final LocalDateTime now = LocalDateTime.now();
+
+        Coupon welcome = new Coupon();
+        welcome.setCode("WELCOME10");
+        welcome.setDescription("10% off your first order (up to €5)");
+        welcome.setDiscountType(DiscountType.PERCENTAGE);
+        welcome.setDiscountValue(BigDecimal.valueOf(10));
+        welcome.setMaxDiscountAmount(BigDecimal.valueOf(5));
+        welcome.setValidFrom(now.minusDays(1));
+        welcome.setValidUntil(now.plusYears(1));
+        welcome.setFirstOrderOnly(true);
+        this.couponRepository.save(welcome);
+
+        Coupon flash = new Coupon();
+        flash.setCode("FLASH3");
+        flash.setDescription("€3 off orders over €10 (first 100 orders)");
+        flash.setDiscountType(DiscountType.FIXED);
+        flash.setDiscountValue(BigDecimal.valueOf(3));
+        flash.setMinimumOrderAmount(BigDecimal.valueOf(10));
+        flash.setMaxUses(100);
+        flash.setValidFrom(now.minusDays(1));
+        flash.setValidUntil(now.plusMonths(1));
+        this.couponRepository.save(flash);
+        this.couponService.codesChanged();
+
+        LOGGER.info("Created 2 coupons");
+    }
+
+    private void createPromotions(Store store) {
+        final LocalDateTime now = LocalDateTime.now();
+
+        StorePromotion bogo = new StorePromotion();
+        bogo.setStore(store);
+        bogo.setTitle("Buy 2, get 1 free");
+        bogo.setDescription("Every third item free (the cheapest of each three)");
+        bogo.setPromotionType(PromotionType.BUY_X_GET_Y_FREE);
+        bogo.setRequiredQuantity(2);
+        bogo.setFreeQuantity(1);
+        bogo.setValidFrom(now.minusDays(1));
+        bogo.setValidUntil(now.plusMonths(1));
+        bogo.setBadgeText("2+1");
+        bogo.setBadgeColor("green");
+        this.storePromotionRepository.save(bogo);
+
+        StorePromotion freeDelivery = new StorePromotion();
+        freeDelivery.setStore(store);
+        freeDelivery.setTitle("Free delivery over €15");
+        freeDelivery.setDescription("No delivery fee on orders of €15 or more");
+        freeDelivery.setPromotionType(PromotionType.FREE_DELIVERY);
+        freeDelivery.setMinimumOrderAmount(BigDecimal.valueOf(15));
+        freeDelivery.setValidFrom(now.minusDays(1));
+        freeDelivery.setValidUntil(now.plusMonths(1));
+        freeDelivery.setBadgeText("Free delivery");
+        freeDelivery.setBadgeColor("blue");
+        this.storePromotionRepository.save(freeDelivery);
+
+        this.promotionService.evict(store.getId());
+        this.couponService.codesChanged();
+    }
+
     private void createMenuItem(Store store, String name, String description,
                                 BigDecimal price, MenuCategory category) {
         MenuItem item = new MenuItem();
@@ -27,4 +27,10 @@ public interface MenuItemCustomizationService {
     MenuItemIngredientView updateIngredient(Long ingredientId, UpdateMenuItemIngredientRequest request);
 
     void deleteIngredient(Long ingredientId);
+
+    /**
+     * Replaces the whole option/choice/ingredient tree of a menu item in one transaction
+     * (see {@link SaveMenuItemCustomizationsRequest}).
+     */
+    MenuItemCustomizationsView saveCustomizations(Long menuItemId, SaveMenuItemCustomizationsRequest request);
 }
@@ -2,7 +2,9 @@ package com.streetfoodgo.core.service;
 
 import com.streetfoodgo.core.model.MenuCategory;
 import com.streetfoodgo.core.service.model.CreateMenuItemRequest;
+import com.streetfoodgo.core.service.model.DishSearchResult;
 import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.StoreMenu;
 import com.streetfoodgo.core.service.model.UpdateMenuItemRequest;
 
 import java.util.List;
@@ -19,8 +21,26 @@ public interface MenuItemService {
 
     List<MenuItemView> getStoreMenuByCategory(Long storeId, MenuCategory category);
 
+    /**
+     * Whole menu tree of a store as a cached immutable snapshot (includes unavailable items).
+     */
+    StoreMenu getStoreMenuSnapshot(Long storeId);
+
+    /**
+     * Monotonically increasing version of a store's menu, bumped by every menu, option, choice
+     * or ingredient write. Does not load the menu.
+     */
+    long getMenuVersion(Long storeId);
+
+    Optional<Long> getMenuItemStoreId(Long menuItemId);
+
     Optional<MenuItemView> getMenuItem(Long id);
 
+    /**
+     * Full-text dish search across all stores (available items only), best match first.
+     */
+    List<DishSearchResult> searchDishes(String query, int limit);
+
     MenuItemView createMenuItem(CreateMenuItemRequest request);
 
     MenuItemView updateMenuItem(Long id, UpdateMenuItemRequest request);
@@ -28,4 +48,4 @@ public interface MenuItemService {
     void toggleAvailability(Long id, boolean available);
 
     void deleteMenuItem(Long id);
-}
\ No newline at end of file
+}
\ No newline at end of file
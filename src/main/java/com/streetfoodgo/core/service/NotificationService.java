@@ -1,39 +1,28 @@
 package com.streetfoodgo.core.service;
 
-import com.streetfoodgo.core.service.model.OrderView;
+import com.streetfoodgo.core.service.model.NotificationChannelStats;
+import com.streetfoodgo.core.service.model.NotificationEvent;
+
+import java.util.List;
 
 /**
  * Service for sending notifications to users.
+ * <p>
+ * Each event fans out to every channel the recipient can be reached on (SMS, email, WebSocket); deliveries are
+ * queued by priority, retried on failure and dead-lettered when they fail for good.
  */
 public interface NotificationService {
 
     /**
-     * Send order accepted notification to customer.
-     * Includes distance and estimated delivery time.
-     *
-     * @param order The accepted order with delivery metrics
-     */
-    void notifyOrderAccepted(OrderView order);
-
-    /**
-     * Send order rejected notification to customer.
+     * Notify the event's recipient. Inside a transaction the notification is queued only once it commits
+     * (never if it rolls back); delivery itself is asynchronous.
      *
-     * @param order The rejected order
-     * @param reason Reason for rejection
+     * @param event what happened, and to whom it is told
      */
-    void notifyOrderRejected(OrderView order, String reason);
+    void notify(NotificationEvent event);
 
     /**
-     * Send order status update notification.
-     *
-     * @param order The order with updated status
-     */
-    void notifyOrderStatusUpdate(OrderView order);
-
-    /**
-     * Send order completed notification.
-     *
-     * @param order The completed order
+     * Delivery counters per channel since startup.
      */
-    void notifyOrderCompleted(OrderView order);
+    List<NotificationChannelStats> stats();
 }
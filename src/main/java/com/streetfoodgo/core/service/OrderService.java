@@ -14,6 +14,11 @@ public interface OrderService {
     // Customer operations
     OrderView createOrder(CreateOrderRequest request);
 
+    /**
+     * Places the orders of a multi-store checkout (one request per store) together: all of them or none.
+     */
+    List<OrderView> createOrders(List<CreateOrderRequest> requests);
+
     List<OrderView> getCustomerOrders(Long customerId);
 
     List<OrderView> searchCustomerOrders(Long customerId, OrderSearchCriteria criteria);
@@ -43,4 +48,4 @@ public interface OrderService {
     List<OrderView> getAllOrders();
 
     void updateDriverLocation(Long orderId, Double latitude, Double longitude);
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.streetfoodgo.core.service;
+
+import com.streetfoodgo.core.service.model.PromotionLine;
+import com.streetfoodgo.core.service.model.PromotionResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Service for store promotions: which of a store's running promotions apply to a cart or order, and how much.
+ */
+public interface PromotionService {
+
+    /**
+     * The best non-conflicting set of the store's running promotions for these lines.
+     *
+     * @param deliveryFee the fee free-delivery promotions may waive; zero for pickup
+     * @param firstOrder  whether this is the customer's first order (first-order promotions apply)
+     */
+    PromotionResult evaluate(Long storeId, List<PromotionLine> lines, BigDecimal deliveryFee, boolean firstOrder);
+
+    /**
+     * Counts one use of each applied promotion once the surrounding transaction commits.
+     */
+    void recordUse(PromotionResult result);
+
+    /**
+     * Drops the store's cached promotions after a change; they are reloaded on next use.
+     */
+    void evict(Long storeId);
+}
@@ -0,0 +1,25 @@
+package com.streetfoodgo.core.service;
+
+import com.streetfoodgo.core.service.model.CreateReviewRequest;
+import com.streetfoodgo.core.service.model.ReviewView;
+import com.streetfoodgo.core.service.model.StoreRatingView;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service for order reviews and store rating aggregates.
+ */
+public interface ReviewService {
+
+    /**
+     * Reviews a completed order of the current customer (one review per order).
+     */
+    ReviewView createReview(CreateReviewRequest request);
+
+    boolean hasReview(Long orderId);
+
+    List<ReviewView> getStoreReviews(Long storeId, int limit);
+
+    Optional<StoreRatingView> getStoreRating(Long storeId);
+}
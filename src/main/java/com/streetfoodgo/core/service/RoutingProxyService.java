@@ -1,6 +1,7 @@
 package com.streetfoodgo.core.service;
 
 import java.math.BigDecimal;
+import java.util.AbstractList;
 import java.util.List;
 
 /**
@@ -11,6 +12,16 @@ public interface RoutingProxyService {
 
     RouteWithGeometry getRoute(double fromLat, double fromLon, double toLat, double toLon);
 
+    /**
+     * Returns the route with its geometry simplified (Douglas-Peucker) and encoded in the requested format.
+     *
+     * @param zoom            optional map zoom level (0-22); the tolerance is derived from the ground resolution
+     * @param toleranceMeters optional explicit tolerance; takes precedence over {@code zoom}; snapped down to a fixed set of levels
+     * @param format          output encoding of the geometry
+     */
+    EncodedRoute getEncodedRoute(double fromLat, double fromLon, double toLat, double toLon,
+                                 Integer zoom, Double toleranceMeters, GeometryFormat format);
+
     record RouteWithGeometry(
             BigDecimal distanceKm,
             Integer durationMinutes,
@@ -18,6 +29,42 @@ public interface RoutingProxyService {
             boolean fallback
     ) {}
 
+    /**
+     * Geometry encodings supported by {@link #getEncodedRoute}.
+     */
+    enum GeometryFormat {
+        /** GeoJSON LineString ({@code [lon, lat]} pairs). */
+        GEOJSON,
+        /** Google encoded polyline, precision 5 ({@code lat, lon} order). */
+        POLYLINE,
+        /** Compact binary: version byte, varint point count, zigzag varint E5 deltas ({@code lat, lon}). */
+        BINARY;
+
+        public static GeometryFormat fromParam(String value) {
+            if (value == null || value.isBlank()) return GEOJSON;
+            for (GeometryFormat f : values()) {
+                if (f.name().equalsIgnoreCase(value.trim())) return f;
+            }
+            throw new IllegalArgumentException("Unsupported geometry format: " + value);
+        }
+    }
+
+    /**
+     * Simplified route; exactly one of {@code geometry}, {@code polyline} or {@code binary} is set, per {@code format}.
+     */
+    record EncodedRoute(
+            BigDecimal distanceKm,
+            Integer durationMinutes,
+            GeometryFormat format,
+            GeoJsonLineString geometry,
+            String polyline,
+            byte[] binary,
+            int pointCount,
+            int originalPointCount,
+            double toleranceMeters,
+            boolean fallback
+    ) {}
+
     /**
      * Minimal GeoJSON LineString.
      * Coordinates are in [lon, lat] order, as per GeoJSON spec.
@@ -31,5 +78,23 @@ public interface RoutingProxyService {
         public static GeoJsonLineString lineString(List<List<Double>> coordinates) {
             return new GeoJsonLineString("LineString", coordinates);
         }
+
+        /**
+         * LineString backed by interleaved {@code lon0, lat0, lon1, lat1, ...} values (read-only view, no copy).
+         */
+        public static GeoJsonLineString lineString(double[] lonLat) {
+            if (lonLat == null) throw new NullPointerException("lonLat");
+            return lineString(new AbstractList<>() {
+                @Override
+                public List<Double> get(final int index) {
+                    return List.of(lonLat[index * 2], lonLat[index * 2 + 1]);
+                }
+
+                @Override
+                public int size() {
+                    return lonLat.length / 2;
+                }
+            });
+        }
     }
 }
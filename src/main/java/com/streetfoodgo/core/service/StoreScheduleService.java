@@ -2,11 +2,14 @@ package com.streetfoodgo.core.service;
 
 import com.streetfoodgo.core.model.Store;
 import com.streetfoodgo.core.model.StoreSchedule;
+import com.streetfoodgo.core.service.model.StoreStatusView;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service for managing and validating store schedules.
@@ -74,4 +77,30 @@ public interface StoreScheduleService {
      * @return LocalTime of closing today, or null if closed today
      */
     LocalTime getTodayClosingTime(Store store);
+
+    /**
+     * Bulk open check: which of the given stores are open at a specific date/time
+     * (manual open flag and weekly schedule). Unknown store ids are ignored.
+     *
+     * @param storeIds The stores to check
+     * @param dateTime The date/time to check
+     * @return ids of the stores that are open
+     */
+    Set<Long> getOpenStoreIds(Collection<Long> storeIds, LocalDateTime dateTime);
+
+    /**
+     * Current open/closed state of a store, kept up to date by a timer at its schedule boundaries.
+     *
+     * @param storeId The store
+     * @return the store's status, or null if the store does not exist
+     */
+    StoreStatusView getStoreStatus(Long storeId);
+
+    /**
+     * Re-evaluate a store's status (and its next timer) once the current transaction commits,
+     * publishing a status event if it changed. Call after the manual flag or the schedule changes.
+     *
+     * @param storeId The store
+     */
+    void refreshStoreStatus(Long storeId);
 }
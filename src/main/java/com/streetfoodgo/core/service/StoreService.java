@@ -2,6 +2,8 @@ package com.streetfoodgo.core.service;
 
 import com.streetfoodgo.core.model.CuisineType;
 import com.streetfoodgo.core.service.model.CreateStoreRequest;
+import com.streetfoodgo.core.service.model.StoreListQuery;
+import com.streetfoodgo.core.service.model.StorePage;
 import com.streetfoodgo.core.service.model.StoreView;
 import com.streetfoodgo.core.service.model.UpdateStoreRequest;
 
@@ -27,9 +29,17 @@ public interface StoreService {
 
     List<StoreView> getOwnerStores(Long ownerId);
 
+    /**
+     * Store browser listing: the same filters as the list methods above (no filter means open stores),
+     * ordered and paged in memory.
+     */
+    StorePage listStores(StoreListQuery query);
+
+    StorePage getOwnerStores(Long ownerId, String sort, int page, int size);
+
     StoreView createStore(CreateStoreRequest request);
 
     StoreView updateStore(Long id, UpdateStoreRequest request);
 
     void toggleStoreStatus(Long id, boolean isOpen);
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.streetfoodgo.core.service;
+
+import com.streetfoodgo.core.service.model.TypeaheadSuggestion;
+
+import java.util.List;
+
+/**
+ * Search-box typeahead over store names, dish names and areas.
+ */
+public interface TypeaheadService {
+
+    List<TypeaheadSuggestion> suggest(String prefix, int limit);
+}
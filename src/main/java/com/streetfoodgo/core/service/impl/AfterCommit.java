@@ -0,0 +1,31 @@
+package com.streetfoodgo.core.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory read model updates until the surrounding transaction has committed.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs {@code action} after commit, or immediately when no transaction is active.
+     * A rolled back transaction never runs it.
+     */
+    static void run(final Runnable action) {
+        if (action == null) throw new NullPointerException();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
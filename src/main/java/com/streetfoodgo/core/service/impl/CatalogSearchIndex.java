@@ -0,0 +1,247 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.MenuCategory;
+import com.streetfoodgo.core.model.MenuItem;
+import com.streetfoodgo.core.repository.MenuItemRepository;
+import com.streetfoodgo.core.service.model.StoreView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Full-text search over stores (name, cuisine, description) and menu items (name, description, category).
+ * <p>
+ * Backed by two {@link InvertedIndex} instances that are kept up to date incrementally by the
+ * store and menu write paths (after commit). Store search also credits stores that sell a matching dish.
+ * <p>
+ * A rebuild fills fresh indexes off to the side and swaps them in with one volatile write, so searches keep
+ * reading the previous indexes until then. Updates that arrive while a build runs are applied to the live
+ * indexes and replayed onto the new ones before the swap.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CUISINE_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    // A store selling a matching dish ranks below a store whose own name/description matches
+    private static final double DISH_TO_STORE_WEIGHT = 0.5;
+
+    /**
+     * Indexed snapshot of a menu item.
+     */
+    public record DishDocument(
+            Long id,
+            Long storeId,
+            String name,
+            String description,
+            BigDecimal price,
+            MenuCategory category,
+            String imageUrl,
+            boolean available
+    ) {
+        static DishDocument of(final MenuItem item) {
+            return new DishDocument(item.getId(), item.getStore().getId(), item.getName(), item.getDescription(),
+                    item.getPrice(), item.getCategory(), item.getImageUrl(), Boolean.TRUE.equals(item.getAvailable()));
+        }
+    }
+
+    public record DishHit(DishDocument dish, double score) {}
+
+    private final StoreCatalog storeCatalog;
+    private final MenuItemRepository menuItemRepository;
+
+    /**
+     * One generation of the indexes; replaced as a whole by {@link #rebuild()}.
+     */
+    private record Indexes(InvertedIndex stores, InvertedIndex dishes, Map<Long, DishDocument> dishDocuments) {
+        Indexes() {
+            this(new InvertedIndex(), new InvertedIndex(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private final Object loadLock = new Object();
+    private final Object updateLock = new Object();
+    private final AtomicLong dishVersion = new AtomicLong();
+    private volatile Indexes indexes; // null until the first build
+
+    // Updates seen while a build runs, replayed onto it before the swap (guarded by updateLock)
+    private List<Consumer<Indexes>> pendingUpdates;
+
+    public CatalogSearchIndex(final StoreCatalog storeCatalog, final MenuItemRepository menuItemRepository) {
+        if (storeCatalog == null) throw new NullPointerException();
+        if (menuItemRepository == null) throw new NullPointerException();
+        this.storeCatalog = storeCatalog;
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds both indexes from the store catalog and the menu item table.
+     */
+    public void rebuild() {
+        synchronized (loadLock) {
+            final List<Consumer<Indexes>> updates = new ArrayList<>();
+            synchronized (updateLock) {
+                this.pendingUpdates = updates;
+            }
+            final Indexes fresh = new Indexes();
+            try {
+                final List<StoreView> stores = this.storeCatalog.all();
+                for (StoreView store : stores) {
+                    putStore(fresh, store);
+                }
+                for (MenuItem item : this.menuItemRepository.findAll()) {
+                    putDish(fresh, DishDocument.of(item));
+                }
+                synchronized (updateLock) {
+                    // Replaying is safe even for updates the reads above already saw: puts and removes are idempotent
+                    updates.forEach(update -> update.accept(fresh));
+                    this.indexes = fresh;
+                }
+                dishVersion.incrementAndGet();
+                LOGGER.info("Search index built: {} stores, {} dishes", stores.size(), fresh.dishDocuments().size());
+            } finally {
+                synchronized (updateLock) {
+                    this.pendingUpdates = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexed menu items (read-only view).
+     */
+    public Collection<DishDocument> dishes() {
+        return Collections.unmodifiableCollection(indexes().dishDocuments().values());
+    }
+
+    /**
+     * Incremented on every menu item change.
+     */
+    public long dishVersion() {
+        return dishVersion.get();
+    }
+
+    /**
+     * Store ids ranked by relevance (best first).
+     */
+    public List<Long> searchStoreIds(final String query, final int limit) {
+        final Indexes current = indexes();
+        final Map<Long, Double> scores = new HashMap<>(current.stores().scores(query));
+
+        final Map<Long, Double> bestDishPerStore = new HashMap<>();
+        current.dishes().scores(query).forEach((dishId, score) -> {
+            final DishDocument dish = current.dishDocuments().get(dishId);
+            if (dish != null && dish.available()) bestDishPerStore.merge(dish.storeId(), score, Math::max);
+        });
+        bestDishPerStore.forEach((storeId, score) -> scores.merge(storeId, score * DISH_TO_STORE_WEIGHT, Double::sum));
+
+        return InvertedIndex.top(scores, limit).stream().map(InvertedIndex.Hit::docId).toList();
+    }
+
+    /**
+     * Available menu items ranked by relevance (best first).
+     */
+    public List<DishHit> searchDishes(final String query, final int limit) {
+        final Indexes current = indexes();
+        final Map<Long, Double> scores = current.dishes().scores(query);
+        scores.keySet().removeIf(id -> {
+            final DishDocument dish = current.dishDocuments().get(id);
+            return dish == null || !dish.available();
+        });
+        return InvertedIndex.top(scores, limit).stream()
+                .map(hit -> new DishHit(current.dishDocuments().get(hit.docId()), hit.score()))
+                .filter(hit -> hit.dish() != null)
+                .toList();
+    }
+
+    public void indexStoreAfterCommit(final StoreView store) {
+        if (store == null) throw new NullPointerException();
+        AfterCommit.run(() -> update(indexes -> putStore(indexes, store)));
+    }
+
+    /**
+     * Snapshots the item's indexed fields now and applies them after commit.
+     */
+    public void indexDishAfterCommit(final MenuItem item) {
+        if (item == null) throw new NullPointerException();
+        final DishDocument document = DishDocument.of(item);
+        AfterCommit.run(() -> update(indexes -> putDish(indexes, document)));
+    }
+
+    public void removeDishAfterCommit(final Long menuItemId) {
+        if (menuItemId == null) throw new NullPointerException();
+        AfterCommit.run(() -> update(indexes -> {
+            indexes.dishDocuments().remove(menuItemId);
+            indexes.dishes().remove(menuItemId);
+            dishVersion.incrementAndGet();
+        }));
+    }
+
+    private Indexes indexes() {
+        Indexes current = this.indexes;
+        if (current == null) {
+            synchronized (loadLock) {
+                if (this.indexes == null) rebuild();
+                current = this.indexes;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Applies an update to the live indexes and, while a build runs, queues it for the new ones.
+     * Before the first build there is nothing to update: that build reads the committed state.
+     */
+    private void update(final Consumer<Indexes> update) {
+        synchronized (updateLock) {
+            final Indexes current = this.indexes;
+            if (current != null) update.accept(current);
+            if (this.pendingUpdates != null) this.pendingUpdates.add(update);
+        }
+    }
+
+    private static void putStore(final Indexes indexes, final StoreView store) {
+        indexes.stores().put(store.id(), List.of(
+                new InvertedIndex.Field(store.name(), NAME_WEIGHT),
+                new InvertedIndex.Field(store.cuisineType() == null ? null : humanize(store.cuisineType().name()), CUISINE_WEIGHT),
+                new InvertedIndex.Field(store.area(), DESCRIPTION_WEIGHT),
+                new InvertedIndex.Field(store.description(), DESCRIPTION_WEIGHT)
+        ));
+    }
+
+    private void putDish(final Indexes indexes, final DishDocument dish) {
+        indexes.dishDocuments().put(dish.id(), dish);
+        dishVersion.incrementAndGet();
+        indexes.dishes().put(dish.id(), List.of(
+                new InvertedIndex.Field(dish.name(), NAME_WEIGHT),
+                new InvertedIndex.Field(dish.category() == null ? null : humanize(dish.category().name()), DESCRIPTION_WEIGHT),
+                new InvertedIndex.Field(dish.description(), DESCRIPTION_WEIGHT)
+        ));
+    }
+
+    private static String humanize(final String enumName) {
+        return enumName.replace('_', ' ');
+    }
+}
@@ -0,0 +1,94 @@
+package com.streetfoodgo.core.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Bloom filter over normalized (trimmed, upper case) codes.
+ * <p>
+ * {@link #mightContain} never answers false for a code the filter was built from, and answers true for other
+ * codes with about the false-positive rate it was sized for, so a false answer means the code certainly does not
+ * exist and needs no lookup. The bit positions come from two 64-bit hashes of the code's bytes combined as
+ * h1 + i * h2 (double hashing), which behaves like k independent hashes for a filter of this size.
+ * <p>
+ * Immutable once built; a change in the codes means building a new filter.
+ */
+final class CodeFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+    private final int size;
+
+    private CodeFilter(final int expected, final double falsePositiveRate) {
+        final int n = Math.max(expected, 1);
+        final double ln2 = Math.log(2);
+        this.bitCount = (int) Math.max(64, Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / n * ln2));
+        this.bits = new long[(this.bitCount + 63) >>> 6];
+        this.size = expected;
+    }
+
+    /**
+     * Builds a filter of {@code codes} sized for {@code falsePositiveRate}.
+     */
+    static CodeFilter of(final Collection<String> codes, final double falsePositiveRate) {
+        if (codes == null) throw new NullPointerException();
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        }
+        final CodeFilter filter = new CodeFilter(codes.size(), falsePositiveRate);
+        for (final String code : codes) filter.add(code);
+        return filter;
+    }
+
+    boolean mightContain(final String code) {
+        final byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+        final long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        final long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            final int bit = (int) Long.remainderUnsigned(h1 + i * h2, this.bitCount);
+            if ((this.bits[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    int bitCount() {
+        return this.bitCount;
+    }
+
+    /**
+     * The false-positive rate expected with the codes in the filter.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) this.hashCount * this.size / this.bitCount), this.hashCount);
+    }
+
+    private void add(final String code) {
+        final byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+        final long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        final long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < this.hashCount; i++) {
+            final int bit = (int) Long.remainderUnsigned(h1 + i * h2, this.bitCount);
+            this.bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Seeded 64-bit hash of the bytes: a multiply-xorshift per byte, finished with the SplitMix64 mixer.
+     */
+    private static long hash(final byte[] bytes, final long seed) {
+        long h = seed ^ bytes.length;
+        for (final byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+            h ^= h >>> 29;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
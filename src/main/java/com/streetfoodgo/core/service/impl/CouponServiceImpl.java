@@ -0,0 +1,493 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.Coupon;
+import com.streetfoodgo.core.model.CouponRedemption;
+import com.streetfoodgo.core.model.CuisineType;
+import com.streetfoodgo.core.model.DiscountType;
+import com.streetfoodgo.core.model.Order;
+import com.streetfoodgo.core.repository.CouponRedemptionRepository;
+import com.streetfoodgo.core.repository.CouponRepository;
+import com.streetfoodgo.core.repository.OrderRepository;
+import com.streetfoodgo.core.repository.StorePromotionRepository;
+import com.streetfoodgo.core.service.CouponService;
+import com.streetfoodgo.core.service.StoreService;
+import com.streetfoodgo.core.service.model.CodeLookupStats;
+import com.streetfoodgo.core.service.model.CouponQuote;
+import com.streetfoodgo.core.service.model.StoreView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coupon validation and redemption, built so that one popular code does not serialize checkouts.
+ * <p>
+ * A coupon's terms are read once and cached for a short TTL, so validating a code costs no coupon lookup
+ * while it is hot. Redemption touches the coupon row only for coupons with a usage limit, and then with a
+ * single conditional increment that is the last statement of the order transaction: the row is locked from
+ * that statement to commit, not for the whole order, and a coupon that ran out is remembered as sold out
+ * until its terms are reloaded, so further attempts are refused without touching the row at all.
+ * Coupons without a limit are counted in memory after commit and added to {@code current_uses} in batches.
+ * A checkout that charges a card first reserves the use (the same increment, committed on its own) so the coupon
+ * cannot run out between the charge and the order; the reservation is given back when no order follows.
+ * <p>
+ * Per-customer limits are enforced by the customer's redemption rows, whose unique use numbers make two
+ * concurrent redemptions of the same use fail instead of both passing the check.
+ * Codes are case-insensitive: they are stored and looked up upper case.
+ * <p>
+ * Codes that are not cached go through a Bloom filter of all active coupon and promo codes first, so unknown
+ * codes (typos, guessing) are answered without a lookup. The filter is rebuilt when codes change and
+ * periodically, which drops expired codes; between rebuilds an expired code only costs the lookup it would have
+ * cost anyway. A customer who enters too many unknown codes within a window is refused until the window ends.
+ * A code changed outside the application is missing from the filter until the next rebuild, so the rejection
+ * that would lock a customer out is confirmed with a lookup first; a code found that way drops the stale filter
+ * and is not counted.
+ */
+@Service
+public class CouponServiceImpl implements CouponService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CouponServiceImpl.class);
+
+    /**
+     * The parts of a {@link Coupon} needed to quote it, detached from the persistence context.
+     */
+    private record Terms(Long id,
+                         String code,
+                         String description,
+                         DiscountType discountType,
+                         BigDecimal discountValue,
+                         BigDecimal minimumOrderAmount,
+                         BigDecimal maxDiscountAmount,
+                         LocalDateTime validFrom,
+                         LocalDateTime validUntil,
+                         boolean active,
+                         Integer maxUses,
+                         int maxUsesPerUser,
+                         Long storeId,
+                         CuisineType cuisine,
+                         boolean firstOrderOnly,
+                         long loadedAtNanos) {
+
+        static Terms of(final Coupon coupon, final long now) {
+            return new Terms(
+                    coupon.getId(),
+                    coupon.getCode(),
+                    coupon.getDescription(),
+                    coupon.getDiscountType(),
+                    coupon.getDiscountValue(),
+                    coupon.getMinimumOrderAmount(),
+                    coupon.getMaxDiscountAmount(),
+                    coupon.getValidFrom(),
+                    coupon.getValidUntil(),
+                    Boolean.TRUE.equals(coupon.getIsActive()),
+                    coupon.getMaxUses(),
+                    coupon.getMaxUsesPerUser() == null ? 1 : coupon.getMaxUsesPerUser(),
+                    coupon.getApplicableStore() == null ? null : coupon.getApplicableStore().getId(),
+                    coupon.getApplicableCuisine(),
+                    Boolean.TRUE.equals(coupon.getFirstOrderOnly()),
+                    now);
+        }
+
+        boolean validAt(final LocalDateTime now) {
+            return this.active && !now.isBefore(this.validFrom) && !now.isAfter(this.validUntil);
+        }
+
+        /**
+         * Same rules as {@link Coupon#calculateDiscount}, rounded to cents.
+         */
+        BigDecimal discount(final BigDecimal subtotal) {
+            BigDecimal discount = this.discountType == DiscountType.FIXED
+                    ? this.discountValue
+                    : subtotal.multiply(this.discountValue).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+            if (this.maxDiscountAmount != null && discount.compareTo(this.maxDiscountAmount) > 0) {
+                discount = this.maxDiscountAmount;
+            }
+            if (discount.compareTo(subtotal) > 0) discount = subtotal;
+            return discount.setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    private final CouponRepository couponRepository;
+    private final CouponRedemptionRepository couponRedemptionRepository;
+    private final OrderRepository orderRepository;
+    private final StoreService storeService;
+    private final StorePromotionRepository storePromotionRepository;
+    private final long cacheTtlNanos;
+    private final double filterFalsePositiveRate;
+    private final int maxFailedAttempts;
+    private final long attemptWindowNanos;
+    private final long reservationTimeoutNanos;
+
+    private final Map<String, Terms> terms = new ConcurrentHashMap<>();
+    private final Set<Long> soldOut = ConcurrentHashMap.newKeySet();
+    private final Map<Long, LongAdder> uncountedUses = new ConcurrentHashMap<>();
+
+    /**
+     * A customer's unknown codes in the current window.
+     */
+    private record FailedAttempts(long windowStartNanos, int count) {}
+
+    private final Map<Long, FailedAttempts> failedAttempts = new ConcurrentHashMap<>();
+
+    /**
+     * A customer's uses of a limited coupon taken ahead of their order, with the time each was taken.
+     */
+    private record Reservation(Long couponId, Long customerId) {}
+
+    private final Map<Reservation, Deque<Long>> reservations = new ConcurrentHashMap<>();
+    private volatile CodeFilter codeFilter; // null until built, and again once codes changed
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    public CouponServiceImpl(final CouponRepository couponRepository,
+                             final CouponRedemptionRepository couponRedemptionRepository,
+                             final OrderRepository orderRepository,
+                             final StoreService storeService,
+                             final StorePromotionRepository storePromotionRepository,
+                             @Value("${app.coupons.cache-ttl:PT30S}") final Duration cacheTtl,
+                             @Value("${app.coupons.filter-false-positive-rate:0.01}") final double filterFalsePositiveRate,
+                             @Value("${app.coupons.max-failed-attempts:10}") final int maxFailedAttempts,
+                             @Value("${app.coupons.attempt-window:PT10M}") final Duration attemptWindow,
+                             @Value("${app.coupons.reservation-timeout:PT5M}") final Duration reservationTimeout) {
+        if (couponRepository == null) throw new NullPointerException();
+        if (couponRedemptionRepository == null) throw new NullPointerException();
+        if (orderRepository == null) throw new NullPointerException();
+        if (storeService == null) throw new NullPointerException();
+        if (storePromotionRepository == null) throw new NullPointerException();
+        if (cacheTtl == null) throw new NullPointerException();
+        if (attemptWindow == null) throw new NullPointerException();
+        if (reservationTimeout == null) throw new NullPointerException();
+        if (maxFailedAttempts <= 0) throw new IllegalArgumentException("maxFailedAttempts must be positive");
+        this.couponRepository = couponRepository;
+        this.couponRedemptionRepository = couponRedemptionRepository;
+        this.orderRepository = orderRepository;
+        this.storeService = storeService;
+        this.storePromotionRepository = storePromotionRepository;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.filterFalsePositiveRate = filterFalsePositiveRate;
+        this.maxFailedAttempts = maxFailedAttempts;
+        this.attemptWindowNanos = attemptWindow.toNanos();
+        this.reservationTimeoutNanos = reservationTimeout.toNanos();
+    }
+
+    // A refused code is an answer, not a failure: it must not roll back the caller's transaction
+    @Transactional(readOnly = true, noRollbackFor = IllegalArgumentException.class)
+    @Override
+    public CouponQuote quote(final String code, final Long customerId, final Long storeId, final BigDecimal subtotal) {
+        if (customerId == null) throw new NullPointerException();
+        if (storeId == null) throw new NullPointerException();
+        if (subtotal == null) throw new NullPointerException();
+
+        if (tooManyFailedAttempts(customerId)) {
+            this.rateLimited.increment();
+            throw new IllegalArgumentException("Too many invalid coupon codes. Please try again later.");
+        }
+        final Optional<Terms> found = terms(code, lastAllowedAttempt(customerId));
+        if (found.isEmpty()) {
+            recordFailedAttempt(customerId);
+            throw new IllegalArgumentException("Invalid coupon code");
+        }
+        final Terms terms = found.get();
+        if (!terms.validAt(LocalDateTime.now())) {
+            throw new IllegalArgumentException("This coupon is not valid at the moment");
+        }
+        if (terms.maxUses() != null && this.soldOut.contains(terms.id())) {
+            throw new IllegalArgumentException("This coupon has been fully redeemed");
+        }
+        if (terms.storeId() != null && !terms.storeId().equals(storeId)) {
+            throw new IllegalArgumentException("This coupon is not valid for this store");
+        }
+        if (terms.cuisine() != null) {
+            final StoreView store = this.storeService.getStore(storeId)
+                    .orElseThrow(() -> new IllegalArgumentException("Store not found"));
+            if (store.cuisineType() != terms.cuisine()) {
+                throw new IllegalArgumentException("This coupon is not valid for this store");
+            }
+        }
+        if (terms.minimumOrderAmount() != null && subtotal.compareTo(terms.minimumOrderAmount()) < 0) {
+            throw new IllegalArgumentException("This coupon requires a minimum order of €" + terms.minimumOrderAmount());
+        }
+        if (terms.firstOrderOnly() && this.orderRepository.countByCustomerId(customerId) > 0) {
+            throw new IllegalArgumentException("This coupon is valid on your first order only");
+        }
+        if (this.couponRedemptionRepository.countByCouponIdAndCustomerId(terms.id(), customerId) >= terms.maxUsesPerUser()) {
+            throw new IllegalArgumentException("You have already used this coupon");
+        }
+
+        return new CouponQuote(terms.id(), terms.code(), terms.description(), terms.discount(subtotal));
+    }
+
+    @Transactional
+    @Override
+    public void redeem(final CouponQuote quote, final Order order) {
+        if (quote == null) throw new NullPointerException();
+        if (order == null) throw new NullPointerException();
+        if (order.getId() == null) throw new IllegalArgumentException("Order must be saved before redeeming a coupon");
+
+        final Long couponId = quote.couponId();
+        final Long customerId = order.getCustomer().getId();
+        final Terms terms = terms(quote.code()).orElseThrow(() -> new IllegalArgumentException("Invalid coupon code"));
+
+        // The customer's next use; a concurrent redemption of the same use collides on the unique key
+        final long used = this.couponRedemptionRepository.countByCouponIdAndCustomerId(couponId, customerId);
+        if (used >= terms.maxUsesPerUser()) {
+            throw new IllegalArgumentException("You have already used this coupon");
+        }
+        try {
+            this.couponRedemptionRepository.saveAndFlush(new CouponRedemption(
+                    this.couponRepository.getReferenceById(couponId),
+                    order.getCustomer(),
+                    order,
+                    (int) used + 1,
+                    quote.discount()));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("You have already used this coupon");
+        }
+
+        if (terms.maxUses() == null) {
+            AfterCommit.run(() -> this.uncountedUses.computeIfAbsent(couponId, id -> new LongAdder()).increment());
+            return;
+        }
+        final Reservation reservation = new Reservation(couponId, customerId);
+        final Deque<Long> reserved = this.reservations.get(reservation);
+        if (reserved != null && !reserved.isEmpty()) {
+            // The use was taken ahead of the order; it is spent once the order commits
+            AfterCommit.run(() -> takeReservation(reservation));
+            return;
+        }
+        if (this.couponRepository.claimUse(couponId, LocalDateTime.now()) == 0) {
+            throw claimRefused(terms);
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void reserve(final CouponQuote quote, final Long customerId) {
+        if (quote == null) throw new NullPointerException();
+        if (customerId == null) throw new NullPointerException();
+
+        final Terms terms = terms(quote.code()).orElseThrow(() -> new IllegalArgumentException("Invalid coupon code"));
+        if (terms.maxUses() == null) return;
+        if (this.couponRepository.claimUse(quote.couponId(), LocalDateTime.now()) == 0) {
+            throw claimRefused(terms);
+        }
+        final long now = System.nanoTime();
+        AfterCommit.run(() -> this.reservations.compute(new Reservation(quote.couponId(), customerId), (r, d) -> {
+            final Deque<Long> reservedAt = d == null ? new ConcurrentLinkedDeque<>() : d;
+            reservedAt.add(now);
+            return reservedAt;
+        }));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void release(final CouponQuote quote, final Long customerId) {
+        if (quote == null) throw new NullPointerException();
+        if (customerId == null) throw new NullPointerException();
+        if (takeReservation(new Reservation(quote.couponId(), customerId)) != null) {
+            this.couponRepository.releaseUse(quote.couponId());
+        }
+    }
+
+    /**
+     * Gives back reserved uses that neither an order nor a release claimed within
+     * {@code app.coupons.reservation-timeout} (the checkout died between the reservation and the order).
+     */
+    @Scheduled(fixedDelayString = "${app.coupons.reservation-sweep-interval-ms:60000}")
+    @Transactional
+    public void releaseStaleReservations() {
+        final long now = System.nanoTime();
+        for (final Map.Entry<Reservation, Deque<Long>> entry : this.reservations.entrySet()) {
+            final Deque<Long> reservedAt = entry.getValue();
+            for (Long oldest = reservedAt.peekFirst();
+                 oldest != null && now - oldest >= this.reservationTimeoutNanos;
+                 oldest = reservedAt.peekFirst()) {
+                if (reservedAt.remove(oldest)) {
+                    this.couponRepository.releaseUse(entry.getKey().couponId());
+                    LOGGER.warn("Released a stale reservation of coupon {} by customer {}",
+                            entry.getKey().couponId(), entry.getKey().customerId());
+                }
+            }
+            this.reservations.computeIfPresent(entry.getKey(), (r, d) -> d.isEmpty() ? null : d);
+        }
+    }
+
+    /**
+     * Removes the customer's oldest reservation of the coupon.
+     *
+     * @return when it was made, or null when there was none
+     */
+    private Long takeReservation(final Reservation reservation) {
+        final Deque<Long> reservedAt = this.reservations.get(reservation);
+        return reservedAt == null ? null : reservedAt.pollFirst();
+    }
+
+    /**
+     * Why a conditional claim matched no row: the coupon ran out, or it is no longer active or valid. The row is
+     * re-read to tell which, and refreshes the cached terms.
+     */
+    private IllegalArgumentException claimRefused(final Terms terms) {
+        final Optional<Terms> current = this.couponRepository.findByCodeWithStore(terms.code())
+                .map(c -> Terms.of(c, System.nanoTime()));
+        if (current.isEmpty()) {
+            this.terms.remove(terms.code());
+            return new IllegalArgumentException("Invalid coupon code");
+        }
+        this.terms.put(terms.code(), current.get());
+        if (!current.get().validAt(LocalDateTime.now())) {
+            return new IllegalArgumentException("This coupon is not valid at the moment");
+        }
+        this.soldOut.add(terms.id());
+        return new IllegalArgumentException("This coupon has been fully redeemed");
+    }
+
+    /**
+     * Adds the uses of unlimited coupons counted since the last run to their rows, one update per coupon.
+     */
+    @Scheduled(fixedDelayString = "${app.coupons.flush-interval-ms:5000}")
+    @Transactional
+    public void flushUses() {
+        for (final Map.Entry<Long, LongAdder> entry : this.uncountedUses.entrySet()) {
+            final int uses = (int) entry.getValue().sumThenReset();
+            if (uses == 0) continue;
+            this.couponRepository.addUses(entry.getKey(), uses);
+            LOGGER.debug("Counted {} uses of coupon {}", uses, entry.getKey());
+        }
+    }
+
+    @Override
+    public void codesChanged() {
+        AfterCommit.run(() -> this.codeFilter = null);
+    }
+
+    @Override
+    public CodeLookupStats codeLookupStats() {
+        final CodeFilter filter = this.codeFilter;
+        return new CodeLookupStats(
+                filter == null ? 0 : filter.size(),
+                filter == null ? 0 : filter.expectedFalsePositiveRate(),
+                this.checked.sum(),
+                this.rejected.sum(),
+                this.falsePositives.sum(),
+                this.rateLimited.sum());
+    }
+
+    /**
+     * Rebuilds the code filter, which drops the codes that expired since the last build, forgets the attempt
+     * windows that ended and logs the lookup counters.
+     */
+    @Scheduled(fixedDelayString = "${app.coupons.filter-rebuild-interval-ms:300000}")
+    public void rebuildCodeFilter() {
+        this.codeFilter = buildCodeFilter();
+        final long now = System.nanoTime();
+        this.failedAttempts.values().removeIf(a -> now - a.windowStartNanos() >= this.attemptWindowNanos);
+
+        final CodeLookupStats stats = codeLookupStats();
+        LOGGER.info("Code filter: {} codes, expected false positives {}, observed {} ({} checked, {} rejected, {} rate limited)",
+                stats.codes(),
+                String.format(Locale.ROOT, "%.4f", stats.expectedFalsePositiveRate()),
+                String.format(Locale.ROOT, "%.4f", stats.observedFalsePositiveRate()),
+                stats.checked(), stats.rejected(), stats.rateLimited());
+    }
+
+    private CodeFilter codeFilter() {
+        final CodeFilter filter = this.codeFilter;
+        if (filter != null) return filter;
+        synchronized (this) {
+            if (this.codeFilter == null) this.codeFilter = buildCodeFilter();
+            return this.codeFilter;
+        }
+    }
+
+    private CodeFilter buildCodeFilter() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<String> codes = new ArrayList<>(this.couponRepository.findActiveCodes(now));
+        codes.addAll(this.storePromotionRepository.findActivePromoCodes(now));
+        return CodeFilter.of(codes.stream().map(c -> c.trim().toUpperCase(Locale.ROOT)).distinct().toList(),
+                this.filterFalsePositiveRate);
+    }
+
+    private boolean tooManyFailedAttempts(final Long customerId) {
+        final FailedAttempts attempts = this.failedAttempts.get(customerId);
+        return attempts != null
+                && attempts.count() >= this.maxFailedAttempts
+                && System.nanoTime() - attempts.windowStartNanos() < this.attemptWindowNanos;
+    }
+
+    private void recordFailedAttempt(final Long customerId) {
+        final long now = System.nanoTime();
+        this.failedAttempts.compute(customerId, (id, attempts) ->
+                attempts == null || now - attempts.windowStartNanos() >= this.attemptWindowNanos
+                        ? new FailedAttempts(now, 1)
+                        : new FailedAttempts(attempts.windowStartNanos(), attempts.count() + 1));
+    }
+
+    private boolean lastAllowedAttempt(final Long customerId) {
+        final FailedAttempts attempts = this.failedAttempts.get(customerId);
+        return attempts != null
+                && attempts.count() + 1 >= this.maxFailedAttempts
+                && System.nanoTime() - attempts.windowStartNanos() < this.attemptWindowNanos;
+    }
+
+    private Optional<Terms> terms(final String code) {
+        return terms(code, false);
+    }
+
+    /**
+     * @param confirmRejection look the code up even when the filter rejects it
+     */
+    private Optional<Terms> terms(final String code, final boolean confirmRejection) {
+        if (code == null || code.isBlank()) return Optional.empty();
+        final String normalized = code.trim().toUpperCase(Locale.ROOT);
+        final long now = System.nanoTime();
+        final Terms cached = this.terms.get(normalized);
+        if (cached != null && now - cached.loadedAtNanos() < this.cacheTtlNanos) return Optional.of(cached);
+
+        // A code cached before is known to exist; anything else must get past the filter to be looked up
+        CodeFilter rejectedBy = null;
+        if (cached == null) {
+            this.checked.increment();
+            final CodeFilter filter = codeFilter();
+            if (!filter.mightContain(normalized)) {
+                this.rejected.increment();
+                if (!confirmRejection) return Optional.empty();
+                rejectedBy = filter;
+            }
+        }
+
+        final Optional<Terms> loaded = this.couponRepository.findByCodeWithStore(normalized).map(c -> Terms.of(c, now));
+        if (loaded.isEmpty() && cached == null && rejectedBy == null) this.falsePositives.increment();
+        if (loaded.isPresent() && rejectedBy != null && this.codeFilter == rejectedBy) {
+            LOGGER.info("Code filter is missing code {}; rebuilding it", normalized);
+            this.codeFilter = null;
+        }
+        if (loaded.isPresent()) {
+            this.terms.put(normalized, loaded.get());
+            this.soldOut.remove(loaded.get().id()); // re-checked against the row on the next redemption
+        } else {
+            this.terms.remove(normalized);
+        }
+        return loaded;
+    }
+}
@@ -6,6 +6,7 @@ import com.streetfoodgo.core.repository.DeliveryAddressRepository;
 import com.streetfoodgo.core.repository.PersonRepository;
 import com.streetfoodgo.core.security.CurrentUserProvider;
 import com.streetfoodgo.core.service.DeliveryAddressService;
+import com.streetfoodgo.core.service.HomeFeedService;
 import com.streetfoodgo.core.service.mapper.DeliveryAddressMapper;
 import com.streetfoodgo.core.service.model.CreateDeliveryAddressRequest;
 import com.streetfoodgo.core.service.model.DeliveryAddressView;
@@ -26,22 +27,26 @@ public class DeliveryAddressServiceImpl implements DeliveryAddressService {
     private final PersonRepository personRepository;
     private final DeliveryAddressMapper deliveryAddressMapper;
     private final CurrentUserProvider currentUserProvider;
+    private final HomeFeedService homeFeedService;
 
     public DeliveryAddressServiceImpl(
             final DeliveryAddressRepository deliveryAddressRepository,
             final PersonRepository personRepository,
             final DeliveryAddressMapper deliveryAddressMapper,
-            final CurrentUserProvider currentUserProvider) {
+            final CurrentUserProvider currentUserProvider,
+            final HomeFeedService homeFeedService) {
 
         if (deliveryAddressRepository == null) throw new NullPointerException();
         if (personRepository == null) throw new NullPointerException();
         if (deliveryAddressMapper == null) throw new NullPointerException();
         if (currentUserProvider == null) throw new NullPointerException();
+        if (homeFeedService == null) throw new NullPointerException();
 
         this.deliveryAddressRepository = deliveryAddressRepository;
         this.personRepository = personRepository;
         this.deliveryAddressMapper = deliveryAddressMapper;
         this.currentUserProvider = currentUserProvider;
+        this.homeFeedService = homeFeedService;
     }
 
     @Override
@@ -105,6 +110,7 @@ public class DeliveryAddressServiceImpl implements DeliveryAddressService {
         }
 
         address = this.deliveryAddressRepository.save(address);
+        if (isDefault) evictHomeFeed(customer.getId());
         return this.deliveryAddressMapper.toView(address);
     }
 
@@ -132,6 +138,7 @@ public class DeliveryAddressServiceImpl implements DeliveryAddressService {
         address.setLongitude(request.longitude());
 
         address = this.deliveryAddressRepository.save(address);
+        if (Boolean.TRUE.equals(address.getIsDefault())) evictHomeFeed(currentUser.id());
 
         return this.deliveryAddressMapper.toView(address);
     }
@@ -158,6 +165,7 @@ public class DeliveryAddressServiceImpl implements DeliveryAddressService {
             addr.setIsDefault(addr.getId().equals(id));
             this.deliveryAddressRepository.save(addr);
         }
+        evictHomeFeed(currentUser.id());
     }
 
     @Transactional
@@ -175,5 +183,13 @@ public class DeliveryAddressServiceImpl implements DeliveryAddressService {
         }
 
         this.deliveryAddressRepository.delete(address);
+        if (Boolean.TRUE.equals(address.getIsDefault())) evictHomeFeed(currentUser.id());
     }
-}
\ No newline at end of file
+
+    /**
+     * The homepage's "popular near you" section follows the default address.
+     */
+    private void evictHomeFeed(final long customerId) {
+        AfterCommit.run(() -> this.homeFeedService.evictCustomer(customerId));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.streetfoodgo.core.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal geohash encoding: a cell id for a coordinate and the 3x3 block of cells around it.
+ * <p>
+ * At precision 5 a cell is about 4.9 x 4.9 km, so a cell plus its eight neighbours covers
+ * roughly a 15 km square around the point, a reasonable "near you" radius for delivery.
+ */
+final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) DECODE[BASE32[i]] = i;
+    }
+
+    private Geohash() {
+    }
+
+    static String encode(final double latitude, final double longitude, final int precision) {
+        if (precision < 1 || precision > 12) throw new IllegalArgumentException("precision must be 1..12");
+        double latMin = -90, latMax = 90;
+        double lonMin = -180, lonMax = 180;
+        final StringBuilder sb = new StringBuilder(precision);
+        boolean even = true; // bits alternate, starting with longitude
+        int bit = 0;
+        int ch = 0;
+        while (sb.length() < precision) {
+            if (even) {
+                final double mid = (lonMin + lonMax) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    lonMin = mid;
+                } else {
+                    ch <<= 1;
+                    lonMax = mid;
+                }
+            } else {
+                final double mid = (latMin + latMax) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    latMin = mid;
+                } else {
+                    ch <<= 1;
+                    latMax = mid;
+                }
+            }
+            even = !even;
+            if (++bit == 5) {
+                sb.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The cell itself followed by its (up to) eight neighbours; longitude wraps, latitude stops at the poles.
+     */
+    static List<String> neighbourhood(final String hash) {
+        final double[] box = decode(hash);
+        final double latCenter = (box[0] + box[1]) / 2;
+        final double lonCenter = (box[2] + box[3]) / 2;
+        final double height = box[1] - box[0];
+        final double width = box[3] - box[2];
+
+        final List<String> cells = new ArrayList<>(9);
+        cells.add(hash);
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                if (dLat == 0 && dLon == 0) continue;
+                final double lat = latCenter + dLat * height;
+                if (lat < -90 || lat > 90) continue;
+                double lon = lonCenter + dLon * width;
+                if (lon < -180) lon += 360;
+                if (lon >= 180) lon -= 360;
+                final String cell = encode(lat, lon, hash.length());
+                if (!cells.contains(cell)) cells.add(cell);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Bounding box of a cell as {@code [latMin, latMax, lonMin, lonMax]}.
+     */
+    private static double[] decode(final String hash) {
+        if (hash == null || hash.isEmpty()) throw new IllegalArgumentException("Empty geohash");
+        double latMin = -90, latMax = 90;
+        double lonMin = -180, lonMax = 180;
+        boolean even = true;
+        for (int i = 0; i < hash.length(); i++) {
+            final char c = hash.charAt(i);
+            final int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0) throw new IllegalArgumentException("Invalid geohash '" + hash + "'");
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                final boolean set = (value & mask) != 0;
+                if (even) {
+                    final double mid = (lonMin + lonMax) / 2;
+                    if (set) lonMin = mid; else lonMax = mid;
+                } else {
+                    final double mid = (latMin + latMax) / 2;
+                    if (set) latMin = mid; else latMax = mid;
+                }
+                even = !even;
+            }
+        }
+        return new double[]{latMin, latMax, lonMin, lonMax};
+    }
+}
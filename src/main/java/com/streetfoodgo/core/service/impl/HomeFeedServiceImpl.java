@@ -0,0 +1,277 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.DeliveryAddress;
+import com.streetfoodgo.core.model.OrderStatus;
+import com.streetfoodgo.core.repository.DeliveryAddressRepository;
+import com.streetfoodgo.core.repository.OrderRepository;
+import com.streetfoodgo.core.service.HomeFeedService;
+import com.streetfoodgo.core.service.model.HomeFeed;
+import com.streetfoodgo.core.service.model.StoreView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Homepage feed served from precomputed sections.
+ * <p>
+ * The global sections are rebuilt in the background (on catalog changes and periodically for popularity):
+ * "featured" ranks stores by a Bayesian average rating plus recent order volume, and "popular near you"
+ * is ranked once per geohash cell over the 3x3 block of cells around it, so a customer's section is a
+ * single map lookup by the cell of their default address. Per-customer data (reorder history, address cell)
+ * is cached with a TTL and evicted when the customer orders or edits addresses. Sections hold store ids only
+ * and are resolved against the {@link StoreCatalog} at read time, so they always show current store data.
+ */
+@Service
+public class HomeFeedServiceImpl implements HomeFeedService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HomeFeedServiceImpl.class);
+
+    private static final Set<OrderStatus> NOT_COUNTED = EnumSet.of(OrderStatus.REJECTED, OrderStatus.CANCELLED);
+
+    /**
+     * Weight of the catalog-wide mean rating, in reviews; keeps a single 5-star review from topping the feed.
+     */
+    private static final double PRIOR_REVIEWS = 10.0;
+
+    private final StoreCatalog storeCatalog;
+    private final OrderRepository orderRepository;
+    private final DeliveryAddressRepository deliveryAddressRepository;
+    private final int sectionSize;
+    private final int geohashPrecision;
+    private final Duration popularityWindow;
+    private final long refreshIntervalNanos;
+    private final long customerTtlNanos;
+    private final int maxCachedCustomers;
+
+    private final Map<Long, CustomerEntry> customers = new ConcurrentHashMap<>();
+    private volatile Sections sections;
+
+    public HomeFeedServiceImpl(
+            final StoreCatalog storeCatalog,
+            final OrderRepository orderRepository,
+            final DeliveryAddressRepository deliveryAddressRepository,
+            @Value("${app.home-feed.section-size:8}") final int sectionSize,
+            @Value("${app.home-feed.geohash-precision:5}") final int geohashPrecision,
+            @Value("${app.home-feed.popularity-window:P30D}") final Duration popularityWindow,
+            @Value("${app.home-feed.refresh:PT10M}") final Duration refresh,
+            @Value("${app.home-feed.customer-ttl:PT5M}") final Duration customerTtl,
+            @Value("${app.home-feed.max-customers:10000}") final int maxCachedCustomers) {
+        if (storeCatalog == null) throw new NullPointerException();
+        if (orderRepository == null) throw new NullPointerException();
+        if (deliveryAddressRepository == null) throw new NullPointerException();
+        if (popularityWindow == null) throw new NullPointerException();
+        if (refresh == null) throw new NullPointerException();
+        if (customerTtl == null) throw new NullPointerException();
+        if (sectionSize <= 0) throw new IllegalArgumentException("sectionSize must be positive");
+        if (geohashPrecision < 1 || geohashPrecision > 12) throw new IllegalArgumentException("geohashPrecision must be 1..12");
+        if (maxCachedCustomers < 0) throw new IllegalArgumentException("maxCachedCustomers must be >= 0");
+        this.storeCatalog = storeCatalog;
+        this.orderRepository = orderRepository;
+        this.deliveryAddressRepository = deliveryAddressRepository;
+        this.sectionSize = sectionSize;
+        this.geohashPrecision = geohashPrecision;
+        this.popularityWindow = popularityWindow;
+        this.refreshIntervalNanos = refresh.toNanos();
+        this.customerTtlNanos = customerTtl.toNanos();
+        this.maxCachedCustomers = maxCachedCustomers;
+    }
+
+    @Override
+    public HomeFeed getFeed(final Long customerId) {
+        Sections current = this.sections;
+        if (current == null) current = rebuild();
+
+        final List<StoreView> featured = resolve(current.featured());
+        if (customerId == null) {
+            return new HomeFeed(featured, resolve(current.popular()), null, List.of());
+        }
+
+        final CustomerEntry customer = customer(customerId);
+        final List<Long> nearby = customer.cell() == null ? null : current.popularByCell().get(customer.cell());
+        return new HomeFeed(
+                featured,
+                resolve(nearby != null ? nearby : current.popular()),
+                nearby != null ? customer.area() : null,
+                resolve(customer.reorder()));
+    }
+
+    @Override
+    public void evictCustomer(final Long customerId) {
+        if (customerId == null) return;
+        this.customers.remove(customerId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the global sections when the catalog changed or popularity is due for a refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.home-feed.check-interval-ms:5000}")
+    public void refreshIfStale() {
+        final Sections current = this.sections;
+        if (current == null) return;
+        if (current.catalogVersion() != this.storeCatalog.version()
+                || System.nanoTime() - current.builtAtNanos() >= this.refreshIntervalNanos) {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Home feed rebuild failed, keeping previous sections: {}", ex.getMessage());
+            }
+        }
+    }
+
+    // Global sections
+    // --------------------------------------------------
+
+    private synchronized Sections rebuild() {
+        final long started = System.nanoTime();
+        final long catalogVersion = this.storeCatalog.version();
+        final List<StoreView> stores = this.storeCatalog.all();
+
+        final Map<Long, Long> recentOrders = new HashMap<>();
+        for (final Object[] row : this.orderRepository.countOrdersPerStoreSince(
+                Instant.now().minus(this.popularityWindow), NOT_COUNTED)) {
+            if (row[0] == null || row[1] == null) continue;
+            recentOrders.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        // Catalog-wide mean rating, the prior of every store's Bayesian average
+        double ratingSum = 0;
+        long reviewCount = 0;
+        for (final StoreView s : stores) {
+            if (s.averageRating() == null || s.totalReviews() == null || s.totalReviews() <= 0) continue;
+            ratingSum += s.averageRating() * s.totalReviews();
+            reviewCount += s.totalReviews();
+        }
+        final double meanRating = reviewCount == 0 ? 0 : ratingSum / reviewCount;
+
+        final Map<Long, Double> rating = new HashMap<>(stores.size() * 2);
+        final Map<Long, Double> featuredScore = new HashMap<>(stores.size() * 2);
+        for (final StoreView s : stores) {
+            final int reviews = s.totalReviews() == null || s.averageRating() == null ? 0 : s.totalReviews();
+            final double bayesian = (PRIOR_REVIEWS * meanRating + (reviews == 0 ? 0 : s.averageRating() * reviews))
+                    / (PRIOR_REVIEWS + reviews);
+            rating.put(s.id(), bayesian);
+            featuredScore.put(s.id(), bayesian
+                    + 0.5 * Math.log1p(recentOrders.getOrDefault(s.id(), 0L))
+                    + (Boolean.TRUE.equals(s.isFeatured()) ? 0.5 : 0));
+        }
+
+        final Comparator<StoreView> byFeatured = Comparator
+                .comparingDouble((StoreView s) -> -featuredScore.get(s.id()))
+                .thenComparing(StoreView::id);
+        final Comparator<StoreView> byPopularity = Comparator
+                .comparingLong((StoreView s) -> -recentOrders.getOrDefault(s.id(), 0L))
+                .thenComparingDouble(s -> -rating.get(s.id()))
+                .thenComparing(StoreView::id);
+
+        // Each store counts for its own cell and the eight around it
+        final Map<String, List<StoreView>> byCell = new HashMap<>();
+        for (final StoreView s : stores) {
+            if (s.latitude() == null || s.longitude() == null) continue;
+            final String cell = Geohash.encode(s.latitude(), s.longitude(), this.geohashPrecision);
+            for (final String around : Geohash.neighbourhood(cell)) {
+                byCell.computeIfAbsent(around, k -> new ArrayList<>()).add(s);
+            }
+        }
+        final Map<String, List<Long>> popularByCell = new HashMap<>(byCell.size() * 2);
+        byCell.forEach((cell, candidates) -> popularByCell.put(cell, top(candidates, byPopularity)));
+
+        final Sections built = new Sections(
+                top(stores, byFeatured),
+                top(stores, byPopularity),
+                Map.copyOf(popularByCell),
+                catalogVersion,
+                System.nanoTime());
+        this.sections = built;
+        LOGGER.info("Home feed built: {} stores over {} geohash cells in {} ms",
+                stores.size(), popularByCell.size(), (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+
+    private List<Long> top(final List<StoreView> stores, final Comparator<StoreView> order) {
+        return stores.stream().sorted(order).limit(this.sectionSize).map(StoreView::id).toList();
+    }
+
+    /**
+     * Current views of the given stores, open ones first (otherwise in section order); removed stores are skipped.
+     */
+    private List<StoreView> resolve(final List<Long> ids) {
+        final List<StoreView> open = new ArrayList<>(ids.size());
+        final List<StoreView> closed = new ArrayList<>();
+        for (final Long id : ids) {
+            final Optional<StoreView> view = this.storeCatalog.get(id);
+            if (view.isEmpty()) continue;
+            (this.storeCatalog.isOpenNow(id) ? open : closed).add(view.get());
+        }
+        open.addAll(closed);
+        return open;
+    }
+
+    // Per-customer cache
+    // --------------------------------------------------
+
+    private CustomerEntry customer(final Long customerId) {
+        final long now = System.nanoTime();
+        final CustomerEntry cached = this.customers.get(customerId);
+        if (cached != null && now - cached.createdAtNanos() < this.customerTtlNanos) return cached;
+
+        final CustomerEntry loaded = loadCustomer(customerId, now);
+        if (this.maxCachedCustomers > 0) {
+            this.customers.put(customerId, loaded);
+            if (this.customers.size() > this.maxCachedCustomers) evict(now);
+        }
+        return loaded;
+    }
+
+    private CustomerEntry loadCustomer(final Long customerId, final long now) {
+        final List<Long> reorder = new ArrayList<>(this.sectionSize);
+        for (final Object[] row : this.orderRepository.findOrderedStoresByCustomer(customerId, NOT_COUNTED)) {
+            if (row[0] == null) continue;
+            reorder.add(((Number) row[0]).longValue());
+            if (reorder.size() == this.sectionSize) break;
+        }
+
+        String cell = null;
+        String area = null;
+        final Optional<DeliveryAddress> address = this.deliveryAddressRepository.findByCustomerIdAndIsDefaultTrue(customerId);
+        if (address.isPresent() && address.get().getLatitude() != null && address.get().getLongitude() != null) {
+            cell = Geohash.encode(address.get().getLatitude(), address.get().getLongitude(), this.geohashPrecision);
+            area = address.get().getArea();
+        }
+        return new CustomerEntry(List.copyOf(reorder), cell, area, now);
+    }
+
+    private void evict(final long now) {
+        this.customers.values().removeIf(e -> now - e.createdAtNanos() >= this.customerTtlNanos);
+        while (this.customers.size() > this.maxCachedCustomers) {
+            this.customers.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().createdAtNanos()))
+                    .ifPresent(e -> this.customers.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private record Sections(List<Long> featured, List<Long> popular, Map<String, List<Long>> popularByCell,
+                            long catalogVersion, long builtAtNanos) {}
+
+    private record CustomerEntry(List<Long> reorder, String cell, String area, long createdAtNanos) {}
+}
@@ -0,0 +1,188 @@
+package com.streetfoodgo.core.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Small in-process inverted index with BM25 ranking, prefix and trigram fuzzy term expansion.
+ * <p>
+ * Documents are identified by {@code long} ids and consist of weighted text fields; a term's
+ * frequency is the sum of the weights of the fields it occurs in (a simplified BM25F).
+ * Updates replace a document's postings in place, so the index is maintained incrementally.
+ */
+final class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final double PREFIX_SIMILARITY = 0.8;
+    private static final double FUZZY_WEIGHT = 0.7;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.35;
+    private static final int MAX_EXPANSIONS = 32;
+
+    record Field(String text, float weight) {}
+
+    record Hit(long docId, double score) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigramToTerms = new HashMap<>();
+    private final Map<Long, Map<String, Float>> docTerms = new HashMap<>();
+    private final Map<Long, Float> docLengths = new HashMap<>();
+    private double totalLength;
+
+    /**
+     * Adds or replaces a document.
+     */
+    void put(final long docId, final List<Field> fields) {
+        final Map<String, Float> tf = new HashMap<>();
+        float length = 0;
+        for (Field field : fields) {
+            if (field.text() == null) continue;
+            for (String term : TextNormalizer.terms(field.text())) {
+                tf.merge(term, field.weight(), Float::sum);
+                length += field.weight();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            if (tf.isEmpty()) return;
+            for (Map.Entry<String, Float> e : tf.entrySet()) {
+                final Map<Long, Float> list = postings.computeIfAbsent(e.getKey(), t -> {
+                    for (String g : trigrams(t)) trigramToTerms.computeIfAbsent(g, k -> new HashSet<>()).add(t);
+                    return new HashMap<>();
+                });
+                list.put(docId, e.getValue());
+            }
+            docTerms.put(docId, tf);
+            docLengths.put(docId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(final long docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every matching document; query tokens are OR-ed, each contributing its best expansion per document.
+     */
+    Map<Long, Double> scores(final String query) {
+        final List<String> tokens = TextNormalizer.tokens(query);
+        final Map<Long, Double> scores = new HashMap<>();
+        if (tokens.isEmpty()) return scores;
+
+        lock.readLock().lock();
+        try {
+            if (docLengths.isEmpty()) return scores;
+            final double avgLength = totalLength / docLengths.size();
+            for (String token : tokens) {
+                final Map<String, Double> expansions = expand(token);
+                final String latin = TextNormalizer.toLatin(token);
+                if (latin != null) expand(latin).forEach((t, s) -> expansions.merge(t, s, Math::max));
+
+                final Map<Long, Double> best = new HashMap<>();
+                for (Map.Entry<String, Double> e : expansions.entrySet()) {
+                    final Map<Long, Float> list = postings.get(e.getKey());
+                    final double idf = Math.log(1 + (docLengths.size() - list.size() + 0.5) / (list.size() + 0.5));
+                    for (Map.Entry<Long, Float> p : list.entrySet()) {
+                        final double tf = p.getValue();
+                        final double norm = 1 - B + B * docLengths.get(p.getKey()) / avgLength;
+                        final double score = e.getValue() * idf * tf * (K1 + 1) / (tf + K1 * norm);
+                        best.merge(p.getKey(), score, Math::max);
+                    }
+                }
+                best.forEach((doc, s) -> scores.merge(doc, s, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores;
+    }
+
+    List<Hit> search(final String query, final int limit) {
+        return top(scores(query), limit);
+    }
+
+    static List<Hit> top(final Map<Long, Double> scores, final int limit) {
+        final List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((doc, s) -> hits.add(new Hit(doc, s)));
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::docId));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Exact term, prefix completions (typing in progress) and trigram neighbours (typos), with a similarity weight each.
+     */
+    private Map<String, Double> expand(final String token) {
+        final Map<String, Double> out = new HashMap<>();
+        if (postings.containsKey(token)) out.put(token, 1.0);
+
+        if (token.length() >= 2) {
+            int n = 0;
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                out.putIfAbsent(term, PREFIX_SIMILARITY);
+                if (++n >= MAX_EXPANSIONS) break;
+            }
+        }
+
+        if (token.length() >= 3) {
+            final Set<String> grams = trigrams(token);
+            final Map<String, Integer> shared = new HashMap<>();
+            for (String g : grams) {
+                final Set<String> terms = trigramToTerms.get(g);
+                if (terms != null) for (String t : terms) shared.merge(t, 1, Integer::sum);
+            }
+            shared.entrySet().stream()
+                    .map(e -> Map.entry(e.getKey(),
+                            e.getValue() / (double) (grams.size() + trigrams(e.getKey()).size() - e.getValue())))
+                    .filter(e -> e.getValue() >= MIN_TRIGRAM_SIMILARITY)
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .limit(MAX_EXPANSIONS)
+                    .forEach(e -> out.merge(e.getKey(), e.getValue() * FUZZY_WEIGHT, Math::max));
+        }
+        return out;
+    }
+
+    private void removeLocked(final long docId) {
+        final Map<String, Float> old = docTerms.remove(docId);
+        if (old == null) return;
+        for (String term : old.keySet()) {
+            final Map<Long, Float> list = postings.get(term);
+            if (list == null) continue;
+            list.remove(docId);
+            if (list.isEmpty()) {
+                postings.remove(term);
+                for (String g : trigrams(term)) {
+                    final Set<String> terms = trigramToTerms.get(g);
+                    if (terms != null && terms.remove(term) && terms.isEmpty()) trigramToTerms.remove(g);
+                }
+            }
+        }
+        totalLength -= docLengths.remove(docId);
+    }
+
+    private static Set<String> trigrams(final String term) {
+        final String padded = "  " + term + " ";
+        final Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) grams.add(padded.substring(i, i + 3));
+        return grams;
+    }
+}
@@ -8,39 +8,49 @@ import com.streetfoodgo.core.service.model.*;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Service
 public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationService {
 
+    private static final Comparator<Integer> DISPLAY_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+    private static final Comparator<Long> DISPLAY_ID = Comparator.nullsLast(Comparator.naturalOrder());
+
     private final MenuItemRepository menuItemRepository;
     private final MenuItemOptionRepository optionRepository;
     private final MenuItemChoiceRepository choiceRepository;
     private final MenuItemIngredientRepository ingredientRepository;
     private final CurrentUserProvider currentUserProvider;
+    private final StoreMenuCache storeMenuCache;
 
     public MenuItemCustomizationServiceImpl(
             final MenuItemRepository menuItemRepository,
             final MenuItemOptionRepository optionRepository,
             final MenuItemChoiceRepository choiceRepository,
             final MenuItemIngredientRepository ingredientRepository,
-            final CurrentUserProvider currentUserProvider) {
+            final CurrentUserProvider currentUserProvider,
+            final StoreMenuCache storeMenuCache) {
         this.menuItemRepository = Objects.requireNonNull(menuItemRepository);
         this.optionRepository = Objects.requireNonNull(optionRepository);
         this.choiceRepository = Objects.requireNonNull(choiceRepository);
         this.ingredientRepository = Objects.requireNonNull(ingredientRepository);
         this.currentUserProvider = Objects.requireNonNull(currentUserProvider);
+        this.storeMenuCache = Objects.requireNonNull(storeMenuCache);
     }
 
     @Override
     public List<MenuItemOptionView> getOptions(final Long menuItemId) {
         if (menuItemId == null || menuItemId <= 0) throw new IllegalArgumentException();
-        final MenuItem menuItem = menuItemRepository.findById(menuItemId)
+        final MenuItem menuItem = menuItemRepository.findByIdWithStore(menuItemId)
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
         requireOwner(menuItem.getStore());
 
-        return optionRepository.findByMenuItemIdOrderByDisplayOrderAsc(menuItemId)
+        return optionRepository.findAllWithChoicesByMenuItemId(menuItemId)
                 .stream()
                 .map(this::toOptionView)
                 .toList();
@@ -50,7 +60,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
     @Override
     public MenuItemOptionView createOption(final CreateMenuItemOptionRequest request) {
         if (request == null) throw new NullPointerException();
-        final MenuItem menuItem = menuItemRepository.findById(request.menuItemId())
+        final MenuItem menuItem = menuItemRepository.findByIdWithStore(request.menuItemId())
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
         requireOwner(menuItem.getStore());
 
@@ -65,6 +75,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         option.setDisplayOrder(request.displayOrder() != null ? request.displayOrder() : 0);
 
         final MenuItemOption saved = optionRepository.save(option);
+        storeMenuCache.bumpVersion(menuItem.getStore().getId());
         return toOptionView(saved);
     }
 
@@ -74,7 +85,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (optionId == null || optionId <= 0) throw new IllegalArgumentException();
         if (request == null) throw new NullPointerException();
 
-        final MenuItemOption option = optionRepository.findById(optionId)
+        final MenuItemOption option = optionRepository.findByIdWithStore(optionId)
                 .orElseThrow(() -> new IllegalArgumentException("Option not found"));
         requireOwner(option.getMenuItem().getStore());
 
@@ -86,6 +97,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (request.maxSelections() != null) option.setMaxSelections(request.maxSelections());
         if (request.displayOrder() != null) option.setDisplayOrder(request.displayOrder());
 
+        storeMenuCache.bumpVersion(option.getMenuItem().getStore().getId());
         return toOptionView(optionRepository.save(option));
     }
 
@@ -93,10 +105,11 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
     @Override
     public void deleteOption(final Long optionId) {
         if (optionId == null || optionId <= 0) throw new IllegalArgumentException();
-        final MenuItemOption option = optionRepository.findById(optionId)
+        final MenuItemOption option = optionRepository.findByIdWithStore(optionId)
                 .orElseThrow(() -> new IllegalArgumentException("Option not found"));
         requireOwner(option.getMenuItem().getStore());
         optionRepository.delete(option);
+        storeMenuCache.bumpVersion(option.getMenuItem().getStore().getId());
     }
 
     @Transactional
@@ -105,7 +118,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (optionId == null || optionId <= 0) throw new IllegalArgumentException();
         if (request == null) throw new NullPointerException();
 
-        final MenuItemOption option = optionRepository.findById(optionId)
+        final MenuItemOption option = optionRepository.findByIdWithStore(optionId)
                 .orElseThrow(() -> new IllegalArgumentException("Option not found"));
         requireOwner(option.getMenuItem().getStore());
 
@@ -119,6 +132,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         choice.setDisplayOrder(request.displayOrder() != null ? request.displayOrder() : 0);
 
         final MenuItemChoice saved = choiceRepository.save(choice);
+        storeMenuCache.bumpVersion(option.getMenuItem().getStore().getId());
         return toChoiceView(saved);
     }
 
@@ -128,7 +142,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (choiceId == null || choiceId <= 0) throw new IllegalArgumentException();
         if (request == null) throw new NullPointerException();
 
-        final MenuItemChoice choice = choiceRepository.findById(choiceId)
+        final MenuItemChoice choice = choiceRepository.findByIdWithStore(choiceId)
                 .orElseThrow(() -> new IllegalArgumentException("Choice not found"));
         requireOwner(choice.getOption().getMenuItem().getStore());
 
@@ -140,6 +154,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (request.displayOrder() != null) choice.setDisplayOrder(request.displayOrder());
 
         final MenuItemChoice saved = choiceRepository.save(choice);
+        storeMenuCache.bumpVersion(choice.getOption().getMenuItem().getStore().getId());
         return toChoiceView(saved);
     }
 
@@ -147,16 +162,17 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
     @Override
     public void deleteChoice(final Long choiceId) {
         if (choiceId == null || choiceId <= 0) throw new IllegalArgumentException();
-        final MenuItemChoice choice = choiceRepository.findById(choiceId)
+        final MenuItemChoice choice = choiceRepository.findByIdWithStore(choiceId)
                 .orElseThrow(() -> new IllegalArgumentException("Choice not found"));
         requireOwner(choice.getOption().getMenuItem().getStore());
         choiceRepository.delete(choice);
+        storeMenuCache.bumpVersion(choice.getOption().getMenuItem().getStore().getId());
     }
 
     @Override
     public List<MenuItemIngredientView> getIngredients(final Long menuItemId) {
         if (menuItemId == null || menuItemId <= 0) throw new IllegalArgumentException();
-        final MenuItem menuItem = menuItemRepository.findById(menuItemId)
+        final MenuItem menuItem = menuItemRepository.findByIdWithStore(menuItemId)
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
         requireOwner(menuItem.getStore());
 
@@ -172,7 +188,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (menuItemId == null || menuItemId <= 0) throw new IllegalArgumentException();
         if (request == null) throw new NullPointerException();
 
-        final MenuItem menuItem = menuItemRepository.findById(menuItemId)
+        final MenuItem menuItem = menuItemRepository.findByIdWithStore(menuItemId)
                 .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
         requireOwner(menuItem.getStore());
 
@@ -186,6 +202,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         ingredient.setDisplayOrder(request.displayOrder() != null ? request.displayOrder() : 0);
 
         final MenuItemIngredient saved = ingredientRepository.save(ingredient);
+        storeMenuCache.bumpVersion(menuItem.getStore().getId());
         return toIngredientView(saved);
     }
 
@@ -195,7 +212,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (ingredientId == null || ingredientId <= 0) throw new IllegalArgumentException();
         if (request == null) throw new NullPointerException();
 
-        final MenuItemIngredient ingredient = ingredientRepository.findById(ingredientId)
+        final MenuItemIngredient ingredient = ingredientRepository.findByIdWithStore(ingredientId)
                 .orElseThrow(() -> new IllegalArgumentException("Ingredient not found"));
         requireOwner(ingredient.getMenuItem().getStore());
 
@@ -207,6 +224,7 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
         if (request.displayOrder() != null) ingredient.setDisplayOrder(request.displayOrder());
 
         final MenuItemIngredient saved = ingredientRepository.save(ingredient);
+        storeMenuCache.bumpVersion(ingredient.getMenuItem().getStore().getId());
         return toIngredientView(saved);
     }
 
@@ -214,12 +232,152 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
     @Override
     public void deleteIngredient(final Long ingredientId) {
         if (ingredientId == null || ingredientId <= 0) throw new IllegalArgumentException();
-        final MenuItemIngredient ingredient = ingredientRepository.findById(ingredientId)
+        final MenuItemIngredient ingredient = ingredientRepository.findByIdWithStore(ingredientId)
                 .orElseThrow(() -> new IllegalArgumentException("Ingredient not found"));
         requireOwner(ingredient.getMenuItem().getStore());
         ingredientRepository.delete(ingredient);
+        storeMenuCache.bumpVersion(ingredient.getMenuItem().getStore().getId());
+    }
+
+    @Transactional
+    @Override
+    public MenuItemCustomizationsView saveCustomizations(final Long menuItemId,
+                                                         final SaveMenuItemCustomizationsRequest request) {
+        if (menuItemId == null || menuItemId <= 0) throw new IllegalArgumentException();
+        if (request == null) throw new NullPointerException();
+        if (request.options() == null || request.ingredients() == null) throw new NullPointerException();
+
+        final MenuItem menuItem = menuItemRepository.findByIdWithStore(menuItemId)
+                .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
+        requireOwner(menuItem.getStore());
+
+        // Two reads for the whole current tree; everything below is applied in memory and flushed in batches
+        final Map<Long, MenuItemOption> existingOptions = new HashMap<>();
+        for (final MenuItemOption option : optionRepository.findAllWithChoicesByMenuItemId(menuItemId)) {
+            existingOptions.put(option.getId(), option);
+        }
+        final Map<Long, MenuItemIngredient> existingIngredients = new HashMap<>();
+        for (final MenuItemIngredient ingredient : ingredientRepository.findByMenuItemIdOrderByDisplayOrderAsc(menuItemId)) {
+            existingIngredients.put(ingredient.getId(), ingredient);
+        }
+
+        final List<MenuItemOption> options = new ArrayList<>(request.options().size());
+        final List<MenuItemOption> newOptions = new ArrayList<>();
+        for (final SaveMenuItemCustomizationsRequest.OptionEntry entry : request.options()) {
+            final MenuItemOption option;
+            if (entry.id() == null) {
+                option = new MenuItemOption();
+                option.setMenuItem(menuItem);
+                newOptions.add(option);
+            } else {
+                option = existingOptions.remove(entry.id());
+                if (option == null) {
+                    throw new IllegalArgumentException("Option " + entry.id() + " does not belong to menu item " + menuItemId);
+                }
+            }
+            applyOption(option, entry);
+            options.add(option);
+        }
+        final List<MenuItemIngredient> ingredients = new ArrayList<>(request.ingredients().size());
+        final List<MenuItemIngredient> newIngredients = new ArrayList<>();
+        for (final SaveMenuItemCustomizationsRequest.IngredientEntry entry : request.ingredients()) {
+            final MenuItemIngredient ingredient;
+            if (entry.id() == null) {
+                ingredient = new MenuItemIngredient();
+                ingredient.setMenuItem(menuItem);
+                newIngredients.add(ingredient);
+            } else {
+                ingredient = existingIngredients.remove(entry.id());
+                if (ingredient == null) {
+                    throw new IllegalArgumentException("Ingredient " + entry.id() + " does not belong to menu item " + menuItemId);
+                }
+            }
+            applyIngredient(ingredient, entry);
+            ingredients.add(ingredient);
+        }
+
+        // Whatever is left was not in the request (choices of deleted options cascade)
+        optionRepository.deleteAll(existingOptions.values());
+        ingredientRepository.deleteAll(existingIngredients.values());
+        optionRepository.saveAll(newOptions);
+        ingredientRepository.saveAll(newIngredients);
+        optionRepository.flush();
+        storeMenuCache.bumpVersion(menuItem.getStore().getId());
+
+        return new MenuItemCustomizationsView(
+                menuItemId,
+                options.stream()
+                        .sorted(Comparator.comparing(MenuItemOption::getDisplayOrder, DISPLAY_ORDER)
+                                .thenComparing(MenuItemOption::getId, DISPLAY_ID))
+                        .map(this::toOptionView)
+                        .toList(),
+                ingredients.stream()
+                        .sorted(Comparator.comparing(MenuItemIngredient::getDisplayOrder, DISPLAY_ORDER)
+                                .thenComparing(MenuItemIngredient::getId, DISPLAY_ID))
+                        .map(this::toIngredientView)
+                        .toList()
+        );
+    }
+
+    private static void applyOption(final MenuItemOption option, final SaveMenuItemCustomizationsRequest.OptionEntry entry) {
+        final int min = entry.minSelections() != null ? entry.minSelections() : 0;
+        final int max = entry.maxSelections() != null ? entry.maxSelections() : 1;
+        if (min > max) {
+            throw new IllegalArgumentException("Option '" + entry.name() + "': minSelections exceeds maxSelections");
+        }
+        option.setName(entry.name());
+        option.setDescription(entry.description());
+        option.setIsRequired(Boolean.TRUE.equals(entry.isRequired()));
+        option.setAllowMultiple(Boolean.TRUE.equals(entry.allowMultiple()));
+        option.setMinSelections(min);
+        option.setMaxSelections(max);
+        option.setDisplayOrder(entry.displayOrder() != null ? entry.displayOrder() : 0);
+
+        // Choices are diffed against the option's (fetched) collection; removals are orphan-deleted
+        final Map<Long, MenuItemChoice> existing = new HashMap<>();
+        for (final MenuItemChoice choice : option.getChoices()) {
+            existing.put(choice.getId(), choice);
+        }
+        final List<MenuItemChoice> choices = new ArrayList<>(entry.choices().size());
+        for (final SaveMenuItemCustomizationsRequest.ChoiceEntry choiceEntry : entry.choices()) {
+            final MenuItemChoice choice;
+            if (choiceEntry.id() == null) {
+                choice = new MenuItemChoice();
+                choice.setOption(option);
+            } else {
+                choice = existing.remove(choiceEntry.id());
+                if (choice == null) {
+                    throw new IllegalArgumentException("Choice " + choiceEntry.id() + " does not belong to option '" + entry.name() + "'");
+                }
+            }
+            choice.setName(choiceEntry.name());
+            choice.setDescription(choiceEntry.description());
+            choice.setAdditionalPrice(choiceEntry.additionalPrice());
+            choice.setIsAvailable(choiceEntry.isAvailable() == null || choiceEntry.isAvailable());
+            choice.setIsDefault(Boolean.TRUE.equals(choiceEntry.isDefault()));
+            choice.setDisplayOrder(choiceEntry.displayOrder() != null ? choiceEntry.displayOrder() : 0);
+            choices.add(choice);
+        }
+        option.getChoices().removeAll(existing.values());
+        for (final MenuItemChoice choice : choices) {
+            if (choice.getId() == null) option.getChoices().add(choice);
+        }
+    }
+
+    private static void applyIngredient(final MenuItemIngredient ingredient,
+                                        final SaveMenuItemCustomizationsRequest.IngredientEntry entry) {
+        ingredient.setName(entry.name());
+        ingredient.setDescription(entry.description());
+        ingredient.setIsRemovable(entry.isRemovable() == null || entry.isRemovable());
+        ingredient.setIsAllergen(Boolean.TRUE.equals(entry.isAllergen()));
+        ingredient.setAllergenInfo(entry.allergenInfo());
+        ingredient.setDisplayOrder(entry.displayOrder() != null ? entry.displayOrder() : 0);
     }
 
+    /**
+     * Callers fetch the store together with the entity; the owner stays an uninitialized proxy
+     * (reading its id needs no query).
+     */
     private void requireOwner(final Store store) {
         final var current = currentUserProvider.requireCurrentUser();
         if (current.type() != PersonType.OWNER) {
@@ -240,7 +398,11 @@ public class MenuItemCustomizationServiceImpl implements MenuItemCustomizationSe
                 option.getMinSelections(),
                 option.getMaxSelections(),
                 option.getDisplayOrder(),
-                choiceRepository.findByOptionIdOrderByDisplayOrderAsc(option.getId()).stream().map(this::toChoiceView).toList()
+                option.getChoices().stream()
+                        .sorted(Comparator.comparing(MenuItemChoice::getDisplayOrder, DISPLAY_ORDER)
+                                .thenComparing(MenuItemChoice::getId, DISPLAY_ID))
+                        .map(this::toChoiceView)
+                        .toList()
         );
     }
 
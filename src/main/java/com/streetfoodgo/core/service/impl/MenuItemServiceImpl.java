@@ -9,7 +9,10 @@ import com.streetfoodgo.core.security.CurrentUserProvider;
 import com.streetfoodgo.core.service.MenuItemService;
 import com.streetfoodgo.core.service.mapper.MenuItemMapper;
 import com.streetfoodgo.core.service.model.CreateMenuItemRequest;
+import com.streetfoodgo.core.service.model.DishSearchResult;
 import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.StoreMenu;
+import com.streetfoodgo.core.service.model.StoreView;
 import com.streetfoodgo.core.service.model.UpdateMenuItemRequest;
 
 import jakarta.transaction.Transactional;
@@ -28,82 +31,110 @@ public class MenuItemServiceImpl implements MenuItemService {
     private final StoreRepository storeRepository;
     private final MenuItemMapper menuItemMapper;
     private final CurrentUserProvider currentUserProvider;
+    private final StoreCatalog storeCatalog;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final StoreMenuCache storeMenuCache;
 
     public MenuItemServiceImpl(
             final MenuItemRepository menuItemRepository,
             final StoreRepository storeRepository,
             final MenuItemMapper menuItemMapper,
-            final CurrentUserProvider currentUserProvider) {
+            final CurrentUserProvider currentUserProvider,
+            final StoreCatalog storeCatalog,
+            final CatalogSearchIndex catalogSearchIndex,
+            final StoreMenuCache storeMenuCache) {
 
         if (menuItemRepository == null) throw new NullPointerException();
         if (storeRepository == null) throw new NullPointerException();
         if (menuItemMapper == null) throw new NullPointerException();
         if (currentUserProvider == null) throw new NullPointerException();
+        if (storeCatalog == null) throw new NullPointerException();
+        if (catalogSearchIndex == null) throw new NullPointerException();
+        if (storeMenuCache == null) throw new NullPointerException();
 
         this.menuItemRepository = menuItemRepository;
         this.storeRepository = storeRepository;
         this.menuItemMapper = menuItemMapper;
         this.currentUserProvider = currentUserProvider;
+        this.storeCatalog = storeCatalog;
+        this.catalogSearchIndex = catalogSearchIndex;
+        this.storeMenuCache = storeMenuCache;
     }
 
     @Override
-    @Transactional
     public List<MenuItemView> getStoreMenu(final Long storeId) {
         if (storeId == null || storeId <= 0) throw new IllegalArgumentException();
 
-        return this.menuItemRepository.findAllByStoreId(storeId)
-                .stream()
-                .map(this.menuItemMapper::toView)
-                .toList();
+        return this.storeMenuCache.get(storeId).items();
     }
 
     @Override
-    @Transactional
     public List<MenuItemView> getAvailableStoreMenu(final Long storeId) {
         if (storeId == null || storeId <= 0) throw new IllegalArgumentException();
 
-        return this.menuItemRepository.findAllByStoreIdAndAvailableTrue(storeId)
-                .stream()
-                .map(this.menuItemMapper::toView)
-                .toList();
+        return this.storeMenuCache.get(storeId).available();
     }
 
     @Override
-    @Transactional
     public List<MenuItemView> getStoreMenuByCategory(final Long storeId, final MenuCategory category) {
         if (storeId == null || storeId <= 0) throw new IllegalArgumentException();
         if (category == null) return getAvailableStoreMenu(storeId);
 
-        return this.menuItemRepository.findAllByStoreIdAndCategoryAndAvailableTrue(storeId, category)
-                .stream()
-                .map(this.menuItemMapper::toView)
-                .toList();
+        return this.storeMenuCache.get(storeId).availableByCategory(category);
+    }
+
+    @Override
+    public StoreMenu getStoreMenuSnapshot(final Long storeId) {
+        if (storeId == null || storeId <= 0) throw new IllegalArgumentException();
+
+        return this.storeMenuCache.get(storeId);
+    }
+
+    @Override
+    public long getMenuVersion(final Long storeId) {
+        if (storeId == null || storeId <= 0) throw new IllegalArgumentException();
+
+        return this.storeMenuCache.version(storeId);
+    }
+
+    @Override
+    public Optional<Long> getMenuItemStoreId(final Long menuItemId) {
+        if (menuItemId == null || menuItemId <= 0) throw new IllegalArgumentException();
+
+        return this.storeMenuCache.storeIdOf(menuItemId);
     }
 
     @Override
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Optional<MenuItemView> getMenuItem(final Long id) {
         if (id == null || id <= 0) throw new IllegalArgumentException();
 
-        // Step 1: Load MenuItem with store
-        Optional<MenuItem> menuItemOpt = this.menuItemRepository.findByIdWithStore(id);
-        if (menuItemOpt.isEmpty()) {
-            return Optional.empty();
-        }
-        
-        MenuItem menuItem = menuItemOpt.get();
-        
-        // Step 2: Load options (without choices yet)
-        this.menuItemRepository.findByIdWithOptions(id);
-        
-        // Step 3: Load choices for each option separately (avoids MultipleBagFetchException)
-        this.menuItemRepository.findOptionsWithChoicesByMenuItemId(id);
-        
-        // Step 4: Load ingredients
-        this.menuItemRepository.findByIdWithIngredients(id);
-        
-        // Now all collections are loaded and we can safely map to view
-        return Optional.of(this.menuItemMapper.toView(menuItem));
+        // Served from the store's cached menu graph instead of four queries per item
+        return this.storeMenuCache.findItem(id);
+    }
+
+    @Override
+    public List<DishSearchResult> searchDishes(final String query, final int limit) {
+        if (query == null || query.isBlank()) return List.of();
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+
+        return this.catalogSearchIndex.searchDishes(query, limit)
+                .stream()
+                .map(hit -> {
+                    final var dish = hit.dish();
+                    final StoreView store = this.storeCatalog.get(dish.storeId()).orElse(null);
+                    return new DishSearchResult(
+                            dish.id(),
+                            dish.storeId(),
+                            store != null ? store.name() : null,
+                            store != null ? store.isOpen() : null,
+                            dish.name(),
+                            dish.description(),
+                            dish.price(),
+                            dish.category(),
+                            dish.imageUrl(),
+                            hit.score());
+                })
+                .toList();
     }
 
     @Transactional
@@ -130,6 +161,8 @@ public class MenuItemServiceImpl implements MenuItemService {
         menuItem.setImageUrl(request.imageUrl());
 
         menuItem = this.menuItemRepository.save(menuItem);
+        this.catalogSearchIndex.indexDishAfterCommit(menuItem);
+        this.storeMenuCache.bumpVersion(menuItem.getStore().getId());
 
         return this.menuItemMapper.toView(menuItem);
     }
@@ -156,6 +189,8 @@ public class MenuItemServiceImpl implements MenuItemService {
         if (request.imageUrl() != null) menuItem.setImageUrl(request.imageUrl());
 
         menuItem = this.menuItemRepository.save(menuItem);
+        this.catalogSearchIndex.indexDishAfterCommit(menuItem);
+        this.storeMenuCache.bumpVersion(menuItem.getStore().getId());
 
         return this.menuItemMapper.toView(menuItem);
     }
@@ -175,7 +210,9 @@ public class MenuItemServiceImpl implements MenuItemService {
         }
 
         menuItem.setAvailable(available);
-        this.menuItemRepository.save(menuItem);
+        menuItem = this.menuItemRepository.save(menuItem);
+        this.catalogSearchIndex.indexDishAfterCommit(menuItem);
+        this.storeMenuCache.bumpVersion(menuItem.getStore().getId());
     }
 
     @Transactional
@@ -193,5 +230,7 @@ public class MenuItemServiceImpl implements MenuItemService {
         }
 
         this.menuItemRepository.delete(menuItem);
+        this.catalogSearchIndex.removeDishAfterCommit(id);
+        this.storeMenuCache.bumpVersion(menuItem.getStore().getId());
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,365 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.NotificationChannel;
+import com.streetfoodgo.core.model.NotificationDeadLetter;
+import com.streetfoodgo.core.model.NotificationEventType;
+import com.streetfoodgo.core.port.impl.Backoff;
+import com.streetfoodgo.core.repository.NotificationDeadLetterRepository;
+import com.streetfoodgo.core.service.model.NotificationChannelStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers notifications in the background, one lane per {@link NotificationChannel}, so a slow SMS provider
+ * never holds up emails or WebSocket pushes.
+ * <p>
+ * Each lane is a priority queue: deliveries go out by {@link NotificationEventType#getPriority()} and, within a
+ * priority, in submission order, so an owner's new-order alert overtakes queued customer updates. A lane holds at
+ * most {@code app.notifications.queue-capacity} deliveries and is worked by
+ * {@code app.notifications.workers-per-channel} threads. A failed attempt (an exception, or the port answering
+ * "not sent") is retried up to {@code app.notifications.max-attempts} times with jittered exponential backoff;
+ * an {@link IllegalArgumentException} is permanent. Deliveries given up on, and those refused by a full lane, are
+ * written to the {@link NotificationDeadLetter} table by a background writer, so a full lane costs the submitting
+ * request no database write. Once stopped, the dispatcher refuses new deliveries.
+ */
+@Component
+class NotificationDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final int DEAD_LETTER_BATCH_SIZE = 100;
+
+    /**
+     * One send of a delivery: true when sent, false when the recipient's provider did not take it (retried).
+     */
+    @FunctionalInterface
+    interface Attempt {
+        boolean send();
+    }
+
+    /**
+     * A notification to send on one channel: {@code recipient} is the phone number, email address or topic;
+     * {@code subject} and {@code content} are what gets dead-lettered if it fails for good.
+     */
+    record Delivery(NotificationEventType type, NotificationChannel channel, Long orderId, String recipient,
+                    String subject, String content, Attempt attempt) {}
+
+    private record Pending(Delivery delivery, long sequence, long submittedNanos, int attempts) {
+
+        Pending retry() {
+            return new Pending(this.delivery, this.sequence, this.submittedNanos, this.attempts + 1);
+        }
+    }
+
+    private static final Comparator<Pending> ORDER = Comparator
+            .comparingInt((Pending p) -> p.delivery().type().getPriority())
+            .thenComparingLong(Pending::sequence);
+
+    private final class Lane {
+
+        final NotificationChannel channel;
+        final PriorityBlockingQueue<Pending> queue = new PriorityBlockingQueue<>(64, ORDER);
+        final AtomicInteger size = new AtomicInteger();  // queued plus waiting to retry plus in flight
+
+        final LongAdder sent = new LongAdder();
+        final LongAdder retried = new LongAdder();
+        final LongAdder deadLettered = new LongAdder();
+        final LongAdder lagNanos = new LongAdder();
+        final AtomicLong maxLagNanos = new AtomicLong();
+
+        // Rolled over by logStats
+        long sentAtLastStats;
+        long failuresAtLastStats;
+        boolean active;
+        volatile double sentPerSecond;
+        volatile long lastMaxLagNanos;
+
+        Lane(final NotificationChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final NotificationDeadLetterRepository deadLetterRepository;
+    private final int queueCapacity;
+    private final int workersPerChannel;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Duration shutdownTimeout;
+
+    private final Map<NotificationChannel, Lane> lanes = new EnumMap<>(NotificationChannel.class);
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService retries;
+    private final BlockingQueue<NotificationDeadLetter> deadLetters;
+    private Thread deadLetterWriter;
+    private volatile boolean running;
+    private volatile boolean writingDeadLetters;
+    private long lastStatsNanos = System.nanoTime();
+
+    NotificationDispatcher(final NotificationDeadLetterRepository deadLetterRepository,
+                           @Value("${app.notifications.queue-capacity:10000}") final int queueCapacity,
+                           @Value("${app.notifications.workers-per-channel:2}") final int workersPerChannel,
+                           @Value("${app.notifications.max-attempts:5}") final int maxAttempts,
+                           @Value("${app.notifications.retry-backoff:PT2S}") final Duration retryBackoff,
+                           @Value("${app.notifications.shutdown-timeout:PT5S}") final Duration shutdownTimeout) {
+        if (deadLetterRepository == null) throw new NullPointerException();
+        if (retryBackoff == null) throw new NullPointerException();
+        if (shutdownTimeout == null) throw new NullPointerException();
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be positive");
+        if (workersPerChannel <= 0) throw new IllegalArgumentException("workersPerChannel must be positive");
+        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts must be positive");
+
+        this.deadLetterRepository = deadLetterRepository;
+        this.queueCapacity = queueCapacity;
+        this.workersPerChannel = workersPerChannel;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.shutdownTimeout = shutdownTimeout;
+        for (final NotificationChannel channel : NotificationChannel.values()) {
+            this.lanes.put(channel, new Lane(channel));
+        }
+        this.deadLetters = new LinkedBlockingQueue<>(queueCapacity);
+        this.retries = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "notification-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        this.running = true;
+        this.writingDeadLetters = true;
+        this.deadLetterWriter = new Thread(this::writeDeadLetters, "notification-dead-letter");
+        this.deadLetterWriter.setDaemon(true);
+        this.deadLetterWriter.start();
+        for (final Lane lane : this.lanes.values()) {
+            for (int i = 0; i < this.workersPerChannel; i++) {
+                final String name = "notify-" + lane.channel.name().toLowerCase() + "-" + (i + 1);
+                final Thread worker = new Thread(() -> work(lane), name);
+                worker.setDaemon(true);
+                worker.start();
+                this.workers.add(worker);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        this.running = false;
+        // Retries still waiting for their backoff are not sent; they stay in the logged count below
+        this.retries.shutdownNow();
+        final long deadline = System.nanoTime() + this.shutdownTimeout.toNanos();
+        for (final Thread worker : this.workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            worker.interrupt();
+        }
+        for (final Lane lane : this.lanes.values()) {
+            if (lane.size.get() > 0) {
+                LOGGER.warn("{} {} notification(s) not delivered at shutdown", lane.size.get(), lane.channel);
+            }
+        }
+
+        // The workers are done giving up; write what they dead-lettered
+        this.writingDeadLetters = false;
+        try {
+            this.deadLetterWriter.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.deadLetterWriter.interrupt();
+        if (!this.deadLetters.isEmpty()) {
+            LOGGER.warn("{} dead-lettered notification(s) not written at shutdown", this.deadLetters.size());
+        }
+    }
+
+    /**
+     * Queues a delivery on its channel's lane; a full lane dead-letters it instead.
+     */
+    void submit(final Delivery delivery) {
+        if (delivery == null) throw new NullPointerException();
+        if (!this.running) {
+            LOGGER.warn("Notification dispatcher stopped, dropped {} {} notification to {} for order {}",
+                    delivery.channel(), delivery.type(), delivery.recipient(), delivery.orderId());
+            return;
+        }
+        final Lane lane = this.lanes.get(delivery.channel());
+        final Pending pending = new Pending(delivery, this.sequence.incrementAndGet(), System.nanoTime(), 0);
+        if (lane.size.incrementAndGet() > this.queueCapacity) {
+            giveUp(lane, pending, "Queue full");
+            return;
+        }
+        lane.queue.add(pending);
+    }
+
+    List<NotificationChannelStats> stats() {
+        return this.lanes.values().stream()
+                .map(lane -> {
+                    final long sent = lane.sent.sum();
+                    return new NotificationChannelStats(
+                            lane.channel,
+                            lane.size.get(),
+                            sent,
+                            lane.retried.sum(),
+                            lane.deadLettered.sum(),
+                            lane.sentPerSecond,
+                            sent == 0 ? 0 : lane.lagNanos.sum() / 1e6 / sent,
+                            Math.round(Math.max(lane.lastMaxLagNanos, lane.maxLagNanos.get()) / 1e6));
+                })
+                .toList();
+    }
+
+    /**
+     * Rolls the per-interval figures (throughput, max lag) over and logs the channels that did anything.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.stats-interval-ms:60000}")
+    void logStats() {
+        final long now = System.nanoTime();
+        final double seconds = Math.max(1e-3, (now - this.lastStatsNanos) / 1e9);
+        this.lastStatsNanos = now;
+        for (final Lane lane : this.lanes.values()) {
+            final long sent = lane.sent.sum();
+            final long failures = lane.retried.sum() + lane.deadLettered.sum();
+            lane.active = sent != lane.sentAtLastStats || failures != lane.failuresAtLastStats || lane.size.get() > 0;
+            lane.sentPerSecond = (sent - lane.sentAtLastStats) / seconds;
+            lane.sentAtLastStats = sent;
+            lane.failuresAtLastStats = failures;
+            lane.lastMaxLagNanos = lane.maxLagNanos.getAndSet(0);
+        }
+        for (final NotificationChannelStats stats : stats()) {
+            if (!this.lanes.get(stats.channel()).active) continue;
+            LOGGER.info("Notifications {}: {} queued, {} sent ({}/s), {} retried, {} dead-lettered, lag avg {} ms max {} ms",
+                    stats.channel(), stats.queued(), stats.sent(), String.format("%.2f", stats.sentPerSecond()),
+                    stats.retried(), stats.deadLettered(), Math.round(stats.averageLagMillis()), stats.maxLagMillis());
+        }
+    }
+
+    private void work(final Lane lane) {
+        while (this.running || !lane.queue.isEmpty()) {
+            final Pending pending;
+            try {
+                pending = lane.queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pending != null) deliver(lane, pending);
+        }
+    }
+
+    private void writeDeadLetters() {
+        final List<NotificationDeadLetter> batch = new ArrayList<>(DEAD_LETTER_BATCH_SIZE);
+        while (this.writingDeadLetters || !this.deadLetters.isEmpty()) {
+            try {
+                final NotificationDeadLetter first = this.deadLetters.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                this.deadLetters.drainTo(batch, DEAD_LETTER_BATCH_SIZE - 1);
+                this.deadLetterRepository.saveAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Could not write {} dead-lettered notification(s)", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(final Lane lane, final Pending pending) {
+        final boolean sent;
+        try {
+            sent = pending.delivery().attempt().send();
+        } catch (IllegalArgumentException e) {
+            giveUp(lane, pending.retry(), "Rejected: " + e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            retryOrGiveUp(lane, pending, e.toString());
+            return;
+        }
+        if (!sent) {
+            retryOrGiveUp(lane, pending, "Not sent");
+            return;
+        }
+        final long lag = System.nanoTime() - pending.submittedNanos();
+        lane.sent.increment();
+        lane.lagNanos.add(lag);
+        lane.maxLagNanos.accumulateAndGet(lag, Math::max);
+        lane.size.decrementAndGet();
+    }
+
+    /**
+     * Schedules another attempt of a failed delivery, or gives up once it has had all of them.
+     */
+    private void retryOrGiveUp(final Lane lane, final Pending pending, final String error) {
+        final Pending failed = pending.retry();
+        if (failed.attempts() >= this.maxAttempts || !this.running) {
+            giveUp(lane, failed, error);
+            return;
+        }
+        final Delivery delivery = failed.delivery();
+        try {
+            this.retries.schedule(() -> lane.queue.add(failed),
+                    Backoff.jitteredMillis(this.retryBackoffMillis, failed.attempts()), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            giveUp(lane, failed, error + " (shutting down)");
+            return;
+        }
+        lane.retried.increment();
+        LOGGER.warn("{} {} notification to {} failed (attempt {}), retrying: {}",
+                delivery.channel(), delivery.type(), delivery.recipient(), failed.attempts(), error);
+    }
+
+    private void giveUp(final Lane lane, final Pending pending, final String error) {
+        lane.size.decrementAndGet();
+        lane.deadLettered.increment();
+        final Delivery delivery = pending.delivery();
+        LOGGER.error("❌ {} {} notification to {} for order {} failed for good after {} attempt(s): {}",
+                delivery.channel(), delivery.type(), delivery.recipient(), delivery.orderId(), pending.attempts(), error);
+        final boolean queued = this.deadLetters.offer(new NotificationDeadLetter(
+                delivery.type(),
+                delivery.channel(),
+                truncate(delivery.recipient(), 255),
+                truncate(delivery.subject(), 255),
+                truncate(delivery.content(), 4000),
+                delivery.orderId(),
+                pending.attempts(),
+                truncate(error, 1000)));
+        if (!queued) {
+            LOGGER.error("Dead-letter queue full, could not record {} notification for order {}",
+                    delivery.channel(), delivery.orderId());
+        }
+    }
+
+    private static String truncate(final String value, final int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
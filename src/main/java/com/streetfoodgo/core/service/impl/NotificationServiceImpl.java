@@ -1,87 +1,165 @@
 package com.streetfoodgo.core.service.impl;
 
+import com.streetfoodgo.core.model.NotificationChannel;
+import com.streetfoodgo.core.model.OrderStatus;
+import com.streetfoodgo.core.model.OrderType;
+import com.streetfoodgo.core.port.EmailPort;
+import com.streetfoodgo.core.port.SmsNotificationPort;
 import com.streetfoodgo.core.service.NotificationService;
-import com.streetfoodgo.core.service.model.OrderView;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.streetfoodgo.core.service.model.NotificationChannelStats;
+import com.streetfoodgo.core.service.model.NotificationEvent;
+import com.streetfoodgo.core.service.model.NotificationEvent.*;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Implementation of NotificationService.
- * Currently logs notifications - can be extended with email/SMS/push notifications.
+ * <p>
+ * An event is rendered once into a subject and a short text, then handed to the {@link NotificationDispatcher}
+ * as one delivery per channel the recipient has: SMS when they have a mobile number, email when they have an
+ * address the email provider sends to, and always a WebSocket push (on the order's topic for customers, on the
+ * store's orders topic for owners).
+ * <p>
+ * Emails go out through the {@link EmailPort#direct() direct} port: the email lane sends each one itself, so a
+ * provider failure reaches the dispatcher's retries and dead letters, and the lane's priority order, sent count
+ * and lag describe the actual sends.
  */
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(NotificationServiceImpl.class);
+    private final NotificationDispatcher dispatcher;
+    private final SmsNotificationPort smsNotificationPort;
+    private final EmailPort emailPort;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public NotificationServiceImpl(final NotificationDispatcher dispatcher,
+                                   final SmsNotificationPort smsNotificationPort,
+                                   final EmailPort emailPort,
+                                   final SimpMessagingTemplate messagingTemplate) {
+        if (dispatcher == null) throw new NullPointerException();
+        if (smsNotificationPort == null) throw new NullPointerException();
+        if (emailPort == null) throw new NullPointerException();
+        if (messagingTemplate == null) throw new NullPointerException();
+        this.dispatcher = dispatcher;
+        this.smsNotificationPort = smsNotificationPort;
+        this.emailPort = emailPort.direct();
+        this.messagingTemplate = messagingTemplate;
+    }
 
-    @Override
-    public void notifyOrderAccepted(OrderView order) {
-        if (order == null || order.customer() == null) {
-            return;
-        }
+    /**
+     * What a WebSocket subscriber receives; the tracking pages tell it from a driver location by its lack of
+     * coordinates.
+     */
+    public record OrderNotification(Long orderId, String type, String message) {}
 
-        String message = String.format(
-                "✅ Your order #%d has been accepted! " +
-                "Distance: %.2f km | Estimated delivery: %d minutes",
-                order.id(),
-                order.estimatedDeliveryDistanceKm(),
-                order.estimatedDeliveryMinutes()
-        );
+    private record Rendered(String subject, String text) {}
 
-        logNotification(order.customer().emailAddress(), message);
-        // TODO: Send email/SMS/push notification
+    @Override
+    public void notify(final NotificationEvent event) {
+        if (event == null) throw new NullPointerException();
+        if (event.recipient() == null) throw new NullPointerException();
+        AfterCommit.run(() -> fanOut(event));
     }
 
     @Override
-    public void notifyOrderRejected(OrderView order, String reason) {
-        if (order == null || order.customer() == null) {
-            return;
-        }
-
-        String message = String.format(
-                "❌ Your order #%d has been rejected. " +
-                "Reason: %s",
-                order.id(),
-                reason
-        );
-
-        logNotification(order.customer().emailAddress(), message);
-        // TODO: Send email/SMS/push notification
+    public List<NotificationChannelStats> stats() {
+        return this.dispatcher.stats();
     }
 
-    @Override
-    public void notifyOrderStatusUpdate(OrderView order) {
-        if (order == null || order.customer() == null) {
-            return;
+    private void fanOut(final NotificationEvent event) {
+        final Rendered rendered = render(event);
+        final Recipient recipient = event.recipient();
+
+        final String phone = recipient.mobilePhoneNumber();
+        if (phone != null && !phone.isBlank()) {
+            submit(event, NotificationChannel.SMS, phone, rendered,
+                    () -> this.smsNotificationPort.sendSms(phone, rendered.text()));
         }
 
-        String message = String.format(
-                "🔄 Order #%d status updated to: %s",
-                order.id(),
-                order.status()
-        );
+        final String email = recipient.emailAddress();
+        if (this.emailPort.accepts(email)) {
+            submit(event, NotificationChannel.EMAIL, email, rendered, () -> sendEmail(event, email, rendered));
+        }
 
-        logNotification(order.customer().emailAddress(), message);
-        // TODO: Send email/SMS/push notification
+        final String topic = topic(event);
+        final OrderNotification push = new OrderNotification(event.orderId(), event.type().name(), rendered.text());
+        submit(event, NotificationChannel.WEBSOCKET, topic, rendered, () -> {
+            this.messagingTemplate.convertAndSend(topic, push);
+            return true;
+        });
     }
 
-    @Override
-    public void notifyOrderCompleted(OrderView order) {
-        if (order == null || order.customer() == null) {
-            return;
-        }
+    private void submit(final NotificationEvent event, final NotificationChannel channel, final String recipient,
+                        final Rendered rendered, final NotificationDispatcher.Attempt attempt) {
+        this.dispatcher.submit(new NotificationDispatcher.Delivery(
+                event.type(), channel, event.orderId(), recipient, rendered.subject(), rendered.text(), attempt));
+    }
 
-        String message = String.format(
-                "🎉 Order #%d has been completed! Thank you for your order.",
-                order.id()
-        );
+    private static String topic(final NotificationEvent event) {
+        return switch (event) {
+            case NewOrder e -> "/topic/stores/" + e.storeId() + "/orders";
+            case OrderCancelled e -> "/topic/stores/" + e.storeId() + "/orders";
+            default -> "/topic/orders/" + event.orderId();
+        };
+    }
 
-        logNotification(order.customer().emailAddress(), message);
-        // TODO: Send email/SMS/push notification
+    private static Rendered render(final NotificationEvent event) {
+        return switch (event) {
+            case NewOrder e -> {
+                final String etaPart = (e.estimatedMinutes() != null && e.estimatedDistanceKm() != null)
+                        ? String.format(" ETA: %d min (%.2f km).", e.estimatedMinutes(), e.estimatedDistanceKm())
+                        : "";
+                yield new Rendered(
+                        "New Order #" + e.orderId() + " - " + e.storeName(),
+                        String.format("New order #%d received! Total: €%.2f. %d items for %s.%s",
+                                e.orderId(), e.total(), e.itemCount(),
+                                e.orderType() == OrderType.DELIVERY ? "delivery" : "pickup", etaPart));
+            }
+            case OrderCancelled e -> new Rendered(
+                    "Order #" + e.orderId() + " cancelled",
+                    String.format("Order #%d has been cancelled by customer.", e.orderId()));
+            case OrderAccepted e -> new Rendered(
+                    "Order #" + e.orderId() + " accepted",
+                    String.format("Great news! Your order #%d at %s has been accepted and is being prepared. Estimated time: %d minutes.",
+                            e.orderId(), e.storeName(), e.estimatedMinutes()));
+            case OrderRejected e -> new Rendered(
+                    "Order Rejected - #" + e.orderId(),
+                    String.format("Sorry! Your order #%d at %s was rejected. Reason: %s",
+                            e.orderId(), e.storeName(), e.reason()));
+            case OrderStatusUpdated e -> new Rendered(
+                    "Order Update #" + e.orderId(),
+                    switch (e.status()) {
+                        case READY -> e.orderType() == OrderType.PICKUP
+                                ? String.format("Your order #%d is ready for pickup at %s!", e.orderId(), e.storeName())
+                                : String.format("Your order #%d is ready and will be delivered soon!", e.orderId());
+                        case DELIVERING -> String.format("Your order #%d is on its way!", e.orderId());
+                        default -> String.format("Order #%d status updated: %s", e.orderId(), e.status());
+                    });
+            case OrderCompleted e -> new Rendered(
+                    "Order Update #" + e.orderId(),
+                    String.format("Your order #%d has been completed. Enjoy your meal!", e.orderId()));
+        };
     }
 
-    private void logNotification(String recipient, String message) {
-        LOGGER.info("📧 Notification to {}: {}", recipient, message);
+    /**
+     * Sends the event's HTML email where there is a template for it, the plain text otherwise.
+     */
+    private boolean sendEmail(final NotificationEvent event, final String to, final Rendered rendered) {
+        final String name = event.recipient().name();
+        return switch (event) {
+            case NewOrder e -> this.emailPort.sendNewOrderNotificationEmail(
+                    to, name, e.orderId(), e.customerName(), e.itemCount(), e.total(), e.orderType().name());
+            case OrderAccepted e -> this.emailPort.sendOrderAcceptedEmail(
+                    to, name, e.orderId(), e.storeName(), e.estimatedMinutes());
+            case OrderRejected e -> this.emailPort.sendOrderRejectedEmail(
+                    to, name, e.orderId(), e.storeName(), e.reason());
+            case OrderStatusUpdated e -> this.emailPort.sendOrderStatusUpdateEmail(
+                    to, name, e.orderId(), e.storeName(), e.status().name());
+            case OrderCompleted e -> this.emailPort.sendOrderStatusUpdateEmail(
+                    to, name, e.orderId(), e.storeName(), OrderStatus.COMPLETED.name());
+            case OrderCancelled e -> this.emailPort.sendEmail(to, rendered.subject(), rendered.text());
+        };
     }
 }
@@ -1,31 +1,41 @@
 package com.streetfoodgo.core.service.impl;
 
 import com.streetfoodgo.core.model.*;
-import com.streetfoodgo.core.port.EmailPort;
-import com.streetfoodgo.core.port.SmsNotificationPort;
 import com.streetfoodgo.core.repository.*;
 import com.streetfoodgo.core.security.CurrentUserProvider;
+import com.streetfoodgo.core.service.CouponService;
 import com.streetfoodgo.core.service.GeolocationService;
+import com.streetfoodgo.core.service.HomeFeedService;
 import com.streetfoodgo.core.service.NotificationService;
 import com.streetfoodgo.core.service.OrderService;
+import com.streetfoodgo.core.service.PromotionService;
 import com.streetfoodgo.core.service.StoreScheduleService;
 import com.streetfoodgo.core.service.mapper.OrderMapper;
 import com.streetfoodgo.core.service.model.*;
 
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Implementation of OrderService for StreetFoodGo.
@@ -41,15 +51,18 @@ public class OrderServiceImpl implements OrderService {
     private final DeliveryAddressRepository deliveryAddressRepository;
     private final MenuItemRepository menuItemRepository;
     private final com.streetfoodgo.core.repository.MenuItemChoiceRepository menuItemChoiceRepository;
-    private final com.streetfoodgo.core.repository.MenuItemIngredientRepository menuItemIngredientRepository;
     private final OrderMapper orderMapper;
     private final CurrentUserProvider currentUserProvider;
-    private final SmsNotificationPort smsNotificationPort;
-    private final EmailPort emailPort;
     private final StoreScheduleService storeScheduleService;
     private final GeolocationService geolocationService;
     private final NotificationService notificationService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final HomeFeedService homeFeedService;
+    private final StoreMenuCache storeMenuCache;
+    private final CouponService couponService;
+    private final PromotionService promotionService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
 
     public OrderServiceImpl(
             final OrderRepository orderRepository,
@@ -58,15 +71,17 @@ public class OrderServiceImpl implements OrderService {
             final DeliveryAddressRepository deliveryAddressRepository,
             final MenuItemRepository menuItemRepository,
             final com.streetfoodgo.core.repository.MenuItemChoiceRepository menuItemChoiceRepository,
-            final com.streetfoodgo.core.repository.MenuItemIngredientRepository menuItemIngredientRepository,
             final OrderMapper orderMapper,
             final CurrentUserProvider currentUserProvider,
-            final SmsNotificationPort smsNotificationPort,
-            final EmailPort emailPort,
             final StoreScheduleService storeScheduleService,
             final GeolocationService geolocationService,
             final NotificationService notificationService,
-            final SimpMessagingTemplate messagingTemplate) {
+            final SimpMessagingTemplate messagingTemplate,
+            final HomeFeedService homeFeedService,
+            final StoreMenuCache storeMenuCache,
+            final CouponService couponService,
+            final PromotionService promotionService,
+            final PlatformTransactionManager transactionManager) {
 
         if (orderRepository == null) throw new NullPointerException();
         if (storeRepository == null) throw new NullPointerException();
@@ -74,14 +89,16 @@ public class OrderServiceImpl implements OrderService {
         if (deliveryAddressRepository == null) throw new NullPointerException();
         if (menuItemRepository == null) throw new NullPointerException();
         if (menuItemChoiceRepository == null) throw new NullPointerException();
-        if (menuItemIngredientRepository == null) throw new NullPointerException();
         if (orderMapper == null) throw new NullPointerException();
         if (currentUserProvider == null) throw new NullPointerException();
-        if (smsNotificationPort == null) throw new NullPointerException();
-        if (emailPort == null) throw new NullPointerException();
         if (storeScheduleService == null) throw new NullPointerException();
         if (geolocationService == null) throw new NullPointerException();
         if (notificationService == null) throw new NullPointerException();
+        if (homeFeedService == null) throw new NullPointerException();
+        if (storeMenuCache == null) throw new NullPointerException();
+        if (couponService == null) throw new NullPointerException();
+        if (promotionService == null) throw new NullPointerException();
+        if (transactionManager == null) throw new NullPointerException();
 
         this.orderRepository = orderRepository;
         this.storeRepository = storeRepository;
@@ -89,32 +106,253 @@ public class OrderServiceImpl implements OrderService {
         this.deliveryAddressRepository = deliveryAddressRepository;
         this.menuItemRepository = menuItemRepository;
         this.menuItemChoiceRepository = menuItemChoiceRepository;
-        this.menuItemIngredientRepository = menuItemIngredientRepository;
         this.orderMapper = orderMapper;
         this.currentUserProvider = currentUserProvider;
-        this.smsNotificationPort = smsNotificationPort;
-        this.emailPort = emailPort;
         this.storeScheduleService = storeScheduleService;
         this.geolocationService = geolocationService;
         this.notificationService = notificationService;
         this.messagingTemplate = messagingTemplate;
+        this.homeFeedService = homeFeedService;
+        this.storeMenuCache = storeMenuCache;
+        this.couponService = couponService;
+        this.promotionService = promotionService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Places one order. The delivery route is a remote call, so it is taken before the write transaction opens
+     * (its ends are read in a short read-only one) and no connection is held while the router answers.
+     */
     @Override
     public OrderView createOrder(final CreateOrderRequest request) {
         if (request == null) throw new NullPointerException();
 
+        final RouteEnds route = this.readTransaction.execute(status ->
+                routeEnds(request, requireCustomer(request.customerId()), new HashMap<>()));
+        final GeolocationService.DeliveryMetrics metrics = deliveryMetrics(route);
+        return this.writeTransaction.execute(status -> placeOrder(request, metrics));
+    }
+
+    private OrderView placeOrder(final CreateOrderRequest request, final GeolocationService.DeliveryMetrics metrics) {
+        final Person customer = requireCustomer(request.customerId());
+        final DeliveryAddress deliveryAddress = resolveDeliveryAddress(request, customer);
+        final boolean firstOrder = this.orderRepository.countByCustomerId(customer.getId()) == 0;
+        final PreparedOrder prepared = prepare(request, customer, deliveryAddress, firstOrder);
+        applyDelivery(prepared, metrics);
+
+        final Order order = this.orderRepository.save(prepared.order());
+        this.promotionService.recordUse(prepared.promotions());
+
+        // The customer's "order again" section now starts with this store
+        AfterCommit.run(() -> this.homeFeedService.evictCustomer(customer.getId()));
+
+        // Notify the store owner once committed
+        this.notificationService.notify(newOrderEvent(order, prepared.store()));
+
+        // The coupon's use is taken last, so its row stays locked only until commit
+        final OrderView view = this.orderMapper.toView(order, prepared.menu());
+        if (prepared.coupon() != null) this.couponService.redeem(prepared.coupon(), order);
+
+        return view;
+    }
+
+    /**
+     * Places one order per request (a multi-store cart has one per store) for the same customer, all or nothing:
+     * the orders are saved in one transaction, so a failure for any store leaves none of them committed.
+     * <p>
+     * The delivery routes (one remote routing call per store) are independent and run concurrently on virtual
+     * threads before the write transaction opens, so a slow router holds no connection; their ends are read in a
+     * short read-only transaction. The write transaction then loads the customer and delivery addresses once for
+     * all stores and builds each store's order from its cached menu snapshot. The owner notifications go out
+     * after commit.
+     */
+    @Override
+    public List<OrderView> createOrders(final List<CreateOrderRequest> requests) {
+        if (requests == null) throw new NullPointerException();
+        if (requests.isEmpty()) throw new IllegalArgumentException("No orders to create");
+        final Long customerId = requests.get(0).customerId();
+        if (requests.stream().anyMatch(r -> !Objects.equals(r.customerId(), customerId))) {
+            throw new IllegalArgumentException("All orders of a checkout must be for the same customer");
+        }
+        if (requests.stream().map(CreateOrderRequest::storeId).distinct().count() != requests.size()) {
+            throw new IllegalArgumentException("One order per store");
+        }
+        if (requests.stream().filter(r -> r.couponCode() != null && !r.couponCode().isBlank()).count() > 1) {
+            throw new IllegalArgumentException("Only one coupon can be used per checkout");
+        }
+
+        final List<RouteEnds> routes = this.readTransaction.execute(status -> {
+            final Person customer = requireCustomer(customerId);
+            final Map<Long, DeliveryAddress> addresses = new HashMap<>();
+            return requests.stream().map(request -> routeEnds(request, customer, addresses)).toList();
+        });
+
+        // Routing is a remote call per store: run them side by side (the route ends are plain records)
+        final List<GeolocationService.DeliveryMetrics> metrics = new ArrayList<>(routes.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<GeolocationService.DeliveryMetrics>> futures = routes.stream()
+                    .map(route -> executor.submit(() -> deliveryMetrics(route)))
+                    .toList();
+            for (final Future<GeolocationService.DeliveryMetrics> future : futures) {
+                metrics.add(join(future));
+            }
+        }
+
+        return this.writeTransaction.execute(status -> placeOrders(requests, metrics));
+    }
+
+    private List<OrderView> placeOrders(final List<CreateOrderRequest> requests,
+                                        final List<GeolocationService.DeliveryMetrics> metrics) {
+        final Person customer = requireCustomer(requests.get(0).customerId());
+        final Map<Long, DeliveryAddress> addresses = new HashMap<>();
+        final List<PreparedOrder> prepared = new ArrayList<>(requests.size());
+        // First-order promotions apply to one order only: the first store's
+        boolean firstOrder = this.orderRepository.countByCustomerId(customer.getId()) == 0;
+        for (final CreateOrderRequest request : requests) {
+            prepared.add(prepare(request, customer, resolveDeliveryAddress(request, customer, addresses), firstOrder));
+            firstOrder = false;
+        }
+        for (int i = 0; i < prepared.size(); i++) {
+            applyDelivery(prepared.get(i), metrics.get(i));
+        }
+
+        final List<Order> orders = this.orderRepository.saveAll(prepared.stream().map(PreparedOrder::order).toList());
+        prepared.forEach(p -> this.promotionService.recordUse(p.promotions()));
+
+        AfterCommit.run(() -> this.homeFeedService.evictCustomer(customer.getId()));
+
+        // Owner contact details are read here, inside the session; the notifications are queued after commit
+        final List<OrderView> views = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            this.notificationService.notify(newOrderEvent(orders.get(i), prepared.get(i).store()));
+            views.add(this.orderMapper.toView(orders.get(i), prepared.get(i).menu()));
+        }
+
+        // Coupon uses are taken last, so a coupon row stays locked only until commit
+        for (int i = 0; i < orders.size(); i++) {
+            if (prepared.get(i).coupon() != null) this.couponService.redeem(prepared.get(i).coupon(), orders.get(i));
+        }
+
+        return views;
+    }
+
+    /**
+     * An order validated and built in memory, not saved yet.
+     */
+    private record PreparedOrder(Order order,
+                                 Store store,
+                                 StoreMenu menu,
+                                 PromotionResult promotions,
+                                 CouponQuote coupon) {}
+
+    /**
+     * Detached copies of a delivery route's ends, for the routing call, which runs outside any transaction and
+     * may run on another thread.
+     */
+    private record RouteEnds(StoreView from, DeliveryAddressView to) {}
+
+    private Person requireCustomer(final Long customerId) {
         // Security: Verify customer
         final var currentUser = this.currentUserProvider.requireCurrentUser();
-        if (!Objects.equals(request.customerId(), currentUser.id())) {
+        if (!Objects.equals(customerId, currentUser.id())) {
             throw new SecurityException("Cannot create order for another customer");
         }
 
-        // Load entities
-        final Person customer = this.personRepository.findById(request.customerId())
+        return this.personRepository.findById(customerId)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+    }
 
+    private DeliveryAddress resolveDeliveryAddress(final CreateOrderRequest request, final Person customer) {
+        if (request.orderType() != OrderType.DELIVERY) return null;
+        if (request.deliveryAddressId() == null) {
+            throw new IllegalArgumentException("Delivery address required for delivery orders");
+        }
+        final DeliveryAddress deliveryAddress = this.deliveryAddressRepository.findById(request.deliveryAddressId())
+                .orElseThrow(() -> new IllegalArgumentException("Delivery address not found"));
+
+        // Verify address belongs to customer
+        if (!deliveryAddress.getCustomer().getId().equals(customer.getId())) {
+            throw new SecurityException("Cannot use another customer's address");
+        }
+        return deliveryAddress;
+    }
+
+    /**
+     * The request's delivery address, looked up once per address id across the orders of a checkout.
+     */
+    private DeliveryAddress resolveDeliveryAddress(final CreateOrderRequest request, final Person customer,
+                                                   final Map<Long, DeliveryAddress> addresses) {
+        if (request.orderType() != OrderType.DELIVERY || request.deliveryAddressId() == null) {
+            return resolveDeliveryAddress(request, customer);
+        }
+        return addresses.computeIfAbsent(request.deliveryAddressId(), id -> resolveDeliveryAddress(request, customer));
+    }
+
+    /**
+     * The ends of the request's delivery route; null for pickup or when either end has no coordinates.
+     */
+    private RouteEnds routeEnds(final CreateOrderRequest request, final Person customer,
+                                final Map<Long, DeliveryAddress> addresses) {
+        final DeliveryAddress deliveryAddress = resolveDeliveryAddress(request, customer, addresses);
+        if (deliveryAddress == null) return null;
+        final Store store = this.storeRepository.findById(request.storeId())
+                .orElseThrow(() -> new IllegalArgumentException("Store not found"));
+        if (store.getLatitude() == null || store.getLongitude() == null
+                || deliveryAddress.getLatitude() == null || deliveryAddress.getLongitude() == null) {
+            return null;
+        }
+
+        final StoreView from = new StoreView(
+                store.getId(),
+                null,
+                store.getName(),
+                store.getDescription(),
+                store.getCuisineType(),
+                store.getStoreType(),
+                store.getAddress(),
+                store.getLatitude(),
+                store.getLongitude(),
+                store.getArea(),
+                store.getOpeningHours(),
+                store.getIsOpen(),
+                store.getMinimumOrderAmount(),
+                store.getAcceptsDelivery(),
+                store.getAcceptsPickup(),
+                store.getDeliveryFee(),
+                store.getEstimatedDeliveryTimeMinutes(),
+                store.getImageUrl(),
+                0.0,
+                0,
+                false,
+                store.getMinimumOrderAmount().multiply(java.math.BigDecimal.valueOf(2)),
+                store.getCreatedAt()
+        );
+
+        final DeliveryAddressView to = new DeliveryAddressView(
+                deliveryAddress.getId(),
+                deliveryAddress.getCustomer().getId(),
+                deliveryAddress.getLabel(),
+                deliveryAddress.getStreet(),
+                deliveryAddress.getCity(),
+                null, // number
+                null, // area
+                deliveryAddress.getPostalCode(),
+                deliveryAddress.getPhoneNumber(),
+                deliveryAddress.getLatitude(),
+                deliveryAddress.getLongitude(),
+                deliveryAddress.getIsDefault(),
+                deliveryAddress.getCreatedAt()
+        );
+        return new RouteEnds(from, to);
+    }
+
+    /**
+     * Validates the store and the items and builds the order with its subtotal; delivery is applied later.
+     */
+    private PreparedOrder prepare(final CreateOrderRequest request, final Person customer, final DeliveryAddress deliveryAddress,
+                                  final boolean firstOrder) {
         final Store store = this.storeRepository.findById(request.storeId())
                 .orElseThrow(() -> new IllegalArgumentException("Store not found"));
 
@@ -143,84 +381,9 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("Store does not accept pickup orders");
         }
 
-        // Load delivery address if needed
-        DeliveryAddress deliveryAddress = null;
-        if (request.orderType() == OrderType.DELIVERY) {
-            if (request.deliveryAddressId() == null) {
-                throw new IllegalArgumentException("Delivery address required for delivery orders");
-            }
-            deliveryAddress = this.deliveryAddressRepository.findById(request.deliveryAddressId())
-                    .orElseThrow(() -> new IllegalArgumentException("Delivery address not found"));
-
-            // Verify address belongs to customer
-            if (!deliveryAddress.getCustomer().getId().equals(customer.getId())) {
-                throw new SecurityException("Cannot use another customer's address");
-            }
-
-            // Validate delivery distance if both store and address have coordinates
-            if (store.getLatitude() != null && store.getLongitude() != null &&
-                deliveryAddress.getLatitude() != null && deliveryAddress.getLongitude() != null) {
-
-                final var storeView = new com.streetfoodgo.core.service.model.StoreView(
-                        store.getId(),
-                        null,
-                        store.getName(),
-                        store.getDescription(),
-                        store.getCuisineType(),
-                        store.getStoreType(),
-                        store.getAddress(),
-                        store.getLatitude(),
-                        store.getLongitude(),
-                        store.getArea(),
-                        store.getOpeningHours(),
-                        store.getIsOpen(),
-                        store.getMinimumOrderAmount(),
-                        store.getAcceptsDelivery(),
-                        store.getAcceptsPickup(),
-                        store.getDeliveryFee(),
-                        store.getEstimatedDeliveryTimeMinutes(),
-                        store.getImageUrl(),
-                        0.0,
-                        0,
-                        false,
-                        false,
-                        store.getMinimumOrderAmount().multiply(java.math.BigDecimal.valueOf(2)),
-                        store.getCreatedAt()
-                );
-
-                final var addressView = new com.streetfoodgo.core.service.model.DeliveryAddressView(
-                        deliveryAddress.getId(),
-                        deliveryAddress.getCustomer().getId(),
-                        deliveryAddress.getLabel(),
-                        deliveryAddress.getStreet(),
-                        deliveryAddress.getCity(),
-                        null, // number
-                        null, // area
-                        deliveryAddress.getPostalCode(),
-                        deliveryAddress.getPhoneNumber(),
-                        deliveryAddress.getLatitude(),
-                        deliveryAddress.getLongitude(),
-                        deliveryAddress.getIsDefault(),
-                        deliveryAddress.getCreatedAt()
-                );
-
-                final var metrics = this.geolocationService.calculateDeliveryMetrics(storeView, addressView);
-                final double distance = metrics.distanceKm().doubleValue();
-
-                double maxDistance = store.getMaxDeliveryDistanceKm() != null
-                        ? store.getMaxDeliveryDistanceKm().doubleValue()
-                        : 5.0;
-
-                if (distance > maxDistance) {
-                    throw new IllegalArgumentException(
-                            String.format("Delivery address is too far (%.1f km). Maximum delivery distance: %.1f km",
-                                    distance, maxDistance)
-                    );
-                }
-
-                LOGGER.info("Delivery distance validated: {} km (max: {} km)", distance, maxDistance);
-            }
-        }
+        // Validate customizations against the menu's compiled option rules, before any per-item lookups
+        final StoreMenu menu = this.storeMenuCache.get(store.getId());
+        checkCustomizations(menu, request.items());
 
         // Create Order
         Order order = new Order();
@@ -242,67 +405,52 @@ public class OrderServiceImpl implements OrderService {
             order.setPaymentStatus(PaymentStatus.PAID);
         }
 
-        // Process order items
+        // Process order items, resolved from the menu snapshot the customizations were checked against:
+        // prices and names are the snapshot's, entities are only referenced (no per-line lookups)
         BigDecimal subtotal = BigDecimal.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (OrderItemRequest itemRequest : request.items()) {
-            final MenuItem menuItem = this.menuItemRepository.findById(itemRequest.menuItemId())
+            final MenuItemView menuItem = menu.item(itemRequest.menuItemId())
                     .orElseThrow(() -> new IllegalArgumentException("Menu item not found: " + itemRequest.menuItemId()));
 
-            // Verify menu item belongs to the store
-            if (!menuItem.getStore().getId().equals(store.getId())) {
-                throw new IllegalArgumentException("Menu item does not belong to this store");
-            }
-
-            if (!menuItem.getAvailable()) {
-                throw new IllegalArgumentException("Menu item not available: " + menuItem.getName());
+            if (!Boolean.TRUE.equals(menuItem.available())) {
+                throw new IllegalArgumentException("Menu item not available: " + menuItem.name());
             }
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
-            orderItem.setMenuItem(menuItem);
+            orderItem.setMenuItem(this.menuItemRepository.getReferenceById(menuItem.id()));
             orderItem.setQuantity(itemRequest.quantity());
-            orderItem.setPriceAtOrder(menuItem.getPrice());
+            orderItem.setPriceAtOrder(menuItem.price());
             orderItem.setSpecialInstructions(itemRequest.specialInstructions());
 
-            // Process customizations
+            // Process customizations (already checked: each choice is the item's and available)
             if (itemRequest.customizations() != null && !itemRequest.customizations().isEmpty()) {
                 for (OrderItemCustomizationRequest custReq : itemRequest.customizations()) {
-                    final MenuItemChoice choice = menuItemChoiceRepository.findById(custReq.menuItemChoiceId())
-                            .orElseThrow(() -> new IllegalArgumentException("Menu item choice not found: " + custReq.menuItemChoiceId()));
-                    
-                    // Verify choice belongs to this menu item
-                    if (!choice.getOption().getMenuItem().getId().equals(menuItem.getId())) {
-                        throw new IllegalArgumentException("Choice does not belong to this menu item");
+                    for (final MenuItemOptionView option : menuItem.options()) {
+                        for (final MenuItemChoiceView choice : option.choices()) {
+                            if (!choice.id().equals(custReq.menuItemChoiceId())) continue;
+                            final OrderItemCustomization customization = new OrderItemCustomization();
+                            customization.setOrderItem(orderItem);
+                            customization.setMenuItemChoice(this.menuItemChoiceRepository.getReferenceById(choice.id()));
+                            customization.setOptionName(option.name());
+                            customization.setChoiceName(choice.name());
+                            customization.setAdditionalPrice(choice.additionalPrice());
+                            orderItem.addCustomization(customization);
+                        }
                     }
-                    
-                    if (!choice.getIsAvailable()) {
-                        throw new IllegalArgumentException("Choice not available: " + choice.getName());
-                    }
-                    
-                    OrderItemCustomization customization = new OrderItemCustomization(orderItem, choice);
-                    orderItem.addCustomization(customization);
                 }
             }
 
-            // Process removed ingredients
+            // Process removed ingredients (already checked: each is the item's and removable)
             if (itemRequest.removedIngredientIds() != null && !itemRequest.removedIngredientIds().isEmpty()) {
                 for (Long ingredientId : itemRequest.removedIngredientIds()) {
-                    final MenuItemIngredient ingredient = menuItemIngredientRepository.findById(ingredientId)
-                            .orElseThrow(() -> new IllegalArgumentException("Ingredient not found: " + ingredientId));
-                    
-                    // Verify ingredient belongs to this menu item
-                    if (!ingredient.getMenuItem().getId().equals(menuItem.getId())) {
-                        throw new IllegalArgumentException("Ingredient does not belong to this menu item");
-                    }
-                    
-                    if (!ingredient.getIsRemovable()) {
-                        throw new IllegalArgumentException("Ingredient cannot be removed: " + ingredient.getName());
+                    for (final MenuItemIngredientView ingredient : menuItem.ingredients()) {
+                        if (ingredient.id().equals(ingredientId)) {
+                            orderItem.addRemovedIngredient(new OrderItemRemovedIngredient(orderItem, ingredient.name()));
+                        }
                     }
-                    
-                    OrderItemRemovedIngredient removed = new OrderItemRemovedIngredient(orderItem, ingredient.getName());
-                    orderItem.addRemovedIngredient(removed);
                 }
             }
 
@@ -320,102 +468,113 @@ public class OrderServiceImpl implements OrderService {
         order.setItems(orderItems);
         order.setSubtotal(subtotal);
 
-        // Calculate delivery fee + delivery ETA
-        BigDecimal deliveryFee = BigDecimal.ZERO;
-        if (request.orderType() == OrderType.DELIVERY) {
-            deliveryFee = store.getDeliveryFee();
-
-            if (store.getLatitude() != null && store.getLongitude() != null
-                     && deliveryAddress.getLatitude() != null && deliveryAddress.getLongitude() != null) {
-
-                final var storeView = new com.streetfoodgo.core.service.model.StoreView(
-                        store.getId(),
-                        null,
-                        store.getName(),
-                        store.getDescription(),
-                        store.getCuisineType(),
-                        store.getStoreType(),
-                        store.getAddress(),
-                        store.getLatitude(),
-                        store.getLongitude(),
-                        store.getArea(),
-                        store.getOpeningHours(),
-                        store.getIsOpen(),
-                        store.getMinimumOrderAmount(),
-                        store.getAcceptsDelivery(),
-                        store.getAcceptsPickup(),
-                        store.getDeliveryFee(),
-                        store.getEstimatedDeliveryTimeMinutes(),
-                        store.getImageUrl(),
-                        0.0,
-                        0,
-                        false,
-                        false,
-                        store.getMinimumOrderAmount().multiply(java.math.BigDecimal.valueOf(2)),
-                        store.getCreatedAt()
-                );
+        // The store's promotions, attributed to the lines they discount
+        final List<PromotionLine> lines = orderItems.stream()
+                .map(i -> new PromotionLine(i.getMenuItem().getId(),
+                        i.getSubtotal().divide(BigDecimal.valueOf(i.getQuantity()), 2, RoundingMode.HALF_UP),
+                        i.getQuantity()))
+                .toList();
+        final BigDecimal deliveryFee = request.orderType() == OrderType.DELIVERY ? store.getDeliveryFee() : BigDecimal.ZERO;
+        final PromotionResult promotions = this.promotionService.evaluate(store.getId(), lines, deliveryFee, firstOrder);
+        for (int i = 0; i < orderItems.size(); i++) {
+            orderItems.get(i).setDiscountAmount(promotions.lineDiscounts().get(i));
+        }
+        order.setPromotionDiscount(promotions.discount());
+
+        // Coupon discount on what the promotions left (validated now, redeemed once the order is saved)
+        CouponQuote coupon = null;
+        if (request.couponCode() != null && !request.couponCode().isBlank()) {
+            coupon = this.couponService.quote(request.couponCode(), customer.getId(), store.getId(),
+                    subtotal.subtract(promotions.discount()));
+            order.setCouponCode(coupon.code());
+            order.setDiscountAmount(coupon.discount());
+        }
+
+        return new PreparedOrder(order, store, menu, promotions, coupon);
+    }
 
-                final var addressView = new com.streetfoodgo.core.service.model.DeliveryAddressView(
-                        order.getDeliveryAddress().getId(),
-                        order.getDeliveryAddress().getCustomer().getId(),
-                        order.getDeliveryAddress().getLabel(),
-                        order.getDeliveryAddress().getStreet(),
-                        order.getDeliveryAddress().getCity(),
-                        order.getDeliveryAddress().getNumber(),
-                        order.getDeliveryAddress().getArea(),
-                        order.getDeliveryAddress().getPostalCode(),
-                        order.getDeliveryAddress().getPhoneNumber(),
-                        order.getDeliveryAddress().getLatitude(),
-                        order.getDeliveryAddress().getLongitude(),
-                        order.getDeliveryAddress().getIsDefault(),
-                        order.getDeliveryAddress().getCreatedAt()
+    /**
+     * Distance and ETA of the delivery route; null when there is no route to take.
+     */
+    private GeolocationService.DeliveryMetrics deliveryMetrics(final RouteEnds route) {
+        if (route == null) return null;
+        return this.geolocationService.calculateDeliveryMetrics(route.from(), route.to());
+    }
+
+    /**
+     * Checks the delivery distance and sets the delivery fee, ETA and total.
+     */
+    private static void applyDelivery(final PreparedOrder prepared, final GeolocationService.DeliveryMetrics deliveryMetrics) {
+        final Order order = prepared.order();
+        final Store store = prepared.store();
+
+        if (deliveryMetrics != null) {
+            final double distance = deliveryMetrics.distanceKm().doubleValue();
+
+            double maxDistance = store.getMaxDeliveryDistanceKm() != null
+                    ? store.getMaxDeliveryDistanceKm().doubleValue()
+                    : 5.0;
+
+            if (distance > maxDistance) {
+                throw new IllegalArgumentException(
+                        String.format("Delivery address is too far (%.1f km). Maximum delivery distance: %.1f km",
+                                distance, maxDistance)
                 );
+            }
 
-                final var metrics = this.geolocationService.calculateDeliveryMetrics(storeView, addressView);
+            LOGGER.info("Delivery distance validated: {} km (max: {} km)", distance, maxDistance);
+        }
+
+        // Calculate delivery fee + delivery ETA
+        BigDecimal deliveryFee = BigDecimal.ZERO;
+        if (order.getOrderType() == OrderType.DELIVERY) {
+            deliveryFee = store.getDeliveryFee().subtract(prepared.promotions().deliveryDiscount());
 
-                order.setEstimatedDeliveryDistanceKm(metrics.distanceKm());
-                order.setEstimatedDeliveryMinutes(metrics.estimatedMinutes());
+            if (deliveryMetrics != null) {
+                order.setEstimatedDeliveryDistanceKm(deliveryMetrics.distanceKm());
+                order.setEstimatedDeliveryMinutes(deliveryMetrics.estimatedMinutes());
             }
         }
         order.setDeliveryFee(deliveryFee);
 
         // Calculate total
-        order.setTotal(subtotal.add(deliveryFee));
+        final BigDecimal discount = order.getDiscountAmount() == null ? BigDecimal.ZERO : order.getDiscountAmount();
+        order.setTotal(order.getSubtotal().subtract(order.getPromotionDiscount()).subtract(discount).add(deliveryFee));
         order.setCreatedAt(Instant.now());
+    }
 
-        // Save order
-        order = this.orderRepository.save(order);
-
-        // Send notification to store owner (SMS + Email)
-        try {
-            final String ownerPhone = store.getOwner().getMobilePhoneNumber();
-            final String ownerEmail = store.getOwner().getEmailAddress();
-
-            final String etaPart = (order.getEstimatedDeliveryMinutes() != null && order.getEstimatedDeliveryDistanceKm() != null)
-                    ? String.format(" ETA: %d min (%.2f km).", order.getEstimatedDeliveryMinutes(), order.getEstimatedDeliveryDistanceKm())
-                    : "";
-
-            final String content = String.format(
-                    "New order #%d received! Total: €%.2f. %d items for %s.%s",
-                    order.getId(),
-                    order.getTotal(),
-                    orderItems.size(),
-                    request.orderType() == OrderType.DELIVERY ? "delivery" : "pickup",
-                    etaPart
-            );
-
-            boolean sent = this.smsNotificationPort.sendSms(ownerPhone, content);
-            if (!sent) {
-                LOGGER.warn("Failed to send SMS notification to store owner for order {}", order.getId());
-            }
+    private NotificationEvent.NewOrder newOrderEvent(final Order order, final Store store) {
+        return new NotificationEvent.NewOrder(
+                order.getId(),
+                store.getId(),
+                store.getName(),
+                recipient(store.getOwner()),
+                order.getCustomer().getFirstName() + " " + order.getCustomer().getLastName(),
+                order.getItems().size(),
+                order.getTotal(),
+                order.getOrderType(),
+                order.getEstimatedDeliveryMinutes(),
+                order.getEstimatedDeliveryDistanceKm());
+    }
 
-            this.emailPort.sendEmail(ownerEmail, "New Order #" + order.getId() + " - " + store.getName(), content);
+    private static NotificationEvent.Recipient recipient(final Person person) {
+        return new NotificationEvent.Recipient(
+                person.getId(),
+                person.getFirstName() + " " + person.getLastName(),
+                person.getMobilePhoneNumber(),
+                person.getEmailAddress());
+    }
 
-        } catch (Exception e) {
-            LOGGER.error("Error sending notification to store owner", e);
+    private static <T> T join(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while placing orders", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
         }
-
-        return this.orderMapper.toView(order);
     }
 
     @Override
@@ -457,16 +616,9 @@ public class OrderServiceImpl implements OrderService {
         order.setCancelledAt(Instant.now());
         this.orderRepository.save(order);
 
-        // Notify store owner (SMS + Email)
-        try {
-            final String ownerPhone = order.getStore().getOwner().getMobilePhoneNumber();
-            final String ownerEmail = order.getStore().getOwner().getEmailAddress();
-            final String content = String.format("Order #%d has been cancelled by customer.", order.getId());
-            this.smsNotificationPort.sendSms(ownerPhone, content);
-            this.emailPort.sendEmail(ownerEmail, "Order #" + order.getId() + " cancelled", content);
-        } catch (Exception e) {
-            LOGGER.error("Error notifying store owner of cancellation", e);
-        }
+        // Notify store owner
+        this.notificationService.notify(new NotificationEvent.OrderCancelled(
+                order.getId(), order.getStore().getId(), recipient(order.getStore().getOwner())));
     }
 
     @Override
@@ -536,31 +688,16 @@ public class OrderServiceImpl implements OrderService {
         order.setAcceptedAt(Instant.now());
         order = this.orderRepository.save(order);
 
-        // Notify customer (SMS + Email + NotificationService)
-        try {
-            final String customerPhone = order.getCustomer().getMobilePhoneNumber();
-            final String customerEmail = order.getCustomer().getEmailAddress();
-
-            final int etaMinutes = order.getEstimatedDeliveryMinutes() != null
-                    ? order.getEstimatedDeliveryMinutes()
-                    : (order.getStore().getEstimatedDeliveryTimeMinutes() != null ? order.getStore().getEstimatedDeliveryTimeMinutes() : 30);
-
-            final String content = String.format(
-                    "Great news! Your order #%d at %s has been accepted and is being prepared. Estimated time: %d minutes.",
-                    order.getId(),
-                    order.getStore().getName(),
-                    etaMinutes
-            );
-            this.smsNotificationPort.sendSms(customerPhone, content);
-            this.emailPort.sendEmail(customerEmail, "Order #" + order.getId() + " accepted", content);
-
-            // Send structured notification with distance/ETA
-            OrderView orderView = this.orderMapper.toView(order);
-            this.notificationService.notifyOrderAccepted(orderView);
-
-        } catch (Exception e) {
-            LOGGER.error("Error notifying customer of order acceptance", e);
-        }
+        // Notify customer, with the ETA
+        final int etaMinutes = order.getEstimatedDeliveryMinutes() != null
+                ? order.getEstimatedDeliveryMinutes()
+                : (order.getStore().getEstimatedDeliveryTimeMinutes() != null ? order.getStore().getEstimatedDeliveryTimeMinutes() : 30);
+        this.notificationService.notify(new NotificationEvent.OrderAccepted(
+                order.getId(),
+                order.getStore().getName(),
+                recipient(order.getCustomer()),
+                etaMinutes,
+                order.getEstimatedDeliveryDistanceKm()));
 
         return this.orderMapper.toView(order);
     }
@@ -588,32 +725,9 @@ public class OrderServiceImpl implements OrderService {
         order.setRejectedAt(Instant.now());
         order = this.orderRepository.save(order);
 
-        // Notify customer (SMS + Email)
-        try {
-            final String customerPhone = order.getCustomer().getMobilePhoneNumber();
-            final String customerEmail = order.getCustomer().getEmailAddress();
-            final String customerName = order.getCustomer().getFirstName() + " " + order.getCustomer().getLastName();
-            final String storeName = order.getStore().getName();
-
-            final String content = String.format(
-                    "Sorry! Your order #%d at %s was rejected. Reason: %s",
-                    order.getId(),
-                    storeName,
-                    request.reason()
-            );
-            this.smsNotificationPort.sendSms(customerPhone, content);
-
-            // Send HTML email notification
-            this.emailPort.sendOrderRejectedEmail(
-                    customerEmail,
-                    customerName,
-                    order.getId(),
-                    storeName,
-                    request.reason()
-            );
-        } catch (Exception e) {
-            LOGGER.error("Error notifying customer of order rejection", e);
-        }
+        // Notify customer
+        this.notificationService.notify(new NotificationEvent.OrderRejected(
+                order.getId(), order.getStore().getName(), recipient(order.getCustomer()), request.reason()));
 
         return this.orderMapper.toView(order);
     }
@@ -645,35 +759,12 @@ public class OrderServiceImpl implements OrderService {
 
         order = this.orderRepository.save(order);
 
-        // Notify customer (SMS + Email)
-        try {
-            final String customerPhone = order.getCustomer().getMobilePhoneNumber();
-            final String customerEmail = order.getCustomer().getEmailAddress();
-            final String customerName = order.getCustomer().getFirstName() + " " + order.getCustomer().getLastName();
-            final String storeName = order.getStore().getName();
-
-            String content = switch (request.newStatus()) {
-                case READY -> order.getOrderType() == OrderType.PICKUP
-                        ? String.format("Your order #%d is ready for pickup at %s!", order.getId(), storeName)
-                        : String.format("Your order #%d is ready and will be delivered soon!", order.getId());
-                case DELIVERING -> String.format("Your order #%d is on its way!", order.getId());
-                case COMPLETED -> String.format("Your order #%d has been completed. Enjoy your meal!", order.getId());
-                default -> String.format("Order #%d status updated: %s", order.getId(), request.newStatus());
-            };
-
-            this.smsNotificationPort.sendSms(customerPhone, content);
-
-            // Send HTML email notification
-            this.emailPort.sendOrderStatusUpdateEmail(
-                    customerEmail,
-                    customerName,
-                    order.getId(),
-                    storeName,
-                    request.newStatus().toString()
-            );
-        } catch (Exception e) {
-            LOGGER.error("Error notifying customer of status update", e);
-        }
+        // Notify customer
+        final NotificationEvent.Recipient customer = recipient(order.getCustomer());
+        final String storeName = order.getStore().getName();
+        this.notificationService.notify(request.newStatus() == OrderStatus.COMPLETED
+                ? new NotificationEvent.OrderCompleted(order.getId(), storeName, customer)
+                : new NotificationEvent.OrderStatusUpdated(order.getId(), storeName, customer, request.newStatus(), order.getOrderType()));
 
         return this.orderMapper.toView(order);
     }
@@ -807,6 +898,22 @@ public class OrderServiceImpl implements OrderService {
         return new OrderStatistics(total, completed, cancelled, pending);
     }
 
+    /**
+     * Checks the items' choices and removed ingredients against the store menu's compiled rules
+     * (ownership, availability, per-option min/max selections), failing fast on the first violation.
+     */
+    private void checkCustomizations(final StoreMenu menu, final List<OrderItemRequest> items) {
+        if (items == null) return;
+        for (final OrderItemRequest item : items) {
+            final CustomizationRules rules = menu.rules(item.menuItemId())
+                    .orElseThrow(() -> new IllegalArgumentException("Menu item does not belong to this store: " + item.menuItemId()));
+            final List<Long> choiceIds = item.customizations() == null ? List.of() : item.customizations().stream()
+                    .map(OrderItemCustomizationRequest::menuItemChoiceId)
+                    .toList();
+            rules.check(choiceIds, item.removedIngredientIds());
+        }
+    }
+
     /**
      * Validates if a status transition is allowed.
      */
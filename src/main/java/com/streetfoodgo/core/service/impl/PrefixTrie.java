@@ -0,0 +1,176 @@
+package com.streetfoodgo.core.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie whose nodes carry precomputed top-K suggestion ids.
+ * <p>
+ * Frozen into flat arrays (first-child / next-sibling links, children sorted by label), so a lookup
+ * is one walk down the prefix plus an array slice: no allocation beyond the result and no ranking work.
+ */
+final class PrefixTrie {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] topOffset;
+    private final int[] topLength;
+    private final int[] topPool;
+
+    private PrefixTrie(final char[] labels, final int[] firstChild, final int[] nextSibling,
+                       final int[] topOffset, final int[] topLength, final int[] topPool) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.topOffset = topOffset;
+        this.topLength = topLength;
+        this.topPool = topPool;
+    }
+
+    /**
+     * Best suggestion ids (highest weight first) for keys starting with {@code prefix}.
+     */
+    int[] lookup(final String prefix, final int limit) {
+        int node = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            final char c = prefix.charAt(i);
+            int child = firstChild[node];
+            while (child >= 0 && labels[child] < c) child = nextSibling[child];
+            if (child < 0 || labels[child] != c) return EMPTY;
+            node = child;
+        }
+        final int n = Math.min(limit, topLength[node]);
+        return Arrays.copyOfRange(topPool, topOffset[node], topOffset[node] + n);
+    }
+
+    int nodeCount() {
+        return labels.length;
+    }
+
+    static final class Builder {
+
+        private final int topK;
+        private final long[] weights;
+        private final MutableNode root = new MutableNode('\0');
+        private int nodes = 1;
+
+        /**
+         * @param weights weight per suggestion id; ties are broken by the lower id
+         */
+        Builder(final int topK, final long[] weights) {
+            if (topK <= 0) throw new IllegalArgumentException("topK must be positive");
+            if (weights == null) throw new NullPointerException();
+            this.topK = topK;
+            this.weights = weights;
+        }
+
+        void add(final String key, final int suggestionId) {
+            if (key == null || key.isEmpty()) return;
+            MutableNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                final char c = key.charAt(i);
+                MutableNode child = node.children.get(c);
+                if (child == null) {
+                    child = new MutableNode(c);
+                    node.children.put(c, child);
+                    nodes++;
+                }
+                node = child;
+            }
+            node.terminals.add(suggestionId);
+        }
+
+        PrefixTrie build() {
+            computeTop(root);
+
+            final char[] labels = new char[nodes];
+            final int[] firstChild = new int[nodes];
+            final int[] nextSibling = new int[nodes];
+            final int[] topOffset = new int[nodes];
+            final int[] topLength = new int[nodes];
+            final List<int[]> tops = new ArrayList<>(nodes);
+            int poolSize = 0;
+
+            // Preorder numbering; children keep label order so lookups can stop early
+            final List<MutableNode> order = new ArrayList<>(nodes);
+            final ArrayList<MutableNode> stack = new ArrayList<>();
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                final MutableNode node = stack.removeLast();
+                node.index = order.size();
+                order.add(node);
+                final List<MutableNode> children = new ArrayList<>(node.children.values());
+                for (int i = children.size() - 1; i >= 0; i--) stack.add(children.get(i));
+            }
+
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+            for (MutableNode node : order) {
+                final int i = node.index;
+                labels[i] = node.label;
+                MutableNode previous = null;
+                for (MutableNode child : node.children.values()) {
+                    if (previous == null) firstChild[i] = child.index;
+                    else nextSibling[previous.index] = child.index;
+                    previous = child;
+                }
+                topOffset[i] = poolSize;
+                topLength[i] = node.top.length;
+                tops.add(node.top);
+                poolSize += node.top.length;
+            }
+
+            final int[] pool = new int[poolSize];
+            int p = 0;
+            for (int[] top : tops) {
+                System.arraycopy(top, 0, pool, p, top.length);
+                p += top.length;
+            }
+            return new PrefixTrie(labels, firstChild, nextSibling, topOffset, topLength, pool);
+        }
+
+        private void computeTop(final MutableNode root) {
+            // Iterative postorder: children are ranked before their parent
+            final ArrayList<MutableNode> stack = new ArrayList<>();
+            final ArrayList<MutableNode> postorder = new ArrayList<>(nodes);
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                final MutableNode node = stack.removeLast();
+                postorder.add(node);
+                stack.addAll(node.children.values());
+            }
+            for (int i = postorder.size() - 1; i >= 0; i--) {
+                final MutableNode node = postorder.get(i);
+                final Set<Integer> candidates = new LinkedHashSet<>(node.terminals);
+                for (MutableNode child : node.children.values()) {
+                    for (int id : child.top) candidates.add(id);
+                }
+                node.top = candidates.stream()
+                        .sorted((a, b) -> weights[a] != weights[b] ? Long.compare(weights[b], weights[a]) : Integer.compare(a, b))
+                        .limit(topK)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+        }
+    }
+
+    private static final class MutableNode {
+        final char label;
+        final Map<Character, MutableNode> children = new TreeMap<>();
+        final List<Integer> terminals = new ArrayList<>(1);
+        int[] top = EMPTY;
+        int index;
+
+        MutableNode(final char label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.PromotionType;
+import com.streetfoodgo.core.model.StorePromotion;
+import com.streetfoodgo.core.service.model.AppliedPromotion;
+import com.streetfoodgo.core.service.model.PromotionLine;
+import com.streetfoodgo.core.service.model.PromotionResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One store's running promotions, compiled for evaluating carts and orders.
+ * <p>
+ * Promotions are split into three groups that stack with each other, while promotions of the same group
+ * conflict and only the best one applies:
+ * <ul>
+ *     <li>items: buy X get Y free, the cheapest units of each X + Y free;</li>
+ *     <li>order: fixed or percentage off (first-order and minimum-order bonuses included), on the subtotal
+ *     left after the item promotion;</li>
+ *     <li>delivery: free delivery.</li>
+ * </ul>
+ * Taking the best item promotion first never makes the best order promotion worse (a percentage of a
+ * smaller rest loses less than the item discount gained), so picking the best of each group in turn gives
+ * the best overall set. Discounts are attributed to lines: free units to their own lines, order discounts
+ * pro rata to what is left of each line. Bundle deals have no items on the entity to bundle and are not
+ * evaluated.
+ * <p>
+ * Immutable; the promotions in it are live by construction (the owner recompiles at every start and end).
+ */
+final class PromotionEvaluator {
+
+    /**
+     * The parts of a {@link StorePromotion} needed to evaluate it, detached from the persistence context.
+     */
+    record Terms(Long id,
+                 String title,
+                 String badgeText,
+                 PromotionType type,
+                 BigDecimal discountValue,
+                 int requiredQuantity,
+                 int freeQuantity,
+                 BigDecimal minimumOrderAmount,
+                 BigDecimal maxDiscountAmount,
+                 LocalDateTime validFrom,
+                 LocalDateTime validUntil,
+                 int usageCount,
+                 Integer maxUsageCount) {
+
+        static Terms of(final StorePromotion promotion) {
+            return new Terms(
+                    promotion.getId(),
+                    promotion.getTitle(),
+                    promotion.getBadgeText(),
+                    promotion.getPromotionType(),
+                    promotion.getDiscountValue() == null ? BigDecimal.ZERO : promotion.getDiscountValue(),
+                    promotion.getRequiredQuantity() == null ? 0 : promotion.getRequiredQuantity(),
+                    promotion.getFreeQuantity() == null ? 0 : promotion.getFreeQuantity(),
+                    promotion.getMinimumOrderAmount(),
+                    promotion.getMaxDiscountAmount(),
+                    promotion.getValidFrom(),
+                    promotion.getValidUntil(),
+                    promotion.getUsageCount() == null ? 0 : promotion.getUsageCount(),
+                    promotion.getMaxUsageCount());
+        }
+
+        boolean runningAt(final LocalDateTime now) {
+            return !now.isBefore(this.validFrom) && !now.isAfter(this.validUntil);
+        }
+
+        boolean appliesTo(final BigDecimal subtotal) {
+            return this.minimumOrderAmount == null || subtotal.compareTo(this.minimumOrderAmount) >= 0;
+        }
+
+        BigDecimal cap(final BigDecimal amount) {
+            return this.maxDiscountAmount != null && amount.compareTo(this.maxDiscountAmount) > 0
+                    ? this.maxDiscountAmount
+                    : amount;
+        }
+    }
+
+    static final PromotionEvaluator NONE = new PromotionEvaluator(List.of());
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final Terms[] itemPromotions;
+    private final Terms[] orderPromotions;
+    private final Terms[] deliveryPromotions;
+
+    private PromotionEvaluator(final Collection<Terms> promotions) {
+        final List<Terms> items = new ArrayList<>();
+        final List<Terms> order = new ArrayList<>();
+        final List<Terms> delivery = new ArrayList<>();
+        promotions.stream().sorted(Comparator.comparing(Terms::id)).forEach(p -> {
+            switch (p.type()) {
+                case BUY_X_GET_Y_FREE -> {
+                    if (p.requiredQuantity() > 0 && p.freeQuantity() > 0) items.add(p);
+                }
+                case FIXED_DISCOUNT, PERCENTAGE_DISCOUNT, FIRST_ORDER, MINIMUM_ORDER_BONUS -> order.add(p);
+                case FREE_DELIVERY -> delivery.add(p);
+                case BUNDLE_DEAL -> { }
+            }
+        });
+        this.itemPromotions = items.toArray(Terms[]::new);
+        this.orderPromotions = order.toArray(Terms[]::new);
+        this.deliveryPromotions = delivery.toArray(Terms[]::new);
+    }
+
+    /**
+     * Compiles the promotions running now; callers pass the ones still within their usage limit.
+     */
+    static PromotionEvaluator compile(final Collection<Terms> running) {
+        if (running == null) throw new NullPointerException();
+        return running.isEmpty() ? NONE : new PromotionEvaluator(running);
+    }
+
+    boolean isEmpty() {
+        return this.itemPromotions.length == 0 && this.orderPromotions.length == 0 && this.deliveryPromotions.length == 0;
+    }
+
+    PromotionResult evaluate(final List<PromotionLine> lines, final BigDecimal deliveryFee, final boolean firstOrder) {
+        if (lines == null) throw new NullPointerException();
+        if (isEmpty() || lines.isEmpty()) return PromotionResult.none(lines.size());
+
+        final int n = lines.size();
+        final BigDecimal[] lineTotals = new BigDecimal[n];
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < n; i++) {
+            lineTotals[i] = lines.get(i).unitPrice().multiply(BigDecimal.valueOf(lines.get(i).quantity()));
+            subtotal = subtotal.add(lineTotals[i]);
+        }
+
+        final List<AppliedPromotion> applied = new ArrayList<>(3);
+        final BigDecimal[] discounts = new BigDecimal[n];
+        Arrays.fill(discounts, BigDecimal.ZERO);
+
+        // Items: the best buy X get Y free
+        Terms bestItem = null;
+        BigDecimal[] bestFree = null;
+        BigDecimal bestItemAmount = BigDecimal.ZERO;
+        for (final Terms promotion : this.itemPromotions) {
+            if (!promotion.appliesTo(subtotal)) continue;
+            final BigDecimal[] free = freeUnits(lines, promotion);
+            final BigDecimal amount = promotion.cap(sum(free));
+            if (amount.compareTo(bestItemAmount) > 0) {
+                bestItem = promotion;
+                bestFree = amount.compareTo(sum(free)) < 0 ? allocate(amount, free) : free;
+                bestItemAmount = amount;
+            }
+        }
+        if (bestItem != null) {
+            for (int i = 0; i < n; i++) discounts[i] = bestFree[i];
+            applied.add(applied(bestItem, bestItemAmount));
+        }
+
+        // Order: the best fixed or percentage discount on what is left
+        final BigDecimal rest = subtotal.subtract(bestItemAmount);
+        Terms bestOrder = null;
+        BigDecimal bestOrderAmount = BigDecimal.ZERO;
+        for (final Terms promotion : this.orderPromotions) {
+            if (!promotion.appliesTo(subtotal)) continue;
+            if (promotion.type() == PromotionType.FIRST_ORDER && !firstOrder) continue;
+            final BigDecimal amount = orderDiscount(promotion, rest);
+            if (amount.compareTo(bestOrderAmount) > 0) {
+                bestOrder = promotion;
+                bestOrderAmount = amount;
+            }
+        }
+        if (bestOrder != null) {
+            final BigDecimal[] remaining = new BigDecimal[n];
+            for (int i = 0; i < n; i++) remaining[i] = lineTotals[i].subtract(discounts[i]);
+            final BigDecimal[] shares = allocate(bestOrderAmount, remaining);
+            for (int i = 0; i < n; i++) discounts[i] = discounts[i].add(shares[i]);
+            applied.add(applied(bestOrder, bestOrderAmount));
+        }
+
+        // Delivery: free delivery waives the whole fee
+        BigDecimal deliveryDiscount = BigDecimal.ZERO;
+        if (deliveryFee != null && deliveryFee.signum() > 0) {
+            for (final Terms promotion : this.deliveryPromotions) {
+                if (!promotion.appliesTo(subtotal)) continue;
+                deliveryDiscount = deliveryFee;
+                applied.add(applied(promotion, deliveryFee));
+                break;
+            }
+        }
+
+        return new PromotionResult(applied, Arrays.asList(discounts), sum(discounts), deliveryDiscount);
+    }
+
+    /**
+     * Value of the free units per line: units are ranked by price, most expensive first, and in every run of
+     * X + Y units the last Y (the cheapest) are free.
+     */
+    private static BigDecimal[] freeUnits(final List<PromotionLine> lines, final Terms promotion) {
+        final int group = promotion.requiredQuantity() + promotion.freeQuantity();
+        final Integer[] byPrice = new Integer[lines.size()];
+        for (int i = 0; i < byPrice.length; i++) byPrice[i] = i;
+        Arrays.sort(byPrice, Comparator.comparing((Integer i) -> lines.get(i).unitPrice()).reversed());
+
+        final BigDecimal[] free = new BigDecimal[lines.size()];
+        long position = 0;
+        for (final int i : byPrice) {
+            final int quantity = lines.get(i).quantity();
+            final long freeCount = freeBefore(position + quantity, group, promotion) - freeBefore(position, group, promotion);
+            free[i] = lines.get(i).unitPrice().multiply(BigDecimal.valueOf(freeCount));
+            position += quantity;
+        }
+        return free;
+    }
+
+    /**
+     * Free units among the first {@code units} ranked units.
+     */
+    private static long freeBefore(final long units, final int group, final Terms promotion) {
+        return (units / group) * promotion.freeQuantity() + Math.max(0, units % group - promotion.requiredQuantity());
+    }
+
+    private static BigDecimal orderDiscount(final Terms promotion, final BigDecimal rest) {
+        if (rest.signum() <= 0) return BigDecimal.ZERO;
+        final BigDecimal amount = switch (promotion.type()) {
+            case PERCENTAGE_DISCOUNT, FIRST_ORDER ->
+                    rest.multiply(promotion.discountValue()).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+            default -> promotion.discountValue();
+        };
+        final BigDecimal capped = promotion.cap(amount);
+        return (capped.compareTo(rest) > 0 ? rest : capped).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Splits {@code amount} over the lines pro rata to {@code weights}, in cents; the rounding rest goes to the
+     * heaviest line.
+     */
+    private static BigDecimal[] allocate(final BigDecimal amount, final BigDecimal[] weights) {
+        final BigDecimal[] shares = new BigDecimal[weights.length];
+        final BigDecimal total = sum(weights);
+        Arrays.fill(shares, BigDecimal.ZERO.setScale(2));
+        if (total.signum() <= 0) return shares;
+
+        int heaviest = 0;
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (int i = 0; i < weights.length; i++) {
+            shares[i] = amount.multiply(weights[i]).divide(total, 2, RoundingMode.DOWN);
+            allocated = allocated.add(shares[i]);
+            if (weights[i].compareTo(weights[heaviest]) > 0) heaviest = i;
+        }
+        shares[heaviest] = shares[heaviest].add(amount.subtract(allocated));
+        return shares;
+    }
+
+    private static BigDecimal sum(final BigDecimal[] amounts) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (final BigDecimal amount : amounts) sum = sum.add(amount);
+        return sum;
+    }
+
+    private static AppliedPromotion applied(final Terms promotion, final BigDecimal amount) {
+        return new AppliedPromotion(promotion.id(), promotion.title(), promotion.badgeText(), promotion.type(), amount);
+    }
+}
@@ -0,0 +1,206 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.repository.StorePromotionRepository;
+import com.streetfoodgo.core.service.PromotionService;
+import com.streetfoodgo.core.service.model.AppliedPromotion;
+import com.streetfoodgo.core.service.model.PromotionLine;
+import com.streetfoodgo.core.service.model.PromotionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of PromotionService.
+ * <p>
+ * Each store's promotions that have not ended are loaded once and kept with a {@link PromotionEvaluator}
+ * compiled from the ones running now. Starts and ends are driven by a timer wheel that fires at the store's
+ * next boundary (promotion windows have minute resolution) and recompiles from the loaded promotions, so
+ * requests never check validity windows and nothing is reloaded when a promotion starts or expires.
+ * <p>
+ * Uses are counted in memory after commit and added to the promotions' rows in batches. A promotion with a
+ * usage limit leaves the evaluator once the counted uses reach it; orders in flight at that moment may still
+ * apply it, so the limit is soft by the number of concurrent checkouts.
+ * <p>
+ * Stores are evicted by promotion writes and reloaded on a schedule, which also picks up rows changed
+ * outside the application. A reload keeps the uses counted since the last flush.
+ */
+@Service
+public class PromotionServiceImpl implements PromotionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PromotionServiceImpl.class);
+
+    /**
+     * A store's loaded promotions and the evaluator of the ones running at the last (re)compile.
+     */
+    private record StorePromotions(List<PromotionEvaluator.Terms> scheduled, PromotionEvaluator running) {}
+
+    private final StorePromotionRepository promotionRepository;
+
+    private final Map<Long, StorePromotions> stores = new ConcurrentHashMap<>();
+    private final Map<Long, Long> promotionStores = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> uses = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> uncountedUses = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> flushedUses = new ConcurrentHashMap<>();
+    private final TimerWheel<Long> wheel = new TimerWheel<>(tickOf(Instant.now()));
+
+    public PromotionServiceImpl(final StorePromotionRepository promotionRepository) {
+        if (promotionRepository == null) throw new NullPointerException();
+        this.promotionRepository = promotionRepository;
+    }
+
+    @Override
+    public PromotionResult evaluate(final Long storeId, final List<PromotionLine> lines,
+                                    final BigDecimal deliveryFee, final boolean firstOrder) {
+        if (storeId == null) throw new NullPointerException();
+        if (lines == null) throw new NullPointerException();
+        return promotions(storeId).running().evaluate(lines, deliveryFee, firstOrder);
+    }
+
+    @Override
+    public void recordUse(final PromotionResult result) {
+        if (result == null) throw new NullPointerException();
+        if (result.applied().isEmpty()) return;
+        AfterCommit.run(() -> {
+            for (final AppliedPromotion promotion : result.applied()) {
+                this.uncountedUses.computeIfAbsent(promotion.promotionId(), id -> new LongAdder()).increment();
+                this.uses.computeIfAbsent(promotion.promotionId(), id -> new LongAdder()).increment();
+                final Long storeId = this.promotionStores.get(promotion.promotionId());
+                if (storeId != null && reachedLimit(storeId, promotion.promotionId())) recompile(storeId);
+            }
+        });
+    }
+
+    @Override
+    public void evict(final Long storeId) {
+        if (storeId == null) throw new NullPointerException();
+        AfterCommit.run(() -> this.stores.remove(storeId));
+    }
+
+    /**
+     * Advances the timer wheel once a minute and recompiles the stores where a promotion started or ended.
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public void tick() {
+        final List<Long> due;
+        synchronized (this.wheel) {
+            due = this.wheel.advance(tickOf(Instant.now()));
+        }
+        for (final Long storeId : due) {
+            if (this.stores.containsKey(storeId)) recompile(storeId);
+        }
+    }
+
+    /**
+     * Adds the uses counted since the last run to the promotions' rows, one update per promotion.
+     */
+    @Scheduled(fixedDelayString = "${app.promotions.flush-interval-ms:5000}")
+    @Transactional
+    public void flushUses() {
+        for (final Map.Entry<Long, LongAdder> entry : this.uncountedUses.entrySet()) {
+            final int count = (int) entry.getValue().sumThenReset();
+            if (count == 0) continue;
+            this.promotionRepository.addUses(entry.getKey(), count);
+            AfterCommit.run(() -> this.flushedUses.computeIfAbsent(entry.getKey(), id -> new LongAdder()).add(count));
+            LOGGER.debug("Counted {} uses of promotion {}", count, entry.getKey());
+        }
+    }
+
+    /**
+     * Reloads the cached stores, so promotions changed outside the application take effect.
+     */
+    @Scheduled(fixedDelayString = "${app.promotions.reload-interval-ms:300000}")
+    public void reload() {
+        for (final Long storeId : List.copyOf(this.stores.keySet())) {
+            load(storeId);
+        }
+    }
+
+    private StorePromotions promotions(final Long storeId) {
+        final StorePromotions cached = this.stores.get(storeId);
+        if (cached != null) return cached;
+        return load(storeId);
+    }
+
+    private StorePromotions load(final Long storeId) {
+        final List<PromotionEvaluator.Terms> scheduled = this.promotionRepository
+                .findScheduledByStoreId(storeId, LocalDateTime.now()).stream()
+                .map(PromotionEvaluator.Terms::of)
+                .toList();
+        for (final PromotionEvaluator.Terms promotion : scheduled) {
+            this.promotionStores.put(promotion.id(), storeId);
+            // The loaded usage count includes the flushed uses; the ones still waiting for a flush stay counted
+            final LongAdder flushed = this.flushedUses.get(promotion.id());
+            final long included = flushed == null ? 0 : flushed.sumThenReset();
+            if (included > 0) this.uses.computeIfAbsent(promotion.id(), id -> new LongAdder()).add(-included);
+        }
+        return compile(storeId, scheduled);
+    }
+
+    private void recompile(final Long storeId) {
+        final StorePromotions current = this.stores.get(storeId);
+        if (current != null) compile(storeId, current.scheduled());
+    }
+
+    /**
+     * Compiles the running promotions, drops the ended ones and schedules the store's next boundary.
+     */
+    private StorePromotions compile(final Long storeId, final List<PromotionEvaluator.Terms> loaded) {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<PromotionEvaluator.Terms> scheduled = loaded.stream().filter(p -> !now.isAfter(p.validUntil())).toList();
+        final List<PromotionEvaluator.Terms> running = scheduled.stream()
+                .filter(p -> p.runningAt(now))
+                .filter(p -> !reachedLimit(p))
+                .toList();
+
+        // The next start or end; an end is reached the minute after validUntil
+        LocalDateTime next = null;
+        for (final PromotionEvaluator.Terms promotion : scheduled) {
+            final LocalDateTime boundary = now.isBefore(promotion.validFrom())
+                    ? promotion.validFrom()
+                    : promotion.validUntil().plusMinutes(1);
+            if (next == null || boundary.isBefore(next)) next = boundary;
+        }
+
+        final StorePromotions compiled = new StorePromotions(scheduled, PromotionEvaluator.compile(running));
+        this.stores.put(storeId, compiled);
+        synchronized (this.wheel) {
+            if (next == null) {
+                this.wheel.cancel(storeId);
+            } else {
+                this.wheel.schedule(storeId, tickOf(next.atZone(ZoneId.systemDefault()).toInstant()));
+            }
+        }
+        return compiled;
+    }
+
+    private boolean reachedLimit(final Long storeId, final Long promotionId) {
+        final StorePromotions promotions = this.stores.get(storeId);
+        if (promotions == null) return false;
+        return promotions.scheduled().stream()
+                .anyMatch(p -> p.id().equals(promotionId) && reachedLimit(p));
+    }
+
+    private boolean reachedLimit(final PromotionEvaluator.Terms promotion) {
+        if (promotion.maxUsageCount() == null) return false;
+        final LongAdder counted = this.uses.get(promotion.id());
+        return promotion.usageCount() + (counted == null ? 0 : counted.sum()) >= promotion.maxUsageCount();
+    }
+
+    /**
+     * Wheel ticks are epoch minutes of the instant, so they advance evenly across DST changes.
+     */
+    private static long tickOf(final Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 60);
+    }
+}
@@ -0,0 +1,162 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.Order;
+import com.streetfoodgo.core.model.OrderStatus;
+import com.streetfoodgo.core.model.PersonType;
+import com.streetfoodgo.core.model.Review;
+import com.streetfoodgo.core.repository.OrderRepository;
+import com.streetfoodgo.core.repository.ReviewRepository;
+import com.streetfoodgo.core.repository.StoreRepository;
+import com.streetfoodgo.core.security.CurrentUserProvider;
+import com.streetfoodgo.core.service.ReviewService;
+import com.streetfoodgo.core.service.mapper.StoreMapper;
+import com.streetfoodgo.core.service.model.CreateReviewRequest;
+import com.streetfoodgo.core.service.model.ReviewView;
+import com.streetfoodgo.core.service.model.StoreRatingView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Implementation of ReviewService.
+ * <p>
+ * Store aggregates are maintained incrementally: inserting a review bumps count, sum and
+ * histogram in a single UPDATE on the store row, so listings never aggregate over reviews.
+ */
+@Service
+public class ReviewServiceImpl implements ReviewService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReviewServiceImpl.class);
+
+    private static final int MAX_LIMIT = 100;
+
+    private final ReviewRepository reviewRepository;
+    private final OrderRepository orderRepository;
+    private final StoreRepository storeRepository;
+    private final StoreCatalog storeCatalog;
+    private final CurrentUserProvider currentUserProvider;
+
+    public ReviewServiceImpl(final ReviewRepository reviewRepository,
+                             final OrderRepository orderRepository,
+                             final StoreRepository storeRepository,
+                             final StoreCatalog storeCatalog,
+                             final CurrentUserProvider currentUserProvider) {
+        if (reviewRepository == null) throw new NullPointerException();
+        if (orderRepository == null) throw new NullPointerException();
+        if (storeRepository == null) throw new NullPointerException();
+        if (storeCatalog == null) throw new NullPointerException();
+        if (currentUserProvider == null) throw new NullPointerException();
+        this.reviewRepository = reviewRepository;
+        this.orderRepository = orderRepository;
+        this.storeRepository = storeRepository;
+        this.storeCatalog = storeCatalog;
+        this.currentUserProvider = currentUserProvider;
+    }
+
+    @Transactional
+    @Override
+    public ReviewView createReview(final CreateReviewRequest request) {
+        if (request == null) throw new NullPointerException();
+        if (request.rating() == null || request.rating() < 1 || request.rating() > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+
+        final var currentUser = this.currentUserProvider.requireCurrentUser();
+        if (currentUser.type() != PersonType.CUSTOMER) {
+            throw new SecurityException("Only customers can review orders");
+        }
+
+        final Order order = this.orderRepository.findById(request.orderId())
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        if (!Objects.equals(order.getCustomer().getId(), currentUser.id())) {
+            throw new SecurityException("Cannot review another customer's order");
+        }
+        if (order.getStatus() != OrderStatus.COMPLETED) {
+            throw new IllegalArgumentException("Only completed orders can be reviewed");
+        }
+        if (this.reviewRepository.existsByOrderId(order.getId())) {
+            throw new IllegalArgumentException("Order has already been reviewed");
+        }
+
+        final String comment = request.comment() == null || request.comment().isBlank()
+                ? null : request.comment().strip();
+
+        final Review review = new Review();
+        review.setOrder(order);
+        review.setStore(order.getStore());
+        review.setCustomer(order.getCustomer());
+        review.setRating(request.rating());
+        review.setComment(comment);
+        // Flush now so the unique order_id constraint rejects a concurrent duplicate
+        // before the aggregates are touched.
+        final Review saved = this.reviewRepository.saveAndFlush(review);
+
+        final Long storeId = order.getStore().getId();
+        this.storeRepository.addRating(storeId, request.rating());
+        final Object[] aggregates = this.storeRepository.findRatingAggregates(storeId).getFirst();
+        this.storeCatalog.applyRatingAfterCommit(storeId, toInt(aggregates[0]), toLong(aggregates[1]));
+
+        LOGGER.info("Order {} reviewed with {} stars (store {})", order.getId(), request.rating(), storeId);
+        return toView(saved);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public boolean hasReview(final Long orderId) {
+        if (orderId == null) return false;
+        return this.reviewRepository.existsByOrderId(orderId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ReviewView> getStoreReviews(final Long storeId, final int limit) {
+        if (storeId == null) throw new NullPointerException();
+        final int n = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return this.reviewRepository.findLatestByStoreId(storeId, Limit.of(n))
+                .stream()
+                .map(this::toView)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<StoreRatingView> getStoreRating(final Long storeId) {
+        if (storeId == null) throw new NullPointerException();
+        final List<Object[]> rows = this.storeRepository.findRatingAggregates(storeId);
+        if (rows.isEmpty()) return Optional.empty();
+        final Object[] row = rows.getFirst();
+        final int count = toInt(row[0]);
+        final int[] histogram = new int[5];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = toInt(row[i + 2]);
+        }
+        return Optional.of(new StoreRatingView(
+                storeId, count, StoreMapper.averageRating(count, toLong(row[1])), histogram));
+    }
+
+    private ReviewView toView(final Review review) {
+        return new ReviewView(
+                review.getId(),
+                review.getOrder().getId(),
+                review.getStore().getId(),
+                review.getCustomer().getFirstName() + " " + review.getCustomer().getLastName(),
+                review.getRating(),
+                review.getComment(),
+                review.getCreatedAt()
+        );
+    }
+
+    private static int toInt(final Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    private static long toLong(final Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
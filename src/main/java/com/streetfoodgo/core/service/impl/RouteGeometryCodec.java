@@ -0,0 +1,80 @@
+package com.streetfoodgo.core.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * Compact encodings for interleaved {@code lon, lat} route coordinates.
+ */
+final class RouteGeometryCodec {
+
+    static final byte BINARY_VERSION = 1;
+
+    private static final double E5 = 1e5;
+
+    private RouteGeometryCodec() {
+    }
+
+    /**
+     * Google encoded polyline (precision 5). Points are emitted in {@code lat, lon} order as the format requires.
+     */
+    static String encodePolyline(final double[] lonLat) {
+        final StringBuilder sb = new StringBuilder(lonLat.length * 3);
+        long prevLat = 0;
+        long prevLon = 0;
+        for (int i = 0; i + 1 < lonLat.length; i += 2) {
+            final long lat = Math.round(lonLat[i + 1] * E5);
+            final long lon = Math.round(lonLat[i] * E5);
+            appendPolylineValue(sb, lat - prevLat);
+            appendPolylineValue(sb, lon - prevLon);
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Binary layout: version byte, unsigned varint point count, then per point the zigzag varint
+     * deltas of {@code lat * 1e5} and {@code lon * 1e5}.
+     */
+    static byte[] encodeBinary(final double[] lonLat) {
+        final int points = lonLat.length / 2;
+        byte[] out = new byte[1 + 5 + points * 6];
+        int pos = 0;
+        out[pos++] = BINARY_VERSION;
+        pos = writeVarint(out, pos, points);
+        long prevLat = 0;
+        long prevLon = 0;
+        for (int i = 0; i + 1 < lonLat.length; i += 2) {
+            final long lat = Math.round(lonLat[i + 1] * E5);
+            final long lon = Math.round(lonLat[i] * E5);
+            if (pos + 20 > out.length) out = Arrays.copyOf(out, out.length * 2);
+            pos = writeVarint(out, pos, zigzag(lat - prevLat));
+            pos = writeVarint(out, pos, zigzag(lon - prevLon));
+            prevLat = lat;
+            prevLon = lon;
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    private static void appendPolylineValue(final StringBuilder sb, final long delta) {
+        long v = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (v >= 0x20) {
+            sb.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+        sb.append((char) (v + 63));
+    }
+
+    private static long zigzag(final long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static int writeVarint(final byte[] out, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out[pos++] = (byte) v;
+        return pos;
+    }
+}
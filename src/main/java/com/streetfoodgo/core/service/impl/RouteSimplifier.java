@@ -0,0 +1,122 @@
+package com.streetfoodgo.core.service.impl;
+
+/**
+ * Douglas-Peucker simplification over interleaved {@code lon, lat} coordinates.
+ *
+ * Distances are measured in meters on a local equirectangular projection, which is accurate
+ * enough at city scale and avoids trigonometry in the inner loop.
+ */
+final class RouteSimplifier {
+
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+
+    /** Web Mercator ground resolution (m/px) at zoom 0 on the equator, for 256px tiles. */
+    private static final double METERS_PER_PIXEL_Z0 = 156_543.03392;
+
+    /** Finest non-zero tolerance level; anything below it is served unsimplified. */
+    private static final double MIN_TOLERANCE_M = 0.1;
+
+    /** Coarsest tolerance level (0.1m * 2^13); at this scale a city route is a handful of points anyway. */
+    private static final double MAX_TOLERANCE_M = 819.2;
+
+    private RouteSimplifier() {
+    }
+
+    /**
+     * Tolerance in meters that corresponds to {@code pixels} screen pixels at {@code zoom} and {@code latitude}.
+     */
+    static double toleranceForZoom(final int zoom, final double latitude, final double pixels) {
+        return pixels * METERS_PER_PIXEL_Z0 * Math.cos(Math.toRadians(latitude)) / Math.pow(2, zoom);
+    }
+
+    /**
+     * Snaps {@code meters} down to one of a fixed set of levels (0 or 0.1m doubling up to {@code MAX_TOLERANCE_M}),
+     * so arbitrary tolerances map to at most 15 distinct simplifications per route.
+     */
+    static double snapTolerance(final double meters) {
+        if (!(meters >= MIN_TOLERANCE_M)) return 0;
+        if (meters >= MAX_TOLERANCE_M) return MAX_TOLERANCE_M;
+        return MIN_TOLERANCE_M * Math.pow(2, Math.floor(Math.log(meters / MIN_TOLERANCE_M) / Math.log(2)));
+    }
+
+    /**
+     * Returns the simplified coordinates; the input array is returned as-is when nothing can be dropped.
+     */
+    static double[] simplify(final double[] lonLat, final double toleranceMeters) {
+        final int n = lonLat.length / 2;
+        if (n <= 2 || !(toleranceMeters > 0)) return lonLat;
+
+        final double refLat = Math.toRadians((lonLat[1] + lonLat[lonLat.length - 1]) / 2.0);
+        final double kx = EARTH_RADIUS_M * Math.cos(refLat) * Math.PI / 180.0;
+        final double ky = EARTH_RADIUS_M * Math.PI / 180.0;
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = lonLat[i * 2] * kx;
+            y[i] = lonLat[i * 2 + 1] * ky;
+        }
+
+        final double toleranceSq = toleranceMeters * toleranceMeters;
+        final boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+
+        // Explicit stack of (first, last) index pairs; ranges are disjoint so n pairs always suffice.
+        final int[] stack = new int[n * 2];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            final int last = stack[--top];
+            final int first = stack[--top];
+            if (last - first < 2) continue;
+
+            double maxSq = -1;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                final double d = segmentDistanceSq(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (d > maxSq) {
+                    maxSq = d;
+                    index = i;
+                }
+            }
+
+            if (maxSq > toleranceSq) {
+                keep[index] = true;
+                kept++;
+                stack[top++] = first;
+                stack[top++] = index;
+                stack[top++] = index;
+                stack[top++] = last;
+            }
+        }
+
+        if (kept == n) return lonLat;
+        final double[] out = new double[kept * 2];
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            if (!keep[i]) continue;
+            out[j++] = lonLat[i * 2];
+            out[j++] = lonLat[i * 2 + 1];
+        }
+        return out;
+    }
+
+    private static double segmentDistanceSq(final double px, final double py,
+                                            final double ax, final double ay,
+                                            final double bx, final double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        final double lengthSq = dx * dx + dy * dy;
+        if (lengthSq > 0) {
+            final double t = Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSq));
+            dx = ax + t * dx - px;
+            dy = ay + t * dy - py;
+        } else {
+            dx = ax - px;
+            dy = ay - py;
+        }
+        return dx * dx + dy * dy;
+    }
+}
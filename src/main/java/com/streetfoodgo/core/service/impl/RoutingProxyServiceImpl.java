@@ -15,8 +15,11 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URI;
-import java.util.List;
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RoutingProxyServiceImpl implements RoutingProxyService {
@@ -26,20 +29,110 @@ public class RoutingProxyServiceImpl implements RoutingProxyService {
     // Average city delivery speed (km/h) for ETA fallback
     private static final int AVERAGE_SPEED_KMH = 30;
 
+    private static final int MAX_ZOOM = 22;
+
     private final RestTemplate restTemplate;
     private final String osrmBaseUrl;
+    private final double pixelTolerance;
+    private final int maxCachedRoutes;
+    private final long cacheTtlNanos;
+
+    // Resolved OSRM routes (with their simplified/encoded variants), keyed by rounded endpoints
+    private final Map<RouteKey, CachedRoute> routeCache = new ConcurrentHashMap<>();
 
     public RoutingProxyServiceImpl(
             final RestTemplate restTemplate,
-            @Value("${app.osrm.base-url:http://localhost:5000}") final String osrmBaseUrl) {
+            @Value("${app.osrm.base-url:http://localhost:5000}") final String osrmBaseUrl,
+            @Value("${app.routing.simplify.pixel-tolerance:1.0}") final double pixelTolerance,
+            @Value("${app.routing.cache.max-routes:1000}") final int maxCachedRoutes,
+            @Value("${app.routing.cache.ttl:PT30M}") final Duration cacheTtl) {
         if (restTemplate == null) throw new NullPointerException();
         if (osrmBaseUrl == null) throw new NullPointerException();
+        if (cacheTtl == null) throw new NullPointerException();
+        if (pixelTolerance < 0) throw new IllegalArgumentException("pixelTolerance must be >= 0");
+        if (maxCachedRoutes < 0) throw new IllegalArgumentException("maxCachedRoutes must be >= 0");
         this.restTemplate = restTemplate;
         this.osrmBaseUrl = osrmBaseUrl;
+        this.pixelTolerance = pixelTolerance;
+        this.maxCachedRoutes = maxCachedRoutes;
+        this.cacheTtlNanos = cacheTtl.toNanos();
     }
 
     @Override
     public RouteWithGeometry getRoute(double fromLat, double fromLon, double toLat, double toLon) {
+        CachedRoute route = resolve(fromLat, fromLon, toLat, toLon);
+        return new RouteWithGeometry(route.distanceKm, route.durationMinutes,
+                geoJson(route.geometryType, route.lonLat), route.fallback);
+    }
+
+    @Override
+    public EncodedRoute getEncodedRoute(double fromLat, double fromLon, double toLat, double toLon,
+                                        Integer zoom, Double toleranceMeters, GeometryFormat format) {
+        if (format == null) throw new NullPointerException("format");
+        if (zoom != null && (zoom < 0 || zoom > MAX_ZOOM)) {
+            throw new IllegalArgumentException("zoom must be between 0 and " + MAX_ZOOM);
+        }
+        if (toleranceMeters != null && (toleranceMeters.isNaN() || toleranceMeters < 0)) {
+            throw new IllegalArgumentException("tolerance must be >= 0");
+        }
+
+        double tolerance;
+        if (toleranceMeters != null) tolerance = toleranceMeters;
+        else if (zoom != null) tolerance = RouteSimplifier.toleranceForZoom(zoom, (fromLat + toLat) / 2.0, pixelTolerance);
+        else tolerance = 0;
+
+        // Snapping to a few levels bounds the cached variants per route (never coarser than requested)
+        double level = RouteSimplifier.snapTolerance(tolerance);
+        CachedRoute route = resolve(fromLat, fromLon, toLat, toLon);
+        return route.variants.computeIfAbsent(new VariantKey(level, format),
+                k -> encode(route, k.tolerance, k.format));
+    }
+
+    private EncodedRoute encode(CachedRoute route, double tolerance, GeometryFormat format) {
+        double[] simplified = RouteSimplifier.simplify(route.lonLat, tolerance);
+        GeoJsonLineString geometry = null;
+        String polyline = null;
+        byte[] binary = null;
+        switch (format) {
+            case GEOJSON -> geometry = geoJson(route.geometryType, simplified);
+            case POLYLINE -> polyline = RouteGeometryCodec.encodePolyline(simplified);
+            case BINARY -> binary = RouteGeometryCodec.encodeBinary(simplified);
+        }
+        return new EncodedRoute(route.distanceKm, route.durationMinutes, format, geometry, polyline, binary,
+                simplified.length / 2, route.lonLat.length / 2, tolerance, route.fallback);
+    }
+
+    private GeoJsonLineString geoJson(String type, double[] lonLat) {
+        return new GeoJsonLineString(type, GeoJsonLineString.lineString(lonLat).coordinates());
+    }
+
+    private CachedRoute resolve(double fromLat, double fromLon, double toLat, double toLon) {
+        RouteKey key = RouteKey.of(fromLat, fromLon, toLat, toLon);
+        long now = System.nanoTime();
+        CachedRoute cached = routeCache.get(key);
+        if (cached != null && now - cached.createdAtNanos < cacheTtlNanos) {
+            return cached;
+        }
+
+        CachedRoute fetched = fetchRoute(fromLat, fromLon, toLat, toLon, now);
+        // Fallback routes are not cached so that a recovered OSRM is picked up on the next request
+        if (!fetched.fallback && maxCachedRoutes > 0) {
+            routeCache.put(key, fetched);
+            if (routeCache.size() > maxCachedRoutes) evict(now);
+        }
+        return fetched;
+    }
+
+    private void evict(long now) {
+        routeCache.values().removeIf(r -> now - r.createdAtNanos >= cacheTtlNanos);
+        while (routeCache.size() > maxCachedRoutes) {
+            routeCache.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().createdAtNanos))
+                    .ifPresent(e -> routeCache.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private CachedRoute fetchRoute(double fromLat, double fromLon, double toLat, double toLon, long now) {
         // Sanitize base URL: Trim whitespace and remove ALL trailing slashes
         String baseUrl = osrmBaseUrl.trim().replaceAll("/+$", "");
 
@@ -69,28 +162,23 @@ public class RoutingProxyServiceImpl implements RoutingProxyService {
                     .setScale(2, RoundingMode.HALF_UP);
             int durationMinutes = (int) Math.max(0, Math.round(r.duration() / 60.0));
 
-            GeoJsonLineString geometry;
-            if (r.geometry() != null && r.geometry().coordinates() != null && !r.geometry().coordinates().isEmpty()) {
-                geometry = new GeoJsonLineString(
-                        r.geometry().type() != null ? r.geometry().type() : "LineString",
-                        r.geometry().coordinates()
-                );
-            } else {
-                geometry = fallbackGeometry(fromLat, fromLon, toLat, toLon);
+            if (r.geometry() != null && r.geometry().pointCount() > 0) {
+                String type = r.geometry().type() != null ? r.geometry().type() : "LineString";
+                return new CachedRoute(distanceKm, durationMinutes, type, r.geometry().coordinates(), false, now);
             }
-
-            return new RouteWithGeometry(distanceKm, durationMinutes, geometry, false);
+            return new CachedRoute(distanceKm, durationMinutes, "LineString",
+                    fallbackGeometry(fromLat, fromLon, toLat, toLon), false, now);
 
         } catch (RestClientException ex) {
             LOGGER.warn("Routing proxy fallback due to OSRM client error: {}", ex.getMessage());
-            return fallbackRoute(fromLat, fromLon, toLat, toLon);
+            return fallbackRoute(fromLat, fromLon, toLat, toLon, now);
         } catch (RuntimeException ex) {
             LOGGER.warn("Routing proxy fallback due to OSRM response error: {}", ex.getMessage());
-            return fallbackRoute(fromLat, fromLon, toLat, toLon);
+            return fallbackRoute(fromLat, fromLon, toLat, toLon, now);
         }
     }
 
-    private RouteWithGeometry fallbackRoute(double fromLat, double fromLon, double toLat, double toLon) {
+    private CachedRoute fallbackRoute(double fromLat, double fromLon, double toLat, double toLon, long now) {
         BigDecimal distanceKm = haversineKm(fromLat, fromLon, toLat, toLon)
                 .setScale(2, RoundingMode.HALF_UP);
 
@@ -101,14 +189,12 @@ public class RoutingProxyServiceImpl implements RoutingProxyService {
             durationMinutes = (int) Math.max(1, Math.round(hours * 60.0));
         }
 
-        return new RouteWithGeometry(distanceKm, durationMinutes, fallbackGeometry(fromLat, fromLon, toLat, toLon), true);
+        return new CachedRoute(distanceKm, durationMinutes, "LineString",
+                fallbackGeometry(fromLat, fromLon, toLat, toLon), true, now);
     }
 
-    private GeoJsonLineString fallbackGeometry(double fromLat, double fromLon, double toLat, double toLon) {
-        return GeoJsonLineString.lineString(List.of(
-                List.of(fromLon, fromLat),
-                List.of(toLon, toLat)
-        ));
+    private double[] fallbackGeometry(double fromLat, double fromLon, double toLat, double toLon) {
+        return new double[]{fromLon, fromLat, toLon, toLat};
     }
 
     private BigDecimal haversineKm(double lat1, double lon1, double lat2, double lon2) {
@@ -129,4 +215,36 @@ public class RoutingProxyServiceImpl implements RoutingProxyService {
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         return BigDecimal.valueOf(earthRadiusKm * c);
     }
+
+    /**
+     * Endpoints rounded to 1e-5 degrees (~1m), the precision OSRM snaps to anyway.
+     */
+    private record RouteKey(long fromLat, long fromLon, long toLat, long toLon) {
+        static RouteKey of(double fromLat, double fromLon, double toLat, double toLon) {
+            return new RouteKey(Math.round(fromLat * 1e5), Math.round(fromLon * 1e5),
+                    Math.round(toLat * 1e5), Math.round(toLon * 1e5));
+        }
+    }
+
+    private record VariantKey(double tolerance, GeometryFormat format) {}
+
+    private static final class CachedRoute {
+        final BigDecimal distanceKm;
+        final int durationMinutes;
+        final String geometryType;
+        final double[] lonLat;
+        final boolean fallback;
+        final long createdAtNanos;
+        final Map<VariantKey, EncodedRoute> variants = new ConcurrentHashMap<>();
+
+        CachedRoute(BigDecimal distanceKm, int durationMinutes, String geometryType,
+                    double[] lonLat, boolean fallback, long createdAtNanos) {
+            this.distanceKm = distanceKm;
+            this.durationMinutes = durationMinutes;
+            this.geometryType = geometryType;
+            this.lonLat = lonLat;
+            this.fallback = fallback;
+            this.createdAtNanos = createdAtNanos;
+        }
+    }
 }
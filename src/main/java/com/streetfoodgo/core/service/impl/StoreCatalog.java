@@ -0,0 +1,314 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.CuisineType;
+import com.streetfoodgo.core.repository.StoreRepository;
+import com.streetfoodgo.core.service.mapper.StoreMapper;
+import com.streetfoodgo.core.service.model.StoreView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory read model of the store catalog.
+ * <p>
+ * Holds immutable {@link StoreView} snapshots indexed by area, cuisine, owner and open status,
+ * plus facet bitmaps for the store browser (text search lives in {@link CatalogSearchIndex}).
+ * The whole snapshot is swapped atomically, so readers never lock and never touch the database.
+ * Writes go through {@link #upsertAfterCommit(StoreView)} once the owning transaction commits.
+ * <p>
+ * "Open" here is the effective status: the owner's manual flag and the weekly schedule. It drives the open
+ * lists, the "Open now" facet and the {@code open} sort key alike. The schedule side is pushed by the store
+ * status timers through {@link #applyScheduleStatus(Long, boolean)}; a view's own {@link StoreView#isOpen()}
+ * stays the manual flag.
+ */
+@Component
+public class StoreCatalog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoreCatalog.class);
+
+    /**
+     * Bound on memoized sort orders per snapshot (sort specs come from request parameters).
+     */
+    private static final int MAX_SORTED_ORDERS = 32;
+
+    private final StoreRepository storeRepository;
+    private final StoreMapper storeMapper;
+    private final Object writeLock = new Object();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Stores whose schedule has them closed right now; guarded by {@code writeLock}. A change only marks the
+     * snapshot stale, so a burst of boundaries (every store opening at 09:00) costs one rebuild, on the next read.
+     */
+    private final Set<Long> closedBySchedule = new HashSet<>();
+    private volatile boolean scheduleChanged;
+
+    private volatile Snapshot snapshot;
+
+    public StoreCatalog(final StoreRepository storeRepository, final StoreMapper storeMapper) {
+        if (storeRepository == null) throw new NullPointerException();
+        if (storeMapper == null) throw new NullPointerException();
+        this.storeRepository = storeRepository;
+        this.storeMapper = storeMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        snapshot();
+    }
+
+    /**
+     * Rebuilds the catalog from the database (one query, owners fetched eagerly).
+     */
+    public void reload() {
+        synchronized (writeLock) {
+            final List<StoreView> views = this.storeRepository.findAllWithOwner()
+                    .stream()
+                    .map(this.storeMapper::toView)
+                    .toList();
+            this.snapshot = Snapshot.of(views, this.closedBySchedule);
+            this.scheduleChanged = false;
+            this.version.incrementAndGet();
+            LOGGER.info("Store catalog loaded: {} stores", views.size());
+        }
+    }
+
+    /**
+     * Incremented on every change; lets derived structures detect that they are stale.
+     */
+    public long version() {
+        return this.version.get();
+    }
+
+    public List<StoreView> all() {
+        return snapshot().all;
+    }
+
+    /**
+     * Stores open right now: manually open and within their schedule.
+     */
+    public List<StoreView> open() {
+        return snapshot().open;
+    }
+
+    /**
+     * Whether the store is open right now (manual flag and schedule); false for unknown stores.
+     */
+    public boolean isOpenNow(final Long id) {
+        final Snapshot s = snapshot();
+        final StoreView view = s.byId.get(id);
+        return view != null && s.isOpenNow(view);
+    }
+
+    public Optional<StoreView> get(final Long id) {
+        return Optional.ofNullable(snapshot().byId.get(id));
+    }
+
+    public List<StoreView> byArea(final String area) {
+        if (area == null) return List.of();
+        return snapshot().byArea.getOrDefault(normalize(area), List.of());
+    }
+
+    public List<StoreView> openByCuisine(final CuisineType cuisineType) {
+        if (cuisineType == null) return List.of();
+        return snapshot().openByCuisine.getOrDefault(cuisineType, List.of());
+    }
+
+    public List<StoreView> byOwner(final Long ownerId) {
+        if (ownerId == null) return List.of();
+        return snapshot().byOwner.getOrDefault(ownerId, List.of());
+    }
+
+    /**
+     * All stores in the given order together with the facet bitmaps, both from the same snapshot.
+     * The returned order has its {@code open} key bound to the snapshot's open status; page with it.
+     */
+    Listing listing(final StoreOrder order) {
+        if (order == null) throw new NullPointerException();
+        final Snapshot s = snapshot();
+        final StoreOrder bound = order.withOpenNow(s::isOpenNow);
+        return new Listing(bound, sorted(s, bound), s.facets);
+    }
+
+    /**
+     * A consistent read of one snapshot for the store browser.
+     */
+    record Listing(StoreOrder order, List<StoreView> sorted, StoreFacetIndex facets) {}
+
+    /**
+     * Sorted lists are memoized per snapshot, so repeated listings with the same sort
+     * cost one sort per catalog change.
+     */
+    private static List<StoreView> sorted(final Snapshot s, final StoreOrder order) {
+        final List<StoreView> cached = s.sorted.get(order.spec());
+        if (cached != null) return cached;
+
+        final List<StoreView> sorted = s.all.stream().sorted(order).toList();
+        if (s.sorted.size() < MAX_SORTED_ORDERS) s.sorted.putIfAbsent(order.spec(), sorted);
+        return sorted;
+    }
+
+    /**
+     * Applies the view once the current transaction commits (immediately when there is none),
+     * so a rolled back write never becomes visible.
+     */
+    public void upsertAfterCommit(final StoreView view) {
+        if (view == null) throw new NullPointerException();
+        AfterCommit.run(() -> upsert(view));
+    }
+
+    /**
+     * Publishes new rating aggregates for a store after the review transaction commits.
+     */
+    public void applyRatingAfterCommit(final Long storeId, final int ratingCount, final long ratingSum) {
+        if (storeId == null) throw new NullPointerException();
+        AfterCommit.run(() -> {
+            synchronized (writeLock) {
+                if (this.snapshot == null) return;
+                final StoreView current = this.snapshot.byId.get(storeId);
+                if (current == null) return;
+                upsert(StoreMapper.withRating(current, ratingCount, ratingSum));
+            }
+        });
+    }
+
+    /**
+     * Records whether the store's weekly schedule has it open now. Called by the store status timers as a store
+     * crosses its schedule boundaries (and after a schedule or store change commits); stores never reported
+     * count as open by schedule. The next read rebuilds the snapshot (open lists, facets and sorted lists); the
+     * {@link #version()} is left alone, since the home feed sections do not depend on the open status.
+     */
+    public void applyScheduleStatus(final Long storeId, final boolean openBySchedule) {
+        if (storeId == null) throw new NullPointerException();
+        synchronized (writeLock) {
+            final boolean changed = openBySchedule
+                    ? this.closedBySchedule.remove(storeId)
+                    : this.closedBySchedule.add(storeId);
+            if (changed) this.scheduleChanged = true;
+        }
+    }
+
+    private void upsert(final StoreView view) {
+        synchronized (writeLock) {
+            // Not loaded yet: the first read will load the committed state anyway
+            if (this.snapshot == null) return;
+            final Map<Long, StoreView> byId = new TreeMap<>(this.snapshot.byId);
+            final StoreView current = byId.get(view.id());
+            // Review counts only grow: never let a view built from an older read roll them back
+            if (current != null && current.totalReviews() != null
+                    && (view.totalReviews() == null || current.totalReviews() > view.totalReviews())) {
+                byId.put(view.id(), StoreMapper.withRatingOf(view, current));
+            } else {
+                byId.put(view.id(), view);
+            }
+            this.snapshot = Snapshot.of(byId.values(), this.closedBySchedule);
+            this.scheduleChanged = false;
+            this.version.incrementAndGet();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = this.snapshot;
+        if (s == null || this.scheduleChanged) {
+            synchronized (writeLock) {
+                if (this.snapshot == null) {
+                    reload();
+                } else if (this.scheduleChanged) {
+                    this.snapshot = Snapshot.of(this.snapshot.byId.values(), this.closedBySchedule);
+                    this.scheduleChanged = false;
+                }
+                s = this.snapshot;
+            }
+        }
+        return s;
+    }
+
+    private static String normalize(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+        final Map<Long, StoreView> byId;
+        final List<StoreView> all;
+        final List<StoreView> open;
+        final Map<String, List<StoreView>> byArea;
+        final Map<CuisineType, List<StoreView>> openByCuisine;
+        final Map<Long, List<StoreView>> byOwner;
+        final Set<Long> closedBySchedule;
+        final StoreFacetIndex facets;
+        final Map<String, List<StoreView>> sorted = new ConcurrentHashMap<>();
+
+        private Snapshot(final Map<Long, StoreView> byId,
+                         final List<StoreView> all,
+                         final List<StoreView> open,
+                         final Map<String, List<StoreView>> byArea,
+                         final Map<CuisineType, List<StoreView>> openByCuisine,
+                         final Map<Long, List<StoreView>> byOwner,
+                         final Set<Long> closedBySchedule) {
+            this.byId = byId;
+            this.all = all;
+            this.open = open;
+            this.byArea = byArea;
+            this.openByCuisine = openByCuisine;
+            this.byOwner = byOwner;
+            this.closedBySchedule = closedBySchedule;
+            this.facets = StoreFacetIndex.of(all, this::isOpenNow);
+        }
+
+        boolean isOpenNow(final StoreView view) {
+            return Boolean.TRUE.equals(view.isOpen()) && !this.closedBySchedule.contains(view.id());
+        }
+
+        /**
+         * Builds all indexes in one pass; {@code views} must be ordered by id.
+         */
+        static Snapshot of(final Collection<StoreView> views, final Set<Long> closedBySchedule) {
+            final Set<Long> closed = Set.copyOf(closedBySchedule);
+            final Map<Long, StoreView> byId = new TreeMap<>();
+            final List<StoreView> open = new ArrayList<>();
+            final Map<String, List<StoreView>> byArea = new HashMap<>();
+            final Map<CuisineType, List<StoreView>> openByCuisine = new EnumMap<>(CuisineType.class);
+            final Map<Long, List<StoreView>> byOwner = new HashMap<>();
+
+            for (StoreView v : views) {
+                byId.put(v.id(), v);
+                final boolean isOpen = Boolean.TRUE.equals(v.isOpen()) && !closed.contains(v.id());
+                if (isOpen) open.add(v);
+                if (v.area() != null) byArea.computeIfAbsent(normalize(v.area()), k -> new ArrayList<>()).add(v);
+                if (isOpen && v.cuisineType() != null) {
+                    openByCuisine.computeIfAbsent(v.cuisineType(), k -> new ArrayList<>()).add(v);
+                }
+                if (v.owner() != null) byOwner.computeIfAbsent(v.owner().id(), k -> new ArrayList<>()).add(v);
+            }
+
+            byArea.replaceAll((k, list) -> List.copyOf(list));
+            openByCuisine.replaceAll((k, list) -> List.copyOf(list));
+            byOwner.replaceAll((k, list) -> List.copyOf(list));
+            return new Snapshot(
+                    Collections.unmodifiableMap(byId),
+                    List.copyOf(byId.values()),
+                    List.copyOf(open),
+                    Map.copyOf(byArea),
+                    Collections.unmodifiableMap(openByCuisine),
+                    Map.copyOf(byOwner),
+                    closed);
+        }
+    }
+}
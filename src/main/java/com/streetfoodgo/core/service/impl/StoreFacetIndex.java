@@ -0,0 +1,252 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.CuisineType;
+import com.streetfoodgo.core.service.model.FacetCount;
+import com.streetfoodgo.core.service.model.StoreView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Facet bitmaps over store ordinals (a store's position in the id-ordered catalog snapshot).
+ * <p>
+ * One bitmap per facet value: cuisine, area, delivery, pickup, open (manual flag and schedule, as the catalog
+ * decides it), and cumulative "minimum order at most €x" thresholds. A filter resolves to the AND of its facets, each facet being the OR
+ * of its selected values; facet counts are computed disjunctively (a facet's own selection is left out
+ * when counting its values), so "Italian (12)" is what the user gets by also ticking Italian.
+ * Ordinals are dense, so plain {@link BitSet}s take {@code n / 8} bytes each; no further compression is needed.
+ * <p>
+ * Immutable; rebuilt with every catalog snapshot.
+ */
+final class StoreFacetIndex {
+
+    static final String CUISINE = "cuisine";
+    static final String AREA = "area";
+    static final String DELIVERY = "delivery";
+    static final String PICKUP = "pickup";
+    static final String OPEN = "open";
+    static final String MIN_ORDER = "minOrder";
+
+    private static final int[] MIN_ORDER_THRESHOLDS = {5, 10, 15, 20};
+
+    /**
+     * A resolved filter. Null/empty members do not constrain; {@code mask} (e.g. search hits) is AND-ed in.
+     */
+    record Filter(Set<CuisineType> cuisines,
+                  Set<String> areas,
+                  Boolean delivery,
+                  Boolean pickup,
+                  Boolean open,
+                  BigDecimal maxMinimumOrder,
+                  BitSet mask) {}
+
+    private final int size;
+    private final Map<Long, Integer> ordinals;
+    private final BitSet all;
+    private final Map<CuisineType, BitSet> cuisine = new EnumMap<>(CuisineType.class);
+    private final Map<String, BitSet> area = new HashMap<>();
+    private final Map<String, String> areaLabels = new HashMap<>();
+    private final BitSet delivery;
+    private final BitSet pickup;
+    private final BitSet open;
+    private final BigDecimal[] minimumOrders;
+    private final Map<Integer, BitSet> minimumOrderAtMost = new LinkedHashMap<>();
+
+    private StoreFacetIndex(final List<StoreView> views, final Predicate<StoreView> openNow) {
+        this.size = views.size();
+        this.ordinals = new HashMap<>(views.size() * 2);
+        this.all = new BitSet(this.size);
+        this.all.set(0, this.size);
+        this.delivery = new BitSet(this.size);
+        this.pickup = new BitSet(this.size);
+        this.open = new BitSet(this.size);
+        this.minimumOrders = new BigDecimal[this.size];
+        for (final int threshold : MIN_ORDER_THRESHOLDS) {
+            this.minimumOrderAtMost.put(threshold, new BitSet(this.size));
+        }
+
+        for (int i = 0; i < views.size(); i++) {
+            final StoreView v = views.get(i);
+            this.ordinals.put(v.id(), i);
+            if (v.cuisineType() != null) {
+                this.cuisine.computeIfAbsent(v.cuisineType(), k -> new BitSet(this.size)).set(i);
+            }
+            if (v.area() != null && !v.area().isBlank()) {
+                final String key = normalize(v.area());
+                this.area.computeIfAbsent(key, k -> new BitSet(this.size)).set(i);
+                this.areaLabels.putIfAbsent(key, v.area().trim());
+            }
+            if (Boolean.TRUE.equals(v.acceptsDelivery())) this.delivery.set(i);
+            if (Boolean.TRUE.equals(v.acceptsPickup())) this.pickup.set(i);
+            if (openNow.test(v)) this.open.set(i);
+
+            // No minimum order counts as zero
+            final BigDecimal minimumOrder = v.minimumOrderAmount() == null ? BigDecimal.ZERO : v.minimumOrderAmount();
+            this.minimumOrders[i] = minimumOrder;
+            for (final Map.Entry<Integer, BitSet> e : this.minimumOrderAtMost.entrySet()) {
+                if (minimumOrder.compareTo(BigDecimal.valueOf(e.getKey())) <= 0) e.getValue().set(i);
+            }
+        }
+    }
+
+    /**
+     * @param views the snapshot's stores, ordered by id; list positions become ordinals
+     * @param openNow whether a store is open right now, for the open facet
+     */
+    static StoreFacetIndex of(final List<StoreView> views, final Predicate<StoreView> openNow) {
+        if (views == null) throw new NullPointerException();
+        if (openNow == null) throw new NullPointerException();
+        return new StoreFacetIndex(views, openNow);
+    }
+
+    static String normalize(final String area) {
+        return area.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether the store is in {@code bits}; stores unknown to this index never are.
+     */
+    boolean contains(final BitSet bits, final Long storeId) {
+        final Integer ordinal = this.ordinals.get(storeId);
+        return ordinal != null && bits.get(ordinal);
+    }
+
+    BitSet ofIds(final Collection<Long> storeIds) {
+        final BitSet bits = new BitSet(this.size);
+        for (final Long id : storeIds) {
+            final Integer ordinal = this.ordinals.get(id);
+            if (ordinal != null) bits.set(ordinal);
+        }
+        return bits;
+    }
+
+    /**
+     * Stores matching every facet of the filter.
+     */
+    BitSet resolve(final Filter filter) {
+        return resolve(filter, null);
+    }
+
+    /**
+     * Value counts for every facet, each computed against the filter minus that facet's own selection.
+     * Values matching no store at all are omitted; cuisines and areas are ordered by count.
+     */
+    Map<String, List<FacetCount>> counts(final Filter filter) {
+        final Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+
+        final BitSet byOthersThanCuisine = resolve(filter, CUISINE);
+        final List<FacetCount> cuisines = new ArrayList<>();
+        for (final Map.Entry<CuisineType, BitSet> e : this.cuisine.entrySet()) {
+            cuisines.add(new FacetCount(e.getKey().name(), label(e.getKey().name()),
+                    intersectionSize(byOthersThanCuisine, e.getValue()), filter.cuisines().contains(e.getKey())));
+        }
+        cuisines.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::label));
+        facets.put(CUISINE, cuisines);
+
+        final BitSet byOthersThanArea = resolve(filter, AREA);
+        final List<FacetCount> areas = new ArrayList<>();
+        for (final Map.Entry<String, BitSet> e : this.area.entrySet()) {
+            final String label = this.areaLabels.get(e.getKey());
+            areas.add(new FacetCount(label, label, intersectionSize(byOthersThanArea, e.getValue()),
+                    filter.areas().contains(e.getKey())));
+        }
+        areas.sort(Comparator.comparingInt(FacetCount::count).reversed().thenComparing(FacetCount::label));
+        facets.put(AREA, areas);
+
+        facets.put(DELIVERY, List.of(new FacetCount("true", "Delivery",
+                intersectionSize(resolve(filter, DELIVERY), this.delivery), Boolean.TRUE.equals(filter.delivery()))));
+        facets.put(PICKUP, List.of(new FacetCount("true", "Pickup",
+                intersectionSize(resolve(filter, PICKUP), this.pickup), Boolean.TRUE.equals(filter.pickup()))));
+
+        final BitSet byOthersThanOpen = resolve(filter, OPEN);
+        final int openCount = intersectionSize(byOthersThanOpen, this.open);
+        facets.put(OPEN, List.of(
+                new FacetCount("true", "Open now", openCount, Boolean.TRUE.equals(filter.open())),
+                new FacetCount("false", "Closed", byOthersThanOpen.cardinality() - openCount,
+                        Boolean.FALSE.equals(filter.open()))));
+
+        final BitSet byOthersThanMinimumOrder = resolve(filter, MIN_ORDER);
+        final List<FacetCount> minimumOrders = new ArrayList<>();
+        for (final Map.Entry<Integer, BitSet> e : this.minimumOrderAtMost.entrySet()) {
+            minimumOrders.add(new FacetCount(String.valueOf(e.getKey()), "Up to €" + e.getKey(),
+                    intersectionSize(byOthersThanMinimumOrder, e.getValue()),
+                    filter.maxMinimumOrder() != null
+                            && filter.maxMinimumOrder().compareTo(BigDecimal.valueOf(e.getKey())) == 0));
+        }
+        facets.put(MIN_ORDER, minimumOrders);
+
+        facets.replaceAll((facet, values) -> values.stream().filter(v -> v.count() > 0 || v.selected()).toList());
+        return facets;
+    }
+
+    private BitSet resolve(final Filter filter, final String excludedFacet) {
+        final BitSet bits = (BitSet) (filter.mask() != null ? filter.mask() : this.all).clone();
+
+        if (!CUISINE.equals(excludedFacet) && !filter.cuisines().isEmpty()) {
+            final BitSet any = new BitSet(this.size);
+            for (final CuisineType c : filter.cuisines()) {
+                final BitSet b = this.cuisine.get(c);
+                if (b != null) any.or(b);
+            }
+            bits.and(any);
+        }
+        if (!AREA.equals(excludedFacet) && !filter.areas().isEmpty()) {
+            final BitSet any = new BitSet(this.size);
+            for (final String a : filter.areas()) {
+                final BitSet b = this.area.get(a);
+                if (b != null) any.or(b);
+            }
+            bits.and(any);
+        }
+        if (!DELIVERY.equals(excludedFacet)) applyFlag(bits, this.delivery, filter.delivery());
+        if (!PICKUP.equals(excludedFacet)) applyFlag(bits, this.pickup, filter.pickup());
+        if (!OPEN.equals(excludedFacet)) applyFlag(bits, this.open, filter.open());
+        if (!MIN_ORDER.equals(excludedFacet) && filter.maxMinimumOrder() != null) {
+            bits.and(minimumOrderAtMost(filter.maxMinimumOrder()));
+        }
+        return bits;
+    }
+
+    private BitSet minimumOrderAtMost(final BigDecimal amount) {
+        for (final Map.Entry<Integer, BitSet> e : this.minimumOrderAtMost.entrySet()) {
+            if (amount.compareTo(BigDecimal.valueOf(e.getKey())) == 0) return e.getValue();
+        }
+        // Not a precomputed threshold: one pass over the amounts
+        final BitSet bits = new BitSet(this.size);
+        for (int i = 0; i < this.size; i++) {
+            if (this.minimumOrders[i].compareTo(amount) <= 0) bits.set(i);
+        }
+        return bits;
+    }
+
+    private static void applyFlag(final BitSet bits, final BitSet flag, final Boolean wanted) {
+        if (wanted == null) return;
+        if (wanted) {
+            bits.and(flag);
+        } else {
+            bits.andNot(flag);
+        }
+    }
+
+    private static int intersectionSize(final BitSet a, final BitSet b) {
+        final BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    private static String label(final String enumName) {
+        final String words = enumName.replace('_', ' ').toLowerCase(Locale.ROOT);
+        return Character.toUpperCase(words.charAt(0)) + words.substring(1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.MenuItem;
+import com.streetfoodgo.core.model.MenuItemIngredient;
+import com.streetfoodgo.core.model.MenuItemOption;
+import com.streetfoodgo.core.repository.MenuItemIngredientRepository;
+import com.streetfoodgo.core.repository.MenuItemOptionRepository;
+import com.streetfoodgo.core.repository.MenuItemRepository;
+import com.streetfoodgo.core.repository.StoreRepository;
+import com.streetfoodgo.core.service.mapper.MenuItemMapper;
+import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.StoreMenu;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads and caches whole-store menu graphs.
+ * <p>
+ * A store's menu is loaded in three queries (items, options with choices, ingredients) regardless
+ * of its size, and kept as an immutable {@link StoreMenu} tagged with the store's menu version.
+ * <p>
+ * The version is persisted on the store row and bumped by every menu write inside the writing
+ * transaction; the in-memory copy is advanced after commit, so it never runs ahead of visible data.
+ * A snapshot whose version no longer matches is reloaded on the next read. The version is read
+ * before loading, so a load racing with a write is at worst tagged stale and reloaded.
+ */
+@Component
+public class StoreMenuCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoreMenuCache.class);
+
+    private static final Comparator<Integer> ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuItemOptionRepository optionRepository;
+    private final MenuItemIngredientRepository ingredientRepository;
+    private final MenuItemMapper menuItemMapper;
+    private final StoreRepository storeRepository;
+
+    private final Map<Long, StoreMenu> menus = new ConcurrentHashMap<>();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> itemStores = new ConcurrentHashMap<>();
+
+    public StoreMenuCache(final MenuItemRepository menuItemRepository,
+                          final MenuItemOptionRepository optionRepository,
+                          final MenuItemIngredientRepository ingredientRepository,
+                          final MenuItemMapper menuItemMapper,
+                          final StoreRepository storeRepository) {
+        if (menuItemRepository == null) throw new NullPointerException();
+        if (optionRepository == null) throw new NullPointerException();
+        if (ingredientRepository == null) throw new NullPointerException();
+        if (menuItemMapper == null) throw new NullPointerException();
+        if (storeRepository == null) throw new NullPointerException();
+        this.menuItemRepository = menuItemRepository;
+        this.optionRepository = optionRepository;
+        this.ingredientRepository = ingredientRepository;
+        this.menuItemMapper = menuItemMapper;
+        this.storeRepository = storeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadVersions() {
+        for (final Object[] row : this.storeRepository.findAllMenuVersions()) {
+            this.versions.merge((Long) row[0], ((Number) row[1]).longValue(), Math::max);
+        }
+        LOGGER.info("Menu versions loaded for {} stores", this.versions.size());
+    }
+
+    /**
+     * Current (committed) menu version of a store; 0 for unknown stores.
+     */
+    public long version(final Long storeId) {
+        if (storeId == null) throw new NullPointerException();
+        final Long known = this.versions.get(storeId);
+        if (known != null) return known;
+        final Long stored = this.storeRepository.findMenuVersion(storeId).orElse(null);
+        if (stored == null) return 0L;
+        return this.versions.merge(storeId, stored, Math::max);
+    }
+
+    /**
+     * Store owning a menu item, without loading any menu.
+     */
+    public Optional<Long> storeIdOf(final Long menuItemId) {
+        if (menuItemId == null) throw new NullPointerException();
+        final Long storeId = this.itemStores.get(menuItemId);
+        if (storeId != null) return Optional.of(storeId);
+        return this.menuItemRepository.findStoreIdById(menuItemId);
+    }
+
+    /**
+     * The store's menu at its current version, loading it when missing or stale.
+     */
+    @Transactional(readOnly = true)
+    public StoreMenu get(final Long storeId) {
+        if (storeId == null) throw new NullPointerException();
+        final long version = version(storeId);
+        final StoreMenu cached = this.menus.get(storeId);
+        if (cached != null && cached.version() == version) return cached;
+
+        final StoreMenu loaded = load(storeId, version);
+        this.menus.merge(storeId, loaded, (old, fresh) -> fresh.version() >= old.version() ? fresh : old);
+        return loaded;
+    }
+
+    /**
+     * Looks an item up through its store's menu (one id lookup the first time an item is seen).
+     */
+    @Transactional(readOnly = true)
+    public Optional<MenuItemView> findItem(final Long menuItemId) {
+        if (menuItemId == null) throw new NullPointerException();
+        return storeIdOf(menuItemId).flatMap(storeId -> get(storeId).item(menuItemId));
+    }
+
+    /**
+     * Bumps the store's persisted menu version in the current transaction and publishes it after commit.
+     * Must be called from the transaction that performs the menu write.
+     */
+    public void bumpVersion(final Long storeId) {
+        if (storeId == null) throw new NullPointerException();
+        this.storeRepository.incrementMenuVersion(storeId);
+        final long version = this.storeRepository.findMenuVersion(storeId).orElse(0L);
+        AfterCommit.run(() -> {
+            this.versions.merge(storeId, version, Math::max);
+            this.menus.computeIfPresent(storeId, (id, menu) -> menu.version() < version ? null : menu);
+        });
+    }
+
+    private StoreMenu load(final Long storeId, final long version) {
+        final List<MenuItem> items = this.menuItemRepository.findAllByStoreIdWithStore(storeId);
+        final Map<Long, List<MenuItemOption>> optionsByItem = new HashMap<>();
+        final Map<Long, List<MenuItemIngredient>> ingredientsByItem = new HashMap<>();
+        if (!items.isEmpty()) {
+            // Only the foreign key of menuItem is read here, so the lazy proxies stay uninitialized
+            for (final MenuItemOption option : this.optionRepository.findAllWithChoicesByStoreId(storeId)) {
+                // choices come back in @OrderBy order from the join fetch
+                optionsByItem.computeIfAbsent(option.getMenuItem().getId(), k -> new ArrayList<>()).add(option);
+            }
+            for (final MenuItemIngredient ingredient : this.ingredientRepository.findAllByStoreId(storeId)) {
+                ingredientsByItem.computeIfAbsent(ingredient.getMenuItem().getId(), k -> new ArrayList<>()).add(ingredient);
+            }
+        }
+
+        final List<MenuItemView> views = new ArrayList<>(items.size());
+        for (final MenuItem item : items) {
+            final List<MenuItemOption> options = optionsByItem.getOrDefault(item.getId(), new ArrayList<>());
+            options.sort(Comparator.comparing(MenuItemOption::getDisplayOrder, ORDER)
+                    .thenComparing(MenuItemOption::getId));
+            final List<MenuItemIngredient> ingredients = ingredientsByItem.getOrDefault(item.getId(), new ArrayList<>());
+            ingredients.sort(Comparator.comparing(MenuItemIngredient::getDisplayOrder, ORDER)
+                    .thenComparing(MenuItemIngredient::getId));
+            views.add(this.menuItemMapper.toView(item, options, ingredients));
+            this.itemStores.put(item.getId(), storeId);
+        }
+
+        LOGGER.debug("Loaded menu of store {} (version {}): {} items", storeId, version, views.size());
+        return StoreMenu.of(storeId, version, views);
+    }
+}
@@ -0,0 +1,225 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.service.model.StoreView;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A multi-key store ordering parsed from a sort spec such as {@code "open,eta,-fee"}.
+ * <p>
+ * Each key has a natural direction (open stores first, lowest ETA/fee first, best rating first, ...);
+ * a leading {@code -} reverses it. Nulls always sort last and the store id is the final tie-breaker,
+ * so the order is total and a cursor (the sort key of the last item on a page) resumes exactly where
+ * the page ended, even if stores are added or removed in between.
+ * <p>
+ * The {@code open} key reads the manual flag unless the order is bound to the catalog's effective
+ * status with {@link #withOpenNow}.
+ */
+final class StoreOrder implements Comparator<StoreView> {
+
+    static final String DEFAULT_SPEC = "open,rating,eta";
+    private static final int MAX_KEYS = 4;
+    private static final String CURSOR_VERSION = "c1";
+    private static final String NULL_VALUE = "!"; // never produced by URLEncoder
+
+    enum Key {
+        OPEN("open", false, v -> Boolean.TRUE.equals(v.isOpen()), s -> Boolean.parseBoolean(s)) {
+            @Override
+            int naturalCompare(final Comparable<Object> a, final Comparable<Object> b) {
+                return -a.compareTo(b); // true (open) first
+            }
+        },
+        ETA("eta", false, StoreView::estimatedDeliveryTimeMinutes, Integer::valueOf),
+        FEE("fee", false, StoreView::deliveryFee, BigDecimal::new),
+        MIN_ORDER("minOrder", false, StoreView::minimumOrderAmount, BigDecimal::new),
+        RATING("rating", true, StoreView::averageRating, Double::valueOf),
+        REVIEWS("reviews", true, StoreView::totalReviews, Integer::valueOf),
+        NAME("name", false, v -> v.name() == null ? null : v.name().toLowerCase(Locale.ROOT), s -> s),
+        NEWEST("newest", true, StoreView::createdAt, Instant::parse);
+
+        final String param;
+        private final boolean descending;
+        private final Function<StoreView, ? extends Comparable<?>> extractor;
+        private final Function<String, ? extends Comparable<?>> parser;
+
+        Key(final String param,
+            final boolean descending,
+            final Function<StoreView, ? extends Comparable<?>> extractor,
+            final Function<String, ? extends Comparable<?>> parser) {
+            this.param = param;
+            this.descending = descending;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        int naturalCompare(final Comparable<Object> a, final Comparable<Object> b) {
+            return this.descending ? b.compareTo(a) : a.compareTo(b);
+        }
+
+        static Key of(final String param) {
+            for (final Key key : values()) {
+                if (key.param.equalsIgnoreCase(param)) return key;
+            }
+            throw new IllegalArgumentException("Unknown sort key '" + param + "', expected one of "
+                    + EnumSet.allOf(Key.class).stream().map(k -> k.param).collect(Collectors.joining(", ")));
+        }
+    }
+
+    private record Term(Key key, boolean reversed) {}
+
+    private static final Predicate<StoreView> MANUALLY_OPEN = v -> Boolean.TRUE.equals(v.isOpen());
+
+    private final List<Term> terms;
+    private final String spec;
+    private final Predicate<StoreView> openNow;
+
+    private StoreOrder(final List<Term> terms, final Predicate<StoreView> openNow) {
+        this.terms = List.copyOf(terms);
+        this.openNow = openNow;
+        this.spec = terms.stream()
+                .map(t -> (t.reversed() ? "-" : "") + t.key().param)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Parses a comma separated sort spec; blank means {@link #DEFAULT_SPEC}.
+     */
+    static StoreOrder parse(final String spec) {
+        final String value = spec == null || spec.isBlank() ? DEFAULT_SPEC : spec;
+        final List<Term> terms = new ArrayList<>();
+        final Set<Key> seen = EnumSet.noneOf(Key.class);
+        for (final String part : value.split(",")) {
+            final String token = part.trim();
+            if (token.isEmpty()) continue;
+            final boolean reversed = token.startsWith("-");
+            final Key key = Key.of(reversed ? token.substring(1) : token);
+            if (seen.add(key)) terms.add(new Term(key, reversed));
+        }
+        if (terms.isEmpty()) throw new IllegalArgumentException("Empty sort spec");
+        if (terms.size() > MAX_KEYS) throw new IllegalArgumentException("At most " + MAX_KEYS + " sort keys");
+        return new StoreOrder(terms, MANUALLY_OPEN);
+    }
+
+    /**
+     * The same order with the {@code open} key read from {@code openNow}; spec and cursors are unchanged.
+     */
+    StoreOrder withOpenNow(final Predicate<StoreView> openNow) {
+        if (openNow == null) throw new NullPointerException();
+        return new StoreOrder(this.terms, openNow);
+    }
+
+    /**
+     * Canonical spec, e.g. {@code "open,eta,-fee"}; equal orders have equal specs.
+     */
+    String spec() {
+        return this.spec;
+    }
+
+    @Override
+    public int compare(final StoreView a, final StoreView b) {
+        return compareKeys(keyOf(a), keyOf(b));
+    }
+
+    /**
+     * Sort key of a store: one value per term, then the id.
+     */
+    Object[] keyOf(final StoreView view) {
+        final Object[] key = new Object[this.terms.size() + 1];
+        for (int i = 0; i < this.terms.size(); i++) {
+            final Key k = this.terms.get(i).key();
+            key[i] = k == Key.OPEN ? this.openNow.test(view) : k.extractor.apply(view);
+        }
+        key[this.terms.size()] = view.id();
+        return key;
+    }
+
+    @SuppressWarnings("unchecked")
+    int compareKeys(final Object[] a, final Object[] b) {
+        for (int i = 0; i < this.terms.size(); i++) {
+            final Object x = a[i];
+            final Object y = b[i];
+            if (x == y) continue;
+            if (x == null) return 1; // nulls last, whatever the direction
+            if (y == null) return -1;
+            final Term term = this.terms.get(i);
+            int c = term.key().naturalCompare((Comparable<Object>) x, (Comparable<Object>) y);
+            if (term.reversed()) c = -c;
+            if (c != 0) return c;
+        }
+        return Long.compare((Long) a[this.terms.size()], (Long) b[this.terms.size()]);
+    }
+
+    /**
+     * Index of the first store in {@code sorted} (ordered by this order) strictly after {@code key}.
+     */
+    int indexAfter(final List<StoreView> sorted, final Object[] key) {
+        int lo = 0;
+        int hi = sorted.size();
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (compareKeys(keyOf(sorted.get(mid)), key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Cursors
+    // --------------------------------------------------
+
+    String encodeCursor(final StoreView last) {
+        final Object[] key = keyOf(last);
+        final StringBuilder sb = new StringBuilder(CURSOR_VERSION).append('|').append(this.spec);
+        for (final Object value : key) {
+            sb.append('|').append(value == null ? NULL_VALUE : URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor} for this same order.
+     */
+    Object[] decodeCursor(final String cursor) {
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (parts.length != this.terms.size() + 3 || !CURSOR_VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (!this.spec.equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor was issued for sort '" + parts[1] + "', not '" + this.spec + "'");
+        }
+        final Object[] key = new Object[this.terms.size() + 1];
+        try {
+            for (int i = 0; i < this.terms.size(); i++) {
+                final String raw = parts[i + 2];
+                key[i] = NULL_VALUE.equals(raw)
+                        ? null
+                        : this.terms.get(i).key().parser.apply(URLDecoder.decode(raw, StandardCharsets.UTF_8));
+            }
+            key[this.terms.size()] = Long.valueOf(parts[parts.length - 1]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return key;
+    }
+}
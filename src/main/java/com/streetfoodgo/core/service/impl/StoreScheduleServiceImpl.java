@@ -5,16 +5,32 @@ import com.streetfoodgo.core.model.StoreSchedule;
 import com.streetfoodgo.core.repository.StoreRepository;
 import com.streetfoodgo.core.repository.StoreScheduleRepository;
 import com.streetfoodgo.core.service.StoreScheduleService;
+import com.streetfoodgo.core.service.model.StoreStatusView;
+import com.streetfoodgo.core.service.model.StoreView;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of StoreScheduleService.
@@ -26,16 +42,39 @@ public class StoreScheduleServiceImpl implements StoreScheduleService {
 
     private final StoreScheduleRepository scheduleRepository;
     private final StoreRepository storeRepository;
+    private final StoreCatalog storeCatalog;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Store id to its weekly schedule compiled into a minute-of-week bitset.
+     * Entries are dropped after a schedule change commits and recompiled on the next lookup.
+     */
+    private final Map<Long, WeeklySchedule> compiled = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Live status per store, maintained by the timer wheel which fires at each store's next open/close boundary.
+     * Status updates and their events are made under the wheel's lock, so a tick and a refresh of the same store
+     * cannot publish out of order.
+     */
+    private final Map<Long, StoreStatusView> statuses = new ConcurrentHashMap<>();
+    private final TimerWheel<Long> wheel = new TimerWheel<>(tickOf(Instant.now()));
 
     public StoreScheduleServiceImpl(
             final StoreScheduleRepository scheduleRepository,
-            final StoreRepository storeRepository) {
+            final StoreRepository storeRepository,
+            final StoreCatalog storeCatalog,
+            final SimpMessagingTemplate messagingTemplate) {
 
         if (scheduleRepository == null) throw new NullPointerException();
         if (storeRepository == null) throw new NullPointerException();
+        if (storeCatalog == null) throw new NullPointerException();
+        if (messagingTemplate == null) throw new NullPointerException();
 
         this.scheduleRepository = scheduleRepository;
         this.storeRepository = storeRepository;
+        this.storeCatalog = storeCatalog;
+        this.messagingTemplate = messagingTemplate;
     }
 
     @Override
@@ -55,40 +94,30 @@ public class StoreScheduleServiceImpl implements StoreScheduleService {
             return false;
         }
 
-        // Get schedule for the day
-        DayOfWeek dayOfWeek = dateTime.getDayOfWeek();
-        Optional<StoreSchedule> scheduleOpt = scheduleRepository.findByStoreIdAndDayOfWeek(
-                store.getId(), dayOfWeek);
-
-        if (scheduleOpt.isEmpty()) {
-            LOGGER.debug("No schedule found for store {} on {}", store.getId(), dayOfWeek);
-            // If no schedule exists, assume open if manually set to open
-            return true;
-        }
+        return schedule(store.getId()).isOpenAt(dateTime);
+    }
 
-        StoreSchedule schedule = scheduleOpt.get();
-        if (!schedule.getIsOpen()) {
-            LOGGER.debug("Store {} is closed on {}", store.getId(), dayOfWeek);
-            return false;
-        }
+    @Override
+    public Set<Long> getOpenStoreIds(final Collection<Long> storeIds, final LocalDateTime dateTime) {
+        if (storeIds == null) throw new NullPointerException();
+        if (dateTime == null) throw new NullPointerException();
 
-        LocalTime currentTime = dateTime.toLocalTime();
-        LocalTime openTime = schedule.getOpenTime();
-        LocalTime closeTime = schedule.getCloseTime();
-
-        boolean isWithinHours;
-        if (closeTime.isBefore(openTime)) {
-            // Handles overnight schedules (e.g., 22:00 - 02:00)
-            isWithinHours = currentTime.isAfter(openTime) || currentTime.isBefore(closeTime);
-        } else {
-            // Normal schedule (e.g., 09:00 - 21:00)
-            isWithinHours = !currentTime.isBefore(openTime) && currentTime.isBefore(closeTime);
+        // Manual open flag from the in-memory catalog; unknown or closed stores drop out here
+        final List<Long> candidates = new ArrayList<>();
+        for (final Long storeId : new LinkedHashSet<>(storeIds)) {
+            if (storeId == null) continue;
+            final Boolean open = this.storeCatalog.get(storeId).map(StoreView::isOpen).orElse(null);
+            if (Boolean.TRUE.equals(open)) candidates.add(storeId);
         }
 
-        LOGGER.debug("Store {} open check at {}: {} (hours: {} - {})",
-                store.getId(), currentTime, isWithinHours, openTime, closeTime);
+        compileMissing(candidates);
 
-        return isWithinHours;
+        final int minute = WeeklySchedule.minuteOfWeek(dateTime);
+        final Set<Long> open = new LinkedHashSet<>();
+        for (final Long storeId : candidates) {
+            if (schedule(storeId).isOpenAt(minute)) open.add(storeId);
+        }
+        return open;
     }
 
     @Override
@@ -129,6 +158,10 @@ public class StoreScheduleServiceImpl implements StoreScheduleService {
         schedule.setIsOpen(isOpen);
 
         schedule = scheduleRepository.save(schedule);
+        AfterCommit.run(() -> {
+            invalidate(storeId);
+            refresh(storeId);
+        });
 
         LOGGER.info("Schedule set for store {} on {}: {} ({} - {})",
                 storeId, dayOfWeek, isOpen ? "OPEN" : "CLOSED", openTime, closeTime);
@@ -140,52 +173,164 @@ public class StoreScheduleServiceImpl implements StoreScheduleService {
     public LocalDateTime getNextOpeningTime(final Store store) {
         if (store == null) throw new NullPointerException();
 
-        if (!store.getIsOpen()) {
+        if (!Boolean.TRUE.equals(store.getIsOpen())) {
             return null; // Store is manually closed
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime checkTime = now;
+        return schedule(store.getId()).nextOpening(LocalDateTime.now());
+    }
+
+    @Override
+    public LocalTime getTodayClosingTime(final Store store) {
+        if (store == null) throw new NullPointerException();
+
+        final LocalDateTime now = LocalDateTime.now();
+        final WeeklySchedule weekly = schedule(store.getId());
+
+        // Closing time of the current span, or of the span that still opens later today
+        final LocalDateTime opening = weekly.nextOpening(now);
+        if (opening == null || !opening.toLocalDate().equals(now.toLocalDate())) {
+            return null;
+        }
+        final LocalDateTime closing = weekly.closingTime(opening);
+        return closing == null ? null : closing.toLocalTime();
+    }
+
+    @Override
+    public StoreStatusView getStoreStatus(final Long storeId) {
+        if (storeId == null) throw new NullPointerException();
+
+        final StoreStatusView status = this.statuses.get(storeId);
+        if (status != null) return status;
+        return refresh(storeId);
+    }
+
+    @Override
+    public void refreshStoreStatus(final Long storeId) {
+        if (storeId == null) throw new NullPointerException();
+        AfterCommit.run(() -> refresh(storeId));
+    }
 
-        // Check next 7 days
-        for (int i = 0; i < 7; i++) {
-            DayOfWeek day = checkTime.getDayOfWeek();
-            Optional<StoreSchedule> scheduleOpt = scheduleRepository.findByStoreIdAndDayOfWeek(
-                    store.getId(), day);
+    // Live status
+    // --------------------------------------------------
 
-            if (scheduleOpt.isPresent() && scheduleOpt.get().getIsOpen()) {
-                StoreSchedule schedule = scheduleOpt.get();
-                LocalTime openTime = schedule.getOpenTime();
+    @EventListener(ApplicationReadyEvent.class)
+    public void startStatusTimers() {
+        final List<Long> storeIds = this.storeCatalog.all().stream().map(StoreView::id).toList();
+        compileMissing(storeIds);
+        for (final Long storeId : storeIds) refresh(storeId);
+        LOGGER.info("Store status timers started: {} stores, {} open now",
+                storeIds.size(), this.statuses.values().stream().filter(StoreStatusView::open).count());
+    }
 
-                // If today and not yet open time
-                if (i == 0 && checkTime.toLocalTime().isBefore(openTime)) {
-                    return LocalDateTime.of(checkTime.toLocalDate(), openTime);
-                }
+    /**
+     * Advances the timer wheel once a minute (schedules have minute resolution)
+     * and re-evaluates the stores whose boundary has been reached.
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public void tick() {
+        final List<Long> due;
+        synchronized (this.wheel) {
+            due = this.wheel.advance(tickOf(Instant.now()));
+        }
+        for (final Long storeId : due) refresh(storeId);
+    }
 
-                // If not today
-                if (i > 0) {
-                    return LocalDateTime.of(checkTime.toLocalDate(), openTime);
-                }
+    /**
+     * Recomputes the store's state, reschedules its timer, hands the schedule side to the catalog (so its open
+     * lists, "Open now" facet and open sort follow the schedule) and publishes an event if the state changed.
+     */
+    private StoreStatusView refresh(final Long storeId) {
+        final Optional<StoreView> store = this.storeCatalog.get(storeId);
+        if (store.isEmpty()) {
+            synchronized (this.wheel) {
+                this.wheel.cancel(storeId);
+                this.statuses.remove(storeId);
+                this.storeCatalog.applyScheduleStatus(storeId, true);
+            }
+            return null;
+        }
+
+        // Compiled (possibly loaded) outside the lock; the state is evaluated under it
+        final WeeklySchedule weekly = schedule(storeId);
+        final boolean manuallyOpen = Boolean.TRUE.equals(store.get().isOpen());
+        synchronized (this.wheel) {
+            final LocalDateTime now = LocalDateTime.now();
+            final boolean scheduledOpen = weekly.isOpenAt(now);
+            final boolean open = manuallyOpen && scheduledOpen;
+
+            // The next schedule boundary, independent of the manual flag (toggling it refreshes directly)
+            final LocalDateTime nextChange = scheduledOpen ? weekly.closingTime(now) : weekly.nextOpening(now);
+            if (nextChange == null) {
+                this.wheel.cancel(storeId);
+            } else {
+                this.wheel.schedule(storeId, tickOf(nextChange.atZone(ZoneId.systemDefault()).toInstant()));
             }
 
-            checkTime = checkTime.plusDays(1);
+            final StoreStatusView status = new StoreStatusView(
+                    storeId, open, manuallyOpen && nextChange != null ? nextChange.toString() : null);
+            final StoreStatusView previous = this.statuses.put(storeId, status);
+            this.storeCatalog.applyScheduleStatus(storeId, scheduledOpen);
+
+            if (previous != null && previous.open() != open) {
+                LOGGER.info("Store {} is now {}", storeId, open ? "OPEN" : "CLOSED");
+                this.messagingTemplate.convertAndSend("/topic/stores/" + storeId + "/status", status);
+            }
+            return status;
         }
+    }
 
-        return null; // No opening time found in next 7 days
+    /**
+     * Wheel ticks are minutes of the instant, so they keep advancing evenly across DST changes; schedule
+     * boundaries (local wall-clock times) are converted with the system zone before scheduling.
+     */
+    private static long tickOf(final Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 60);
     }
 
-    @Override
-    public LocalTime getTodayClosingTime(final Store store) {
-        if (store == null) throw new NullPointerException();
+    // Compiled schedules
+    // --------------------------------------------------
+
+    private WeeklySchedule schedule(final Long storeId) {
+        final WeeklySchedule cached = this.compiled.get(storeId);
+        if (cached != null) return cached;
 
-        DayOfWeek today = LocalDateTime.now().getDayOfWeek();
-        Optional<StoreSchedule> scheduleOpt = scheduleRepository.findByStoreIdAndDayOfWeek(
-                store.getId(), today);
+        final long generation = this.generation.get();
+        final WeeklySchedule weekly =
+                WeeklySchedule.compile(this.scheduleRepository.findByStoreIdOrderByDayOfWeekAsc(storeId));
+        cache(storeId, weekly, generation);
+        return weekly;
+    }
 
-        if (scheduleOpt.isPresent() && scheduleOpt.get().getIsOpen()) {
-            return scheduleOpt.get().getCloseTime();
+    /**
+     * Caches a compiled schedule unless an invalidation happened while its rows were being read,
+     * in which case the rows may predate the change and the next lookup compiles again.
+     */
+    private void cache(final Long storeId, final WeeklySchedule weekly, final long generation) {
+        this.compiled.putIfAbsent(storeId, weekly);
+        if (this.generation.get() != generation) {
+            this.compiled.remove(storeId, weekly);
         }
+    }
+
+    /**
+     * Compiles the schedules not cached yet with a single query.
+     */
+    private void compileMissing(final Collection<Long> storeIds) {
+        final List<Long> missing = storeIds.stream().filter(id -> !this.compiled.containsKey(id)).toList();
+        if (missing.isEmpty()) return;
+
+        final long generation = this.generation.get();
+        final Map<Long, List<StoreSchedule>> rowsByStore = this.scheduleRepository.findByStoreIdIn(missing)
+                .stream()
+                .collect(Collectors.groupingBy(s -> s.getStore().getId()));
+        for (final Long storeId : missing) {
+            cache(storeId, WeeklySchedule.compile(rowsByStore.getOrDefault(storeId, List.of())), generation);
+        }
+    }
 
-        return null;
+    private void invalidate(final Long storeId) {
+        this.generation.incrementAndGet();
+        this.compiled.remove(storeId);
     }
 }
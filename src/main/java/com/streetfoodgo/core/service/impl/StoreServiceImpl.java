@@ -7,9 +7,13 @@ import com.streetfoodgo.core.model.Store;
 import com.streetfoodgo.core.repository.PersonRepository;
 import com.streetfoodgo.core.repository.StoreRepository;
 import com.streetfoodgo.core.security.CurrentUserProvider;
+import com.streetfoodgo.core.service.StoreScheduleService;
 import com.streetfoodgo.core.service.StoreService;
 import com.streetfoodgo.core.service.mapper.StoreMapper;
 import com.streetfoodgo.core.service.model.CreateStoreRequest;
+import com.streetfoodgo.core.service.model.FacetCount;
+import com.streetfoodgo.core.service.model.StoreListQuery;
+import com.streetfoodgo.core.service.model.StorePage;
 import com.streetfoodgo.core.service.model.StoreView;
 import com.streetfoodgo.core.service.model.UpdateStoreRequest;
 
@@ -17,8 +21,12 @@ import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of StoreService.
@@ -26,42 +34,57 @@ import java.util.Optional;
 @Service
 public class StoreServiceImpl implements StoreService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final StoreRepository storeRepository;
     private final PersonRepository personRepository;
     private final StoreMapper storeMapper;
     private final CurrentUserProvider currentUserProvider;
+    private final StoreCatalog storeCatalog;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final StoreMenuCache storeMenuCache;
+    private final StoreScheduleService storeScheduleService;
 
     public StoreServiceImpl(
             final StoreRepository storeRepository,
             final PersonRepository personRepository,
             final StoreMapper storeMapper,
-            final CurrentUserProvider currentUserProvider) {
+            final CurrentUserProvider currentUserProvider,
+            final StoreCatalog storeCatalog,
+            final CatalogSearchIndex catalogSearchIndex,
+            final StoreMenuCache storeMenuCache,
+            final StoreScheduleService storeScheduleService) {
 
         if (storeRepository == null) throw new NullPointerException();
         if (personRepository == null) throw new NullPointerException();
         if (storeMapper == null) throw new NullPointerException();
         if (currentUserProvider == null) throw new NullPointerException();
+        if (storeCatalog == null) throw new NullPointerException();
+        if (catalogSearchIndex == null) throw new NullPointerException();
+        if (storeMenuCache == null) throw new NullPointerException();
+        if (storeScheduleService == null) throw new NullPointerException();
 
         this.storeRepository = storeRepository;
         this.personRepository = personRepository;
         this.storeMapper = storeMapper;
         this.currentUserProvider = currentUserProvider;
+        this.storeCatalog = storeCatalog;
+        this.catalogSearchIndex = catalogSearchIndex;
+        this.storeMenuCache = storeMenuCache;
+        this.storeScheduleService = storeScheduleService;
     }
 
+    // Reads are served from the in-memory catalog; writes below push their views into it after commit.
+
     @Override
     public List<StoreView> getAllStores() {
-        return this.storeRepository.findAll()
-                .stream()
-                .map(this.storeMapper::toView)
-                .toList();
+        return this.storeCatalog.all();
     }
 
     @Override
     public List<StoreView> getOpenStores() {
-        return this.storeRepository.findAllByIsOpenTrue()
-                .stream()
-                .map(this.storeMapper::toView)
-                .toList();
+        return this.storeCatalog.open();
     }
 
     @Override
@@ -69,10 +92,7 @@ public class StoreServiceImpl implements StoreService {
         if (area == null || area.isBlank()) {
             return getAllStores();
         }
-        return this.storeRepository.findAllByAreaIgnoreCase(area)
-                .stream()
-                .map(this.storeMapper::toView)
-                .toList();
+        return this.storeCatalog.byArea(area);
     }
 
     @Override
@@ -80,10 +100,7 @@ public class StoreServiceImpl implements StoreService {
         if (cuisineType == null) {
             return getAllStores();
         }
-        return this.storeRepository.findAllByCuisineTypeAndIsOpenTrue(cuisineType)
-                .stream()
-                .map(this.storeMapper::toView)
-                .toList();
+        return this.storeCatalog.openByCuisine(cuisineType);
     }
 
     @Override
@@ -91,9 +108,10 @@ public class StoreServiceImpl implements StoreService {
         if (keyword == null || keyword.isBlank()) {
             return getAllStores();
         }
-        return this.storeRepository.searchByKeyword(keyword)
+        return this.catalogSearchIndex.searchStoreIds(keyword, Integer.MAX_VALUE)
                 .stream()
-                .map(this.storeMapper::toView)
+                .map(this.storeCatalog::get)
+                .flatMap(Optional::stream)
                 .toList();
     }
 
@@ -101,18 +119,94 @@ public class StoreServiceImpl implements StoreService {
     public Optional<StoreView> getStore(final Long id) {
         if (id == null || id <= 0) throw new IllegalArgumentException();
 
-        return this.storeRepository.findById(id)
-                .map(this.storeMapper::toView);
+        return this.storeCatalog.get(id);
     }
 
     @Override
     public List<StoreView> getOwnerStores(final Long ownerId) {
         if (ownerId == null || ownerId <= 0) throw new IllegalArgumentException();
 
-        return this.storeRepository.findAllByOwnerId(ownerId)
-                .stream()
-                .map(this.storeMapper::toView)
-                .toList();
+        return this.storeCatalog.byOwner(ownerId);
+    }
+
+    @Override
+    public StorePage listStores(final StoreListQuery query) {
+        if (query == null) throw new NullPointerException();
+
+        final int size = pageSize(query.size());
+        final boolean searching = query.search() != null && !query.search().isBlank();
+        final List<StoreView> searchHits = searching ? searchStores(query.search()) : null;
+        final boolean relevanceOrder = searching && (query.sort() == null || query.sort().isBlank());
+
+        final StoreOrder order = StoreOrder.parse(relevanceOrder ? null : query.sort());
+        final StoreCatalog.Listing listing = this.storeCatalog.listing(order);
+        final StoreFacetIndex facets = listing.facets();
+
+        final StoreFacetIndex.Filter filter = new StoreFacetIndex.Filter(
+                query.cuisines(),
+                query.areas().stream().filter(a -> a != null && !a.isBlank())
+                        .map(StoreFacetIndex::normalize).collect(Collectors.toSet()),
+                query.delivery(),
+                query.pickup(),
+                query.open(),
+                query.maxMinimumOrder(),
+                searching ? facets.ofIds(searchHits.stream().map(StoreView::id).toList()) : null);
+        final BitSet matching = facets.resolve(filter);
+        final Map<String, List<FacetCount>> counts = facets.counts(filter);
+
+        if (relevanceOrder) {
+            // Relevance order has no sort key to resume from: offset paging only
+            final List<StoreView> matches = searchHits.stream().filter(v -> facets.contains(matching, v.id())).toList();
+            final int from = (int) Math.min((long) Math.max(query.page(), 0) * size, matches.size());
+            final int to = Math.min(from + size, matches.size());
+            return new StorePage(List.copyOf(matches.subList(from, to)), from / size, size,
+                    matches.size(), totalPages(matches.size(), size), null, null, counts);
+        }
+        return page(listing.order(), listing.sorted(), v -> facets.contains(matching, v.id()),
+                query.page(), size, query.cursor(), counts);
+    }
+
+    @Override
+    public StorePage getOwnerStores(final Long ownerId, final String sort, final int page, final int size) {
+        if (ownerId == null || ownerId <= 0) throw new IllegalArgumentException();
+
+        final StoreCatalog.Listing listing = this.storeCatalog.listing(StoreOrder.parse(sort));
+        return page(listing.order(), listing.sorted(),
+                v -> v.owner() != null && ownerId.equals(v.owner().id()),
+                page, pageSize(size), null, Map.of());
+    }
+
+    /**
+     * Pages over the catalog's memoized sorted list. A cursor resumes right after the sort key it
+     * encodes, so concurrent inserts and removals never repeat or skip stores across pages.
+     */
+    private StorePage page(final StoreOrder order,
+                           final List<StoreView> sorted,
+                           final Predicate<StoreView> filter,
+                           final int page,
+                           final int size,
+                           final String cursor,
+                           final Map<String, List<FacetCount>> facets) {
+        final List<StoreView> matches = sorted.stream().filter(filter).toList();
+        final int from = cursor != null && !cursor.isBlank()
+                ? order.indexAfter(matches, order.decodeCursor(cursor))
+                : (int) Math.min((long) Math.max(page, 0) * size, matches.size());
+        final int to = Math.min(from + size, matches.size());
+        final List<StoreView> items = matches.subList(from, to);
+        final String nextCursor = to < matches.size() && !items.isEmpty()
+                ? order.encodeCursor(items.get(items.size() - 1))
+                : null;
+        return new StorePage(List.copyOf(items), from / size, size,
+                matches.size(), totalPages(matches.size(), size), order.spec(), nextCursor, facets);
+    }
+
+    private static int pageSize(final int requested) {
+        if (requested <= 0) return DEFAULT_PAGE_SIZE;
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    private static int totalPages(final long total, final int size) {
+        return (int) ((total + size - 1) / size);
     }
 
     @Transactional
@@ -151,7 +245,11 @@ public class StoreServiceImpl implements StoreService {
 
         store = this.storeRepository.save(store);
 
-        return this.storeMapper.toView(store);
+        final StoreView view = this.storeMapper.toView(store);
+        this.storeCatalog.upsertAfterCommit(view);
+        this.catalogSearchIndex.indexStoreAfterCommit(view);
+        this.storeScheduleService.refreshStoreStatus(view.id());
+        return view;
     }
 
     @Transactional
@@ -170,7 +268,11 @@ public class StoreServiceImpl implements StoreService {
         }
 
         // Update fields if provided
-        if (request.name() != null) store.setName(request.name());
+        if (request.name() != null && !request.name().equals(store.getName())) {
+            store.setName(request.name());
+            // Menu item views carry the store name
+            this.storeMenuCache.bumpVersion(store.getId());
+        }
         if (request.description() != null) store.setDescription(request.description());
         if (request.openingHours() != null) store.setOpeningHours(request.openingHours());
         if (request.isOpen() != null) store.setIsOpen(request.isOpen());
@@ -183,7 +285,11 @@ public class StoreServiceImpl implements StoreService {
 
         store = this.storeRepository.save(store);
 
-        return this.storeMapper.toView(store);
+        final StoreView view = this.storeMapper.toView(store);
+        this.storeCatalog.upsertAfterCommit(view);
+        this.catalogSearchIndex.indexStoreAfterCommit(view);
+        this.storeScheduleService.refreshStoreStatus(view.id());
+        return view;
     }
 
     @Transactional
@@ -201,6 +307,11 @@ public class StoreServiceImpl implements StoreService {
         }
 
         store.setIsOpen(isOpen);
-        this.storeRepository.save(store);
+        store = this.storeRepository.save(store);
+
+        final StoreView view = this.storeMapper.toView(store);
+        this.storeCatalog.upsertAfterCommit(view);
+        this.catalogSearchIndex.indexStoreAfterCommit(view);
+        this.storeScheduleService.refreshStoreStatus(view.id());
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
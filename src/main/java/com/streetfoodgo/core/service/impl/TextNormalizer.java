@@ -0,0 +1,105 @@
+package com.streetfoodgo.core.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Greek/English text normalization for the in-memory search structures.
+ * <p>
+ * Tokens are accent folded (NFD, combining marks stripped), lower-cased, with final sigma folded to sigma.
+ * Greek tokens can also be transliterated to Latin so that "souvlaki" matches "σουβλάκι".
+ */
+final class TextNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final String[][] GREEK_DIGRAPHS = {
+            {"ου", "ou"}, {"αυ", "av"}, {"ευ", "ev"}, {"μπ", "mp"}, {"ντ", "nt"}, {"γκ", "gk"}, {"γγ", "ng"}
+    };
+
+    private static final String GREEK_LETTERS = "αβγδεζηθικλμνξοπρστυφχψω";
+    private static final String[] LATIN_LETTERS = {
+            "a", "v", "g", "d", "e", "z", "i", "th", "i", "k", "l", "m", "n", "x", "o", "p", "r", "s", "t", "y", "f", "ch", "ps", "o"
+    };
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Folds accents and case of the whole string (no tokenization).
+     */
+    static String fold(final String text) {
+        if (text == null || text.isEmpty()) return "";
+        final String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace('ς', 'σ');
+    }
+
+    /**
+     * Splits folded text into letter/digit tokens.
+     */
+    static List<String> tokens(final String text) {
+        final String folded = fold(text);
+        final List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            final boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokens of {@code text} plus the Latin transliteration of every Greek token.
+     */
+    static List<String> terms(final String text) {
+        final List<String> tokens = tokens(text);
+        final List<String> terms = new ArrayList<>(tokens.size() + 4);
+        for (String token : tokens) {
+            terms.add(token);
+            final String latin = toLatin(token);
+            if (latin != null) terms.add(latin);
+        }
+        return terms;
+    }
+
+    /**
+     * Latin transliteration of a folded Greek token, or {@code null} when it has no Greek letters.
+     */
+    static String toLatin(final String token) {
+        boolean greek = false;
+        for (int i = 0; i < token.length() && !greek; i++) {
+            greek = GREEK_LETTERS.indexOf(token.charAt(i)) >= 0;
+        }
+        if (!greek) return null;
+
+        final StringBuilder sb = new StringBuilder(token.length() + 4);
+        int i = 0;
+        outer:
+        while (i < token.length()) {
+            if (i + 1 < token.length()) {
+                for (String[] digraph : GREEK_DIGRAPHS) {
+                    if (token.startsWith(digraph[0], i)) {
+                        sb.append(digraph[1]);
+                        i += 2;
+                        continue outer;
+                    }
+                }
+            }
+            final char c = token.charAt(i++);
+            final int idx = GREEK_LETTERS.indexOf(c);
+            if (idx >= 0) sb.append(LATIN_LETTERS[idx]);
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+}
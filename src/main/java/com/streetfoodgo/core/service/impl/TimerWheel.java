@@ -0,0 +1,131 @@
+package com.streetfoodgo.core.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two-level hashed timer wheel with one-minute ticks.
+ * <p>
+ * Level 0 has 64 one-minute slots, level 1 has 256 slots of 64 minutes (about 11 days, more than a week).
+ * Deadlines further away are parked at the far end of level 1 and fire early; callers re-evaluate on every
+ * fire, so an early fire only means "check again". Scheduling and cancelling are O(1); rescheduling leaves the
+ * old slot entry behind and it is skipped when its slot comes up (the key's current deadline is the truth).
+ * <p>
+ * Not thread-safe; the owner synchronizes.
+ *
+ * @param <K> key type, e.g. a store id
+ */
+final class TimerWheel<K> {
+
+    private static final int L0_BITS = 6;
+    private static final int L0_SLOTS = 1 << L0_BITS;
+    private static final int L1_SLOTS = 256;
+    private static final long HORIZON = (long) L0_SLOTS * L1_SLOTS - 1;
+
+    private final List<List<K>> level0 = slots(L0_SLOTS);
+    private final List<List<K>> level1 = slots(L1_SLOTS);
+    private final Map<K, Long> deadlines = new HashMap<>();
+
+    /**
+     * Last processed tick; deadlines at or before it fire on the next {@link #advance}.
+     */
+    private long now;
+
+    TimerWheel(final long startTick) {
+        this.now = startTick;
+    }
+
+    long now() {
+        return this.now;
+    }
+
+    int size() {
+        return this.deadlines.size();
+    }
+
+    /**
+     * Schedules (or reschedules) {@code key} to fire at {@code tick}.
+     * Ticks in the past fire on the next advance.
+     */
+    void schedule(final K key, final long tick) {
+        if (key == null) throw new NullPointerException();
+        final long deadline = Math.min(Math.max(tick, this.now + 1), this.now + HORIZON);
+        this.deadlines.put(key, deadline);
+        place(key, deadline);
+    }
+
+    void cancel(final K key) {
+        this.deadlines.remove(key);
+    }
+
+    /**
+     * Moves the wheel forward to {@code tick} and returns the keys whose deadline passed, in deadline order.
+     * After long pauses (more than the wheel's horizon) every pending key fires.
+     */
+    List<K> advance(final long tick) {
+        final List<K> due = new ArrayList<>();
+        if (tick <= this.now) return due;
+
+        if (tick - this.now > HORIZON) {
+            due.addAll(this.deadlines.keySet());
+            this.deadlines.clear();
+            this.level0.forEach(List::clear);
+            this.level1.forEach(List::clear);
+            this.now = tick;
+            return due;
+        }
+
+        while (this.now < tick) {
+            final long current = ++this.now;
+            if ((current & (L0_SLOTS - 1)) == 0) cascade(current);
+
+            final List<K> slot = this.level0.get((int) (current & (L0_SLOTS - 1)));
+            if (slot.isEmpty()) continue;
+            final List<K> entries = new ArrayList<>(slot);
+            slot.clear();
+            for (final K key : entries) {
+                final Long deadline = this.deadlines.get(key);
+                if (deadline != null && deadline == current) {
+                    this.deadlines.remove(key);
+                    due.add(key);
+                }
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Distributes the level 1 slot starting at {@code current} over level 0.
+     */
+    private void cascade(final long current) {
+        final List<K> slot = this.level1.get((int) ((current >>> L0_BITS) % L1_SLOTS));
+        if (slot.isEmpty()) return;
+        final List<K> entries = new ArrayList<>(slot);
+        slot.clear();
+        for (final K key : entries) {
+            final Long deadline = this.deadlines.get(key);
+            if (deadline == null) continue;
+            if (deadline - current < L0_SLOTS) {
+                this.level0.get((int) (deadline & (L0_SLOTS - 1))).add(key);
+            }
+            // otherwise a stale entry: the key was rescheduled into another slot
+        }
+    }
+
+    private void place(final K key, final long deadline) {
+        // Same 64-minute window as the current tick (not yet cascaded) goes straight to level 0
+        if ((deadline >>> L0_BITS) == (this.now >>> L0_BITS)) {
+            this.level0.get((int) (deadline & (L0_SLOTS - 1))).add(key);
+        } else {
+            this.level1.get((int) ((deadline >>> L0_BITS) % L1_SLOTS)).add(key);
+        }
+    }
+
+    private static <K> List<List<K>> slots(final int count) {
+        final List<List<K>> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) slots.add(new ArrayList<>());
+        return slots;
+    }
+}
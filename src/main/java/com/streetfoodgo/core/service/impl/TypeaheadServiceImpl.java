@@ -0,0 +1,197 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.repository.OrderItemRepository;
+import com.streetfoodgo.core.repository.OrderRepository;
+import com.streetfoodgo.core.service.TypeaheadService;
+import com.streetfoodgo.core.service.model.StoreView;
+import com.streetfoodgo.core.service.model.TypeaheadSuggestion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typeahead backed by an immutable {@link PrefixTrie} with per-node top-K suggestions.
+ * <p>
+ * Suggestions are weighted by order popularity (orders per store, quantities per dish, store orders per area).
+ * Lookups only read the current trie; a background task rebuilds it when the store catalog or menu
+ * items change, and periodically so that popularity stays fresh.
+ */
+@Service
+public class TypeaheadServiceImpl implements TypeaheadService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TypeaheadServiceImpl.class);
+
+    private final StoreCatalog storeCatalog;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final int topK;
+    private final long refreshIntervalNanos;
+
+    private volatile Index index;
+
+    public TypeaheadServiceImpl(
+            final StoreCatalog storeCatalog,
+            final CatalogSearchIndex catalogSearchIndex,
+            final OrderRepository orderRepository,
+            final OrderItemRepository orderItemRepository,
+            @Value("${app.typeahead.top-k:10}") final int topK,
+            @Value("${app.typeahead.popularity-refresh:PT15M}") final Duration popularityRefresh) {
+        if (storeCatalog == null) throw new NullPointerException();
+        if (catalogSearchIndex == null) throw new NullPointerException();
+        if (orderRepository == null) throw new NullPointerException();
+        if (orderItemRepository == null) throw new NullPointerException();
+        if (popularityRefresh == null) throw new NullPointerException();
+        if (topK <= 0) throw new IllegalArgumentException("topK must be positive");
+        this.storeCatalog = storeCatalog;
+        this.catalogSearchIndex = catalogSearchIndex;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.topK = topK;
+        this.refreshIntervalNanos = popularityRefresh.toNanos();
+    }
+
+    @Override
+    public List<TypeaheadSuggestion> suggest(final String prefix, final int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+        final String key = normalizeKey(prefix);
+        if (key.isEmpty()) return List.of();
+
+        Index current = this.index;
+        if (current == null) current = rebuild();
+
+        final int[] ids = current.trie.lookup(key, Math.min(limit, topK));
+        final List<TypeaheadSuggestion> result = new ArrayList<>(ids.length);
+        for (int id : ids) result.add(current.suggestions[id]);
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds in the background when the catalog or menu changed, or popularity is due for a refresh.
+     */
+    @Scheduled(fixedDelayString = "${app.typeahead.check-interval-ms:5000}")
+    public void refreshIfStale() {
+        final Index current = this.index;
+        if (current == null) return;
+        if (current.catalogVersion != this.storeCatalog.version()
+                || current.dishVersion != this.catalogSearchIndex.dishVersion()
+                || System.nanoTime() - current.builtAtNanos >= this.refreshIntervalNanos) {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Typeahead rebuild failed, keeping previous index: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private synchronized Index rebuild() {
+        final long started = System.nanoTime();
+        final long catalogVersion = this.storeCatalog.version();
+        final long dishVersion = this.catalogSearchIndex.dishVersion();
+
+        final Map<Long, Long> storeOrders = toCounts(this.orderRepository.countOrdersPerStore());
+        final Map<Long, Long> dishQuantities = toCounts(this.orderItemRepository.sumQuantityPerMenuItem());
+
+        final List<TypeaheadSuggestion> suggestions = new ArrayList<>();
+        final List<List<String>> keys = new ArrayList<>();
+
+        final Map<String, Long> areaWeights = new HashMap<>();
+        final Map<String, String> areaLabels = new HashMap<>();
+        for (StoreView store : this.storeCatalog.all()) {
+            if (store.name() == null || store.name().isBlank()) continue;
+            final long orders = storeOrders.getOrDefault(store.id(), 0L);
+            suggestions.add(new TypeaheadSuggestion(TypeaheadSuggestion.Type.STORE, store.name(), store.id(), orders));
+            keys.add(keysFor(store.name()));
+
+            if (store.area() != null && !store.area().isBlank()) {
+                final String areaKey = normalizeKey(store.area());
+                areaLabels.putIfAbsent(areaKey, store.area().trim());
+                areaWeights.merge(areaKey, orders + 1, Long::sum);
+            }
+        }
+
+        // The same dish name offered by several stores is one suggestion with the summed popularity
+        final Map<String, Long> dishWeights = new HashMap<>();
+        final Map<String, String> dishLabels = new HashMap<>();
+        for (CatalogSearchIndex.DishDocument dish : this.catalogSearchIndex.dishes()) {
+            if (!dish.available() || dish.name() == null || dish.name().isBlank()) continue;
+            final String dishKey = normalizeKey(dish.name());
+            dishLabels.putIfAbsent(dishKey, dish.name().trim());
+            dishWeights.merge(dishKey, dishQuantities.getOrDefault(dish.id(), 0L), Long::sum);
+        }
+        dishWeights.forEach((k, weight) -> {
+            suggestions.add(new TypeaheadSuggestion(TypeaheadSuggestion.Type.DISH, dishLabels.get(k), null, weight));
+            keys.add(keysFor(dishLabels.get(k)));
+        });
+        areaWeights.forEach((k, weight) -> {
+            suggestions.add(new TypeaheadSuggestion(TypeaheadSuggestion.Type.AREA, areaLabels.get(k), null, weight));
+            keys.add(keysFor(areaLabels.get(k)));
+        });
+
+        final long[] weights = new long[suggestions.size()];
+        for (int i = 0; i < weights.length; i++) weights[i] = suggestions.get(i).popularity();
+
+        final PrefixTrie.Builder builder = new PrefixTrie.Builder(this.topK, weights);
+        for (int i = 0; i < keys.size(); i++) {
+            for (String key : keys.get(i)) builder.add(key, i);
+        }
+        final PrefixTrie trie = builder.build();
+
+        final Index built = new Index(trie, suggestions.toArray(new TypeaheadSuggestion[0]),
+                catalogVersion, dishVersion, System.nanoTime());
+        this.index = built;
+        LOGGER.info("Typeahead index built: {} suggestions, {} trie nodes in {} ms",
+                suggestions.size(), trie.nodeCount(), (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * The folded full text plus every word-start suffix, each also in Latin transliteration,
+     * so "marg" finds "Pizza Margherita" and "souv" finds "Σουβλάκι".
+     */
+    private static List<String> keysFor(final String text) {
+        final Set<String> keys = new LinkedHashSet<>();
+        final List<String> tokens = TextNormalizer.tokens(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            final String suffix = String.join(" ", tokens.subList(i, tokens.size()));
+            keys.add(suffix);
+            final String latin = TextNormalizer.toLatin(suffix);
+            if (latin != null) keys.add(latin);
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static String normalizeKey(final String text) {
+        if (text == null) return "";
+        return String.join(" ", TextNormalizer.tokens(text));
+    }
+
+    private static Map<Long, Long> toCounts(final List<Object[]> rows) {
+        final Map<Long, Long> counts = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            if (row[0] == null || row[1] == null) continue;
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private record Index(PrefixTrie trie, TypeaheadSuggestion[] suggestions,
+                         long catalogVersion, long dishVersion, long builtAtNanos) {}
+}
@@ -0,0 +1,150 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.StoreSchedule;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A store's weekly opening hours compiled into a minute-of-week bitset (Monday 00:00 = minute 0).
+ * <p>
+ * Compilation rules:
+ * <ul>
+ *     <li>a day without a schedule row is open all day (as before, no schedule means "open");</li>
+ *     <li>a closed day contributes nothing, but the previous day's overnight span still spills into it;</li>
+ *     <li>{@code close < open} is an overnight span that continues into the next day (Sunday wraps to Monday);</li>
+ *     <li>{@code close == open}, or a missing time, means open around the clock that day.</li>
+ * </ul>
+ * Lookups are allocation-free bit operations over at most {@value #WORDS} words.
+ * Instances are immutable once compiled.
+ */
+final class WeeklySchedule {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    private static final int WORDS = (MINUTES_PER_WEEK + 63) / 64;
+
+    /**
+     * Used for stores without any schedule rows.
+     */
+    static final WeeklySchedule ALWAYS_OPEN = compile(List.of());
+
+    private final long[] bits = new long[WORDS];
+    private final int openMinutes;
+
+    private WeeklySchedule(final Collection<StoreSchedule> rows) {
+        final boolean[] hasRow = new boolean[7];
+        for (final StoreSchedule row : rows) {
+            if (row.getDayOfWeek() == null) continue;
+            final int day = row.getDayOfWeek().getValue() - 1;
+            hasRow[day] = true;
+            if (!Boolean.TRUE.equals(row.getIsOpen())) continue;
+
+            final int dayStart = day * MINUTES_PER_DAY;
+            final LocalTime open = row.getOpenTime();
+            final LocalTime close = row.getCloseTime();
+            if (open == null || close == null || open.equals(close)) {
+                setRange(dayStart, dayStart + MINUTES_PER_DAY);
+                continue;
+            }
+            final int from = dayStart + minuteOfDay(open);
+            if (close.isAfter(open)) {
+                setRange(from, dayStart + minuteOfDay(close));
+            } else {
+                // Overnight: until midnight, then into the next day (wrapping past Sunday)
+                setRange(from, dayStart + MINUTES_PER_DAY);
+                final int nextDayStart = ((day + 1) % 7) * MINUTES_PER_DAY;
+                setRange(nextDayStart, nextDayStart + minuteOfDay(close));
+            }
+        }
+        for (int day = 0; day < 7; day++) {
+            if (!hasRow[day]) setRange(day * MINUTES_PER_DAY, (day + 1) * MINUTES_PER_DAY);
+        }
+        int count = 0;
+        for (final long word : this.bits) count += Long.bitCount(word);
+        this.openMinutes = count;
+    }
+
+    static WeeklySchedule compile(final Collection<StoreSchedule> rows) {
+        if (rows == null) throw new NullPointerException();
+        return new WeeklySchedule(rows);
+    }
+
+    static int minuteOfWeek(final LocalDateTime dateTime) {
+        return (dateTime.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY
+                + dateTime.getHour() * 60
+                + dateTime.getMinute();
+    }
+
+    boolean isOpenAt(final int minuteOfWeek) {
+        return (this.bits[minuteOfWeek >>> 6] & (1L << minuteOfWeek)) != 0;
+    }
+
+    boolean isOpenAt(final LocalDateTime dateTime) {
+        return isOpenAt(minuteOfWeek(dateTime));
+    }
+
+    /**
+     * First moment at or after {@code from} (truncated to the minute) at which the store is open,
+     * or null when it is never open.
+     */
+    LocalDateTime nextOpening(final LocalDateTime from) {
+        if (this.openMinutes == 0) return null;
+        final int now = minuteOfWeek(from);
+        final int offset = distanceTo(now, true);
+        return from.truncatedTo(ChronoUnit.MINUTES).plusMinutes(offset);
+    }
+
+    /**
+     * Moment the current opening span ends, or null when closed at {@code from} or open around the clock.
+     */
+    LocalDateTime closingTime(final LocalDateTime from) {
+        final int now = minuteOfWeek(from);
+        if (!isOpenAt(now) || this.openMinutes == MINUTES_PER_WEEK) return null;
+        final int offset = distanceTo(now, false);
+        return from.truncatedTo(ChronoUnit.MINUTES).plusMinutes(offset);
+    }
+
+    /**
+     * Minutes from {@code start} to the next bit equal to {@code value}, scanning forward with wrap-around.
+     * The caller guarantees such a bit exists.
+     */
+    private int distanceTo(final int start, final boolean value) {
+        int minute = start;
+        for (int scanned = 0; scanned <= MINUTES_PER_WEEK; ) {
+            final int word = minute >>> 6;
+            long w = value ? this.bits[word] : ~this.bits[word];
+            w &= -1L << minute; // ignore bits before minute in this word
+            if (word == WORDS - 1) {
+                // ignore padding bits past the end of the week
+                w &= (1L << (MINUTES_PER_WEEK & 63)) - 1;
+            }
+            if (w != 0) {
+                final int found = (word << 6) + Long.numberOfTrailingZeros(w);
+                return found >= start ? found - start : found + MINUTES_PER_WEEK - start;
+            }
+            final int next = (word + 1) << 6;
+            scanned += next - minute;
+            minute = next >= MINUTES_PER_WEEK ? 0 : next;
+        }
+        throw new IllegalStateException("no matching minute");
+    }
+
+    private void setRange(final int fromInclusive, final int toExclusive) {
+        for (int minute = fromInclusive; minute < toExclusive; ) {
+            final int word = minute >>> 6;
+            final int end = Math.min(toExclusive, (word + 1) << 6);
+            final int width = end - minute;
+            final long mask = width == 64 ? -1L : ((1L << width) - 1) << minute;
+            this.bits[word] |= mask;
+            minute = end;
+        }
+    }
+
+    private static int minuteOfDay(final LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
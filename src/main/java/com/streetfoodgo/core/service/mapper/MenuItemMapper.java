@@ -16,6 +16,17 @@ public class MenuItemMapper {
     public MenuItemView toView(final MenuItem menuItem) {
         if (menuItem == null) return null;
 
+        return toView(menuItem, menuItem.getOptions(), menuItem.getIngredients());
+    }
+
+    /**
+     * Maps an item with options and ingredients loaded separately (the item's own collections are not touched).
+     */
+    public MenuItemView toView(final MenuItem menuItem,
+                               final List<MenuItemOption> options,
+                               final List<MenuItemIngredient> ingredients) {
+        if (menuItem == null) return null;
+
         return new MenuItemView(
                 menuItem.getId(),
                 menuItem.getStore().getId(),
@@ -27,8 +38,8 @@ public class MenuItemMapper {
                 menuItem.getAvailable(),
                 menuItem.getImageUrl(),
                 menuItem.getCreatedAt(),
-                toOptionViews(menuItem.getOptions()),
-                toIngredientViews(menuItem.getIngredients())
+                toOptionViews(options),
+                toIngredientViews(ingredients)
         );
     }
 
@@ -93,4 +104,4 @@ public class MenuItemMapper {
                 ingredient.getDisplayOrder()
         );
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.streetfoodgo.core.service.mapper;
 
 import com.streetfoodgo.core.model.OrderItem;
+import com.streetfoodgo.core.service.model.MenuItemView;
 import com.streetfoodgo.core.service.model.OrderItemView;
 import org.springframework.stereotype.Component;
 
@@ -20,12 +21,22 @@ public class OrderItemMapper {
     public OrderItemView toView(final OrderItem orderItem) {
         if (orderItem == null) return null;
 
+        return toView(orderItem, menuItemMapper.toView(orderItem.getMenuItem()));
+    }
+
+    /**
+     * Maps an item whose menu item view is already known (e.g. from a menu snapshot), leaving the entity's menu item untouched.
+     */
+    public OrderItemView toView(final OrderItem orderItem, final MenuItemView menuItem) {
+        if (orderItem == null) return null;
+
         return new OrderItemView(
                 orderItem.getId(),
-                menuItemMapper.toView(orderItem.getMenuItem()),
+                menuItem,
                 orderItem.getQuantity(),
                 orderItem.getPriceAtOrder(),
-                orderItem.getSpecialInstructions()
+                orderItem.getSpecialInstructions(),
+                orderItem.getDiscountAmount()
         );
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
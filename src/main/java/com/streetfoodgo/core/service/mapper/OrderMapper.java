@@ -1,9 +1,13 @@
 package com.streetfoodgo.core.service.mapper;
 
 import com.streetfoodgo.core.model.Order;
+import com.streetfoodgo.core.model.OrderItem;
+import com.streetfoodgo.core.service.model.OrderItemView;
 import com.streetfoodgo.core.service.model.OrderView;
+import com.streetfoodgo.core.service.model.StoreMenu;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +37,20 @@ public class OrderMapper {
     }
 
     public OrderView toView(final Order order) {
+        return toView(order, orderItemMapper::toView);
+    }
+
+    /**
+     * Maps an order whose items' menu items are in {@code menu}, so they need not be loaded.
+     */
+    public OrderView toView(final Order order, final StoreMenu menu) {
+        if (menu == null) return toView(order);
+        return toView(order, item -> menu.item(item.getMenuItem().getId())
+                .map(view -> orderItemMapper.toView(item, view))
+                .orElseGet(() -> orderItemMapper.toView(item)));
+    }
+
+    private OrderView toView(final Order order, final Function<OrderItem, OrderItemView> itemMapper) {
         if (order == null) return null;
 
         return new OrderView(
@@ -42,7 +60,7 @@ public class OrderMapper {
                 order.getOrderType(),
                 deliveryAddressMapper.toView(order.getDeliveryAddress()),
                 order.getItems().stream()
-                        .map(orderItemMapper::toView)
+                        .map(itemMapper)
                         .collect(Collectors.toList()),
                 order.getStatus(),
                 order.getSubtotal(),
@@ -60,7 +78,10 @@ public class OrderMapper {
                 order.getEstimatedDeliveryMinutes(),
                 order.getEstimatedDeliveryDistanceKm(),
                 order.getDriverLatitude(),
-                order.getDriverLongitude()
+                order.getDriverLongitude(),
+                order.getCouponCode(),
+                order.getDiscountAmount(),
+                order.getPromotionDiscount()
         );
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -4,12 +4,18 @@ import com.streetfoodgo.core.model.Store;
 import com.streetfoodgo.core.service.model.StoreView;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+
 /**
  * Mapper to convert Store entity to StoreView DTO.
  */
 @Component
 public class StoreMapper {
 
+    private static final int FEATURED_MIN_REVIEWS = 10;
+    private static final double FEATURED_MIN_AVERAGE = 4.5;
+
     private final PersonMapper personMapper;
 
     public StoreMapper(final PersonMapper personMapper) {
@@ -20,6 +26,10 @@ public class StoreMapper {
     public StoreView toView(final Store store) {
         if (store == null) return null;
 
+        final int ratingCount = store.getRatingCount();
+        final long ratingSum = store.getRatingSum();
+        final Instant createdAt = store.getCreatedAt();
+
         return new StoreView(
                 store.getId(),
                 personMapper.toView(store.getOwner()),
@@ -36,16 +46,64 @@ public class StoreMapper {
                 store.getMinimumOrderAmount(),
                 store.getAcceptsDelivery(),
                 store.getAcceptsPickup(),
-                        store.getDeliveryFee(),
-                        store.getEstimatedDeliveryTimeMinutes(),
-                        store.getImageUrl(),
-                        // New fields - using defaults or mock data for now as they are not in DB
-                        4.5 + (Math.random() * 0.5), // averageRating 4.5-5.0
-                        (int) (Math.random() * 500) + 10, // totalReviews
-                        Math.random() > 0.8, // isNew
-                        Math.random() > 0.9, // isFeatured
-                        store.getMinimumOrderAmount().multiply(java.math.BigDecimal.valueOf(2.5)), // freeDeliveryThreshold
-                        store.getCreatedAt()
-                );
+                store.getDeliveryFee(),
+                store.getEstimatedDeliveryTimeMinutes(),
+                store.getImageUrl(),
+                averageRating(ratingCount, ratingSum),
+                ratingCount,
+                isFeatured(ratingCount, ratingSum),
+                store.getMinimumOrderAmount().multiply(BigDecimal.valueOf(2.5)), // freeDeliveryThreshold
+                createdAt
+        );
+    }
+
+    /**
+     * Returns a copy of {@code view} with the rating fields recomputed from the given aggregates.
+     */
+    public static StoreView withRating(final StoreView view, final int ratingCount, final long ratingSum) {
+        if (view == null) throw new NullPointerException();
+        return new StoreView(
+                view.id(), view.owner(), view.name(), view.description(), view.cuisineType(), view.storeType(),
+                view.address(), view.latitude(), view.longitude(), view.area(), view.openingHours(), view.isOpen(),
+                view.minimumOrderAmount(), view.acceptsDelivery(), view.acceptsPickup(), view.deliveryFee(),
+                view.estimatedDeliveryTimeMinutes(), view.imageUrl(),
+                averageRating(ratingCount, ratingSum),
+                ratingCount,
+                isFeatured(ratingCount, ratingSum),
+                view.freeDeliveryThreshold(),
+                view.createdAt()
+        );
+    }
+
+    /**
+     * Returns a copy of {@code view} carrying the rating fields of {@code source}.
+     */
+    public static StoreView withRatingOf(final StoreView view, final StoreView source) {
+        if (view == null) throw new NullPointerException();
+        if (source == null) throw new NullPointerException();
+        return new StoreView(
+                view.id(), view.owner(), view.name(), view.description(), view.cuisineType(), view.storeType(),
+                view.address(), view.latitude(), view.longitude(), view.area(), view.openingHours(), view.isOpen(),
+                view.minimumOrderAmount(), view.acceptsDelivery(), view.acceptsPickup(), view.deliveryFee(),
+                view.estimatedDeliveryTimeMinutes(), view.imageUrl(),
+                source.averageRating(),
+                source.totalReviews(),
+                source.isFeatured(),
+                view.freeDeliveryThreshold(),
+                view.createdAt()
+        );
+    }
+
+    /**
+     * Average rating rounded to one decimal, or null while the store has no reviews.
+     */
+    public static Double averageRating(final int ratingCount, final long ratingSum) {
+        if (ratingCount <= 0) return null;
+        return Math.round(ratingSum * 10.0 / ratingCount) / 10.0;
+    }
+
+    private static boolean isFeatured(final int ratingCount, final long ratingSum) {
+        return ratingCount >= FEATURED_MIN_REVIEWS
+                && ratingSum >= Math.ceil(FEATURED_MIN_AVERAGE * ratingCount);
     }
-}
\ No newline at end of file
+}
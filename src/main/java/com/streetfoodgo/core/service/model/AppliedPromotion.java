@@ -0,0 +1,16 @@
+package com.streetfoodgo.core.service.model;
+
+import com.streetfoodgo.core.model.PromotionType;
+
+import java.math.BigDecimal;
+
+/**
+ * A store promotion applied to a cart or order, with the amount it took off.
+ */
+public record AppliedPromotion(
+        Long promotionId,
+        String title,
+        String badgeText,
+        PromotionType type,
+        BigDecimal amount
+) {}
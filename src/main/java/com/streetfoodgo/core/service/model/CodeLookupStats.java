@@ -0,0 +1,30 @@
+package com.streetfoodgo.core.service.model;
+
+/**
+ * Counters of coupon and promo code lookups since startup, and the state of the code filter in front of them.
+ *
+ * @param codes                     active codes in the filter
+ * @param expectedFalsePositiveRate what the filter was sized for, given {@code codes}
+ * @param checked                   codes checked against the filter (cached codes skip it)
+ * @param rejected                  codes the filter ruled out, answered without a lookup
+ * @param falsePositives            codes the filter let through that the lookup did not find (promo codes entered
+ *                                  as coupons count here: they are in the filter but not coupons)
+ * @param rateLimited               attempts refused because the customer entered too many invalid codes
+ */
+public record CodeLookupStats(
+        int codes,
+        double expectedFalsePositiveRate,
+        long checked,
+        long rejected,
+        long falsePositives,
+        long rateLimited
+) {
+
+    /**
+     * Share of unknown codes the filter let through: false positives over all unknown codes checked.
+     */
+    public double observedFalsePositiveRate() {
+        final long unknown = rejected + falsePositives;
+        return unknown == 0 ? 0 : (double) falsePositives / unknown;
+    }
+}
@@ -0,0 +1,13 @@
+package com.streetfoodgo.core.service.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A coupon validated for one order, with the discount it gives on the order's subtotal.
+ */
+public record CouponQuote(
+        Long couponId,
+        String code,
+        String description,
+        BigDecimal discount
+) {}
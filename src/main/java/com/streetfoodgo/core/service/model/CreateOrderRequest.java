@@ -20,5 +20,6 @@ public record CreateOrderRequest(
         @NotNull PaymentMethod paymentMethod,
         String paymentTransactionId,
         @NotNull @NotEmpty List<OrderItemRequest> items,
-        @Size(max = 1000) String customerNotes
-) {}
\ No newline at end of file
+        @Size(max = 1000) String customerNotes,
+        @Size(max = 50) String couponCode
+) {}
\ No newline at end of file
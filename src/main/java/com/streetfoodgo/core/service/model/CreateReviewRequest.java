@@ -0,0 +1,16 @@
+package com.streetfoodgo.core.service.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for reviewing a completed order.
+ */
+public record CreateReviewRequest(
+        @NotNull @Positive Long orderId,
+        @NotNull @Min(1) @Max(5) Integer rating,
+        @Size(max = 1000) String comment
+) {}
@@ -0,0 +1,111 @@
+package com.streetfoodgo.core.service.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Canonical identity of a customized menu item: the item, the set of selected choices, the set of removed
+ * ingredients and the trimmed special instructions (blank counts as none). Two items with equal keys are
+ * the same thing to prepare, whatever order the ids were picked in.
+ * <p>
+ * Built once, with the id sets sorted and de-duplicated, so {@code equals}/{@code hashCode} are cheap enough
+ * for map lookups. {@link #fingerprint()} is a stable 64-bit FNV-1a hash of the canonical form, the same
+ * across restarts and JVMs, for grouping customizations outside the heap (e.g. in order analytics).
+ */
+public final class CustomizationKey {
+
+    private static final long[] NONE = new long[0];
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Long menuItemId;
+    private final long[] choiceIds;
+    private final long[] removedIngredientIds;
+    private final String instructions;
+    private final long fingerprint;
+
+    private CustomizationKey(final Long menuItemId,
+                             final long[] choiceIds,
+                             final long[] removedIngredientIds,
+                             final String instructions) {
+        this.menuItemId = menuItemId;
+        this.choiceIds = choiceIds;
+        this.removedIngredientIds = removedIngredientIds;
+        this.instructions = instructions;
+        this.fingerprint = computeFingerprint();
+    }
+
+    /**
+     * @param choiceIds            selected choices, in any order; nulls and duplicates are ignored
+     * @param removedIngredientIds removed ingredients, in any order; nulls and duplicates are ignored
+     */
+    public static CustomizationKey of(final Long menuItemId,
+                                      final Collection<Long> choiceIds,
+                                      final Collection<Long> removedIngredientIds,
+                                      final String specialInstructions) {
+        return new CustomizationKey(menuItemId, canonical(choiceIds), canonical(removedIngredientIds),
+                normalize(specialInstructions));
+    }
+
+    public Long menuItemId() {
+        return this.menuItemId;
+    }
+
+    public long fingerprint() {
+        return this.fingerprint;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomizationKey other)) return false;
+        return this.fingerprint == other.fingerprint
+                && Objects.equals(this.menuItemId, other.menuItemId)
+                && Arrays.equals(this.choiceIds, other.choiceIds)
+                && Arrays.equals(this.removedIngredientIds, other.removedIngredientIds)
+                && Objects.equals(this.instructions, other.instructions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.fingerprint);
+    }
+
+    @Override
+    public String toString() {
+        return "CustomizationKey[" + this.menuItemId + ", choices=" + Arrays.toString(this.choiceIds)
+                + ", removed=" + Arrays.toString(this.removedIngredientIds) + ", instructions=" + this.instructions + "]";
+    }
+
+    private long computeFingerprint() {
+        long h = FNV_OFFSET;
+        h = mix(h, this.menuItemId == null ? -1L : this.menuItemId);
+        // Set sizes separate the sections, so ids cannot shift from one set to the other
+        h = mix(h, this.choiceIds.length);
+        for (final long id : this.choiceIds) h = mix(h, id);
+        h = mix(h, this.removedIngredientIds.length);
+        for (final long id : this.removedIngredientIds) h = mix(h, id);
+        if (this.instructions != null) {
+            for (final byte b : this.instructions.getBytes(StandardCharsets.UTF_8)) h = (h ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    private static long mix(long h, final long value) {
+        for (int shift = 0; shift < 64; shift += 8) h = (h ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        return h;
+    }
+
+    private static long[] canonical(final Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return NONE;
+        return ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private static String normalize(final String s) {
+        if (s == null) return null;
+        final String trimmed = s.trim();
+        return trimmed.isBlank() ? null : trimmed;
+    }
+}
@@ -0,0 +1,121 @@
+package com.streetfoodgo.core.service.model;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A menu item's option rules compiled for fast validation of a customization.
+ * <p>
+ * Every choice gets an ordinal; {@code optionOf[ordinal]} is the option it belongs to and unavailable choices
+ * are a bitset. An option's bounds fold its flags together: required means at least one selection (or
+ * {@code minSelections} if higher), single-select means at most one, and a positive {@code maxSelections}
+ * caps multi-select. Checking a customization is one hash lookup per selected id plus a pass over the
+ * options' counters, with no database access.
+ * <p>
+ * Immutable; compiled with the {@link StoreMenu} snapshot the item belongs to.
+ */
+public final class CustomizationRules {
+
+    private final String[] optionNames;
+    private final int[] minSelections;
+    private final int[] maxSelections;
+    private final Map<Long, Integer> choiceOrdinals;
+    private final int[] optionOf;
+    private final BitSet unavailable;
+    private final Map<Long, Boolean> ingredientRemovable;
+
+    private CustomizationRules(final MenuItemView item) {
+        final List<MenuItemOptionView> options = item.options() == null ? List.of() : item.options();
+        this.optionNames = new String[options.size()];
+        this.minSelections = new int[options.size()];
+        this.maxSelections = new int[options.size()];
+        this.choiceOrdinals = new HashMap<>();
+        this.unavailable = new BitSet();
+
+        final int[] owner = new int[options.stream().mapToInt(o -> o.choices() == null ? 0 : o.choices().size()).sum()];
+        int ordinal = 0;
+        for (int i = 0; i < options.size(); i++) {
+            final MenuItemOptionView option = options.get(i);
+            final int choiceCount = option.choices() == null ? 0 : option.choices().size();
+            int min = option.minSelections() == null ? 0 : Math.max(0, option.minSelections());
+            if (Boolean.TRUE.equals(option.isRequired())) min = Math.max(min, 1);
+            min = Math.min(min, choiceCount); // an option without choices cannot block the item
+            int max = Boolean.TRUE.equals(option.allowMultiple())
+                    ? (option.maxSelections() != null && option.maxSelections() > 0 ? option.maxSelections() : choiceCount)
+                    : 1;
+            this.optionNames[i] = option.name();
+            this.minSelections[i] = min;
+            this.maxSelections[i] = max;
+
+            if (option.choices() == null) continue;
+            for (final MenuItemChoiceView choice : option.choices()) {
+                this.choiceOrdinals.put(choice.id(), ordinal);
+                owner[ordinal] = i;
+                if (Boolean.FALSE.equals(choice.isAvailable())) this.unavailable.set(ordinal);
+                ordinal++;
+            }
+        }
+        this.optionOf = owner;
+
+        this.ingredientRemovable = new HashMap<>();
+        if (item.ingredients() != null) {
+            for (final MenuItemIngredientView ingredient : item.ingredients()) {
+                this.ingredientRemovable.put(ingredient.id(), Boolean.TRUE.equals(ingredient.isRemovable()));
+            }
+        }
+    }
+
+    public static CustomizationRules compile(final MenuItemView item) {
+        if (item == null) throw new NullPointerException();
+        return new CustomizationRules(item);
+    }
+
+    /**
+     * Checks a customization of this item: every choice belongs to it and is available, every option's
+     * selection count is within its bounds, and every removed ingredient is one of its removable ones.
+     * Null ids are ignored and a choice selected twice counts once.
+     *
+     * @throws IllegalArgumentException describing the first violation found
+     */
+    public void check(final Collection<Long> choiceIds, final Collection<Long> removedIngredientIds) {
+        final BitSet selected = new BitSet(this.optionOf.length);
+        if (choiceIds != null) {
+            for (final Long choiceId : choiceIds) {
+                if (choiceId == null) continue;
+                final Integer ordinal = this.choiceOrdinals.get(choiceId);
+                if (ordinal == null) throw new IllegalArgumentException("Choice does not belong to this menu item: " + choiceId);
+                if (this.unavailable.get(ordinal)) throw new IllegalArgumentException("Choice not available: " + choiceId);
+                selected.set(ordinal);
+            }
+        }
+
+        final int[] counts = new int[this.optionNames.length];
+        for (int ordinal = selected.nextSetBit(0); ordinal >= 0; ordinal = selected.nextSetBit(ordinal + 1)) {
+            counts[this.optionOf[ordinal]]++;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] < this.minSelections[i]) {
+                throw new IllegalArgumentException(this.minSelections[i] == 1
+                        ? "Please choose an option for " + this.optionNames[i]
+                        : "Please choose at least " + this.minSelections[i] + " options for " + this.optionNames[i]);
+            }
+            if (counts[i] > this.maxSelections[i]) {
+                throw new IllegalArgumentException(this.maxSelections[i] == 1
+                        ? "Only one option can be chosen for " + this.optionNames[i]
+                        : "At most " + this.maxSelections[i] + " options can be chosen for " + this.optionNames[i]);
+            }
+        }
+
+        if (removedIngredientIds != null) {
+            for (final Long ingredientId : removedIngredientIds) {
+                if (ingredientId == null) continue;
+                final Boolean removable = this.ingredientRemovable.get(ingredientId);
+                if (removable == null) throw new IllegalArgumentException("Ingredient does not belong to this menu item: " + ingredientId);
+                if (!removable) throw new IllegalArgumentException("Ingredient cannot be removed: " + ingredientId);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.streetfoodgo.core.service.model;
+
+import com.streetfoodgo.core.model.MenuCategory;
+
+import java.math.BigDecimal;
+
+/**
+ * Ranked menu item match returned by dish search.
+ */
+public record DishSearchResult(
+        Long menuItemId,
+        Long storeId,
+        String storeName,
+        Boolean storeOpen,
+        String name,
+        String description,
+        BigDecimal price,
+        MenuCategory category,
+        String imageUrl,
+        double score
+) {}
@@ -0,0 +1,15 @@
+package com.streetfoodgo.core.service.model;
+
+/**
+ * One facet value with the number of stores it would match given the other active filters,
+ * e.g. "Italian (12)".
+ *
+ * @param value    the request parameter value selecting it
+ * @param selected whether the current query filters by it
+ */
+public record FacetCount(
+        String value,
+        String label,
+        int count,
+        boolean selected
+) {}
@@ -0,0 +1,18 @@
+package com.streetfoodgo.core.service.model;
+
+import java.util.List;
+
+/**
+ * Homepage store sections.
+ *
+ * @param featured      best-rated popular stores, the same for everyone
+ * @param popularNearby most ordered stores around the customer's default address, or overall when there is none
+ * @param nearbyArea    area of the default address the nearby section is based on, or null
+ * @param reorder       stores the customer ordered from, most recent first (empty for guests)
+ */
+public record HomeFeed(
+        List<StoreView> featured,
+        List<StoreView> popularNearby,
+        String nearbyArea,
+        List<StoreView> reorder
+) {}
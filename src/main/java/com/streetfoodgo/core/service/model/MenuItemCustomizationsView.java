@@ -0,0 +1,12 @@
+package com.streetfoodgo.core.service.model;
+
+import java.util.List;
+
+/**
+ * Options (with choices) and ingredients of a menu item.
+ */
+public record MenuItemCustomizationsView(
+        Long menuItemId,
+        List<MenuItemOptionView> options,
+        List<MenuItemIngredientView> ingredients
+) {}
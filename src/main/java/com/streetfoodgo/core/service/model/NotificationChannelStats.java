@@ -0,0 +1,27 @@
+package com.streetfoodgo.core.service.model;
+
+import com.streetfoodgo.core.model.NotificationChannel;
+
+/**
+ * Delivery counters of one notification channel since startup.
+ *
+ * @param channel       the channel
+ * @param queued        deliveries waiting now (retries waiting for their backoff included)
+ * @param sent          deliveries that succeeded
+ * @param retried       failed attempts that were retried
+ * @param deadLettered  deliveries given up on and written to the dead-letter table
+ * @param sentPerSecond sends per second over the last stats interval
+ * @param averageLagMillis average time from event to successful send, retries included
+ * @param maxLagMillis  longest such time over the last stats interval
+ */
+public record NotificationChannelStats(
+        NotificationChannel channel,
+        int queued,
+        long sent,
+        long retried,
+        long deadLettered,
+        double sentPerSecond,
+        double averageLagMillis,
+        long maxLagMillis
+) {
+}
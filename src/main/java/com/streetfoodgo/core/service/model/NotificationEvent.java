@@ -0,0 +1,96 @@
+package com.streetfoodgo.core.service.model;
+
+import com.streetfoodgo.core.model.NotificationEventType;
+import com.streetfoodgo.core.model.OrderStatus;
+import com.streetfoodgo.core.model.OrderType;
+
+import java.math.BigDecimal;
+
+/**
+ * Something a person must be told about an order. Events carry plain values (no entities), read inside the
+ * transaction that caused them, so they can be delivered after it on other threads.
+ */
+public sealed interface NotificationEvent {
+
+    NotificationEventType type();
+
+    Long orderId();
+
+    Recipient recipient();
+
+    /**
+     * Who is notified, and where they can be reached; a blank phone or email rules that channel out.
+     */
+    record Recipient(Long personId, String name, String mobilePhoneNumber, String emailAddress) {}
+
+    /**
+     * A new order for the store owner.
+     */
+    record NewOrder(Long orderId, Long storeId, String storeName, Recipient recipient, String customerName,
+                    int itemCount, BigDecimal total, OrderType orderType, Integer estimatedMinutes,
+                    BigDecimal estimatedDistanceKm) implements NotificationEvent {
+
+        @Override
+        public NotificationEventType type() {
+            return NotificationEventType.NEW_ORDER;
+        }
+    }
+
+    /**
+     * An order the customer cancelled, for the store owner.
+     */
+    record OrderCancelled(Long orderId, Long storeId, Recipient recipient) implements NotificationEvent {
+
+        @Override
+        public NotificationEventType type() {
+            return NotificationEventType.ORDER_CANCELLED;
+        }
+    }
+
+    /**
+     * An order the store accepted, for the customer.
+     */
+    record OrderAccepted(Long orderId, String storeName, Recipient recipient, int estimatedMinutes,
+                         BigDecimal estimatedDistanceKm) implements NotificationEvent {
+
+        @Override
+        public NotificationEventType type() {
+            return NotificationEventType.ORDER_ACCEPTED;
+        }
+    }
+
+    /**
+     * An order the store rejected, for the customer.
+     */
+    record OrderRejected(Long orderId, String storeName, Recipient recipient, String reason)
+            implements NotificationEvent {
+
+        @Override
+        public NotificationEventType type() {
+            return NotificationEventType.ORDER_REJECTED;
+        }
+    }
+
+    /**
+     * An order that moved to READY or DELIVERING, for the customer.
+     */
+    record OrderStatusUpdated(Long orderId, String storeName, Recipient recipient, OrderStatus status,
+                              OrderType orderType) implements NotificationEvent {
+
+        @Override
+        public NotificationEventType type() {
+            return NotificationEventType.ORDER_STATUS_UPDATE;
+        }
+    }
+
+    /**
+     * A completed order, for the customer.
+     */
+    record OrderCompleted(Long orderId, String storeName, Recipient recipient) implements NotificationEvent {
+
+        @Override
+        public NotificationEventType type() {
+            return NotificationEventType.ORDER_COMPLETED;
+        }
+    }
+}
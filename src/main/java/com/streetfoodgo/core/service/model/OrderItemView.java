@@ -10,9 +10,10 @@ public record OrderItemView(
         MenuItemView menuItem,
         Integer quantity,
         BigDecimal priceAtOrder,
-        String specialInstructions
+        String specialInstructions,
+        BigDecimal discountAmount
 ) {
     public BigDecimal subtotal() {
         return priceAtOrder.multiply(BigDecimal.valueOf(quantity));
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
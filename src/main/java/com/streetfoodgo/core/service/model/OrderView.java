@@ -33,5 +33,8 @@ public record OrderView(
         Integer estimatedDeliveryMinutes,
         BigDecimal estimatedDeliveryDistanceKm,
         Double driverLatitude,
-        Double driverLongitude
-) { }
\ No newline at end of file
+        Double driverLongitude,
+        String couponCode,
+        BigDecimal discountAmount,
+        BigDecimal promotionDiscount
+) { }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.streetfoodgo.core.service.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a cart or order as promotions see it.
+ *
+ * @param unitPrice price of one unit including its choice surcharges
+ */
+public record PromotionLine(
+        Long menuItemId,
+        BigDecimal unitPrice,
+        int quantity
+) {}
@@ -0,0 +1,33 @@
+package com.streetfoodgo.core.service.model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The promotions applied to a set of lines.
+ *
+ * @param lineDiscounts    each line's share of {@code discount}, in the order the lines were given
+ * @param discount         taken off the subtotal (sum of {@code lineDiscounts})
+ * @param deliveryDiscount taken off the delivery fee
+ */
+public record PromotionResult(
+        List<AppliedPromotion> applied,
+        List<BigDecimal> lineDiscounts,
+        BigDecimal discount,
+        BigDecimal deliveryDiscount
+) {
+
+    public PromotionResult {
+        applied = List.copyOf(applied);
+        lineDiscounts = List.copyOf(lineDiscounts);
+    }
+
+    /**
+     * No promotion applied to {@code lineCount} lines.
+     */
+    public static PromotionResult none(final int lineCount) {
+        return new PromotionResult(List.of(), Collections.nCopies(lineCount, BigDecimal.ZERO),
+                BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
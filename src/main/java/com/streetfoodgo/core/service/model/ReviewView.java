@@ -0,0 +1,16 @@
+package com.streetfoodgo.core.service.model;
+
+import java.time.Instant;
+
+/**
+ * View/DTO for Review entity.
+ */
+public record ReviewView(
+        Long id,
+        Long orderId,
+        Long storeId,
+        String customerName,
+        Integer rating,
+        String comment,
+        Instant createdAt
+) {}
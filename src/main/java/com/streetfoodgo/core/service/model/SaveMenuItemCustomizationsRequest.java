@@ -0,0 +1,54 @@
+package com.streetfoodgo.core.service.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Complete option/choice/ingredient tree of a menu item, saved in one transaction.
+ * <p>
+ * Entries with an id update the existing row, entries without one are created, and existing
+ * rows missing from the request are deleted.
+ */
+public record SaveMenuItemCustomizationsRequest(
+        @NotNull @Valid List<OptionEntry> options,
+        @NotNull @Valid List<IngredientEntry> ingredients
+) {
+
+    public record OptionEntry(
+            Long id,
+            @NotNull @NotBlank @Size(max = 100) String name,
+            @Size(max = 500) String description,
+            Boolean isRequired,
+            Boolean allowMultiple,
+            @PositiveOrZero Integer minSelections,
+            @PositiveOrZero Integer maxSelections,
+            Integer displayOrder,
+            @NotNull @Valid List<ChoiceEntry> choices
+    ) {}
+
+    public record ChoiceEntry(
+            Long id,
+            @NotNull @NotBlank @Size(max = 100) String name,
+            @Size(max = 500) String description,
+            @NotNull @PositiveOrZero BigDecimal additionalPrice,
+            Boolean isAvailable,
+            Boolean isDefault,
+            Integer displayOrder
+    ) {}
+
+    public record IngredientEntry(
+            Long id,
+            @NotNull @NotBlank @Size(max = 100) String name,
+            @Size(max = 500) String description,
+            Boolean isRemovable,
+            Boolean isAllergen,
+            @Size(max = 200) String allergenInfo,
+            Integer displayOrder
+    ) {}
+}
@@ -0,0 +1,116 @@
+package com.streetfoodgo.core.service.model;
+
+import com.streetfoodgo.core.model.CuisineType;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Filters, ordering and paging for the store browser.
+ * <p>
+ * Values within one facet are OR-ed (any of the cuisines), facets are AND-ed.
+ *
+ * @param open            true: open stores only, false: closed stores only, null: both
+ * @param maxMinimumOrder stores whose minimum order is at most this amount
+ * @param sort            comma separated sort keys ({@code open, eta, fee, minOrder, rating, reviews, name, newest}),
+ *                        each optionally prefixed with {@code -} to reverse it; null for the default order
+ *                        (relevance when searching)
+ * @param page            zero-based page index, ignored when {@code cursor} is given
+ * @param cursor          {@link StorePage#nextCursor()} of the previous page
+ */
+public record StoreListQuery(
+        String search,
+        Set<CuisineType> cuisines,
+        Set<String> areas,
+        Boolean delivery,
+        Boolean pickup,
+        Boolean open,
+        BigDecimal maxMinimumOrder,
+        String sort,
+        int page,
+        int size,
+        String cursor
+) {
+    public StoreListQuery {
+        cuisines = cuisines == null ? Set.of() : Set.copyOf(cuisines);
+        areas = areas == null ? Set.of() : Set.copyOf(areas);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String search;
+        private Set<CuisineType> cuisines;
+        private Set<String> areas;
+        private Boolean delivery;
+        private Boolean pickup;
+        private Boolean open;
+        private BigDecimal maxMinimumOrder;
+        private String sort;
+        private int page;
+        private int size;
+        private String cursor;
+
+        public Builder search(String search) {
+            this.search = search;
+            return this;
+        }
+
+        public Builder cuisines(Set<CuisineType> cuisines) {
+            this.cuisines = cuisines;
+            return this;
+        }
+
+        public Builder areas(Set<String> areas) {
+            this.areas = areas;
+            return this;
+        }
+
+        public Builder delivery(Boolean delivery) {
+            this.delivery = delivery;
+            return this;
+        }
+
+        public Builder pickup(Boolean pickup) {
+            this.pickup = pickup;
+            return this;
+        }
+
+        public Builder open(Boolean open) {
+            this.open = open;
+            return this;
+        }
+
+        public Builder maxMinimumOrder(BigDecimal maxMinimumOrder) {
+            this.maxMinimumOrder = maxMinimumOrder;
+            return this;
+        }
+
+        public Builder sort(String sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public Builder page(int page) {
+            this.page = page;
+            return this;
+        }
+
+        public Builder size(int size) {
+            this.size = size;
+            return this;
+        }
+
+        public Builder cursor(String cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
+        public StoreListQuery build() {
+            return new StoreListQuery(search, cuisines, areas, delivery, pickup, open, maxMinimumOrder,
+                    sort, page, size, cursor);
+        }
+    }
+}
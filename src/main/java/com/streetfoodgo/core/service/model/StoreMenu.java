@@ -0,0 +1,61 @@
+package com.streetfoodgo.core.service.model;
+
+import com.streetfoodgo.core.model.MenuCategory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of a store's whole menu tree (items, options, choices, ingredients).
+ *
+ * @param version menu version the snapshot was loaded at
+ * @param rules   each item's compiled {@link CustomizationRules}, built once with the snapshot
+ */
+public record StoreMenu(
+        Long storeId,
+        long version,
+        List<MenuItemView> items,
+        Map<Long, MenuItemView> byId,
+        Map<Long, CustomizationRules> rules
+) {
+
+    public StoreMenu {
+        items = List.copyOf(items);
+        byId = Collections.unmodifiableMap(new LinkedHashMap<>(byId));
+        rules = Map.copyOf(rules);
+    }
+
+    public static StoreMenu of(final Long storeId, final long version, final List<MenuItemView> items) {
+        final Map<Long, MenuItemView> byId = new LinkedHashMap<>();
+        final Map<Long, CustomizationRules> rules = new HashMap<>();
+        for (final MenuItemView item : items) {
+            byId.put(item.id(), item);
+            rules.put(item.id(), CustomizationRules.compile(item));
+        }
+        return new StoreMenu(storeId, version, items, byId, rules);
+    }
+
+    public Optional<MenuItemView> item(final Long menuItemId) {
+        return Optional.ofNullable(this.byId.get(menuItemId));
+    }
+
+    public Optional<CustomizationRules> rules(final Long menuItemId) {
+        return Optional.ofNullable(this.rules.get(menuItemId));
+    }
+
+    public List<MenuItemView> available() {
+        return this.items.stream()
+                .filter(item -> Boolean.TRUE.equals(item.available()))
+                .toList();
+    }
+
+    public List<MenuItemView> availableByCategory(final MenuCategory category) {
+        return this.items.stream()
+                .filter(item -> Boolean.TRUE.equals(item.available()) && item.category() == category)
+                .toList();
+    }
+}
@@ -0,0 +1,24 @@
+package com.streetfoodgo.core.service.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of stores.
+ *
+ * @param sort       the canonical sort spec the page was ordered by (null for search relevance)
+ * @param nextCursor opaque cursor for the following page, or null on the last page
+ *                   (cursors are not issued for relevance-ordered search results)
+ * @param facets     per-facet value counts ({@code cuisine, area, delivery, pickup, open, minOrder}),
+ *                   empty when the listing is not faceted
+ */
+public record StorePage(
+        List<StoreView> items,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages,
+        String sort,
+        String nextCursor,
+        Map<String, List<FacetCount>> facets
+) {}
@@ -0,0 +1,13 @@
+package com.streetfoodgo.core.service.model;
+
+/**
+ * Rating aggregates of a store.
+ *
+ * @param histogram number of 1..5 star reviews, index 0 = 1 star
+ */
+public record StoreRatingView(
+        Long storeId,
+        Integer totalReviews,
+        Double averageRating,
+        int[] histogram
+) {}
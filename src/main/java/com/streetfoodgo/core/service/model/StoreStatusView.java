@@ -0,0 +1,12 @@
+package com.streetfoodgo.core.service.model;
+
+/**
+ * Live open/closed state of a store, as pushed on {@code /topic/stores/{id}/status}.
+ *
+ * @param nextChangeAt ISO-8601 local date/time of the next scheduled open/close transition, or null if none
+ */
+public record StoreStatusView(
+        Long storeId,
+        boolean open,
+        String nextChangeAt
+) {}
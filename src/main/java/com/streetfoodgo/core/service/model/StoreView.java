@@ -1,9 +1,11 @@
 package com.streetfoodgo.core.service.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.streetfoodgo.core.model.CuisineType;
 import com.streetfoodgo.core.model.StoreType;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 
 /**
@@ -30,8 +32,18 @@ public record StoreView(
         String imageUrl,
         Double averageRating,
         Integer totalReviews,
-        Boolean isNew,
         Boolean isFeatured,
         BigDecimal freeDeliveryThreshold,
         Instant createdAt
-) {}
\ No newline at end of file
+) {
+
+    private static final Duration NEW_STORE_PERIOD = Duration.ofDays(30);
+
+    /**
+     * Whether the store opened within the last 30 days; evaluated on each read, so cached views age correctly.
+     */
+    @JsonProperty("isNew")
+    public Boolean isNew() {
+        return createdAt != null && createdAt.isAfter(Instant.now().minus(NEW_STORE_PERIOD));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.streetfoodgo.core.service.model;
+
+/**
+ * Search-box suggestion (store, dish or area), ranked by order popularity.
+ */
+public record TypeaheadSuggestion(
+        Type type,
+        String text,
+        Long storeId,
+        long popularity
+) {
+    public enum Type {
+        STORE,
+        DISH,
+        AREA
+    }
+}
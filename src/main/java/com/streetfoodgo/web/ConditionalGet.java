@@ -0,0 +1,77 @@
+package com.streetfoodgo.web;
+
+import com.streetfoodgo.core.service.model.StoreStatusView;
+import com.streetfoodgo.core.service.model.StoreView;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags derived from menu versions, and {@code If-None-Match} handling.
+ * <p>
+ * Tags are computed from in-memory versions only, so a matching request is answered with
+ * {@code 304 Not Modified} before any menu is loaded.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {}
+
+    public static String menuTag(final Long storeId, final long menuVersion) {
+        return "\"menu-" + storeId + "-" + menuVersion + "\"";
+    }
+
+    /**
+     * Tag of a store representation: its menu version plus a digest of the store view
+     * (store edits and rating changes do not bump the menu version, and stores carry no version of their own).
+     * The digest is 128 bits of SHA-256, so two different views practically never share a tag.
+     */
+    public static String storeTag(final StoreView store, final long menuVersion) {
+        return "\"store-" + store.id() + "-" + menuVersion + "-" + digest(store + "|" + store.isNew()) + "\"";
+    }
+
+    /**
+     * Store tag that also changes when the store opens or closes (for pages showing the live status).
+     */
+    public static String storeTag(final StoreView store, final long menuVersion, final StoreStatusView status) {
+        final String tag = storeTag(store, menuVersion);
+        final String state = status != null && status.open() ? "open" : "closed";
+        return tag.substring(0, tag.length() - 1) + "-" + state + "\"";
+    }
+
+    /**
+     * Tag of a rendered page: adds the session, since pages embed the user and CSRF token.
+     * The session goes in as the same 128-bit digest, so neither the id nor a colliding hash reaches the tag.
+     */
+    public static String pageTag(final String tag, final String sessionId) {
+        final String session = sessionId == null ? "anon" : digest(sessionId);
+        return tag.substring(0, tag.length() - 1) + "-" + session + "\"";
+    }
+
+    private static String digest(final String value) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // every JRE provides it
+        }
+    }
+
+    /**
+     * Sets the ETag and a revalidate-always Cache-Control, and reports whether the client's copy is current
+     * (the response is then already a 304 and the handler should return {@code null}).
+     */
+    public static boolean notModified(final WebRequest request, final String etag, final boolean privateCache) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            final CacheControl cacheControl = privateCache ? CacheControl.noCache().cachePrivate() : CacheControl.noCache();
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -2,47 +2,75 @@ package com.streetfoodgo.web.api;
 
 import com.streetfoodgo.core.model.OrderType;
 import com.streetfoodgo.core.model.PaymentMethod;
+import com.streetfoodgo.core.service.CouponService;
 import com.streetfoodgo.core.service.MenuItemService;
 import com.streetfoodgo.core.service.OrderService;
+import com.streetfoodgo.core.service.model.CouponQuote;
 import com.streetfoodgo.core.service.model.CreateOrderRequest;
 import com.streetfoodgo.core.service.model.MenuItemView;
 import com.streetfoodgo.core.service.model.OrderItemCustomizationRequest;
 import com.streetfoodgo.core.service.model.OrderItemRequest;
 import com.streetfoodgo.core.service.model.OrderView;
 import com.streetfoodgo.web.api.cart.AddToCartRequest;
+import com.streetfoodgo.web.api.cart.Cart;
 import com.streetfoodgo.web.api.cart.CartLine;
-import com.streetfoodgo.web.api.cart.CartLineView;
-import com.streetfoodgo.web.api.cart.CartSessionUtils;
+import com.streetfoodgo.web.api.cart.CartManager;
+import com.streetfoodgo.web.api.cart.CartPricing;
+import com.streetfoodgo.web.api.cart.CartResponseBuilder;
+import com.streetfoodgo.web.api.cart.CartTotals;
+import com.streetfoodgo.web.api.cart.CartVersionConflictException;
 import com.streetfoodgo.web.api.cart.CheckoutRequest;
 import com.streetfoodgo.web.api.cart.UpdateCustomizationRequest;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.*;
 
+/**
+ * Cart API used by the store and cart pages. The cart lives in the {@link CartManager}'s store, not in the
+ * HTTP session; mutating calls accept an optional {@code If-Match: <version>} and answer 409 with the current
+ * cart when another tab changed it in between. Every cart response carries the new {@code version} and the
+ * cart's totals from {@link CartPricing}.
+ */
 @RestController
 @RequestMapping("/api/cart")
 public class CartRestController {
 
+    /** How a multi-store checkout commits: every store's order, or none. */
+    private static final String CHECKOUT_COMMIT = "ALL_OR_NOTHING";
+
     private final MenuItemService menuItemService;
     private final OrderService orderService;
-
-    public CartRestController(final MenuItemService menuItemService, final OrderService orderService) {
+    private final CartManager cartManager;
+    private final CartPricing cartPricing;
+    private final CouponService couponService;
+
+    public CartRestController(final MenuItemService menuItemService,
+                              final OrderService orderService,
+                              final CartManager cartManager,
+                              final CartPricing cartPricing,
+                              final CouponService couponService) {
         this.menuItemService = Objects.requireNonNull(menuItemService);
         this.orderService = Objects.requireNonNull(orderService);
+        this.cartManager = Objects.requireNonNull(cartManager);
+        this.cartPricing = Objects.requireNonNull(cartPricing);
+        this.couponService = Objects.requireNonNull(couponService);
     }
 
     @PostMapping("/items")
     public ResponseEntity<Map<String, Object>> addToCart(
             @RequestBody @jakarta.validation.Valid AddToCartRequest request,
-            HttpSession session) {
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
 
         try {
-            final List<CartLine> cart = CartSessionUtils.getOrCreateCart(session);
-
             if (request.menuItemId() == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "menuItemId is required"));
             }
@@ -53,43 +81,36 @@ public class CartRestController {
             final MenuItemView menuItem = menuItemService.getMenuItem(request.menuItemId())
                     .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
 
-            // Enforce single-store cart
-            if (!cart.isEmpty()) {
-                final CartLine existing = cart.get(0);
-                if (!Objects.equals(existing.getStoreId(), menuItem.storeId())) {
-                    return ResponseEntity.badRequest().body(Map.of(
-                            "error", "Cannot mix items from different stores",
-                            "currentStoreId", existing.getStoreId(),
-                            "newStoreId", menuItem.storeId()
-                    ));
-                }
-            }
-
-        final CartLine incoming = new CartLine(
-                UUID.randomUUID().toString(),
-                menuItem.id(),
-                menuItem.storeId(),
-                menuItem.name(),
-                menuItem.price(),
-                request.quantity()
-        );
-        incoming.setSelectedChoiceIds(request.selectedChoiceIds() != null ? new ArrayList<>(request.selectedChoiceIds()) : new ArrayList<>());
-        incoming.setRemovedIngredientIds(request.removedIngredientIds() != null ? new ArrayList<>(request.removedIngredientIds()) : new ArrayList<>());
-        incoming.setSpecialInstructions(request.specialInstructions());
-
-            // Merge with an existing line if same customization
-            for (final CartLine line : cart) {
-                if (line.hasSameCustomizationAs(incoming)) {
-                    line.setQuantity(line.getQuantity() + incoming.getQuantity());
-                    return ResponseEntity.ok(cartResponse(cart));
-                }
+            final Cart cart;
+            try {
+                cart = cartManager.update(httpRequest, httpResponse, expectedVersion(ifMatch), c -> {
+                    // Enforce single-store cart
+                    if (!c.isEmpty() && !Objects.equals(c.getStoreId(), menuItem.storeId())) {
+                        throw new IllegalStateException("Cannot mix items from different stores");
+                    }
+                    final CartLine incoming = new CartLine(
+                            UUID.randomUUID().toString(),
+                            menuItem.id(),
+                            menuItem.storeId(),
+                            menuItem.name(),
+                            menuItem.price(),
+                            request.quantity()
+                    );
+                    incoming.setSelectedChoiceIds(request.selectedChoiceIds() != null ? new ArrayList<>(request.selectedChoiceIds()) : new ArrayList<>());
+                    incoming.setRemovedIngredientIds(request.removedIngredientIds() != null ? new ArrayList<>(request.removedIngredientIds()) : new ArrayList<>());
+                    incoming.setSpecialInstructions(request.specialInstructions());
+                    cartPricing.price(incoming);
+
+                    // Merges with an existing line if same customization
+                    c.addOrMerge(incoming);
+                });
+            } catch (IllegalStateException e) {
+                return mixedStores(cartManager.current(httpRequest).getStoreId(), menuItem.storeId());
             }
+            return cartResponse(cart);
 
-            cart.add(incoming);
-            session.setAttribute(CartSessionUtils.CART_SESSION_KEY, cart);
-
-            return ResponseEntity.ok(cartResponse(cart));
-
+        } catch (CartVersionConflictException e) {
+            return conflict(e);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
@@ -98,117 +119,178 @@ public class CartRestController {
     }
 
     @GetMapping("/items")
-    public ResponseEntity<Map<String, Object>> getCart(HttpSession session) {
-        final List<CartLine> cart = CartSessionUtils.getOrCreateCart(session);
-        return ResponseEntity.ok(cartResponse(cart));
+    public ResponseEntity<Map<String, Object>> getCart(HttpServletRequest httpRequest) {
+        return cartResponse(cartManager.current(httpRequest));
     }
 
     @PutMapping("/items/{lineId}/quantity")
     public ResponseEntity<Map<String, Object>> updateQuantity(
             @PathVariable String lineId,
             @RequestBody Map<String, Integer> body,
-            HttpSession session) {
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
 
-        final List<CartLine> cart = CartSessionUtils.getOrCreateCart(session);
         final int change = body.getOrDefault("change", 0);
-
-        final Iterator<CartLine> it = cart.iterator();
-        while (it.hasNext()) {
-            final CartLine line = it.next();
-            if (Objects.equals(line.getLineId(), lineId)) {
+        try {
+            final Cart cart = cartManager.update(httpRequest, httpResponse, expectedVersion(ifMatch), c -> {
+                final CartLine line = c.findLine(lineId).orElseThrow(NoSuchElementException::new);
                 final int newQuantity = line.getQuantity() + change;
                 if (newQuantity <= 0) {
-                    it.remove();
+                    c.removeLine(lineId);
                 } else {
-                    line.setQuantity(newQuantity);
+                    c.changeQuantity(line, newQuantity);
                 }
-                return ResponseEntity.ok(cartResponse(cart));
-            }
+            });
+            return cartResponse(cart);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (CartVersionConflictException e) {
+            return conflict(e);
         }
-        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/items/{lineId}")
     public ResponseEntity<Map<String, Object>> removeFromCart(
             @PathVariable String lineId,
-            HttpSession session) {
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
 
-        final List<CartLine> cart = CartSessionUtils.getOrCreateCart(session);
-        cart.removeIf(l -> Objects.equals(l.getLineId(), lineId));
-        return ResponseEntity.ok(cartResponse(cart));
+        try {
+            return cartResponse(cartManager.update(httpRequest, httpResponse, expectedVersion(ifMatch),
+                    c -> c.removeLine(lineId)));
+        } catch (CartVersionConflictException e) {
+            return conflict(e);
+        }
     }
 
     @PutMapping("/items/{lineId}/customization")
     public ResponseEntity<Map<String, Object>> updateCustomization(
             @PathVariable String lineId,
             @RequestBody UpdateCustomizationRequest request,
-            HttpSession session) {
-
-        final List<CartLine> cart = CartSessionUtils.getOrCreateCart(session);
-        for (final CartLine line : cart) {
-            if (Objects.equals(line.getLineId(), lineId)) {
-                line.setSelectedChoiceIds(request.selectedChoiceIds() != null ? new ArrayList<>(request.selectedChoiceIds()) : new ArrayList<>());
-                line.setRemovedIngredientIds(request.removedIngredientIds() != null ? new ArrayList<>(request.removedIngredientIds()) : new ArrayList<>());
-                line.setSpecialInstructions(request.specialInstructions());
-                return ResponseEntity.ok(cartResponse(cart));
-            }
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+
+        try {
+            final Cart cart = cartManager.update(httpRequest, httpResponse, expectedVersion(ifMatch), c -> {
+                final CartLine line = c.findLine(lineId).orElseThrow(NoSuchElementException::new);
+                // Merges into another line if this makes them identical
+                final CartLine customized = c.customize(line,
+                        request.selectedChoiceIds() != null ? new ArrayList<>(request.selectedChoiceIds()) : new ArrayList<>(),
+                        request.removedIngredientIds() != null ? new ArrayList<>(request.removedIngredientIds()) : new ArrayList<>(),
+                        request.specialInstructions());
+                cartPricing.reprice(c, customized);
+            });
+            return cartResponse(cart);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (CartVersionConflictException e) {
+            return conflict(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/items")
-    public ResponseEntity<Map<String, Object>> clearCart(HttpSession session) {
-        session.removeAttribute(CartSessionUtils.CART_SESSION_KEY);
+    public ResponseEntity<Map<String, Object>> clearCart(HttpServletRequest httpRequest) {
+        cartManager.clear(httpRequest);
         return ResponseEntity.ok(Map.of("success", true));
     }
 
     @PutMapping("/delivery-address")
     public ResponseEntity<Map<String, Object>> setDeliveryAddress(
             @RequestBody Map<String, Long> body,
-            HttpSession session) {
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
 
         Long addressId = body.get("addressId");
-        session.setAttribute("selectedAddressId", addressId);
+        cartManager.update(httpRequest, httpResponse, null, c -> c.setDeliveryAddressId(addressId));
         return ResponseEntity.ok(Map.of("success", true));
     }
 
     @PutMapping("/order-type")
     public ResponseEntity<Map<String, Object>> setOrderType(
             @RequestBody Map<String, String> body,
-            HttpSession session) {
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
 
         String orderType = body.get("orderType");
-        session.setAttribute("orderType", orderType);
+        cartManager.update(httpRequest, httpResponse, null, c -> c.setOrderType(orderType));
         return ResponseEntity.ok(Map.of("success", true));
     }
 
     @PutMapping("/special-instructions")
     public ResponseEntity<Map<String, Object>> setSpecialInstructions(
             @RequestBody Map<String, String> body,
-            HttpSession session) {
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
 
         String instructions = body.get("instructions");
-        session.setAttribute("specialInstructions", instructions);
+        cartManager.update(httpRequest, httpResponse, null, c -> c.setSpecialInstructions(instructions));
         return ResponseEntity.ok(Map.of("success", true));
     }
 
     /**
-     * CHECKOUT - Creates actual order via OrderService
+     * Checks a coupon code against the current cart and previews its discount; nothing is redeemed until checkout.
+     */
+    @PostMapping("/coupon")
+    public ResponseEntity<Map<String, Object>> previewCoupon(
+            @RequestBody Map<String, String> body,
+            HttpServletRequest httpRequest,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        try {
+            final Cart cart = cartManager.current(httpRequest);
+            if (cart.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Cart is empty"));
+            }
+            // Quoted, like at checkout, on the first store's lines less that store's promotions
+            final CartTotals totals = cartPricing.totals(cart);
+            BigDecimal storeSubtotal = BigDecimal.ZERO;
+            for (final CartLine line : cart.getLines()) {
+                if (!line.getStoreId().equals(cart.getStoreId())) continue;
+                storeSubtotal = storeSubtotal.add(line.getTotalPrice()).subtract(totals.lineDiscount(line.getLineId()));
+            }
+            final CouponQuote quote = couponService.quote(
+                    body.get("code"), getCurrentUserId(userDetails), cart.getStoreId(), storeSubtotal);
+
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "code", quote.code(),
+                    "description", quote.description(),
+                    "discount", quote.discount(),
+                    "total", totals.total().subtract(quote.discount())
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * CHECKOUT - Creates the actual orders via OrderService, one per store in the cart.
+     * <p>
+     * A multi-store cart is placed all or nothing ({@code "commit": "ALL_OR_NOTHING"} in every response):
+     * on success every store got its order, on an error none did and the cart is left as it was.
+     * A coupon applies to the first store's order.
      */
     @PostMapping("/checkout")
     public ResponseEntity<Map<String, Object>> checkout(
             @RequestBody CheckoutRequest request,
-            HttpSession session,
+            HttpServletRequest httpRequest,
             @AuthenticationPrincipal UserDetails userDetails) {
 
         try {
-            final List<CartLine> cart = CartSessionUtils.getOrCreateCart(session);
+            final List<CartLine> cart = cartManager.current(httpRequest).getLines();
             if (cart.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Cart is empty"));
             }
 
-            // group by store
-            final Map<Long, List<CartLine>> itemsByStore = new HashMap<>();
+            // group by store (in cart order)
+            final Map<Long, List<CartLine>> itemsByStore = new LinkedHashMap<>();
             for (final CartLine line : cart) {
                 itemsByStore.computeIfAbsent(line.getStoreId(), k -> new ArrayList<>()).add(line);
             }
@@ -219,12 +301,11 @@ public class CartRestController {
                     ? OrderType.PICKUP
                     : OrderType.DELIVERY;
 
-            final List<Long> orderIds = new ArrayList<>();
-
             final PaymentMethod paymentMethod = request.paymentMethod() != null && !request.paymentMethod().isBlank()
                     ? PaymentMethod.valueOf(request.paymentMethod())
                     : PaymentMethod.CASH;
 
+            final List<CreateOrderRequest> createOrderRequests = new ArrayList<>(itemsByStore.size());
             for (final Map.Entry<Long, List<CartLine>> storeEntry : itemsByStore.entrySet()) {
                 final Long storeId = storeEntry.getKey();
                 final List<CartLine> storeItems = storeEntry.getValue();
@@ -245,7 +326,7 @@ public class CartRestController {
                         })
                         .toList();
 
-                final CreateOrderRequest createOrderRequest = new CreateOrderRequest(
+                createOrderRequests.add(new CreateOrderRequest(
                         customerId,
                         storeId,
                         request.deliveryAddressId(),
@@ -253,34 +334,42 @@ public class CartRestController {
                         paymentMethod,
                         null,
                         orderItems,
-                        request.specialInstructions()
-                );
-
-                final OrderView order = orderService.createOrder(createOrderRequest);
-                orderIds.add(order.id());
+                        request.specialInstructions(),
+                        createOrderRequests.isEmpty() ? request.couponCode() : null
+                ));
             }
 
+            // One transaction for all stores; the per-store routing and notifications run concurrently
+            final List<OrderView> orders = orderService.createOrders(createOrderRequests);
+            final List<Long> orderIds = orders.stream().map(OrderView::id).toList();
+
             // Clear cart after successful orders
-            session.removeAttribute(CartSessionUtils.CART_SESSION_KEY);
-            session.removeAttribute("selectedAddressId");
-            session.removeAttribute("orderType");
+            cartManager.clear(httpRequest);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
+                    "commit", CHECKOUT_COMMIT,
                     "orderIds", orderIds,
                     "storeCount", itemsByStore.size(),
                     "message", itemsByStore.size() == 1 ? "Order placed successfully" : itemsByStore.size() + " orders placed successfully"
             ));
 
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            return ResponseEntity.badRequest().body(checkoutFailed(e.getMessage()));
         } catch (SecurityException e) {
-            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
+            return ResponseEntity.status(403).body(checkoutFailed(e.getMessage()));
         } catch (Exception e) {
-            return ResponseEntity.status(500).body(Map.of("error", "Failed to create order: " + e.getMessage()));
+            return ResponseEntity.status(500).body(checkoutFailed("Failed to create order: " + e.getMessage()));
         }
     }
 
+    private static Map<String, Object> checkoutFailed(final String error) {
+        return Map.of(
+                "error", String.valueOf(error),
+                "commit", CHECKOUT_COMMIT,
+                "orderIds", List.of());
+    }
+
     private Long getCurrentUserId(UserDetails userDetails) {
         if (userDetails instanceof com.streetfoodgo.core.security.ApplicationUserDetails appUserDetails) {
             return appUserDetails.personId();
@@ -288,12 +377,45 @@ public class CartRestController {
         throw new SecurityException("User not authenticated");
     }
 
-    private Map<String, Object> cartResponse(final List<CartLine> cart) {
-        final List<CartLineView> views = cart.stream().map(CartLineView::from).toList();
-        return Map.of(
-                "success", true,
-                "items", views,
-                "cartSize", views.stream().mapToInt(CartLineView::quantity).sum()
-        );
+    private ResponseEntity<Map<String, Object>> cartResponse(final Cart cart) {
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(cart.getVersion()))
+                .body(cartBody(cart));
+    }
+
+    private Map<String, Object> cartBody(final Cart cart) {
+        return CartResponseBuilder.toResponse(cart, cartPricing.totals(cart));
+    }
+
+    private ResponseEntity<Map<String, Object>> conflict(final CartVersionConflictException e) {
+        final Map<String, Object> body = new HashMap<>(cartBody(e.getCurrent()));
+        body.put("success", false);
+        body.put("error", "Your cart was changed in another tab");
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .eTag(String.valueOf(e.getCurrent().getVersion()))
+                .body(body);
+    }
+
+    private static ResponseEntity<Map<String, Object>> mixedStores(final Long currentStoreId, final Long newStoreId) {
+        final Map<String, Object> body = new HashMap<>();
+        body.put("error", "Cannot mix items from different stores");
+        body.put("currentStoreId", currentStoreId);
+        body.put("newStoreId", newStoreId);
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    /**
+     * Version from an {@code If-Match} header ({@code 3}, {@code "3"} or {@code W/"3"}); null when absent, {@code *} or not a version.
+     */
+    private static Long expectedVersion(final String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) value = value.substring(2);
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null; // not one of our versions: treat as absent
+        }
     }
 }
@@ -1,7 +1,10 @@
 package com.streetfoodgo.web.api;
 
 import com.streetfoodgo.core.service.RoutingProxyService;
+import com.streetfoodgo.core.service.RoutingProxyService.EncodedRoute;
+import com.streetfoodgo.core.service.RoutingProxyService.GeometryFormat;
 import com.streetfoodgo.core.service.RoutingProxyService.RouteWithGeometry;
+import com.streetfoodgo.web.rest.RoutingProxyResource;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
@@ -23,14 +26,26 @@ public class RoutingRestController {
     }
 
     @GetMapping("/route")
-    @Operation(summary = "Calculate route between two points", description = "Returns distance, duration, and route geometry (GeoJSON)")
-    public ResponseEntity<RouteWithGeometry> getRoute(
+    @Operation(summary = "Calculate route between two points",
+            description = "Returns distance, duration, and route geometry (GeoJSON, encoded polyline or binary), " +
+                          "optionally simplified for the given zoom level or tolerance in meters")
+    public ResponseEntity<?> getRoute(
             @RequestParam double fromLat,
             @RequestParam double fromLon,
             @RequestParam double toLat,
-            @RequestParam double toLon) {
+            @RequestParam double toLon,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(defaultValue = "geojson") String format) {
 
-        RouteWithGeometry route = this.routingProxyService.getRoute(fromLat, fromLon, toLat, toLon);
-        return ResponseEntity.ok(route);
+        EncodedRoute route = this.routingProxyService.getEncodedRoute(
+                fromLat, fromLon, toLat, toLon, zoom, tolerance, GeometryFormat.fromParam(format));
+
+        // GeoJSON keeps the original response shape; the compact formats share the proxy resource's encoding
+        if (route.format() == GeometryFormat.GEOJSON) {
+            return ResponseEntity.ok(new RouteWithGeometry(
+                    route.distanceKm(), route.durationMinutes(), route.geometry(), route.fallback()));
+        }
+        return RoutingProxyResource.toResponse(route);
     }
 }
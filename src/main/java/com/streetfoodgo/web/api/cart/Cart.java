@@ -0,0 +1,216 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.service.model.CustomizationKey;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A shopping cart as kept in the {@link CartStore}: the lines plus the checkout choices made so far.
+ * <p>
+ * {@code version} is the stored version the cart was loaded at (0 for a cart that was never saved);
+ * the store only accepts a save when it still holds that version.
+ * <p>
+ * The item count and the two halves of the subtotal (base prices and choice surcharges) are kept up to date
+ * by every line change, so reading the totals never walks the lines. Lines are therefore only changed
+ * through the cart; {@code priceVersion} is the menu version the lines were last priced at ({@value #UNPRICED}
+ * when never priced), letting {@link CartPricing} skip repricing while the menu is unchanged.
+ * Lines are also indexed by {@link CustomizationKey}, so finding the line an added item merges into is a
+ * hash lookup.
+ */
+public class Cart {
+
+    static final long UNPRICED = -1L;
+
+    private long version;
+    private final List<CartLine> lines;
+    private final Map<CustomizationKey, CartLine> byCustomization = new HashMap<>();
+    private Long deliveryAddressId;
+    private String orderType;
+    private String specialInstructions;
+
+    private long priceVersion = UNPRICED;
+    private int itemCount;
+    private BigDecimal itemsSubtotal = BigDecimal.ZERO;
+    private BigDecimal surchargeTotal = BigDecimal.ZERO;
+
+    public Cart() {
+        this(0L, new ArrayList<>());
+    }
+
+    Cart(final long version, final List<CartLine> lines) {
+        if (lines == null) throw new NullPointerException();
+        this.version = version;
+        this.lines = lines;
+        for (final CartLine line : lines) {
+            account(line, 1);
+            byCustomization.putIfAbsent(line.getCustomizationKey(), line);
+        }
+    }
+
+    public long getVersion() { return version; }
+    void setVersion(long version) { this.version = version; }
+
+    /**
+     * The lines, read-only; change them through {@link #addOrMerge}, {@link #changeQuantity},
+     * {@link #customize} and {@link #removeLine}.
+     */
+    public List<CartLine> getLines() { return Collections.unmodifiableList(lines); }
+
+    public Long getDeliveryAddressId() { return deliveryAddressId; }
+    public void setDeliveryAddressId(Long deliveryAddressId) { this.deliveryAddressId = deliveryAddressId; }
+
+    public String getOrderType() { return orderType; }
+    public void setOrderType(String orderType) { this.orderType = orderType; }
+
+    public String getSpecialInstructions() { return specialInstructions; }
+    public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; }
+
+    long getPriceVersion() { return priceVersion; }
+    void setPriceVersion(long priceVersion) { this.priceVersion = priceVersion; }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    /**
+     * Total quantity over all lines.
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Sum of base price times quantity over all lines.
+     */
+    public BigDecimal getItemsSubtotal() {
+        return itemsSubtotal;
+    }
+
+    /**
+     * Sum of choice surcharges times quantity over all lines.
+     */
+    public BigDecimal getSurchargeTotal() {
+        return surchargeTotal;
+    }
+
+    public BigDecimal getSubtotal() {
+        return itemsSubtotal.add(surchargeTotal);
+    }
+
+    /**
+     * Store of the cart's lines, or null when empty.
+     */
+    public Long getStoreId() {
+        return lines.isEmpty() ? null : lines.get(0).getStoreId();
+    }
+
+    public Optional<CartLine> findLine(final String lineId) {
+        return lines.stream().filter(l -> Objects.equals(l.getLineId(), lineId)).findFirst();
+    }
+
+    /**
+     * Adds the line, or adds its quantity to an existing line with the same customization.
+     *
+     * @return the line now holding the item
+     */
+    public CartLine addOrMerge(final CartLine incoming) {
+        if (incoming == null) throw new NullPointerException();
+        final CartLine existing = byCustomization.get(incoming.getCustomizationKey());
+        if (existing != null) {
+            changeQuantity(existing, existing.getQuantity() + incoming.getQuantity());
+            return existing;
+        }
+        lines.add(incoming);
+        byCustomization.put(incoming.getCustomizationKey(), incoming);
+        account(incoming, 1);
+        return incoming;
+    }
+
+    /**
+     * Changes the customization of one of this cart's lines. When that makes it identical to another line,
+     * the two are merged into the other one.
+     *
+     * @return the line now holding the item
+     */
+    public CartLine customize(final CartLine line,
+                              final List<Long> selectedChoiceIds,
+                              final List<Long> removedIngredientIds,
+                              final String specialInstructions) {
+        byCustomization.remove(line.getCustomizationKey(), line);
+        line.setSelectedChoiceIds(selectedChoiceIds);
+        line.setRemovedIngredientIds(removedIngredientIds);
+        line.setSpecialInstructions(specialInstructions);
+
+        final CartLine existing = byCustomization.get(line.getCustomizationKey());
+        if (existing == null) {
+            byCustomization.put(line.getCustomizationKey(), line);
+            return line;
+        }
+        removeLine(line.getLineId());
+        changeQuantity(existing, existing.getQuantity() + line.getQuantity());
+        return existing;
+    }
+
+    /**
+     * Sets the quantity of one of this cart's lines.
+     */
+    public void changeQuantity(final CartLine line, final int quantity) {
+        account(line, -1);
+        line.setQuantity(quantity);
+        account(line, 1);
+    }
+
+    /**
+     * Sets the unit prices of one of this cart's lines.
+     */
+    void reprice(final CartLine line, final BigDecimal price, final BigDecimal surcharge) {
+        account(line, -1);
+        line.setPrice(price);
+        line.setSurcharge(surcharge);
+        account(line, 1);
+    }
+
+    public boolean removeLine(final String lineId) {
+        final Optional<CartLine> line = findLine(lineId);
+        if (line.isEmpty()) return false;
+        lines.remove(line.get());
+        byCustomization.remove(line.get().getCustomizationKey(), line.get());
+        account(line.get(), -1);
+        return true;
+    }
+
+    /**
+     * Removes all lines, keeping the checkout choices.
+     */
+    public void clearLines() {
+        lines.clear();
+        byCustomization.clear();
+        itemCount = 0;
+        itemsSubtotal = BigDecimal.ZERO;
+        surchargeTotal = BigDecimal.ZERO;
+    }
+
+    /**
+     * Empties the cart, including the checkout choices.
+     */
+    public void clear() {
+        clearLines();
+        deliveryAddressId = null;
+        orderType = null;
+        specialInstructions = null;
+    }
+
+    private void account(final CartLine line, final int sign) {
+        final BigDecimal quantity = BigDecimal.valueOf((long) sign * line.getQuantity());
+        itemCount += sign * line.getQuantity();
+        if (line.getPrice() != null) itemsSubtotal = itemsSubtotal.add(line.getPrice().multiply(quantity));
+        if (line.getSurcharge() != null) surchargeTotal = surchargeTotal.add(line.getSurcharge().multiply(quantity));
+    }
+}
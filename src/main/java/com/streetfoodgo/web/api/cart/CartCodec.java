@@ -0,0 +1,238 @@
+package com.streetfoodgo.web.api.cart;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of a {@link Cart} for the cart stores.
+ * <p>
+ * Layout (all integers are unsigned LEB128 varints, nullable ids are stored as {@code id + 1} with 0 for null):
+ * <pre>
+ * format(2) flags deliveryAddressId priceVersion [orderType] [specialInstructions] lineCount line*
+ * line := flags lineId menuItemId storeId quantity [name] [price] [surcharge] choiceIds removedIngredientIds [instructions]
+ * </pre>
+ * Strings are a length followed by UTF-8 bytes; UUID line ids take 16 bytes; prices are a scale byte plus
+ * a zig-zag encoded unscaled value. A typical line is 30-40 bytes, against several hundred for Java
+ * serialization of the same {@link CartLine}. The cart's totals are not stored; they are summed back
+ * from the lines on decode. Format 1 payloads (no price version, no surcharges) still decode, as unpriced carts.
+ */
+final class CartCodec {
+
+    private static final int FORMAT = 2;
+    private static final int FORMAT_UNPRICED = 1;
+
+    // Cart flags
+    private static final int HAS_ORDER_TYPE = 1;
+    private static final int HAS_CART_INSTRUCTIONS = 1 << 1;
+
+    // Line flags
+    private static final int UUID_LINE_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_PRICE = 1 << 2;
+    private static final int HAS_INSTRUCTIONS = 1 << 3;
+    private static final int HAS_SURCHARGE = 1 << 4;
+
+    private CartCodec() {
+    }
+
+    static byte[] encode(final Cart cart) {
+        final Writer out = new Writer();
+        out.varLong(FORMAT);
+        out.varLong((cart.getOrderType() != null ? HAS_ORDER_TYPE : 0)
+                | (cart.getSpecialInstructions() != null ? HAS_CART_INSTRUCTIONS : 0));
+        out.nullableId(cart.getDeliveryAddressId());
+        out.varLong(cart.getPriceVersion() + 1);
+        if (cart.getOrderType() != null) out.string(cart.getOrderType());
+        if (cart.getSpecialInstructions() != null) out.string(cart.getSpecialInstructions());
+
+        out.varLong(cart.getLines().size());
+        for (final CartLine line : cart.getLines()) {
+            final UUID uuid = parseUuid(line.getLineId());
+            out.varLong((uuid != null ? UUID_LINE_ID : 0)
+                    | (line.getName() != null ? HAS_NAME : 0)
+                    | (line.getPrice() != null ? HAS_PRICE : 0)
+                    | (line.getSpecialInstructions() != null ? HAS_INSTRUCTIONS : 0)
+                    | (line.getSurcharge() != null ? HAS_SURCHARGE : 0));
+            if (uuid != null) {
+                out.fixedLong(uuid.getMostSignificantBits());
+                out.fixedLong(uuid.getLeastSignificantBits());
+            } else {
+                out.string(line.getLineId() == null ? "" : line.getLineId());
+            }
+            out.nullableId(line.getMenuItemId());
+            out.nullableId(line.getStoreId());
+            out.varLong(Math.max(0, line.getQuantity()));
+            if (line.getName() != null) out.string(line.getName());
+            if (line.getPrice() != null) out.decimal(line.getPrice());
+            if (line.getSurcharge() != null) out.decimal(line.getSurcharge());
+            out.ids(line.getSelectedChoiceIds());
+            out.ids(line.getRemovedIngredientIds());
+            if (line.getSpecialInstructions() != null) out.string(line.getSpecialInstructions());
+        }
+        return out.toByteArray();
+    }
+
+    static Cart decode(final byte[] bytes, final long version) {
+        final Reader in = new Reader(bytes);
+        try {
+            final long format = in.varLong();
+            if (format != FORMAT && format != FORMAT_UNPRICED) {
+                throw new IllegalStateException("Unsupported cart format " + format);
+            }
+            final long flags = in.varLong();
+            final Long deliveryAddressId = in.nullableId();
+            final long priceVersion = format == FORMAT ? in.varLong() - 1 : Cart.UNPRICED;
+            final String orderType = (flags & HAS_ORDER_TYPE) != 0 ? in.string() : null;
+            final String instructions = (flags & HAS_CART_INSTRUCTIONS) != 0 ? in.string() : null;
+
+            final int count = (int) in.varLong();
+            final List<CartLine> lines = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final long lineFlags = in.varLong();
+                final String lineId = (lineFlags & UUID_LINE_ID) != 0
+                        ? new UUID(in.fixedLong(), in.fixedLong()).toString()
+                        : in.string();
+                final Long menuItemId = in.nullableId();
+                final Long storeId = in.nullableId();
+                final int quantity = (int) in.varLong();
+                final String name = (lineFlags & HAS_NAME) != 0 ? in.string() : null;
+                final BigDecimal price = (lineFlags & HAS_PRICE) != 0 ? in.decimal() : null;
+                final BigDecimal surcharge = (lineFlags & HAS_SURCHARGE) != 0 ? in.decimal() : null;
+
+                final CartLine line = new CartLine(lineId, menuItemId, storeId, name, price, quantity);
+                line.setSurcharge(surcharge);
+                line.setSelectedChoiceIds(in.ids());
+                line.setRemovedIngredientIds(in.ids());
+                line.setSpecialInstructions((lineFlags & HAS_INSTRUCTIONS) != 0 ? in.string() : null);
+                lines.add(line);
+            }
+
+            final Cart cart = new Cart(version, lines);
+            cart.setPriceVersion(priceVersion);
+            cart.setDeliveryAddressId(deliveryAddressId);
+            cart.setOrderType(orderType);
+            cart.setSpecialInstructions(instructions);
+            return cart;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalStateException("Truncated cart payload");
+        }
+    }
+
+    private static UUID parseUuid(final String value) {
+        if (value == null || value.length() != 36) return null;
+        try {
+            final UUID uuid = UUID.fromString(value);
+            // Only if it round-trips exactly (e.g. not upper case), so the decoded id equals the original
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(64);
+        }
+
+        void varLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void fixedLong(final long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) write((int) (value >>> shift));
+        }
+
+        void nullableId(final Long id) {
+            varLong(id == null ? 0 : id + 1);
+        }
+
+        void string(final String value) {
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varLong(utf8.length);
+            write(utf8, 0, utf8.length);
+        }
+
+        void decimal(final BigDecimal value) {
+            final BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() > 62 || value.scale() < 0 || value.scale() > 127) {
+                throw new IllegalArgumentException("Price out of range: " + value);
+            }
+            write(value.scale());
+            final long v = unscaled.longValue();
+            varLong((v << 1) ^ (v >> 63));
+        }
+
+        void ids(final List<Long> ids) {
+            if (ids == null) {
+                varLong(0);
+                return;
+            }
+            final List<Long> present = ids.stream().filter(Objects::nonNull).toList();
+            varLong(present.size());
+            for (final Long id : present) varLong(id);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int pos;
+
+        Reader(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long varLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalStateException("Malformed varint in cart payload");
+        }
+
+        long fixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) value = (value << 8) | (bytes[pos++] & 0xFF);
+            return value;
+        }
+
+        Long nullableId() {
+            final long raw = varLong();
+            return raw == 0 ? null : raw - 1;
+        }
+
+        String string() {
+            final int length = (int) varLong();
+            if (length > bytes.length - pos) throw new IllegalStateException("Truncated cart payload");
+            final String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        BigDecimal decimal() {
+            final int scale = bytes[pos++];
+            final long zigzag = varLong();
+            return BigDecimal.valueOf((zigzag >>> 1) ^ -(zigzag & 1), scale);
+        }
+
+        List<Long> ids() {
+            final int count = (int) varLong();
+            final List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) ids.add(varLong());
+            return ids;
+        }
+    }
+}
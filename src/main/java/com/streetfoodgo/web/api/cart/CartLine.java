@@ -1,9 +1,10 @@
 package com.streetfoodgo.web.api.cart;
 
+import com.streetfoodgo.core.service.model.CustomizationKey;
+
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * A single line in the session cart.
@@ -18,12 +19,15 @@ public class CartLine {
     private Long storeId;
     private String name;
     private BigDecimal price;
+    private BigDecimal surcharge;
     private int quantity;
 
     private List<Long> selectedChoiceIds = new ArrayList<>();
     private List<Long> removedIngredientIds = new ArrayList<>();
     private String specialInstructions;
 
+    private CustomizationKey customizationKey; // cached, reset by the customization setters
+
     public CartLine() {}
 
     public CartLine(
@@ -45,7 +49,7 @@ public class CartLine {
     public void setLineId(String lineId) { this.lineId = lineId; }
 
     public Long getMenuItemId() { return menuItemId; }
-    public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; }
+    public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; this.customizationKey = null; }
 
     public Long getStoreId() { return storeId; }
     public void setStoreId(Long storeId) { this.storeId = storeId; }
@@ -56,45 +60,55 @@ public class CartLine {
     public BigDecimal getPrice() { return price; }
     public void setPrice(BigDecimal price) { this.price = price; }
 
+    /**
+     * Per-unit total of the selected choices' additional prices, as last priced by {@link CartPricing}.
+     */
+    public BigDecimal getSurcharge() { return surcharge; }
+    public void setSurcharge(BigDecimal surcharge) { this.surcharge = surcharge; }
+
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
     public List<Long> getSelectedChoiceIds() { return selectedChoiceIds; }
-    public void setSelectedChoiceIds(List<Long> selectedChoiceIds) { this.selectedChoiceIds = selectedChoiceIds; }
+    public void setSelectedChoiceIds(List<Long> selectedChoiceIds) { this.selectedChoiceIds = selectedChoiceIds; this.customizationKey = null; }
 
     public List<Long> getRemovedIngredientIds() { return removedIngredientIds; }
-    public void setRemovedIngredientIds(List<Long> removedIngredientIds) { this.removedIngredientIds = removedIngredientIds; }
+    public void setRemovedIngredientIds(List<Long> removedIngredientIds) { this.removedIngredientIds = removedIngredientIds; this.customizationKey = null; }
 
     public String getSpecialInstructions() { return specialInstructions; }
-    public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; }
+    public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; this.customizationKey = null; }
+
+    /**
+     * Canonical key of this line's customization, computed once per change of the customization setters
+     * (the id lists are not watched: replace them rather than mutating them in place).
+     */
+    public CustomizationKey getCustomizationKey() {
+        if (customizationKey == null) {
+            customizationKey = CustomizationKey.of(menuItemId, selectedChoiceIds, removedIngredientIds, specialInstructions);
+        }
+        return customizationKey;
+    }
 
     /**
      * Used to decide whether we can merge two lines (same menu item + same customization).
      */
     public boolean hasSameCustomizationAs(final CartLine other) {
         if (other == null) return false;
-        return Objects.equals(this.menuItemId, other.menuItemId)
-                && Objects.equals(this.sorted(this.selectedChoiceIds), this.sorted(other.selectedChoiceIds))
-                && Objects.equals(this.sorted(this.removedIngredientIds), this.sorted(other.removedIngredientIds))
-                && Objects.equals(normalize(this.specialInstructions), normalize(other.specialInstructions));
-    }
-
-    private List<Long> sorted(final List<Long> ids) {
-        if (ids == null) return List.of();
-        return ids.stream().filter(Objects::nonNull).sorted().toList();
+        return getCustomizationKey().equals(other.getCustomizationKey());
     }
 
-    private static String normalize(final String s) {
-        if (s == null) return null;
-        final String trimmed = s.trim();
-        return trimmed.isBlank() ? null : trimmed;
+    /**
+     * Price of one unit: base price plus choice surcharges.
+     */
+    public BigDecimal getUnitPrice() {
+        final BigDecimal base = price == null ? BigDecimal.ZERO : price;
+        return surcharge == null ? base : base.add(surcharge);
     }
 
     /**
-     * Calculate total price for this cart line (price * quantity).
+     * Calculate total price for this cart line ((price + surcharge) * quantity), as {@code OrderItem} will.
      */
     public BigDecimal getTotalPrice() {
-        if (price == null) return BigDecimal.ZERO;
-        return price.multiply(BigDecimal.valueOf(quantity));
+        return getUnitPrice().multiply(BigDecimal.valueOf(quantity));
     }
 }
@@ -12,19 +12,34 @@ public record CartLineView(
         Long storeId,
         String name,
         BigDecimal price,
+        BigDecimal unitSurcharge,
+        BigDecimal unitPrice,
         int quantity,
+        BigDecimal lineTotal,
+        BigDecimal discount,
         List<Long> selectedChoiceIds,
         List<Long> removedIngredientIds,
         String specialInstructions
 ) {
     public static CartLineView from(final CartLine line) {
+        return from(line, BigDecimal.ZERO);
+    }
+
+    /**
+     * @param discount the line's share of the cart's promotion discount
+     */
+    public static CartLineView from(final CartLine line, final BigDecimal discount) {
         return new CartLineView(
                 line.getLineId(),
                 line.getMenuItemId(),
                 line.getStoreId(),
                 line.getName(),
                 line.getPrice(),
+                line.getSurcharge(),
+                line.getUnitPrice(),
                 line.getQuantity(),
+                line.getTotalPrice(),
+                discount,
                 line.getSelectedChoiceIds(),
                 line.getRemovedIngredientIds(),
                 line.getSpecialInstructions()
@@ -0,0 +1,229 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.security.ApplicationUserDetails;
+import com.streetfoodgo.core.security.CurrentUser;
+import com.streetfoodgo.core.security.CurrentUserProvider;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Resolves the cart of the current request and applies changes to it through the {@link CartStore}.
+ * <p>
+ * Signed-in users have one cart keyed by their id; guests get a random cart id in the {@value #COOKIE}
+ * cookie, created on their first cart write. On login the guest cart is merged into the user's cart.
+ * Updates are read-modify-write loops over the store's optimistic versioning: a concurrent write from
+ * another tab makes the loop re-apply the change to the fresh cart, unless the client pinned the version
+ * it saw ({@code If-Match}), in which case the caller gets a {@link CartVersionConflictException}.
+ * Carts leave here priced against the current menu (see {@link CartPricing#refresh}).
+ */
+@Component
+public class CartManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CartManager.class);
+
+    static final String COOKIE = "sfg_cart";
+    /**
+     * Flash attribute set on the login redirect when the guest cart replaced the user's cart.
+     */
+    public static final String NOTICE_ATTRIBUTE = "cartNotice";
+    private static final String USER_PREFIX = "user:";
+    private static final String GUEST_PREFIX = "guest:";
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final CartStore cartStore;
+    private final CartPricing pricing;
+    private final CurrentUserProvider currentUserProvider;
+    private final int cookieMaxAgeSeconds;
+    private final SessionFlashMapManager flashMapManager = new SessionFlashMapManager();
+
+    public CartManager(final CartStore cartStore,
+                       final CartPricing pricing,
+                       final CurrentUserProvider currentUserProvider,
+                       @Value("${app.cart.ttl:P14D}") final Duration ttl) {
+        if (cartStore == null) throw new NullPointerException();
+        if (pricing == null) throw new NullPointerException();
+        if (currentUserProvider == null) throw new NullPointerException();
+        if (ttl == null) throw new NullPointerException();
+        this.cartStore = cartStore;
+        this.pricing = pricing;
+        this.currentUserProvider = currentUserProvider;
+        this.cookieMaxAgeSeconds = (int) Math.min(Integer.MAX_VALUE, ttl.toSeconds());
+    }
+
+    /**
+     * The current cart (empty, version 0, when there is none yet).
+     */
+    public Cart current(final HttpServletRequest request) {
+        final String key = keyOf(request);
+        if (key == null) return new Cart();
+        final Cart cart = this.cartStore.load(key);
+        this.pricing.refresh(cart);
+        return cart;
+    }
+
+    /**
+     * Applies {@code change} to the current cart and saves it.
+     *
+     * @param expectedVersion the version the client last saw, or null to re-apply the change on concurrent writes
+     * @param change          mutates the cart; may throw (e.g. {@link IllegalArgumentException}) to abort without saving
+     * @return the saved cart
+     * @throws CartVersionConflictException when the stored cart is not at {@code expectedVersion}
+     */
+    public Cart update(final HttpServletRequest request,
+                       final HttpServletResponse response,
+                       final Long expectedVersion,
+                       final Consumer<Cart> change) {
+        if (change == null) throw new NullPointerException();
+        String key = keyOf(request);
+        if (key == null) key = newGuestKey(response);
+        return update(key, expectedVersion, change);
+    }
+
+    /**
+     * Empties the current cart.
+     */
+    public void clear(final HttpServletRequest request) {
+        final String key = keyOf(request);
+        if (key != null) this.cartStore.clear(key);
+    }
+
+    /**
+     * Moves the guest cart of this browser, if any, into the cart of the user who just logged in.
+     * Lines with the same customization are combined; a guest cart from another store replaces the
+     * user's lines, since the single-store rule would otherwise reject it at checkout. The replacement is
+     * reported with a {@value #NOTICE_ATTRIBUTE} flash attribute on the login redirect.
+     */
+    public void mergeGuestCart(final HttpServletRequest request,
+                               final HttpServletResponse response,
+                               final Authentication authentication) {
+        final String guestKey = guestKey(request);
+        if (guestKey == null) return;
+        if (!(authentication.getPrincipal() instanceof ApplicationUserDetails user)) return;
+
+        final AtomicBoolean replaced = new AtomicBoolean();
+        try {
+            final Cart guest = this.cartStore.load(guestKey);
+            if (!guest.isEmpty()) {
+                update(USER_PREFIX + user.personId(), null, cart -> {
+                    // Set on every attempt: a retry sees the cart as it is now
+                    replaced.set(!cart.isEmpty() && !Objects.equals(cart.getStoreId(), guest.getStoreId()));
+                    if (replaced.get()) cart.clearLines();
+                    for (final CartLine line : guest.getLines()) cart.addOrMerge(copyOf(line));
+                    if (guest.getDeliveryAddressId() != null) cart.setDeliveryAddressId(guest.getDeliveryAddressId());
+                    if (guest.getOrderType() != null) cart.setOrderType(guest.getOrderType());
+                    if (guest.getSpecialInstructions() != null) cart.setSpecialInstructions(guest.getSpecialInstructions());
+                });
+            }
+            this.cartStore.delete(guestKey);
+            if (replaced.get()) {
+                LOGGER.info("Guest cart replaced the saved cart of user {} (different store)", user.personId());
+                // The security filter chain runs before the DispatcherServlet: save the flash map directly
+                final FlashMap flashMap = new FlashMap();
+                flashMap.put(NOTICE_ATTRIBUTE, "Your saved cart was from another store, so it was replaced "
+                        + "by the cart you filled before signing in.");
+                this.flashMapManager.saveOutputFlashMap(flashMap, request, response);
+            }
+        } catch (RuntimeException ex) {
+            // Never fail a login over the cart
+            LOGGER.warn("Failed to merge guest cart into cart of user {}: {}", user.personId(), ex.getMessage());
+        }
+
+        final Cookie expired = cookie("");
+        expired.setMaxAge(0);
+        response.addCookie(expired);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            final int removed = this.cartStore.purgeExpired();
+            if (removed > 0) LOGGER.info("Purged {} expired carts", removed);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Cart purge failed: {}", ex.getMessage());
+        }
+    }
+
+    private Cart update(final String key, final Long expectedVersion, final Consumer<Cart> change) {
+        for (int attempt = 1; ; attempt++) {
+            final Cart cart = this.cartStore.load(key);
+            if (expectedVersion != null && cart.getVersion() != expectedVersion) {
+                this.pricing.refresh(cart);
+                throw new CartVersionConflictException(cart);
+            }
+            change.accept(cart);
+            this.pricing.refresh(cart);
+            if (this.cartStore.save(key, cart)) return cart;
+            if (expectedVersion != null || attempt == MAX_ATTEMPTS) {
+                final Cart current = this.cartStore.load(key);
+                this.pricing.refresh(current);
+                throw new CartVersionConflictException(current);
+            }
+        }
+    }
+
+    /**
+     * Cart key of the request: the signed-in user's, else the guest cookie's, else null.
+     */
+    private String keyOf(final HttpServletRequest request) {
+        final CurrentUser user = this.currentUserProvider.getCurrentUser().orElse(null);
+        if (user != null) return USER_PREFIX + user.id();
+        return guestKey(request);
+    }
+
+    private static String guestKey(final HttpServletRequest request) {
+        final Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (final Cookie cookie : cookies) {
+            if (!COOKIE.equals(cookie.getName())) continue;
+            try {
+                // Only ids we could have issued
+                return GUEST_PREFIX + UUID.fromString(cookie.getValue());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private String newGuestKey(final HttpServletResponse response) {
+        final String id = UUID.randomUUID().toString();
+        final Cookie cookie = cookie(id);
+        cookie.setMaxAge(this.cookieMaxAgeSeconds);
+        response.addCookie(cookie);
+        return GUEST_PREFIX + id;
+    }
+
+    private static Cookie cookie(final String value) {
+        final Cookie cookie = new Cookie(COOKIE, value);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    private static CartLine copyOf(final CartLine line) {
+        final CartLine copy = new CartLine(line.getLineId(), line.getMenuItemId(), line.getStoreId(),
+                line.getName(), line.getPrice(), line.getQuantity());
+        copy.setSelectedChoiceIds(new ArrayList<>(line.getSelectedChoiceIds()));
+        copy.setRemovedIngredientIds(new ArrayList<>(line.getRemovedIngredientIds()));
+        copy.setSpecialInstructions(line.getSpecialInstructions());
+        copy.setSurcharge(line.getSurcharge());
+        return copy;
+    }
+}
@@ -0,0 +1,68 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.service.model.CustomizationRules;
+import com.streetfoodgo.core.service.model.MenuItemChoiceView;
+import com.streetfoodgo.core.service.model.MenuItemOptionView;
+import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.StoreMenu;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flat price lookup for one store's menu: base price per item and surcharge per choice, next to the
+ * snapshot's compiled {@link CustomizationRules}.
+ * <p>
+ * Immutable; built from a {@link StoreMenu} snapshot and replaced when the menu version changes.
+ */
+final class CartPriceIndex {
+
+    record ItemPrice(BigDecimal price, boolean available) {}
+
+    record ChoicePrice(Long menuItemId, BigDecimal surcharge) {}
+
+    private final long version;
+    private final Map<Long, ItemPrice> items;
+    private final Map<Long, ChoicePrice> choices;
+    private final Map<Long, CustomizationRules> rules;
+
+    private CartPriceIndex(final StoreMenu menu) {
+        this.version = menu.version();
+        this.items = new HashMap<>(menu.items().size() * 2);
+        this.choices = new HashMap<>();
+        this.rules = menu.rules();
+        for (final MenuItemView item : menu.items()) {
+            this.items.put(item.id(), new ItemPrice(item.price(), Boolean.TRUE.equals(item.available())));
+            if (item.options() == null) continue;
+            for (final MenuItemOptionView option : item.options()) {
+                if (option.choices() == null) continue;
+                for (final MenuItemChoiceView choice : option.choices()) {
+                    this.choices.put(choice.id(), new ChoicePrice(item.id(),
+                            choice.additionalPrice() == null ? BigDecimal.ZERO : choice.additionalPrice()));
+                }
+            }
+        }
+    }
+
+    static CartPriceIndex of(final StoreMenu menu) {
+        if (menu == null) throw new NullPointerException();
+        return new CartPriceIndex(menu);
+    }
+
+    long version() {
+        return this.version;
+    }
+
+    ItemPrice item(final Long menuItemId) {
+        return this.items.get(menuItemId);
+    }
+
+    ChoicePrice choice(final Long choiceId) {
+        return this.choices.get(choiceId);
+    }
+
+    CustomizationRules rules(final Long menuItemId) {
+        return this.rules.get(menuItemId);
+    }
+}
@@ -0,0 +1,187 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.service.MenuItemService;
+import com.streetfoodgo.core.service.PromotionService;
+import com.streetfoodgo.core.service.StoreService;
+import com.streetfoodgo.core.service.model.AppliedPromotion;
+import com.streetfoodgo.core.service.model.CustomizationRules;
+import com.streetfoodgo.core.service.model.PromotionLine;
+import com.streetfoodgo.core.service.model.PromotionResult;
+import com.streetfoodgo.core.service.model.StoreView;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prices cart lines from a per-store {@link CartPriceIndex} and summarizes carts into {@link CartTotals}.
+ * <p>
+ * Prices come from the cached menu snapshots and store data from the store catalog, so pricing a cart
+ * never reads the database once the menu is cached. A line is priced when it is added or re-customized;
+ * a loaded cart is repriced as a whole only when its store's menu version moved since it was last priced.
+ * The subtotal is the same (price + choice surcharges) x quantity that the order will charge, and the store's
+ * running promotions are applied as the order will apply them (first-order promotions only show at checkout).
+ */
+@Component
+public class CartPricing {
+
+    private final MenuItemService menuItemService;
+    private final StoreService storeService;
+    private final PromotionService promotionService;
+
+    private final Map<Long, CartPriceIndex> indexes = new ConcurrentHashMap<>();
+
+    public CartPricing(final MenuItemService menuItemService,
+                       final StoreService storeService,
+                       final PromotionService promotionService) {
+        if (menuItemService == null) throw new NullPointerException();
+        if (storeService == null) throw new NullPointerException();
+        if (promotionService == null) throw new NullPointerException();
+        this.menuItemService = menuItemService;
+        this.storeService = storeService;
+        this.promotionService = promotionService;
+    }
+
+    /**
+     * Validates and prices a line that is about to be added (base price and choice surcharges).
+     *
+     * @throws IllegalArgumentException when the item is not on the store's menu or the customization breaks
+     *                                  its option rules (see {@link CustomizationRules#check})
+     */
+    public void price(final CartLine line) {
+        final CartPriceIndex index = index(line.getStoreId());
+        validate(index, line);
+        line.setPrice(basePrice(index, line));
+        line.setSurcharge(surcharge(index, line));
+    }
+
+    /**
+     * Reprices one of the cart's lines after its customization changed; same checks as {@link #price(CartLine)}.
+     */
+    public void reprice(final Cart cart, final CartLine line) {
+        final CartPriceIndex index = index(line.getStoreId());
+        validate(index, line);
+        cart.reprice(line, basePrice(index, line), surcharge(index, line));
+    }
+
+    /**
+     * Brings a loaded cart's prices up to the current menu; a no-op while the menu version is unchanged.
+     * Lines whose item left the menu keep their last price (the order will reject them), and choices that
+     * disappeared are not charged.
+     */
+    public void refresh(final Cart cart) {
+        final Long storeId = cart.getStoreId();
+        if (storeId == null) return;
+        final long version = this.menuItemService.getMenuVersion(storeId);
+        if (cart.getPriceVersion() == version) return;
+
+        final CartPriceIndex index = index(storeId);
+        for (final CartLine line : List.copyOf(cart.getLines())) {
+            final CartPriceIndex.ItemPrice item = index.item(line.getMenuItemId());
+            cart.reprice(line, item != null && item.price() != null ? item.price() : line.getPrice(),
+                    surcharge(index, line));
+        }
+        cart.setPriceVersion(index.version());
+    }
+
+    public CartTotals totals(final Cart cart) {
+        if (cart.isEmpty()) return CartTotals.EMPTY;
+
+        final StoreView store = this.storeService.getStore(cart.getStoreId()).orElse(null);
+        final BigDecimal subtotal = cart.getSubtotal();
+        final BigDecimal deliveryFee = store == null || store.deliveryFee() == null || "PICKUP".equals(cart.getOrderType())
+                ? BigDecimal.ZERO
+                : store.deliveryFee();
+        final BigDecimal minimumOrder = store == null ? null : store.minimumOrderAmount();
+        final BigDecimal amountToMinimum = minimumOrder == null || subtotal.compareTo(minimumOrder) >= 0
+                ? BigDecimal.ZERO
+                : minimumOrder.subtract(subtotal);
+
+        // Each store's promotions on its own lines; only the cart's (first) store's fee is charged here
+        final Map<Long, List<CartLine>> byStore = new LinkedHashMap<>();
+        cart.getLines().forEach(l -> byStore.computeIfAbsent(l.getStoreId(), id -> new ArrayList<>()).add(l));
+        BigDecimal discount = BigDecimal.ZERO;
+        BigDecimal deliveryDiscount = BigDecimal.ZERO;
+        final List<AppliedPromotion> applied = new ArrayList<>();
+        final Map<String, BigDecimal> lineDiscounts = new HashMap<>();
+        for (final Map.Entry<Long, List<CartLine>> group : byStore.entrySet()) {
+            final PromotionResult promotions = promotions(group.getKey(), group.getValue(),
+                    group.getKey().equals(cart.getStoreId()) ? deliveryFee : BigDecimal.ZERO);
+            for (int i = 0; i < group.getValue().size(); i++) {
+                lineDiscounts.put(group.getValue().get(i).getLineId(), promotions.lineDiscounts().get(i));
+            }
+            discount = discount.add(promotions.discount());
+            deliveryDiscount = deliveryDiscount.add(promotions.deliveryDiscount());
+            applied.addAll(promotions.applied());
+        }
+        final BigDecimal netDeliveryFee = deliveryFee.subtract(deliveryDiscount);
+
+        return new CartTotals(
+                cart.getItemCount(),
+                cart.getItemsSubtotal(),
+                cart.getSurchargeTotal(),
+                subtotal,
+                discount,
+                applied,
+                lineDiscounts,
+                netDeliveryFee,
+                subtotal.subtract(discount).add(netDeliveryFee),
+                minimumOrder,
+                amountToMinimum);
+    }
+
+    /**
+     * The store's promotions on its lines of a cart, as the order will evaluate them.
+     *
+     * @param deliveryFee the fee free delivery may waive; zero for pickup
+     */
+    public PromotionResult promotions(final Long storeId, final List<CartLine> lines, final BigDecimal deliveryFee) {
+        if (lines.isEmpty()) return PromotionResult.none(0);
+        return this.promotionService.evaluate(storeId, lines.stream()
+                .map(l -> new PromotionLine(l.getMenuItemId(), l.getUnitPrice(), l.getQuantity()))
+                .toList(), deliveryFee, false);
+    }
+
+    private CartPriceIndex index(final Long storeId) {
+        if (storeId == null) throw new IllegalArgumentException("Cart line has no store");
+        final long version = this.menuItemService.getMenuVersion(storeId);
+        final CartPriceIndex cached = this.indexes.get(storeId);
+        if (cached != null && cached.version() == version) return cached;
+
+        final CartPriceIndex built = CartPriceIndex.of(this.menuItemService.getStoreMenuSnapshot(storeId));
+        this.indexes.merge(storeId, built, (old, fresh) -> fresh.version() >= old.version() ? fresh : old);
+        return built;
+    }
+
+    private static BigDecimal basePrice(final CartPriceIndex index, final CartLine line) {
+        final CartPriceIndex.ItemPrice item = index.item(line.getMenuItemId());
+        if (item == null || item.price() == null) throw new IllegalArgumentException("Menu item not found");
+        return item.price();
+    }
+
+    private static void validate(final CartPriceIndex index, final CartLine line) {
+        final CustomizationRules rules = index.rules(line.getMenuItemId());
+        if (rules == null) throw new IllegalArgumentException("Menu item not found");
+        if (!index.item(line.getMenuItemId()).available()) throw new IllegalArgumentException("Menu item not available");
+        rules.check(line.getSelectedChoiceIds(), line.getRemovedIngredientIds());
+    }
+
+    /**
+     * Sum of the surcharges of the line's choices; choices that are not (or no longer) the item's cost nothing.
+     */
+    private static BigDecimal surcharge(final CartPriceIndex index, final CartLine line) {
+        BigDecimal surcharge = BigDecimal.ZERO;
+        if (line.getSelectedChoiceIds() == null) return surcharge;
+        for (final Long choiceId : line.getSelectedChoiceIds().stream().distinct().toList()) {
+            if (choiceId == null) continue;
+            final CartPriceIndex.ChoicePrice choice = index.choice(choiceId);
+            if (choice != null && choice.menuItemId().equals(line.getMenuItemId())) surcharge = surcharge.add(choice.surcharge());
+        }
+        return surcharge;
+    }
+}
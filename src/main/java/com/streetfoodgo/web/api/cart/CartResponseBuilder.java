@@ -1,17 +1,30 @@
 package com.streetfoodgo.web.api.cart;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * JSON body of the cart API: priced lines plus the cart totals.
+ */
 public final class CartResponseBuilder {
 
     private CartResponseBuilder() {}
 
-    public static Map<String, Object> toResponse(final List<CartLine> lines) {
-        final Map<String, Object> response = new HashMap<>();
-        response.put("items", lines);
-        response.put("cartSize", lines.stream().mapToInt(CartLine::getQuantity).sum());
+    public static Map<String, Object> toResponse(final Cart cart, final CartTotals totals) {
+        final Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("items", cart.getLines().stream().map(l -> CartLineView.from(l, totals.lineDiscount(l.getLineId()))).toList());
+        response.put("cartSize", totals.itemCount());
+        response.put("version", cart.getVersion());
+        response.put("itemsSubtotal", totals.itemsSubtotal());
+        response.put("surcharges", totals.surcharges());
+        response.put("subtotal", totals.subtotal());
+        response.put("discount", totals.discount());
+        response.put("promotions", totals.promotions());
+        response.put("deliveryFee", totals.deliveryFee());
+        response.put("total", totals.total());
+        response.put("minimumOrder", totals.minimumOrder());
+        response.put("amountToMinimum", totals.amountToMinimum());
         return response;
     }
 }
@@ -0,0 +1,42 @@
+package com.streetfoodgo.web.api.cart;
+
+/**
+ * Server-side cart storage, keyed by an opaque cart key (a signed-in user or a guest cookie).
+ * <p>
+ * Writes are optimistic: {@link #save} only succeeds when the stored version is still the one the cart was
+ * loaded at, so two tabs updating the same cart cannot silently overwrite each other. A key's version only
+ * ever increases (clearing or expiry do not reset it), so a version a client saw earlier never matches again.
+ * Carts not written for longer than the configured TTL are treated as empty and purged.
+ */
+public interface CartStore {
+
+    /**
+     * The stored cart, or an empty cart with version 0.
+     */
+    Cart load(String key);
+
+    /**
+     * Saves the cart if the stored version still equals {@link Cart#getVersion()} (0: nothing stored)
+     * and advances the cart's version.
+     *
+     * @return false, leaving the store untouched, when another write got there first
+     */
+    boolean save(String key, Cart cart);
+
+    /**
+     * Empties the cart under {@code key} and advances its version, so writes based on the old cart fail.
+     */
+    void clear(String key);
+
+    /**
+     * Removes the cart under a key that will not be used again (a guest cart merged on login).
+     */
+    void delete(String key);
+
+    /**
+     * Removes expired carts.
+     *
+     * @return the number of carts removed
+     */
+    int purgeExpired();
+}
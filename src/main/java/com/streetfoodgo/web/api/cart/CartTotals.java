@@ -0,0 +1,44 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.service.model.AppliedPromotion;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Priced summary of a cart, computed the way the order will be.
+ *
+ * @param surcharges      choice surcharges times quantity, included in {@code subtotal}
+ * @param discount        the store's promotions, taken off {@code subtotal}
+ * @param lineDiscounts   each line's share of {@code discount}, by line id
+ * @param deliveryFee     the store's fee less any free-delivery promotion, zero for pickup
+ * @param minimumOrder    the store's minimum order, null when it has none
+ * @param amountToMinimum what is still missing to reach {@code minimumOrder}, zero once reached
+ */
+public record CartTotals(
+        int itemCount,
+        BigDecimal itemsSubtotal,
+        BigDecimal surcharges,
+        BigDecimal subtotal,
+        BigDecimal discount,
+        List<AppliedPromotion> promotions,
+        Map<String, BigDecimal> lineDiscounts,
+        BigDecimal deliveryFee,
+        BigDecimal total,
+        BigDecimal minimumOrder,
+        BigDecimal amountToMinimum
+) {
+
+    public static final CartTotals EMPTY = new CartTotals(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+            BigDecimal.ZERO, List.of(), Map.of(), BigDecimal.ZERO, BigDecimal.ZERO, null, BigDecimal.ZERO);
+
+    public CartTotals {
+        promotions = List.copyOf(promotions);
+        lineDiscounts = Map.copyOf(lineDiscounts);
+    }
+
+    public BigDecimal lineDiscount(final String lineId) {
+        return lineDiscounts.getOrDefault(lineId, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,21 @@
+package com.streetfoodgo.web.api.cart;
+
+/**
+ * The cart was changed (e.g. in another tab) since the version the client last saw.
+ */
+public class CartVersionConflictException extends RuntimeException {
+
+    private final transient Cart current;
+
+    public CartVersionConflictException(final Cart current) {
+        super("Cart was modified concurrently (now at version " + current.getVersion() + ")");
+        this.current = current;
+    }
+
+    /**
+     * The cart as currently stored.
+     */
+    public Cart getCurrent() {
+        return current;
+    }
+}
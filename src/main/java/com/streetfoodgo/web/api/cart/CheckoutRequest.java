@@ -4,5 +4,6 @@ public record CheckoutRequest(
         Long deliveryAddressId,
         String orderType,
         String paymentMethod,
-        String specialInstructions
+        String specialInstructions,
+        String couponCode
 ) {}
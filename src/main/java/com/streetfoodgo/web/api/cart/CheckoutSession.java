@@ -0,0 +1,75 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.model.OrderType;
+import com.streetfoodgo.core.model.SavedPaymentMethod;
+import com.streetfoodgo.core.service.model.DeliveryAddressView;
+import com.streetfoodgo.core.service.model.PromotionResult;
+import com.streetfoodgo.core.service.model.StoreView;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Everything a checkout needs, resolved once when the checkout page is opened and reused when it is submitted:
+ * the priced cart lines, the store's promotions on them, the delivery quote, the customer's addresses and saved
+ * payment methods,
+ * and what (if anything) currently stops the order from being placed.
+ *
+ * @param cartVersion the cart version the session was built from; a changed cart invalidates the session
+ * @param promotions  the store's running promotions on the lines, first-order ones included, as the order applies them
+ * @param deliveryFee the store's fee before promotions
+ * @param problems    reasons the order cannot be placed as is (minimum order, items changed on the menu); empty when valid
+ */
+public record CheckoutSession(
+        String id,
+        Long customerId,
+        long cartVersion,
+        List<CartLine> lines,
+        StoreView store,
+        BigDecimal subtotal,
+        PromotionResult promotions,
+        BigDecimal deliveryFee,
+        boolean storeOpen,
+        List<DeliveryAddressView> addresses,
+        List<SavedPaymentMethod> paymentMethods,
+        List<String> problems,
+        long createdAtNanos
+) {
+
+    public CheckoutSession {
+        lines = List.copyOf(lines);
+        addresses = List.copyOf(addresses);
+        paymentMethods = List.copyOf(paymentMethods);
+        problems = List.copyOf(problems);
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public boolean isValid() {
+        return problems.isEmpty();
+    }
+
+    /**
+     * The subtotal less the promotions; what a coupon is quoted on.
+     */
+    public BigDecimal discountedSubtotal() {
+        return subtotal.subtract(promotions.discount());
+    }
+
+    public BigDecimal deliveryFee(final OrderType orderType) {
+        return orderType == OrderType.DELIVERY ? deliveryFee.subtract(promotions.deliveryDiscount()) : BigDecimal.ZERO;
+    }
+
+    public BigDecimal total(final OrderType orderType) {
+        return discountedSubtotal().add(deliveryFee(orderType));
+    }
+
+    /**
+     * The customer's saved payment method with this id, or null.
+     */
+    public SavedPaymentMethod paymentMethod(final Long id) {
+        return paymentMethods.stream().filter(m -> m.getId().equals(id)).findFirst().orElse(null);
+    }
+}
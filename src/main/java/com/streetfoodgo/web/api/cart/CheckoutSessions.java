@@ -0,0 +1,195 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.repository.OrderRepository;
+import com.streetfoodgo.core.service.DeliveryAddressService;
+import com.streetfoodgo.core.service.MenuItemService;
+import com.streetfoodgo.core.service.PaymentMethodService;
+import com.streetfoodgo.core.service.PromotionService;
+import com.streetfoodgo.core.service.StoreScheduleService;
+import com.streetfoodgo.core.service.StoreService;
+import com.streetfoodgo.core.service.model.CustomizationRules;
+import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.PromotionLine;
+import com.streetfoodgo.core.service.model.PromotionResult;
+import com.streetfoodgo.core.service.model.StoreMenu;
+import com.streetfoodgo.core.service.model.StoreStatusView;
+import com.streetfoodgo.core.service.model.StoreView;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds {@link CheckoutSession}s and keeps them for the lifetime of a checkout.
+ * <p>
+ * A session is built when the checkout page opens (the cart, the menu snapshot and the store come from caches;
+ * addresses, saved payment methods and whether this is the customer's first order are one query each; the store's
+ * promotions are evaluated from their compiled cache) and handed back on submit by its id, as long as it
+ * belongs to the same customer, has not expired and the cart is still at the version it was built from.
+ * Otherwise it is rebuilt, so a submit never acts on a stale cart. Sessions are dropped once the order is placed.
+ */
+@Component
+public class CheckoutSessions {
+
+    private final CartManager cartManager;
+    private final MenuItemService menuItemService;
+    private final StoreService storeService;
+    private final StoreScheduleService storeScheduleService;
+    private final DeliveryAddressService deliveryAddressService;
+    private final PaymentMethodService paymentMethodService;
+    private final PromotionService promotionService;
+    private final OrderRepository orderRepository;
+    private final long ttlNanos;
+    private final int maxSessions;
+
+    private final Map<String, CheckoutSession> sessions = new ConcurrentHashMap<>();
+
+    public CheckoutSessions(final CartManager cartManager,
+                            final MenuItemService menuItemService,
+                            final StoreService storeService,
+                            final StoreScheduleService storeScheduleService,
+                            final DeliveryAddressService deliveryAddressService,
+                            final PaymentMethodService paymentMethodService,
+                            final PromotionService promotionService,
+                            final OrderRepository orderRepository,
+                            @Value("${app.checkout.session-ttl:PT30M}") final Duration ttl,
+                            @Value("${app.checkout.max-sessions:10000}") final int maxSessions) {
+        if (cartManager == null) throw new NullPointerException();
+        if (menuItemService == null) throw new NullPointerException();
+        if (storeService == null) throw new NullPointerException();
+        if (storeScheduleService == null) throw new NullPointerException();
+        if (deliveryAddressService == null) throw new NullPointerException();
+        if (paymentMethodService == null) throw new NullPointerException();
+        if (promotionService == null) throw new NullPointerException();
+        if (orderRepository == null) throw new NullPointerException();
+        if (ttl == null) throw new NullPointerException();
+        if (maxSessions <= 0) throw new IllegalArgumentException("maxSessions must be positive");
+        this.cartManager = cartManager;
+        this.menuItemService = menuItemService;
+        this.storeService = storeService;
+        this.storeScheduleService = storeScheduleService;
+        this.deliveryAddressService = deliveryAddressService;
+        this.paymentMethodService = paymentMethodService;
+        this.promotionService = promotionService;
+        this.orderRepository = orderRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Starts a checkout of the current cart.
+     */
+    public CheckoutSession open(final HttpServletRequest request, final Long customerId) {
+        if (customerId == null) throw new NullPointerException();
+        return build(this.cartManager.current(request), customerId);
+    }
+
+    /**
+     * The session of a checkout being submitted, or a fresh one when it is unknown, expired, someone else's
+     * or the cart changed since.
+     */
+    public CheckoutSession resume(final String id, final HttpServletRequest request, final Long customerId) {
+        if (customerId == null) throw new NullPointerException();
+        final Cart cart = this.cartManager.current(request);
+        final CheckoutSession session = id == null ? null : this.sessions.get(id);
+        if (session != null
+                && session.customerId().equals(customerId)
+                && session.cartVersion() == cart.getVersion()
+                && System.nanoTime() - session.createdAtNanos() < this.ttlNanos) {
+            return session;
+        }
+        if (id != null) this.sessions.remove(id);
+        return build(cart, customerId);
+    }
+
+    public void close(final String id) {
+        if (id != null) this.sessions.remove(id);
+    }
+
+    private CheckoutSession build(final Cart cart, final Long customerId) {
+        final long now = System.nanoTime();
+        final String id = UUID.randomUUID().toString();
+        if (cart.isEmpty()) {
+            return new CheckoutSession(id, customerId, cart.getVersion(), List.of(), null,
+                    BigDecimal.ZERO, PromotionResult.none(0), BigDecimal.ZERO, false, List.of(), List.of(), List.of(), now);
+        }
+
+        final Long storeId = cart.getStoreId();
+        final StoreView store = this.storeService.getStore(storeId)
+                .orElseThrow(() -> new IllegalStateException("Store not found"));
+        final StoreStatusView status = this.storeScheduleService.getStoreStatus(storeId);
+        final boolean open = status != null && status.open();
+
+        // Whether the store is open is not a problem of the session: it is checked live on submit
+        final List<String> problems = new ArrayList<>();
+        checkLines(cart, this.menuItemService.getStoreMenuSnapshot(storeId), problems);
+        final BigDecimal subtotal = cart.getSubtotal();
+        if (store.minimumOrderAmount() != null && subtotal.compareTo(store.minimumOrderAmount()) < 0) {
+            problems.add("Minimum order is €" + store.minimumOrderAmount() + ".");
+        }
+
+        // The same evaluation the order will make, so the card is charged what the order totals
+        final BigDecimal deliveryFee = Objects.requireNonNullElse(store.deliveryFee(), BigDecimal.ZERO);
+        final PromotionResult promotions = this.promotionService.evaluate(storeId, cart.getLines().stream()
+                        .map(l -> new PromotionLine(l.getMenuItemId(), l.getUnitPrice(), l.getQuantity()))
+                        .toList(),
+                deliveryFee,
+                this.orderRepository.countByCustomerId(customerId) == 0);
+
+        final CheckoutSession session = new CheckoutSession(
+                id,
+                customerId,
+                cart.getVersion(),
+                cart.getLines(),
+                store,
+                subtotal,
+                promotions,
+                deliveryFee,
+                open,
+                this.deliveryAddressService.getCustomerAddresses(customerId),
+                this.paymentMethodService.getCustomerPaymentMethods(customerId),
+                problems,
+                now);
+        this.sessions.put(id, session);
+        if (this.sessions.size() > this.maxSessions) evict(now);
+        return session;
+    }
+
+    /**
+     * Re-checks the lines against the current menu: it may have changed since they were added.
+     */
+    private static void checkLines(final Cart cart, final StoreMenu menu, final List<String> problems) {
+        for (final CartLine line : cart.getLines()) {
+            final Optional<MenuItemView> item = menu.item(line.getMenuItemId());
+            if (item.isEmpty() || !Boolean.TRUE.equals(item.get().available())) {
+                problems.add(line.getName() + " is no longer available.");
+                continue;
+            }
+            final CustomizationRules rules = menu.rules(line.getMenuItemId()).orElseThrow();
+            try {
+                rules.check(line.getSelectedChoiceIds(), line.getRemovedIngredientIds());
+            } catch (IllegalArgumentException e) {
+                problems.add(line.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void evict(final long now) {
+        this.sessions.values().removeIf(s -> now - s.createdAtNanos() >= this.ttlNanos);
+        while (this.sessions.size() > this.maxSessions) {
+            this.sessions.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().createdAtNanos()))
+                    .ifPresent(e -> this.sessions.remove(e.getKey(), e.getValue()));
+        }
+    }
+}
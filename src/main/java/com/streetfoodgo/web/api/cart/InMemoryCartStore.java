@@ -0,0 +1,83 @@
+package com.streetfoodgo.web.api.cart;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-instance {@link CartStore}: carts live in memory (encoded, so loads hand out independent copies)
+ * and are lost on restart. Enabled with {@code app.cart.store=memory}. Versions follow the same rules as in
+ * {@link JdbcCartStore}: clearing or expiry keep a key's version, and a new entry starts at the write time in
+ * milliseconds.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cart", name = "store", havingValue = "memory")
+public class InMemoryCartStore implements CartStore {
+
+    private static final byte[] EMPTY = CartCodec.encode(new Cart());
+
+    private final Map<String, Entry> carts = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public InMemoryCartStore(@Value("${app.cart.ttl:P14D}") final Duration ttl) {
+        if (ttl == null) throw new NullPointerException();
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public Cart load(final String key) {
+        if (key == null) throw new NullPointerException();
+        final Entry entry = this.carts.get(key);
+        if (entry == null) return new Cart();
+        if (expired(entry, System.nanoTime())) return new Cart(entry.version(), new ArrayList<>());
+        return CartCodec.decode(entry.payload(), entry.version());
+    }
+
+    @Override
+    public boolean save(final String key, final Cart cart) {
+        if (key == null) throw new NullPointerException();
+        if (cart == null) throw new NullPointerException();
+        final byte[] payload = CartCodec.encode(cart);
+        final long now = System.nanoTime();
+        final long[] saved = {0};
+        this.carts.compute(key, (k, current) -> {
+            final long currentVersion = current == null ? 0 : current.version();
+            if (currentVersion != cart.getVersion()) return current;
+            saved[0] = current == null ? System.currentTimeMillis() : currentVersion + 1;
+            return new Entry(saved[0], payload, now);
+        });
+        if (saved[0] != 0) cart.setVersion(saved[0]);
+        return saved[0] != 0;
+    }
+
+    @Override
+    public void clear(final String key) {
+        if (key == null) throw new NullPointerException();
+        this.carts.computeIfPresent(key, (k, current) -> new Entry(current.version() + 1, EMPTY, System.nanoTime()));
+    }
+
+    @Override
+    public void delete(final String key) {
+        if (key == null) throw new NullPointerException();
+        this.carts.remove(key);
+    }
+
+    @Override
+    public int purgeExpired() {
+        final long now = System.nanoTime();
+        final int before = this.carts.size();
+        this.carts.values().removeIf(e -> expired(e, now));
+        return Math.max(0, before - this.carts.size());
+    }
+
+    private boolean expired(final Entry entry, final long now) {
+        return now - entry.writtenAtNanos() >= this.ttlNanos;
+    }
+
+    private record Entry(long version, byte[] payload, long writtenAtNanos) {}
+}
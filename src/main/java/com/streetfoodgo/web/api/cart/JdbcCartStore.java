@@ -0,0 +1,109 @@
+package com.streetfoodgo.web.api.cart;
+
+import com.streetfoodgo.core.model.StoredCart;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Database-backed {@link CartStore}, shared by all application instances and surviving restarts.
+ * <p>
+ * One {@link StoredCart} row per cart: the key, a version for optimistic updates, the {@link CartCodec} payload
+ * and the last write time. Every write is a single conditional statement on the version, so no row lock is
+ * held between load and save. This is the default ({@code app.cart.store=jdbc}).
+ * <p>
+ * A key's version never goes back: clearing a cart keeps its row (empty, next version), an expired cart loads
+ * as empty at its stored version, and a row created after a purge starts at the write time in milliseconds,
+ * above any version the purged row can have reached. So a client's stale {@code If-Match} can never match again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cart", name = "store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcCartStore implements CartStore {
+
+    private static final byte[] EMPTY = CartCodec.encode(new Cart());
+
+    private record Row(long version, byte[] payload, long updatedAtMs) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+
+    public JdbcCartStore(final JdbcTemplate jdbcTemplate,
+                         @Value("${app.cart.ttl:P14D}") final Duration ttl) {
+        if (jdbcTemplate == null) throw new NullPointerException();
+        if (ttl == null) throw new NullPointerException();
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    @Override
+    public Cart load(final String key) {
+        if (key == null) throw new NullPointerException();
+        final List<Row> rows = this.jdbcTemplate.query(
+                "SELECT version, payload, updated_at_ms FROM cart_store WHERE cart_key = ?",
+                (rs, i) -> new Row(rs.getLong("version"), rs.getBytes("payload"), rs.getLong("updated_at_ms")),
+                key);
+        if (rows.isEmpty()) return new Cart();
+        final Row row = rows.get(0);
+        // An expired cart is empty, but its version stands: the next save continues from it
+        if (row.updatedAtMs() < cutoff()) return new Cart(row.version(), new ArrayList<>());
+        return CartCodec.decode(row.payload(), row.version());
+    }
+
+    @Override
+    public boolean save(final String key, final Cart cart) {
+        if (key == null) throw new NullPointerException();
+        if (cart == null) throw new NullPointerException();
+        final byte[] payload = CartCodec.encode(cart);
+        final long now = System.currentTimeMillis();
+
+        if (cart.getVersion() == 0) {
+            // No row under this key (never written, or purged)
+            try {
+                this.jdbcTemplate.update(
+                        "INSERT INTO cart_store (cart_key, version, payload, updated_at_ms) VALUES (?, ?, ?, ?)",
+                        key, now, payload, now);
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+            cart.setVersion(now);
+            return true;
+        }
+
+        final int updated = this.jdbcTemplate.update(
+                "UPDATE cart_store SET version = version + 1, payload = ?, updated_at_ms = ? " +
+                "WHERE cart_key = ? AND version = ?",
+                payload, now, key, cart.getVersion());
+        if (updated == 0) return false;
+        cart.setVersion(cart.getVersion() + 1);
+        return true;
+    }
+
+    @Override
+    public void clear(final String key) {
+        if (key == null) throw new NullPointerException();
+        this.jdbcTemplate.update(
+                "UPDATE cart_store SET version = version + 1, payload = ?, updated_at_ms = ? WHERE cart_key = ?",
+                EMPTY, System.currentTimeMillis(), key);
+    }
+
+    @Override
+    public void delete(final String key) {
+        if (key == null) throw new NullPointerException();
+        this.jdbcTemplate.update("DELETE FROM cart_store WHERE cart_key = ?", key);
+    }
+
+    @Override
+    public int purgeExpired() {
+        return this.jdbcTemplate.update("DELETE FROM cart_store WHERE updated_at_ms < ?", cutoff());
+    }
+
+    private long cutoff() {
+        return System.currentTimeMillis() - this.ttlMillis;
+    }
+}
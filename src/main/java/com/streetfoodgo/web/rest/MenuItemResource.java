@@ -1,10 +1,15 @@
 package com.streetfoodgo.web.rest;
 
 import com.streetfoodgo.core.model.MenuCategory;
+import com.streetfoodgo.core.service.MenuItemCustomizationService;
 import com.streetfoodgo.core.service.MenuItemService;
 import com.streetfoodgo.core.service.model.CreateMenuItemRequest;
+import com.streetfoodgo.core.service.model.DishSearchResult;
+import com.streetfoodgo.core.service.model.MenuItemCustomizationsView;
 import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.SaveMenuItemCustomizationsRequest;
 import com.streetfoodgo.core.service.model.UpdateMenuItemRequest;
+import com.streetfoodgo.web.ConditionalGet;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,6 +24,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -32,10 +38,14 @@ import java.util.List;
 public class MenuItemResource {
 
     private final MenuItemService menuItemService;
+    private final MenuItemCustomizationService customizationService;
 
-    public MenuItemResource(final MenuItemService menuItemService) {
+    public MenuItemResource(final MenuItemService menuItemService,
+                            final MenuItemCustomizationService customizationService) {
         if (menuItemService == null) throw new NullPointerException();
+        if (customizationService == null) throw new NullPointerException();
         this.menuItemService = menuItemService;
+        this.customizationService = customizationService;
     }
 
     /**
@@ -46,12 +56,17 @@ public class MenuItemResource {
                description = "Retrieve menu items for a specific store, optionally filtered by category and availability status.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Successfully retrieved menu items"),
+        @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matches the store's menu version)"),
         @ApiResponse(responseCode = "400", description = "Invalid parameters (missing storeId or invalid category)")
     })
     public List<MenuItemView> getMenuItems(
             @Parameter(description = "Store ID", required = true) @RequestParam Long storeId,
             @Parameter(description = "Optional menu category filter") @RequestParam(required = false) MenuCategory category,
-            @Parameter(description = "Return only available items (default: true)") @RequestParam(defaultValue = "true") boolean availableOnly) {
+            @Parameter(description = "Return only available items (default: true)") @RequestParam(defaultValue = "true") boolean availableOnly,
+            final WebRequest webRequest) {
+
+        final String etag = ConditionalGet.menuTag(storeId, this.menuItemService.getMenuVersion(storeId));
+        if (ConditionalGet.notModified(webRequest, etag, false)) return null;
 
         if (category != null) {
             return this.menuItemService.getStoreMenuByCategory(storeId, category);
@@ -62,6 +77,23 @@ public class MenuItemResource {
         return this.menuItemService.getStoreMenu(storeId);
     }
 
+    /**
+     * Full-text dish search across all stores.
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search dishes",
+               description = "Ranked full-text search over available menu items of all stores. " +
+                             "Accent-insensitive (Greek/English), tolerant to typos and partial words.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matching dishes, best match first"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public List<DishSearchResult> searchDishes(
+            @Parameter(description = "Search text", required = true) @RequestParam String q,
+            @Parameter(description = "Maximum number of results (default: 20)") @RequestParam(defaultValue = "20") int limit) {
+        return this.menuItemService.searchDishes(q, Math.min(limit, 100));
+    }
+
     /**
      * Get a specific menu item by ID.
      */
@@ -70,10 +102,17 @@ public class MenuItemResource {
                description = "Retrieve detailed information about a specific menu item.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Menu item found"),
+        @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matches the store's menu version)"),
         @ApiResponse(responseCode = "404", description = "Menu item not found")
     })
     public ResponseEntity<MenuItemView> getMenuItem(
-            @Parameter(description = "Menu item ID") @PathVariable Long id) {
+            @Parameter(description = "Menu item ID") @PathVariable Long id,
+            final WebRequest webRequest) {
+        final Long storeId = this.menuItemService.getMenuItemStoreId(id).orElse(null);
+        if (storeId == null) return ResponseEntity.notFound().build();
+
+        final String etag = ConditionalGet.menuTag(storeId, this.menuItemService.getMenuVersion(storeId));
+        if (ConditionalGet.notModified(webRequest, etag, false)) return null;
         return this.menuItemService.getMenuItem(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -127,6 +166,30 @@ public class MenuItemResource {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Replace the whole option/choice/ingredient tree of a menu item (OWNER role required).
+     */
+    @PreAuthorize("hasRole('OWNER')")
+    @PutMapping("/{id}/customizations")
+    @Operation(summary = "Save menu item customizations",
+               description = "Save all options, choices and ingredients of a menu item in one transaction. " +
+                             "Entries with an id are updated, entries without one are created and existing entries " +
+                             "missing from the request are deleted. Requires OWNER role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Customizations saved"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or ids not belonging to the menu item"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    public MenuItemCustomizationsView saveCustomizations(
+            @Parameter(description = "Menu item ID") @PathVariable Long id,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Complete customization tree",
+                    required = true)
+            @RequestBody @Valid SaveMenuItemCustomizationsRequest request) {
+        return this.customizationService.saveCustomizations(id, request);
+    }
+
     /**
      * Toggle availability of a menu item (OWNER role required).
      */
@@ -166,4 +229,4 @@ public class MenuItemResource {
         this.menuItemService.deleteMenuItem(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
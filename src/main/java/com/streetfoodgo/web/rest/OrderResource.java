@@ -232,7 +232,8 @@ public class OrderResource {
                 request.paymentMethod(),
                 request.paymentTransactionId(),
                 request.items(),
-                request.customerNotes()
+                request.customerNotes(),
+                request.couponCode()
         );
 
         final OrderView created = this.orderService.createOrder(request);
@@ -343,4 +344,4 @@ public class OrderResource {
     public List<OrderView> getAllOrders() {
         return this.orderService.getAllOrders();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
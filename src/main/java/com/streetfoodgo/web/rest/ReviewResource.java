@@ -0,0 +1,81 @@
+package com.streetfoodgo.web.rest;
+
+import com.streetfoodgo.core.service.ReviewService;
+import com.streetfoodgo.core.service.model.CreateReviewRequest;
+import com.streetfoodgo.core.service.model.ReviewView;
+import com.streetfoodgo.core.service.model.StoreRatingView;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for order reviews and store ratings.
+ */
+@RestController
+@RequestMapping(value = "/api/v1", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Reviews", description = "APIs for reviewing completed orders and reading store ratings")
+public class ReviewResource {
+
+    private final ReviewService reviewService;
+
+    public ReviewResource(final ReviewService reviewService) {
+        if (reviewService == null) throw new NullPointerException();
+        this.reviewService = reviewService;
+    }
+
+    /**
+     * Review a completed order.
+     */
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @PostMapping("/reviews")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Review an order",
+               description = "Rate a completed order of the current customer (1-5 stars). Each order can be reviewed once.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Review created"),
+        @ApiResponse(responseCode = "400", description = "Order not completed or already reviewed"),
+        @ApiResponse(responseCode = "403", description = "Order belongs to another customer")
+    })
+    public ResponseEntity<ReviewView> createReview(@RequestBody @Valid final CreateReviewRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(this.reviewService.createReview(request));
+    }
+
+    /**
+     * Latest reviews of a store.
+     */
+    @GetMapping("/stores/{storeId}/reviews")
+    @Operation(summary = "Get store reviews", description = "Latest reviews of a store, newest first.")
+    public List<ReviewView> getStoreReviews(
+            @Parameter(description = "Store ID") @PathVariable Long storeId,
+            @Parameter(description = "Maximum number of reviews (1-100)") @RequestParam(defaultValue = "20") int limit) {
+        return this.reviewService.getStoreReviews(storeId, limit);
+    }
+
+    /**
+     * Rating summary of a store.
+     */
+    @GetMapping("/stores/{storeId}/rating")
+    @Operation(summary = "Get store rating", description = "Review count, average and 1-5 star histogram of a store.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Rating found"),
+        @ApiResponse(responseCode = "404", description = "Store not found")
+    })
+    public ResponseEntity<StoreRatingView> getStoreRating(
+            @Parameter(description = "Store ID") @PathVariable Long storeId) {
+        return this.reviewService.getStoreRating(storeId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,6 +1,8 @@
 package com.streetfoodgo.web.rest;
 
 import com.streetfoodgo.core.service.RoutingProxyService;
+import com.streetfoodgo.core.service.RoutingProxyService.EncodedRoute;
+import com.streetfoodgo.core.service.RoutingProxyService.GeometryFormat;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,6 +14,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -34,26 +37,56 @@ public class RoutingProxyResource {
     }
 
     @PreAuthorize("hasAnyRole('CUSTOMER','OWNER')")
-    @GetMapping("/route")
+    @GetMapping(value = "/route", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
     @Operation(
             summary = "Get route geometry + metrics",
-            description = "Proxy to external routing service (OSRM). Returns GeoJSON geometry plus distance/duration. " +
+            description = "Proxy to external routing service (OSRM). Returns geometry plus distance/duration. " +
+                          "The geometry can be simplified (Douglas-Peucker) for a map zoom level or an explicit " +
+                          "tolerance in meters, and returned as GeoJSON, a Google encoded polyline, or a compact " +
+                          "binary body (metrics in X-Route-* headers). " +
                           "Uses a safe fallback if the routing service is unavailable.")
     @ApiResponse(responseCode = "200", description = "Route computed")
-    public RouteResponse getRoute(
+    public ResponseEntity<?> getRoute(
             @RequestParam @NotNull @Min(-90) @Max(90) Double fromLat,
             @RequestParam @NotNull @Min(-180) @Max(180) Double fromLon,
             @RequestParam @NotNull @Min(-90) @Max(90) Double toLat,
-            @RequestParam @NotNull @Min(-180) @Max(180) Double toLon) {
+            @RequestParam @NotNull @Min(-180) @Max(180) Double toLon,
+            @RequestParam(required = false) @Min(0) @Max(22) Integer zoom,
+            @RequestParam(required = false) @Min(0) Double tolerance,
+            @RequestParam(defaultValue = "geojson") @Schema(allowableValues = {"geojson", "polyline", "binary"}) String format) {
 
-        RoutingProxyService.RouteWithGeometry route = routingProxyService.getRoute(fromLat, fromLon, toLat, toLon);
-        return new RouteResponse(route.distanceKm(), route.durationMinutes(), route.geometry(), route.fallback());
+        return toResponse(routingProxyService.getEncodedRoute(
+                fromLat, fromLon, toLat, toLon, zoom, tolerance, GeometryFormat.fromParam(format)));
+    }
+
+    /**
+     * Binary routes go out as a raw body with the metrics in {@code X-Route-*} headers, others as {@link RouteResponse}.
+     */
+    public static ResponseEntity<?> toResponse(final EncodedRoute route) {
+        if (route.format() == GeometryFormat.BINARY) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header("X-Route-Distance-Km", route.distanceKm().toPlainString())
+                    .header("X-Route-Duration-Minutes", String.valueOf(route.durationMinutes()))
+                    .header("X-Route-Points", String.valueOf(route.pointCount()))
+                    .header("X-Route-Fallback", String.valueOf(route.fallback()))
+                    .body(route.binary());
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new RouteResponse(route.distanceKm(), route.durationMinutes(), route.format().name().toLowerCase(),
+                        route.geometry(), route.polyline(), route.pointCount(), route.originalPointCount(),
+                        route.fallback()));
     }
 
     public record RouteResponse(
             @Schema(example = "2.35") BigDecimal distanceKm,
             @Schema(example = "9") Integer durationMinutes,
-            RoutingProxyService.GeoJsonLineString geometry,
+            @Schema(example = "polyline") String format,
+            @Schema(description = "GeoJSON geometry; set when format=geojson") RoutingProxyService.GeoJsonLineString geometry,
+            @Schema(description = "Google encoded polyline (precision 5); set when format=polyline") String polyline,
+            @Schema(example = "42") int pointCount,
+            @Schema(example = "512") int originalPointCount,
             @Schema(description = "True when OSRM was unavailable and we returned an approximate straight-line route") boolean fallback
     ) {}
 }
@@ -2,11 +2,19 @@ package com.streetfoodgo.web.rest;
 
 import com.streetfoodgo.core.model.CuisineType;
 import com.streetfoodgo.core.service.StoreService;
+import com.streetfoodgo.core.service.TypeaheadService;
 import com.streetfoodgo.core.service.model.CreateStoreRequest;
+import com.streetfoodgo.core.service.model.StoreStatusView;
+import com.streetfoodgo.core.service.model.StoreListQuery;
+import com.streetfoodgo.core.service.model.StorePage;
 import com.streetfoodgo.core.service.model.StoreView;
+import com.streetfoodgo.core.service.model.TypeaheadSuggestion;
 import com.streetfoodgo.core.service.model.UpdateStoreRequest;
 import com.streetfoodgo.core.service.GeolocationService;
+import com.streetfoodgo.core.service.MenuItemService;
+import com.streetfoodgo.core.service.StoreScheduleService;
 import com.streetfoodgo.core.service.model.DeliveryAddressView;
+import com.streetfoodgo.web.ConditionalGet;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,14 +25,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for Store management.
@@ -37,39 +49,102 @@ public class StoreResource {
 
     private final StoreService storeService;
     private final GeolocationService geolocationService;
+    private final TypeaheadService typeaheadService;
+    private final MenuItemService menuItemService;
+    private final StoreScheduleService storeScheduleService;
 
-    public StoreResource(final StoreService storeService, final GeolocationService geolocationService) {
+    public StoreResource(final StoreService storeService,
+                         final GeolocationService geolocationService,
+                         final TypeaheadService typeaheadService,
+                         final MenuItemService menuItemService,
+                         final StoreScheduleService storeScheduleService) {
         if (storeService == null) throw new NullPointerException();
         if (geolocationService == null) throw new NullPointerException();
+        if (typeaheadService == null) throw new NullPointerException();
+        if (menuItemService == null) throw new NullPointerException();
+        if (storeScheduleService == null) throw new NullPointerException();
         this.storeService = storeService;
         this.geolocationService = geolocationService;
+        this.typeaheadService = typeaheadService;
+        this.menuItemService = menuItemService;
+        this.storeScheduleService = storeScheduleService;
     }
 
     /**
-     * Get all stores, optionally filtered by area, cuisine type, or search keyword.
+     * Get stores, filtered by any combination of facets and/or a search keyword; sorted and paged.
      */
     @GetMapping
     @Operation(summary = "Get stores",
-               description = "Retrieve stores with optional filtering by area, cuisine type, or search keyword. If no filters provided, returns only open stores.")
+               description = "Retrieve a page of stores filtered by any combination of cuisine, area, delivery, pickup, " +
+                             "open status and maximum minimum-order (repeat cuisine/area to match any of several values). " +
+                             "Without a search or area filter only open stores are returned unless 'open' is given. " +
+                             "The response includes per-facet value counts. Sort by comma separated keys " +
+                             "(open, eta, fee, minOrder, rating, reviews, name, newest; prefix '-' to reverse), e.g. 'open,eta,fee'. " +
+                             "Use nextCursor to fetch the following page stably.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Successfully retrieved stores"),
-        @ApiResponse(responseCode = "400", description = "Invalid filter parameters")
+        @ApiResponse(responseCode = "400", description = "Invalid filter, sort or cursor parameters")
     })
-    public List<StoreView> getAllStores(
-            @Parameter(description = "Filter by area/location") @RequestParam(required = false) String area,
-            @Parameter(description = "Filter by cuisine type") @RequestParam(required = false) CuisineType cuisine,
-            @Parameter(description = "Search by store name or description") @RequestParam(required = false) String search) {
-
-        if (search != null && !search.isBlank()) {
-            return this.storeService.searchStores(search);
-        }
-        if (cuisine != null) {
-            return this.storeService.getStoresByCuisine(cuisine);
-        }
-        if (area != null && !area.isBlank()) {
-            return this.storeService.getStoresByArea(area);
-        }
-        return this.storeService.getOpenStores();
+    public StorePage getAllStores(
+            @Parameter(description = "Filter by area/location (any of)") @RequestParam(required = false) Set<String> area,
+            @Parameter(description = "Filter by cuisine type (any of)") @RequestParam(required = false) Set<CuisineType> cuisine,
+            @Parameter(description = "Search by store name or description") @RequestParam(required = false) String search,
+            @Parameter(description = "Only stores offering delivery (true) or not (false)") @RequestParam(required = false) Boolean delivery,
+            @Parameter(description = "Only stores offering pickup (true) or not (false)") @RequestParam(required = false) Boolean pickup,
+            @Parameter(description = "Only open (true) or closed (false) stores") @RequestParam(required = false) Boolean open,
+            @Parameter(description = "Maximum minimum-order amount") @RequestParam(required = false) BigDecimal maxMinOrder,
+            @Parameter(description = "Sort keys (default: open,rating,eta; relevance when searching)") @RequestParam(required = false) String sort,
+            @Parameter(description = "Zero-based page (ignored with cursor)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (default: 20, max: 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor) {
+
+        // Without a search or an area filter only open stores are listed, unless asked otherwise
+        final boolean openByDefault = (search == null || search.isBlank()) && (area == null || area.isEmpty());
+        return this.storeService.listStores(StoreListQuery.builder()
+                .search(search)
+                .cuisines(cuisine)
+                .areas(area)
+                .delivery(delivery)
+                .pickup(pickup)
+                .open(open != null ? open : (openByDefault ? Boolean.TRUE : null))
+                .maxMinimumOrder(maxMinOrder)
+                .sort(sort)
+                .page(page)
+                .size(size)
+                .cursor(cursor)
+                .build());
+    }
+
+    /**
+     * Search-box suggestions as the user types.
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Typeahead suggestions",
+               description = "Suggest store names, dish names and areas starting with the typed prefix (any word), " +
+                             "ranked by order popularity. Served from memory.")
+    @ApiResponse(responseCode = "200", description = "Suggestions, most popular first")
+    public List<TypeaheadSuggestion> suggest(
+            @Parameter(description = "Typed prefix") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Maximum number of suggestions (default: 8)") @RequestParam(defaultValue = "8") int limit) {
+        return this.typeaheadService.suggest(q, Math.max(1, Math.min(limit, 20)));
+    }
+
+    /**
+     * Bulk open-now check against the compiled weekly schedules.
+     */
+    @GetMapping("/open")
+    @Operation(summary = "Which stores are open",
+               description = "Return the ids of the given stores (all stores if none given) that are open at the given " +
+                             "date/time (now if omitted), honouring both the manual open flag and the weekly schedule.")
+    @ApiResponse(responseCode = "200", description = "Ids of the open stores")
+    public List<Long> getOpenStoreIds(
+            @Parameter(description = "Store ids to check") @RequestParam(required = false) List<Long> ids,
+            @Parameter(description = "Date/time to check (ISO-8601, e.g. 2025-01-31T21:30)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        final List<Long> storeIds = ids != null && !ids.isEmpty()
+                ? ids
+                : this.storeService.getAllStores().stream().map(StoreView::id).toList();
+        return List.copyOf(this.storeScheduleService.getOpenStoreIds(storeIds, at != null ? at : LocalDateTime.now()));
     }
 
     /**
@@ -80,13 +155,35 @@ public class StoreResource {
                description = "Retrieve detailed information about a specific store including menu, hours, and delivery options.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Store found"),
+        @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matches the current ETag)"),
         @ApiResponse(responseCode = "404", description = "Store not found")
     })
     public ResponseEntity<StoreView> getStore(
-            @Parameter(description = "Store ID") @PathVariable Long id) {
-        return this.storeService.getStore(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "Store ID") @PathVariable Long id,
+            final WebRequest webRequest) {
+        final StoreView store = this.storeService.getStore(id).orElse(null);
+        if (store == null) return ResponseEntity.notFound().build();
+
+        final String etag = ConditionalGet.storeTag(store, this.menuItemService.getMenuVersion(id));
+        if (ConditionalGet.notModified(webRequest, etag, false)) return null;
+        return ResponseEntity.ok(store);
+    }
+
+    /**
+     * Live open/closed status of a store.
+     */
+    @GetMapping("/{id}/status")
+    @Operation(summary = "Get store status",
+               description = "Current open/closed state (manual flag and weekly schedule) and the next scheduled transition. " +
+                             "Changes are pushed over STOMP on /topic/stores/{id}/status.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Store status"),
+        @ApiResponse(responseCode = "404", description = "Store not found")
+    })
+    public ResponseEntity<StoreStatusView> getStoreStatus(@Parameter(description = "Store ID") @PathVariable Long id) {
+        final StoreStatusView status = this.storeScheduleService.getStoreStatus(id);
+        if (status == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(status);
     }
 
     /**
@@ -203,4 +300,4 @@ public class StoreResource {
             BigDecimal distanceKm,
             Integer estimatedMinutes
     ) {}
-}
\ No newline at end of file
+}
\ No newline at end of file
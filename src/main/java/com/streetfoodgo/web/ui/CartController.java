@@ -3,10 +3,13 @@ package com.streetfoodgo.web.ui;
 import com.streetfoodgo.core.service.MenuItemService;
 import com.streetfoodgo.core.service.StoreService;
 import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.PromotionResult;
+import com.streetfoodgo.core.service.model.StoreMenu;
 import com.streetfoodgo.core.service.model.StoreView;
 import com.streetfoodgo.web.api.cart.CartLine;
-import com.streetfoodgo.web.api.cart.CartSessionUtils;
-import jakarta.servlet.http.HttpSession;
+import com.streetfoodgo.web.api.cart.CartManager;
+import com.streetfoodgo.web.api.cart.CartPricing;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -30,12 +33,18 @@ public class CartController {
 
     private final StoreService storeService;
     private final MenuItemService menuItemService;
+    private final CartManager cartManager;
+    private final CartPricing cartPricing;
 
     public CartController(
             final StoreService storeService,
-            final MenuItemService menuItemService) {
+            final MenuItemService menuItemService,
+            final CartManager cartManager,
+            final CartPricing cartPricing) {
         this.storeService = storeService;
         this.menuItemService = menuItemService;
+        this.cartManager = cartManager;
+        this.cartPricing = cartPricing;
     }
 
     /**
@@ -43,11 +52,11 @@ public class CartController {
      */
     @GetMapping
     public String viewCart(
-            HttpSession session,
+            final HttpServletRequest request,
             final Model model) {
 
         try {
-            final List<CartLine> cartItems = CartSessionUtils.getOrCreateCart(session);
+            final List<CartLine> cartItems = this.cartManager.current(request).getLines();
 
             if (cartItems.isEmpty()) {
                 model.addAttribute("cart", null);
@@ -62,6 +71,7 @@ public class CartController {
             List<Map<String, Object>> storeGroups = new ArrayList<>();
             BigDecimal totalSubtotal = BigDecimal.ZERO;
             BigDecimal totalDelivery = BigDecimal.ZERO;
+            BigDecimal totalDiscount = BigDecimal.ZERO;
 
             for (Map.Entry<Long, List<CartLine>> entry : itemsByStore.entrySet()) {
                 Long storeId = entry.getKey();
@@ -72,14 +82,15 @@ public class CartController {
 
                 BigDecimal storeSubtotal = BigDecimal.ZERO;
                 List<Map<String, Object>> storeItemsList = new ArrayList<>();
+                final StoreMenu menu = menuItemService.getStoreMenuSnapshot(storeId);
 
                 for (CartLine cartItem : storeItems) {
-                    MenuItemView menuItem = menuItemService.getMenuItem(cartItem.getMenuItemId())
+                    MenuItemView menuItem = menu.item(cartItem.getMenuItemId())
                             .orElse(null);
 
                     if (menuItem != null) {
-                        BigDecimal itemTotal = menuItem.price()
-                                .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
+                        // Priced by CartPricing, choice surcharges included
+                        BigDecimal itemTotal = cartItem.getTotalPrice();
                         storeSubtotal = storeSubtotal.add(itemTotal);
 
                         Map<String, Object> itemMap = new HashMap<>();
@@ -87,7 +98,7 @@ public class CartController {
                         itemMap.put("menuItemId", menuItem.id());
                         itemMap.put("name", menuItem.name());
                         itemMap.put("description", menuItem.description());
-                        itemMap.put("unitPrice", menuItem.price());
+                        itemMap.put("unitPrice", cartItem.getUnitPrice());
                         itemMap.put("quantity", cartItem.getQuantity());
                         itemMap.put("selectedChoiceIds", cartItem.getSelectedChoiceIds());
                         itemMap.put("removedIngredientIds", cartItem.getRemovedIngredientIds());
@@ -99,28 +110,36 @@ public class CartController {
                     }
                 }
 
+                // The store's running promotions, as the order will apply them
+                final PromotionResult promotions = cartPricing.promotions(storeId, storeItems, store.deliveryFee());
+                final BigDecimal deliveryFee = store.deliveryFee().subtract(promotions.deliveryDiscount());
+
                 Map<String, Object> storeGroup = new HashMap<>();
                 storeGroup.put("storeId", store.id());
                 storeGroup.put("storeName", store.name());
                 storeGroup.put("storeArea", store.area());
                 storeGroup.put("items", storeItemsList);
                 storeGroup.put("subtotal", storeSubtotal);
-                storeGroup.put("deliveryFee", store.deliveryFee());
+                storeGroup.put("deliveryFee", deliveryFee);
+                storeGroup.put("discount", promotions.discount());
+                storeGroup.put("promotions", promotions.applied());
                 storeGroup.put("minimumOrder", store.minimumOrderAmount());
 
                 storeGroups.add(storeGroup);
 
                 totalSubtotal = totalSubtotal.add(storeSubtotal);
-                totalDelivery = totalDelivery.add(store.deliveryFee());
+                totalDelivery = totalDelivery.add(deliveryFee);
+                totalDiscount = totalDiscount.add(promotions.discount());
             }
 
             Map<String, Object> cart = new HashMap<>();
             cart.put("storeGroups", storeGroups);
             cart.put("items", cartItems);
             cart.put("subtotal", totalSubtotal);
+            cart.put("discount", totalDiscount);
             cart.put("deliveryTotal", totalDelivery);
             cart.put("serviceFee", BigDecimal.ZERO);
-            cart.put("total", totalSubtotal.add(totalDelivery));
+            cart.put("total", totalSubtotal.subtract(totalDiscount).add(totalDelivery));
 
             model.addAttribute("cart", cart);
             return "cart/cart";
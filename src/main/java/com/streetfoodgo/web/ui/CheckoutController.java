@@ -4,15 +4,17 @@ import com.streetfoodgo.core.model.*;
 import com.streetfoodgo.core.port.PaymentPort;
 import com.streetfoodgo.core.repository.PersonRepository;
 import com.streetfoodgo.core.security.CurrentUserProvider;
-import com.streetfoodgo.core.service.DeliveryAddressService;
+import com.streetfoodgo.core.service.CouponService;
 import com.streetfoodgo.core.service.MenuItemService;
 import com.streetfoodgo.core.service.OrderService;
-import com.streetfoodgo.core.service.StoreService;
 import com.streetfoodgo.core.service.PaymentMethodService;
+import com.streetfoodgo.core.service.StoreScheduleService;
 import com.streetfoodgo.core.service.model.*;
 import com.streetfoodgo.web.api.cart.CartLine;
-import com.streetfoodgo.web.api.cart.CartSessionUtils;
-import jakarta.servlet.http.HttpSession;
+import com.streetfoodgo.web.api.cart.CartManager;
+import com.streetfoodgo.web.api.cart.CheckoutSession;
+import com.streetfoodgo.web.api.cart.CheckoutSessions;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,30 +35,36 @@ public class CheckoutController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CheckoutController.class);
 
-    private final StoreService storeService;
     private final MenuItemService menuItemService;
-    private final DeliveryAddressService deliveryAddressService;
     private final OrderService orderService;
     private final PaymentPort paymentPort;
     private final CurrentUserProvider currentUserProvider;
     private final PaymentMethodService paymentMethodService;
+    private final StoreScheduleService storeScheduleService;
+    private final CartManager cartManager;
+    private final CheckoutSessions checkoutSessions;
+    private final CouponService couponService;
 
     public CheckoutController(
-            final StoreService storeService,
             final MenuItemService menuItemService,
-            final DeliveryAddressService deliveryAddressService,
             final OrderService orderService,
             final PaymentPort paymentPort,
             final CurrentUserProvider currentUserProvider,
-            final PaymentMethodService paymentMethodService) {
+            final PaymentMethodService paymentMethodService,
+            final StoreScheduleService storeScheduleService,
+            final CartManager cartManager,
+            final CheckoutSessions checkoutSessions,
+            final CouponService couponService) {
 
-        this.storeService = storeService;
         this.menuItemService = menuItemService;
-        this.deliveryAddressService = deliveryAddressService;
         this.orderService = orderService;
         this.paymentPort = paymentPort;
         this.currentUserProvider = currentUserProvider;
         this.paymentMethodService = paymentMethodService;
+        this.storeScheduleService = storeScheduleService;
+        this.cartManager = cartManager;
+        this.checkoutSessions = checkoutSessions;
+        this.couponService = couponService;
     }
 
     /**
@@ -64,52 +72,40 @@ public class CheckoutController {
      */
     @GetMapping
     @Transactional(readOnly = true)
-    public String showCheckout(final HttpSession session, final Model model, final RedirectAttributes redirectAttributes) {
+    public String showCheckout(final HttpServletRequest request, final Model model, final RedirectAttributes redirectAttributes) {
         
         final var currentUser = this.currentUserProvider.requireCurrentUser();
         
-        // Get cart items
-        List<CartLine> cart = CartSessionUtils.getCart(session);
-        if (cart.isEmpty()) {
+        // Resolve the whole checkout once; the submit reuses it by id
+        final CheckoutSession session = this.checkoutSessions.open(request, currentUser.id());
+        if (session.isEmpty()) {
             redirectAttributes.addFlashAttribute("errorMessage", "Το καλάθι σας είναι άδειο!");
             return "redirect:/cart";
         }
 
-        // Get store from first item
-        Long storeId = cart.get(0).getStoreId();
-        StoreView store = this.storeService.getStore(storeId)
-                .orElseThrow(() -> new IllegalStateException("Store not found"));
-
-        // Calculate totals
-        BigDecimal subtotal = cart.stream()
-                .map(CartLine::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal deliveryFee = store.deliveryFee() != null ? store.deliveryFee() : BigDecimal.ZERO;
-
-        // Get user's delivery addresses
-        List<DeliveryAddressView> addresses = this.deliveryAddressService.getCustomerAddresses(currentUser.id());
-
-        // Get user's payment methods
-        final var paymentMethods = this.paymentMethodService.getCustomerPaymentMethods(currentUser.id());
-
-        // Get cart line details with menu items
-        List<Map<String, Object>> cartDetails = cart.stream().map(cartLine -> {
-            MenuItemView menuItem = this.menuItemService.getMenuItem(cartLine.getMenuItemId()).orElse(null);
+        // Get cart line details with menu items (one cached menu snapshot for the whole cart)
+        final StoreMenu menu = this.menuItemService.getStoreMenuSnapshot(session.store().id());
+        List<Map<String, Object>> cartDetails = session.lines().stream().map(cartLine -> {
+            MenuItemView menuItem = menu.item(cartLine.getMenuItemId()).orElse(null);
             Map<String, Object> item = new HashMap<>();
             item.put("cartLine", cartLine);
             item.put("menuItem", menuItem);
             return item;
         }).collect(Collectors.toList());
 
-        model.addAttribute("store", store);
+        model.addAttribute("checkoutId", session.id());
+        model.addAttribute("checkoutProblems", session.problems());
+        model.addAttribute("store", session.store());
+        model.addAttribute("storeOpenNow", session.storeOpen());
         model.addAttribute("cartDetails", cartDetails);
-        model.addAttribute("subtotal", subtotal);
-        model.addAttribute("deliveryFee", deliveryFee);
-        model.addAttribute("total", subtotal.add(deliveryFee));
-        model.addAttribute("addresses", addresses);
+        model.addAttribute("subtotal", session.subtotal());
+        model.addAttribute("promotions", session.promotions().applied());
+        model.addAttribute("promotionDiscount", session.promotions().discount());
+        model.addAttribute("deliveryFee", session.deliveryFee(OrderType.DELIVERY));
+        model.addAttribute("total", session.total(OrderType.DELIVERY));
+        model.addAttribute("addresses", session.addresses());
         model.addAttribute("orderTypes", OrderType.values());
-        model.addAttribute("paymentMethods", paymentMethods);
+        model.addAttribute("paymentMethods", session.paymentMethods());
 
         return "cart/checkout";
     }
@@ -118,9 +114,9 @@ public class CheckoutController {
      * Process the order with payment.
      */
     @PostMapping("/process")
-    @Transactional
     public String processCheckout(
-            final HttpSession session,
+            final HttpServletRequest request,
+            @RequestParam(value = "checkoutId", required = false) final String checkoutId,
             @RequestParam("orderType") final String orderTypeStr,
             @RequestParam(value = "deliveryAddressId", required = false) final Long deliveryAddressId,
             @RequestParam("paymentMethod") final String paymentMethodStr,
@@ -131,18 +127,25 @@ public class CheckoutController {
             @RequestParam(value = "expiryYear", required = false) final Integer expiryYear,
             @RequestParam(value = "cvv", required = false) final String cvv,
             @RequestParam(value = "customerNotes", required = false) final String customerNotes,
+            @RequestParam(value = "couponCode", required = false) final String couponCode,
             @RequestParam(value = "saveCard", required = false, defaultValue = "false") final boolean saveCard,
             final RedirectAttributes redirectAttributes) {
 
+        // Not transactional: the order is created in its own transaction, so a refused order surfaces here
+        // as its own exception (and message) instead of rolling back an outer transaction at commit
+        CouponQuote reservedCoupon = null;
+        Long reservedFor = null;
+        boolean placed = false;
         try {
             final var currentUser = this.currentUserProvider.requireCurrentUser();
             
-            // Get cart
-            List<CartLine> cart = CartSessionUtils.getCart(session);
-            if (cart == null || cart.isEmpty()) {
+            // The session resolved when the page opened (rebuilt if the cart changed meanwhile)
+            final CheckoutSession session = this.checkoutSessions.resume(checkoutId, request, currentUser.id());
+            if (session.isEmpty()) {
                 redirectAttributes.addFlashAttribute("errorMessage", "Your cart is empty!");
                 return "redirect:/cart";
             }
+            final List<CartLine> cart = session.lines();
 
             // Parse enums with better error handling
             OrderType orderType;
@@ -162,31 +165,42 @@ public class CheckoutController {
                 return "redirect:/checkout";
             }
 
-            // Get store
-            Long storeId = cart.get(0).getStoreId();
-            StoreView store = this.storeService.getStore(storeId)
-                    .orElseThrow(() -> new IllegalStateException("Store not found"));
+            final StoreView store = session.store();
+            final Long storeId = store.id();
+            if (!session.isValid()) {
+                redirectAttributes.addFlashAttribute("errorMessage", session.problems().get(0));
+                return "redirect:/cart";
+            }
 
-            // Calculate total
-            BigDecimal subtotal = cart.stream()
-                    .map(CartLine::getTotalPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal deliveryFee = orderType == OrderType.DELIVERY && store.deliveryFee() != null 
-                    ? store.deliveryFee() : BigDecimal.ZERO;
-            BigDecimal total = subtotal.add(deliveryFee);
+            // Fail fast (before charging the card) if the store has closed meanwhile
+            final StoreStatusView status = this.storeScheduleService.getStoreStatus(storeId);
+            if (status == null || !status.open()) {
+                redirectAttributes.addFlashAttribute("errorMessage",
+                        "Store " + store.name() + " is currently closed.");
+                return "redirect:/cart";
+            }
+
+            // The coupon is checked before the card is charged, so the charge already carries the discount, and a
+            // limited coupon's use is reserved, so it cannot run out between the charge and the order
+            final boolean withCoupon = couponCode != null && !couponCode.isBlank();
+            BigDecimal discount = BigDecimal.ZERO;
+            if (withCoupon) {
+                final CouponQuote quote = this.couponService.quote(couponCode, currentUser.id(), storeId, session.discountedSubtotal());
+                this.couponService.reserve(quote, currentUser.id());
+                reservedCoupon = quote;
+                reservedFor = currentUser.id();
+                discount = quote.discount();
+            }
+            final BigDecimal total = session.total(orderType).subtract(discount);
 
             // Process payment if CARD
             String transactionId = null;
             if (paymentMethod == PaymentMethod.CARD) {
                 // If using a saved card
                 if (savedPaymentMethodId != null) {
-                    // Fetch saved card to ensure it belongs to user
+                    // The saved card must be one of the user's (as resolved with the session)
                     // In a real app, uses a token. Here we mock it.
-                    SavedPaymentMethod savedCard = this.paymentMethodService.getCustomerPaymentMethods(currentUser.id())
-                            .stream()
-                            .filter(m -> m.getId().equals(savedPaymentMethodId))
-                            .findFirst()
-                            .orElse(null);
+                    SavedPaymentMethod savedCard = session.paymentMethod(savedPaymentMethodId);
 
                     if (savedCard == null) {
                         redirectAttributes.addFlashAttribute("errorMessage", "Invalid saved card selected.");
@@ -272,18 +286,21 @@ public class CheckoutController {
                     paymentMethod,
                     transactionId,
                     items,
-                    customerNotes
+                    customerNotes,
+                    withCoupon ? couponCode : null
             );
 
             // Create the order
             OrderView order = this.orderService.createOrder(orderRequest);
+            placed = true;
 
             // Log order creation
             LOGGER.info("Order {} created successfully with payment method: {}, transaction: {}",
                     order.id(), paymentMethod, transactionId);
 
             // Clear cart
-            CartSessionUtils.clearCart(session);
+            this.checkoutSessions.close(session.id());
+            this.cartManager.clear(request);
 
             redirectAttributes.addFlashAttribute("successMessage", 
                     "Order placed successfully! Order number: #" + order.id());
@@ -307,6 +324,9 @@ public class CheckoutController {
             redirectAttributes.addFlashAttribute("errorMessage",
                     "An unexpected error occurred: " + e.getMessage());
             return "redirect:/checkout";
+        } finally {
+            // No order: give the reserved coupon use back
+            if (!placed && reservedCoupon != null) this.couponService.release(reservedCoupon, reservedFor);
         }
     }
 }
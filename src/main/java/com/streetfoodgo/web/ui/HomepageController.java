@@ -1,71 +1,61 @@
 package com.streetfoodgo.web.ui;
 
+import com.streetfoodgo.core.model.PersonType;
+import com.streetfoodgo.core.security.CurrentUser;
+import com.streetfoodgo.core.security.CurrentUserProvider;
+import com.streetfoodgo.core.service.HomeFeedService;
+import com.streetfoodgo.core.service.StoreScheduleService;
+import com.streetfoodgo.core.service.model.HomeFeed;
+import com.streetfoodgo.core.service.model.StoreView;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Homepage with the featured, popular-near-you and reorder store sections.
+ */
 @Controller
 public class HomepageController {
 
-    @GetMapping("/")
-    public String home(Model model) {
-        // Προσθήκη dummy data για τα featured stores
-        model.addAttribute("featuredStores", getDummyStores());
-        return "home/homepage";  // Αλλαγή από "homepage" σε "home/homepage"
-    }
-
-    private List<Store> getDummyStores() {
-        return Arrays.asList(
-                new Store(1L, "QuantumBurger", "Burgers", "Fast food with quantum tech", true, 25, 12.0, "Kolonaki", true, true, 2.5),
-                new Store(2L, "Sushi.AI", "Japanese", "AI-prepared sushi", true, 30, 15.0, "Syntagma", true, false, 3.0),
-                new Store(3L, "Pizza Matrix", "Italian", "Neo-pizza experience", true, 20, 10.0, "Gazi", true, true, 2.0)
-        );
+    private final HomeFeedService homeFeedService;
+    private final CurrentUserProvider currentUserProvider;
+    private final StoreScheduleService storeScheduleService;
+
+    public HomepageController(final HomeFeedService homeFeedService,
+                              final CurrentUserProvider currentUserProvider,
+                              final StoreScheduleService storeScheduleService) {
+        if (homeFeedService == null) throw new NullPointerException();
+        if (currentUserProvider == null) throw new NullPointerException();
+        if (storeScheduleService == null) throw new NullPointerException();
+        this.homeFeedService = homeFeedService;
+        this.currentUserProvider = currentUserProvider;
+        this.storeScheduleService = storeScheduleService;
     }
 
-    // Simple DTO class for the example
-    public static class Store {
-        private final Long id;
-        private final String name;
-        private final String cuisineType;
-        private final String description;
-        private final boolean isOpen;
-        private final int estimatedDeliveryTimeMinutes;
-        private final double minimumOrderAmount;
-        private final String area;
-        private final boolean acceptsDelivery;
-        private final boolean acceptsPickup;
-        private final double deliveryFee;
-
-        public Store(Long id, String name, String cuisineType, String description, boolean isOpen,
-                     int estimatedDeliveryTimeMinutes, double minimumOrderAmount, String area,
-                     boolean acceptsDelivery, boolean acceptsPickup, double deliveryFee) {
-            this.id = id;
-            this.name = name;
-            this.cuisineType = cuisineType;
-            this.description = description;
-            this.isOpen = isOpen;
-            this.estimatedDeliveryTimeMinutes = estimatedDeliveryTimeMinutes;
-            this.minimumOrderAmount = minimumOrderAmount;
-            this.area = area;
-            this.acceptsDelivery = acceptsDelivery;
-            this.acceptsPickup = acceptsPickup;
-            this.deliveryFee = deliveryFee;
-        }
-
-        // Getters
-        public Long getId() { return id; }
-        public String getName() { return name; }
-        public String getCuisineType() { return cuisineType; }
-        public String getDescription() { return description; }
-        public boolean isOpen() { return isOpen; }
-        public int getEstimatedDeliveryTimeMinutes() { return estimatedDeliveryTimeMinutes; }
-        public double getMinimumOrderAmount() { return minimumOrderAmount; }
-        public String getArea() { return area; }
-        public boolean acceptsDelivery() { return acceptsDelivery; }
-        public boolean acceptsPickup() { return acceptsPickup; }
-        public double getDeliveryFee() { return deliveryFee; }
+    @GetMapping("/")
+    public String home(final Model model) {
+        // Only customers get personalized sections; guests, owners and admins see the global ones
+        final Long customerId = this.currentUserProvider.getCurrentUser()
+                .filter(u -> u.type() == PersonType.CUSTOMER)
+                .map(CurrentUser::id)
+                .orElse(null);
+
+        final HomeFeed feed = this.homeFeedService.getFeed(customerId);
+        model.addAttribute("featuredStores", feed.featured());
+        model.addAttribute("popularStores", feed.popularNearby());
+        model.addAttribute("nearbyArea", feed.nearbyArea());
+        model.addAttribute("reorderStores", feed.reorder());
+        // The cards' OPEN badge: manual flag and schedule, not the manual flag alone
+        model.addAttribute("openStoreIds", this.storeScheduleService.getOpenStoreIds(
+                Stream.of(feed.featured(), feed.popularNearby(), feed.reorder())
+                        .flatMap(List::stream)
+                        .map(StoreView::id)
+                        .toList(),
+                LocalDateTime.now()));
+        return "home/homepage";
     }
-}
\ No newline at end of file
+}
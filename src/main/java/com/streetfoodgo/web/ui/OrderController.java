@@ -1,7 +1,10 @@
 package com.streetfoodgo.web.ui;
 
+import com.streetfoodgo.core.model.OrderStatus;
 import com.streetfoodgo.core.security.CurrentUserProvider;
 import com.streetfoodgo.core.service.OrderService;
+import com.streetfoodgo.core.service.ReviewService;
+import com.streetfoodgo.core.service.model.CreateReviewRequest;
 import com.streetfoodgo.core.service.model.OrderView;
 
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -11,6 +14,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 
@@ -24,16 +29,20 @@ public class OrderController {
 
     private final OrderService orderService;
     private final CurrentUserProvider currentUserProvider;
+    private final ReviewService reviewService;
 
     public OrderController(
             final OrderService orderService,
-            final CurrentUserProvider currentUserProvider) {
+            final CurrentUserProvider currentUserProvider,
+            final ReviewService reviewService) {
 
         if (orderService == null) throw new NullPointerException();
         if (currentUserProvider == null) throw new NullPointerException();
+        if (reviewService == null) throw new NullPointerException();
 
         this.orderService = orderService;
         this.currentUserProvider = currentUserProvider;
+        this.reviewService = reviewService;
     }
 
     @GetMapping
@@ -50,7 +59,13 @@ public class OrderController {
         final OrderView order = this.orderService.getOrder(id)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
 
+        final var currentUser = this.currentUserProvider.requireCurrentUser();
+        final boolean reviewed = this.reviewService.hasReview(order.id());
+        final boolean ownOrder = order.customer() != null && order.customer().id() == currentUser.id();
+
         model.addAttribute("order", order);
+        model.addAttribute("reviewed", reviewed);
+        model.addAttribute("canReview", ownOrder && order.status() == OrderStatus.COMPLETED && !reviewed);
         return "orders/detail";
     }
 
@@ -109,6 +124,26 @@ public class OrderController {
         return "redirect:/orders/" + id;
     }
 
+    @PostMapping("/{id}/review")
+    public String reviewOrder(@PathVariable Long id,
+                              @RequestParam(required = false) String rating,
+                              @RequestParam(required = false) String comment,
+                              final RedirectAttributes redirectAttributes) {
+        final Integer stars;
+        try {
+            stars = rating == null ? null : Integer.valueOf(rating.trim());
+        } catch (NumberFormatException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Rating must be between 1 and 5");
+            return "redirect:/orders/" + id;
+        }
+        try {
+            this.reviewService.createReview(new CreateReviewRequest(id, stars, comment));
+        } catch (IllegalArgumentException | SecurityException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return "redirect:/orders/" + id;
+    }
+
     // ========== ΠΡΟΣΘΗΚΗ ΑΥΤΟΥ ==========
     /**
      * Order confirmation page after checkout.
@@ -121,4 +156,4 @@ public class OrderController {
         model.addAttribute("orderId", orderId);
         return "orders/confirm";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -49,11 +49,16 @@ public class OwnerController {
     }
 
     @GetMapping("/dashboard")
-    public String dashboard(final Model model) {
+    public String dashboard(
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            final Model model) {
         final var currentUser = this.currentUserProvider.requireCurrentUser();
-        final List<StoreView> myStores = this.storeService.getOwnerStores(currentUser.id());
+        final StorePage myStores = this.storeService.getOwnerStores(currentUser.id(), sort, page, size);
 
-        model.addAttribute("stores", myStores);
+        model.addAttribute("stores", myStores.items());
+        model.addAttribute("storePage", myStores);
         return "owner/dashboard";
     }
 
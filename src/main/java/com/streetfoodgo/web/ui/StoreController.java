@@ -2,9 +2,14 @@ package com.streetfoodgo.web.ui;
 
 import com.streetfoodgo.core.model.CuisineType;
 import com.streetfoodgo.core.service.MenuItemService;
+import com.streetfoodgo.core.service.StoreScheduleService;
 import com.streetfoodgo.core.service.StoreService;
 import com.streetfoodgo.core.service.model.MenuItemView;
+import com.streetfoodgo.core.service.model.StoreListQuery;
+import com.streetfoodgo.core.service.model.StorePage;
+import com.streetfoodgo.core.service.model.StoreStatusView;
 import com.streetfoodgo.core.service.model.StoreView;
+import com.streetfoodgo.web.ConditionalGet;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,8 +17,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -25,66 +35,109 @@ public class StoreController {
 
     private final StoreService storeService;
     private final MenuItemService menuItemService;
+    private final StoreScheduleService storeScheduleService;
 
     public StoreController(
             final StoreService storeService,
-            final MenuItemService menuItemService) {
+            final MenuItemService menuItemService,
+            final StoreScheduleService storeScheduleService) {
 
         if (storeService == null) throw new NullPointerException();
         if (menuItemService == null) throw new NullPointerException();
+        if (storeScheduleService == null) throw new NullPointerException();
 
         this.storeService = storeService;
         this.menuItemService = menuItemService;
+        this.storeScheduleService = storeScheduleService;
     }
 
     // ✅ ΠΡΟΣΘΗΚΗ - Default mapping για /stores
-    @GetMapping
-    public String stores(
-            @RequestParam(required = false) String area,
-            @RequestParam(required = false) String cuisine,
-            @RequestParam(required = false) String search,
-            final Model model) {
-        return listStores(area, cuisine, search, model);
-    }
-
-    @GetMapping("/list")
+    @GetMapping({"", "/list"})
     public String listStores(
-            @RequestParam(required = false) String area,
-            @RequestParam(required = false) String cuisine,
+            @RequestParam(required = false) List<String> area,
+            @RequestParam(required = false) List<String> cuisine,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean delivery,
+            @RequestParam(required = false) Boolean pickup,
+            @RequestParam(required = false) String open,
+            @RequestParam(required = false) BigDecimal maxMinOrder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size,
             final Model model) {
 
-        List<StoreView> stores;
-
-        if (search != null && !search.isBlank()) {
-            stores = this.storeService.searchStores(search);
-            model.addAttribute("searchQuery", search);
-        } else if (cuisine != null && !cuisine.isBlank()) {
-            try {
-                CuisineType cuisineType = CuisineType.valueOf(cuisine);
-                stores = this.storeService.getStoresByCuisine(cuisineType);
-                model.addAttribute("selectedCuisine", cuisine);
-            } catch (IllegalArgumentException e) {
-                stores = this.storeService.getOpenStores();
+        final Set<CuisineType> cuisines = new LinkedHashSet<>();
+        if (cuisine != null) {
+            for (final String value : cuisine) {
+                try {
+                    if (value != null && !value.isBlank()) cuisines.add(CuisineType.valueOf(value));
+                } catch (IllegalArgumentException ignored) {
+                    // Unknown cuisine from a hand-edited URL
+                }
             }
-        } else if (area != null && !area.isBlank()) {
-            stores = this.storeService.getStoresByArea(area);
-            model.addAttribute("selectedArea", area);
-        } else {
-            stores = this.storeService.getOpenStores();
+        }
+        final Set<String> areas = area == null ? Set.of() : area.stream()
+                .filter(a -> a != null && !a.isBlank())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // "true" / "false" / "all"; by default only open stores are listed unless searching or browsing an area
+        final boolean openByDefault = (search == null || search.isBlank()) && areas.isEmpty();
+        final Boolean openFilter = open == null || open.isBlank()
+                ? (openByDefault ? Boolean.TRUE : null)
+                : ("all".equalsIgnoreCase(open) ? null : Boolean.valueOf(open));
+
+        final StoreListQuery.Builder query = StoreListQuery.builder()
+                .search(search)
+                .cuisines(cuisines)
+                .areas(areas)
+                .delivery(delivery)
+                .pickup(pickup)
+                .open(openFilter)
+                .maxMinimumOrder(maxMinOrder)
+                .sort(sort)
+                .page(page)
+                .size(size);
+        StorePage storePage;
+        try {
+            storePage = this.storeService.listStores(query.build());
+        } catch (IllegalArgumentException e) {
+            // Unknown sort key from a hand-edited URL: fall back to the default order
+            sort = null;
+            storePage = this.storeService.listStores(query.sort(null).build());
         }
 
-        model.addAttribute("stores", stores);
+        if (search != null && !search.isBlank()) model.addAttribute("searchQuery", search);
+        if (cuisines.size() == 1) model.addAttribute("selectedCuisine", cuisines.iterator().next().name());
+        if (areas.size() == 1) model.addAttribute("selectedArea", areas.iterator().next());
+        model.addAttribute("selectedCuisines", cuisines.stream().map(Enum::name).toList());
+        model.addAttribute("selectedAreas", areas);
+        model.addAttribute("selectedDelivery", delivery);
+        model.addAttribute("selectedPickup", pickup);
+        model.addAttribute("selectedOpen", openFilter == null ? "all" : openFilter.toString());
+        model.addAttribute("selectedMaxMinOrder", maxMinOrder);
+        model.addAttribute("selectedSort", sort);
+        model.addAttribute("stores", storePage.items());
+        // The cards' OPEN badge: manual flag and schedule, not the manual flag alone
+        model.addAttribute("openStoreIds", this.storeScheduleService.getOpenStoreIds(
+                storePage.items().stream().map(StoreView::id).toList(), LocalDateTime.now()));
+        model.addAttribute("storePage", storePage);
+        model.addAttribute("facets", storePage.facets());
         model.addAttribute("cuisineTypes", CuisineType.values());
 
         return "stores/list";
     }
 
     @GetMapping("/{id}")
-    public String viewStore(@PathVariable Long id, final Model model) {
+    public String viewStore(@PathVariable Long id, final Model model, final WebRequest webRequest) {
         final StoreView store = this.storeService.getStore(id)
                 .orElseThrow(() -> new IllegalArgumentException("Store not found"));
 
+        final StoreStatusView status = this.storeScheduleService.getStoreStatus(id);
+        final String etag = ConditionalGet.pageTag(
+                ConditionalGet.storeTag(store, this.menuItemService.getMenuVersion(id), status),
+                webRequest.getSessionId());
+        if (ConditionalGet.notModified(webRequest, etag, true)) return null;
+
         final List<MenuItemView> menuItems = this.menuItemService.getAvailableStoreMenu(id);
 
         // Extract unique categories from menu items (convert enum to string)
@@ -94,6 +147,7 @@ public class StoreController {
                 .collect(Collectors.toList());
 
         model.addAttribute("store", store);
+        model.addAttribute("storeStatus", status);
         model.addAttribute("menuItems", menuItems);
         model.addAttribute("categories", categories);
 
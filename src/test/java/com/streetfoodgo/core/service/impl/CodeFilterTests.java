@@ -0,0 +1,71 @@
+package com.streetfoodgo.core.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodeFilterTests {
+
+	@Test
+	void containsEveryCodeItWasBuiltFrom() {
+		final List<String> codes = randomCodes(new Random(42), 20_000);
+		final CodeFilter filter = CodeFilter.of(codes, 0.01);
+
+		for (final String code : codes) {
+			assertTrue(filter.mightContain(code), code);
+		}
+	}
+
+	@Test
+	void containsEveryCodeAtAHighFalsePositiveRateToo() {
+		final List<String> codes = randomCodes(new Random(7), 5_000);
+		codes.addAll(List.of("WELCOME10", "FLASH3", "Ω-UNICODE", ""));
+		final CodeFilter filter = CodeFilter.of(codes, 0.5);
+
+		for (final String code : codes) {
+			assertTrue(filter.mightContain(code), code);
+		}
+	}
+
+	@Test
+	void rejectsUnknownCodesAboutAsOftenAsItWasSizedFor() {
+		final CodeFilter filter = CodeFilter.of(randomCodes(new Random(1), 10_000), 0.01);
+
+		int falsePositives = 0;
+		final int probes = 100_000;
+		final Random random = new Random(2);
+		for (int i = 0; i < probes; i++) {
+			// Lower case cannot collide with the upper-case codes in the filter
+			if (filter.mightContain("probe-" + Long.toHexString(random.nextLong()))) falsePositives++;
+		}
+		assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		final CodeFilter filter = CodeFilter.of(List.of(), 0.01);
+
+		assertFalse(filter.mightContain("WELCOME10"));
+	}
+
+	@Test
+	void refusesAnUnusableFalsePositiveRate() {
+		assertThrows(IllegalArgumentException.class, () -> CodeFilter.of(List.of("A"), 0));
+		assertThrows(IllegalArgumentException.class, () -> CodeFilter.of(List.of("A"), 1));
+	}
+
+	private static List<String> randomCodes(final Random random, final int count) {
+		final List<String> codes = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			codes.add(Long.toString(random.nextLong() & Long.MAX_VALUE, 36).toUpperCase(Locale.ROOT));
+		}
+		return codes;
+	}
+}
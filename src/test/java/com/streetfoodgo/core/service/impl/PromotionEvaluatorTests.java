@@ -0,0 +1,128 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.model.PromotionType;
+import com.streetfoodgo.core.service.model.PromotionLine;
+import com.streetfoodgo.core.service.model.PromotionResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromotionEvaluatorTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+	@Test
+	void buyTwoGetOneFreesTheCheapestUnitOfEachGroupOfThree() {
+		final PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(buyXGetY(1L, 2, 1, null)));
+
+		// Ranked units: 10, 10, 6 | 4, 4 -> the 6 is free; the trailing pair is not a full group
+		final PromotionResult result = evaluator.evaluate(List.of(
+				line(1L, "10.00", 2),
+				line(2L, "4.00", 2),
+				line(3L, "6.00", 1)), null, false);
+
+		assertMoney("6.00", result.discount());
+		assertMoney("0.00", result.lineDiscounts().get(0));
+		assertMoney("0.00", result.lineDiscounts().get(1));
+		assertMoney("6.00", result.lineDiscounts().get(2));
+		assertEquals(1, result.applied().size());
+	}
+
+	@Test
+	void buyTwoGetOneCountsEveryFullGroupOnOneLine() {
+		final PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(buyXGetY(1L, 2, 1, null)));
+
+		final PromotionResult result = evaluator.evaluate(List.of(line(1L, "5.00", 7)), null, false);
+
+		assertMoney("10.00", result.discount());
+	}
+
+	@Test
+	void cappedFreeUnitsAreSpreadOverTheLinesTheyCameFrom() {
+		final PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(buyXGetY(1L, 1, 1, "5.00")));
+
+		// Ranked units: 8 | 8 and 4 | 4 -> 8 + 4 free, capped to 5 and split 8:4
+		final PromotionResult result = evaluator.evaluate(List.of(
+				line(1L, "8.00", 2),
+				line(2L, "4.00", 2)), null, false);
+
+		assertMoney("5.00", result.discount());
+		assertMoney("3.34", result.lineDiscounts().get(0));
+		assertMoney("1.66", result.lineDiscounts().get(1));
+	}
+
+	@Test
+	void orderDiscountIsAllocatedProRataWithTheRoundingRestOnTheHeaviestLine() {
+		final PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(percentage(2L, "10")));
+
+		final PromotionResult result = evaluator.evaluate(List.of(
+				line(1L, "3.33", 1),
+				line(2L, "3.33", 1),
+				line(3L, "3.34", 1)), null, false);
+
+		assertMoney("1.00", result.discount());
+		assertMoney("0.33", result.lineDiscounts().get(0));
+		assertMoney("0.33", result.lineDiscounts().get(1));
+		assertMoney("0.34", result.lineDiscounts().get(2));
+	}
+
+	@Test
+	void orderDiscountStacksOnWhatTheItemPromotionLeft() {
+		final PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(
+				buyXGetY(1L, 2, 1, null),
+				percentage(2L, "10")));
+
+		// Ranked units: 10, 10, 10 | 5 -> one 10 free, then 10% of the remaining 20 + 5, split 20:5
+		final PromotionResult result = evaluator.evaluate(List.of(
+				line(1L, "10.00", 3),
+				line(2L, "5.00", 1)), null, false);
+
+		assertMoney("12.50", result.discount());
+		assertMoney("12.00", result.lineDiscounts().get(0));
+		assertMoney("0.50", result.lineDiscounts().get(1));
+		assertEquals(2, result.applied().size());
+	}
+
+	@Test
+	void lineDiscountsAlwaysAddUpToTheDiscount() {
+		final PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(
+				buyXGetY(1L, 2, 1, null),
+				percentage(2L, "15")));
+
+		final PromotionResult result = evaluator.evaluate(List.of(
+				line(1L, "7.35", 4),
+				line(2L, "2.90", 5),
+				line(3L, "11.10", 1)), null, false);
+
+		final BigDecimal sum = result.lineDiscounts().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+		assertMoney(result.discount().toPlainString(), sum);
+		assertTrue(result.discount().signum() > 0);
+	}
+
+	private static PromotionLine line(final Long menuItemId, final String unitPrice, final int quantity) {
+		return new PromotionLine(menuItemId, new BigDecimal(unitPrice), quantity);
+	}
+
+	private static PromotionEvaluator.Terms buyXGetY(final Long id, final int required, final int free,
+			final String maxDiscount) {
+		return new PromotionEvaluator.Terms(id, "Buy " + required + " get " + free, null,
+				PromotionType.BUY_X_GET_Y_FREE, BigDecimal.ZERO, required, free, null,
+				maxDiscount == null ? null : new BigDecimal(maxDiscount),
+				NOW.minusDays(1), NOW.plusDays(1), 0, null);
+	}
+
+	private static PromotionEvaluator.Terms percentage(final Long id, final String percent) {
+		return new PromotionEvaluator.Terms(id, percent + "% off", null,
+				PromotionType.PERCENTAGE_DISCOUNT, new BigDecimal(percent), 0, 0, null, null,
+				NOW.minusDays(1), NOW.plusDays(1), 0, null);
+	}
+
+	private static void assertMoney(final String expected, final BigDecimal actual) {
+		assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+	}
+}
@@ -0,0 +1,88 @@
+package com.streetfoodgo.core.service.impl;
+
+import com.streetfoodgo.core.service.model.StoreView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StoreOrderTests {
+
+	@Test
+	void cursorDecodesToTheSortKeyItWasEncodedFrom() {
+		final StoreOrder order = StoreOrder.parse("open,rating,eta,-fee");
+		final StoreView store = store(7L, "Gyro | Souvlaki & Co", true, 25, "2.50", 4.6, "2026-03-01T10:15:30Z");
+
+		assertArrayEquals(order.keyOf(store), order.decodeCursor(order.encodeCursor(store)));
+	}
+
+	@Test
+	void cursorKeepsNullsAndSeparatorsInValues() {
+		final StoreOrder order = StoreOrder.parse("name,rating,newest");
+		final StoreView store = store(3L, "50% off | !weird, name", false, null, "0", null, "2025-12-31T23:59:59.123Z");
+
+		final Object[] key = order.decodeCursor(order.encodeCursor(store));
+
+		assertArrayEquals(order.keyOf(store), key);
+		assertEquals(null, key[1]);
+	}
+
+	@Test
+	void cursorResumesRightAfterTheLastStoreOfThePage() {
+		final StoreOrder order = StoreOrder.parse("open,eta");
+		final List<StoreView> sorted = new ArrayList<>(List.of(
+				store(1L, "A", true, 20, "1.00", 4.0, "2026-01-01T00:00:00Z"),
+				store(2L, "B", true, 20, "1.00", 4.0, "2026-01-01T00:00:00Z"),
+				store(3L, "C", true, 30, "1.00", 4.0, "2026-01-01T00:00:00Z"),
+				store(4L, "D", false, 10, "1.00", 4.0, "2026-01-01T00:00:00Z"),
+				store(5L, "E", false, null, "1.00", 4.0, "2026-01-01T00:00:00Z")));
+		sorted.sort(order);
+
+		// Page 1 ends on B (tied with A on every key but the id)
+		final String cursor = order.encodeCursor(sorted.get(1));
+		assertEquals(2, order.indexAfter(sorted, order.decodeCursor(cursor)));
+
+		// B is removed before the next page is requested: the page still starts at C
+		final List<StoreView> changed = new ArrayList<>(sorted);
+		changed.remove(1);
+		assertEquals(3L, changed.get(order.indexAfter(changed, order.decodeCursor(cursor))).id());
+	}
+
+	@Test
+	void cursorIssuedForAnotherSortIsRefused() {
+		final StoreView store = store(1L, "A", true, 20, "1.00", 4.0, "2026-01-01T00:00:00Z");
+		final String cursor = StoreOrder.parse("open,eta").encodeCursor(store);
+
+		assertThrows(IllegalArgumentException.class, () -> StoreOrder.parse("open,-eta").decodeCursor(cursor));
+	}
+
+	@Test
+	void malformedCursorsAreRefused() {
+		final StoreOrder order = StoreOrder.parse("open,eta");
+
+		assertThrows(IllegalArgumentException.class, () -> order.decodeCursor("not base64 at all!"));
+		assertThrows(IllegalArgumentException.class, () -> order.decodeCursor(encode("c1|open,eta|true|20")));
+		assertThrows(IllegalArgumentException.class, () -> order.decodeCursor(encode("c0|open,eta|true|20|1")));
+		assertThrows(IllegalArgumentException.class, () -> order.decodeCursor(encode("c1|open,eta|true|soon|1")));
+		assertThrows(IllegalArgumentException.class, () -> order.decodeCursor(encode("c1|open,eta|true|20|x")));
+	}
+
+	private static String encode(final String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static StoreView store(final Long id, final String name, final boolean open, final Integer eta,
+			final String fee, final Double rating, final String createdAt) {
+		return new StoreView(id, null, name, null, null, null, null, null, null, null, null, open,
+				BigDecimal.TEN, true, true, new BigDecimal(fee), eta, null, rating, rating == null ? 0 : 12,
+				false, BigDecimal.valueOf(25), Instant.parse(createdAt));
+	}
+}
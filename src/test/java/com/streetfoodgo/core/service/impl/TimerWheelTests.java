@@ -0,0 +1,122 @@
+package com.streetfoodgo.core.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTests {
+
+	// Not aligned to a 64-minute window, so level 0 deadlines and cascades cross window boundaries
+	private static final long START = 29_000_037L;
+
+	@Test
+	void firesAKeyAtItsTickWithinTheCurrentWindow() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("a", START + 5);
+
+		assertTrue(wheel.advance(START + 4).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(START + 5));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cascadesLaterWindowsDownToTheExactTick() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("hour", START + 60);
+		wheel.schedule("day", START + 1_440);
+		wheel.schedule("week", START + 10_080);
+
+		assertTrue(wheel.advance(START + 59).isEmpty());
+		assertEquals(List.of("hour"), wheel.advance(START + 60));
+		assertTrue(wheel.advance(START + 1_439).isEmpty());
+		assertEquals(List.of("day"), wheel.advance(START + 1_440));
+		assertTrue(wheel.advance(START + 10_079).isEmpty());
+		assertEquals(List.of("week"), wheel.advance(START + 10_080));
+	}
+
+	@Test
+	void returnsKeysInDeadlineOrderWhenAdvancingPastSeveral() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("c", START + 700);
+		wheel.schedule("a", START + 3);
+		wheel.schedule("b", START + 90);
+
+		assertEquals(List.of("a", "b", "c"), wheel.advance(START + 1_000));
+	}
+
+	@Test
+	void reschedulingLaterFiresOnlyAtTheNewTick() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("a", START + 10);
+		wheel.schedule("a", START + 500);
+
+		assertTrue(wheel.advance(START + 499).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(START + 500));
+	}
+
+	@Test
+	void reschedulingEarlierFiresOnlyOnce() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("a", START + 500);
+		wheel.schedule("a", START + 20);
+
+		assertEquals(List.of("a"), wheel.advance(START + 20));
+		assertTrue(wheel.advance(START + 1_000).isEmpty());
+	}
+
+	@Test
+	void aKeyCanBeScheduledAgainAfterItFired() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("a", START + 100);
+		assertEquals(List.of("a"), wheel.advance(START + 100));
+
+		// A week later, the next opening of the same store
+		wheel.schedule("a", START + 100 + 10_080);
+		assertTrue(wheel.advance(START + 100 + 10_079).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(START + 100 + 10_080));
+	}
+
+	@Test
+	void cancelledKeysDoNotFire() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("a", START + 5);
+		wheel.schedule("b", START + 300);
+		wheel.cancel("a");
+		wheel.cancel("b");
+
+		assertTrue(wheel.advance(START + 1_000).isEmpty());
+	}
+
+	@Test
+	void pastTicksFireOnTheNextAdvance() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("a", START - 30);
+
+		assertEquals(List.of("a"), wheel.advance(START + 1));
+	}
+
+	@Test
+	void deadlinesBeyondTheHorizonFireEarlyAtTheHorizon() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		final long horizon = 64L * 256 - 1;
+		wheel.schedule("a", START + 100_000);
+
+		assertTrue(wheel.advance(START + horizon - 1).isEmpty());
+		assertEquals(List.of("a"), wheel.advance(START + horizon));
+	}
+
+	@Test
+	void longPausesFireEverythingPending() {
+		final TimerWheel<String> wheel = new TimerWheel<>(START);
+		wheel.schedule("a", START + 5);
+		wheel.schedule("b", START + 9_000);
+
+		final List<String> due = wheel.advance(START + 100_000);
+		assertEquals(2, due.size());
+		assertTrue(due.containsAll(List.of("a", "b")));
+		assertEquals(0, wheel.size());
+	}
+}